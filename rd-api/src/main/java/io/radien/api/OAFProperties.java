@@ -95,6 +95,8 @@ public enum OAFProperties implements SystemProperties{
 
     SYSTEM_CMS_REPO_CONF_DIR("org.apache.jackrabbit.repository.conf"),
     SYSTEM_CMS_REPO_HOME_DIR("system.jcr.home"),
+    SYSTEM_CMS_REPO_ADMIN_USER("system.jcr.admin.user"),
+    SYSTEM_CMS_REPO_ADMIN_PASSWORD("system.jcr.admin.password"),
     CMS_MS_URL("cms.ms.url"),
 
     SCHEDULER_MS_URL("scheduler.ms.url"),
@@ -44,7 +44,10 @@ public enum SystemVariables {
     USER_ID("userId", "User ID"),
     TENANT_ROLE_ID("tenantRoleId", "Tenant Role ID"),
     PERMISSION_ID("permissionId", "Permission ID"),
-    ROLE_TENANT_ID("roleTenantId", "Role Tenant ID");
+    ROLE_TENANT_ID("roleTenantId", "Role Tenant ID"),
+    ROLE_IDS("roleIds", "Role IDs"),
+    ROLE_NAMES("roleNames", "Role Names"),
+    PERMISSION_IDS("permissionIds", "Permission IDs");
 
     private final String fieldName;
     private final String label;
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.api.entity;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Snapshot of the effective authorization of a User (Optionally under a specific Tenant),
+ * meaning all the roles and permissions granted through Tenant Role associations.
+ * Identifiers and names are kept as sorted arrays, so any number of checks can be answered
+ * locally (binary search) without going back to the role management service.
+ *
+ * @author Newton Carvalho
+ */
+public class EffectiveAuthorization implements Serializable {
+
+    private static final long serialVersionUID = 2379188212613906352L;
+
+    private static final long[] NO_IDS = new long[0];
+    private static final String[] NO_NAMES = new String[0];
+
+    private Long userId;
+    private Long tenantId;
+    private long[] roleIds;
+    private String[] roleNames;
+    private long[] permissionIds;
+
+    /**
+     * Empty effective authorization constructor (nothing granted)
+     */
+    public EffectiveAuthorization() {
+        this(null, null, NO_IDS, NO_NAMES, NO_IDS);
+    }
+
+    /**
+     * Effective authorization constructor
+     * @param userId User identifier
+     * @param tenantId Tenant identifier (Optional, if null the snapshot covers all the tenants)
+     * @param roleIds granted role identifiers
+     * @param roleNames granted role names
+     * @param permissionIds granted permission identifiers
+     */
+    public EffectiveAuthorization(Long userId, Long tenantId, long[] roleIds,
+                                  String[] roleNames, long[] permissionIds) {
+        this.userId = userId;
+        this.tenantId = tenantId;
+        setRoleIds(roleIds);
+        setRoleNames(roleNames);
+        setPermissionIds(permissionIds);
+    }
+
+    /**
+     * Check if a role (by name) is granted
+     * @param roleName role name
+     * @return true if granted, otherwise false
+     */
+    public boolean hasRole(String roleName) {
+        return roleName != null && Arrays.binarySearch(roleNames, roleName) >= 0;
+    }
+
+    /**
+     * Check if some of the informed roles (by name) is granted
+     * @param names role names
+     * @return true if at least one of the roles is granted, otherwise false
+     */
+    public boolean hasAnyRole(Collection<String> names) {
+        return names != null && names.stream().anyMatch(this::hasRole);
+    }
+
+    /**
+     * Check if a role (by identifier) is granted
+     * @param roleId role identifier
+     * @return true if granted, otherwise false
+     */
+    public boolean hasRoleId(Long roleId) {
+        return roleId != null && Arrays.binarySearch(roleIds, roleId) >= 0;
+    }
+
+    /**
+     * Check if a permission is granted
+     * @param permissionId permission identifier
+     * @return true if granted, otherwise false
+     */
+    public boolean hasPermission(Long permissionId) {
+        return permissionId != null && Arrays.binarySearch(permissionIds, permissionId) >= 0;
+    }
+
+    /**
+     * Effective authorization user identifier getter
+     * @return the user identifier
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Effective authorization user identifier setter
+     * @param userId to be set
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Effective authorization tenant identifier getter
+     * @return the tenant identifier (null if the snapshot covers all the tenants)
+     */
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * Effective authorization tenant identifier setter
+     * @param tenantId to be set
+     */
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    /**
+     * Effective authorization role identifiers getter
+     * @return sorted copy of the granted role identifiers
+     */
+    public long[] getRoleIds() {
+        return roleIds.clone();
+    }
+
+    /**
+     * Effective authorization role identifiers setter (values will be sorted)
+     * @param roleIds to be set
+     */
+    public void setRoleIds(long[] roleIds) {
+        this.roleIds = sorted(roleIds);
+    }
+
+    /**
+     * Effective authorization role names getter
+     * @return sorted copy of the granted role names
+     */
+    public String[] getRoleNames() {
+        return roleNames.clone();
+    }
+
+    /**
+     * Effective authorization role names setter (values will be sorted)
+     * @param roleNames to be set
+     */
+    public void setRoleNames(String[] roleNames) {
+        this.roleNames = roleNames == null ? NO_NAMES : Arrays.stream(roleNames).sorted().toArray(String[]::new);
+    }
+
+    /**
+     * Effective authorization permission identifiers getter
+     * @return sorted copy of the granted permission identifiers
+     */
+    public long[] getPermissionIds() {
+        return permissionIds.clone();
+    }
+
+    /**
+     * Effective authorization permission identifiers setter (values will be sorted)
+     * @param permissionIds to be set
+     */
+    public void setPermissionIds(long[] permissionIds) {
+        this.permissionIds = sorted(permissionIds);
+    }
+
+    /**
+     * Creates a sorted copy of an identifiers array
+     * @param ids identifiers
+     * @return sorted copy (empty array if nothing was informed)
+     */
+    private static long[] sorted(long[] ids) {
+        if (ids == null) {
+            return NO_IDS;
+        }
+        long[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
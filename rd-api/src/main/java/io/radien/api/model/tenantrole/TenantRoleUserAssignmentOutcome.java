@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.api.model.tenantrole;
+
+/**
+ * Outcome of the assignment of a user to a role (under a tenant) performed
+ * as part of a bulk Tenant Role User assignment
+ *
+ * @author Newton Carvalho
+ */
+public enum TenantRoleUserAssignmentOutcome {
+
+    /** User assigned to the role (the Tenant Role association was created when missing) */
+    ASSIGNED,
+    /** User was already assigned to the role, nothing was done */
+    ALREADY_ASSIGNED,
+    /** Role does not exist, nothing was done */
+    ROLE_NOT_FOUND
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.radien.api.security;
+
+import io.radien.api.Event;
+
+/**
+ * Event fired whenever an association that takes part on authorization decisions
+ * (Tenant Role User, Tenant Role Permission) is created or removed.
+ * Both identifiers are optional. A missing user means that every user may be affected,
+ * a missing tenant means that every tenant may be affected.
+ *
+ * @author Newton Carvalho
+ */
+public class AuthorizationChangeEvent implements Event {
+
+    private static final long serialVersionUID = 4513016329872412871L;
+
+    private final Long tenantId;
+
+    private final Long userId;
+
+    /**
+     * Authorization change event constructor
+     * @param tenantId affected tenant identifier (Optional)
+     * @param userId affected user identifier (Optional)
+     */
+    public AuthorizationChangeEvent(Long tenantId, Long userId) {
+        this.tenantId = tenantId;
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the affected tenant identifier
+     * @return the tenant identifier, or null if every tenant may be affected
+     */
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * Gets the affected user identifier
+     * @return the user identifier, or null if every user may be affected
+     */
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.api.security;
+
+import io.radien.api.util.BoundedCache;
+import io.radien.api.util.CacheStatistics;
+import io.radien.api.util.NearCache;
+import org.eclipse.microprofile.config.Config;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Near cache for the (effectively immutable) relation between the user subject (sub)
+ * and the user identifier. Bounded (least recently used entries are removed first) and time based,
+ * so a mapping removed on another node does not live forever.
+ * Used by user management to answer the sub lookups, and by every service that authenticates
+ * stateless requests, so the user identifier is not requested again for each request of the same subject.
+ * Configured by the {@code user.identity.cache.*} properties (see {@link NearCache}).
+ *
+ * @author Nuno Santana
+ */
+@ApplicationScoped
+public class UserIdentityCache extends NearCache {
+
+    private static final String PREFIX = "user.identity.cache";
+
+    private static final long DEFAULT_TTL_IN_SECONDS = 600;
+    private static final int DEFAULT_MAX_SIZE = 50000;
+
+    private final BoundedCache<String, Long> identities;
+
+    /**
+     * Creates the cache keeping up to {@value #DEFAULT_MAX_SIZE} relations for {@value #DEFAULT_TTL_IN_SECONDS} seconds,
+     * unless configured otherwise
+     */
+    public UserIdentityCache() {
+        this(TimeUnit.SECONDS.toMillis(DEFAULT_TTL_IN_SECONDS), DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor that allows to define the cache settings directly
+     * @param ttlInMillis time (in milliseconds) that a relation remains valid
+     * @param maxSize maximum number of relations kept
+     */
+    public UserIdentityCache(long ttlInMillis, int maxSize) {
+        super(PREFIX, PREFIX);
+        this.identities = new BoundedCache<>(ttlInMillis, maxSize);
+    }
+
+    @Override
+    protected void configure(Config config) {
+        configure(config, identities);
+    }
+
+    @Override
+    protected CacheStatistics getStatistics() {
+        return identities;
+    }
+
+    /**
+     * Retrieves the user identifier previously stored for a subject
+     * @param sub user subject
+     * @return the user identifier or null if not found (or expired)
+     */
+    public Long get(String sub) {
+        return sub != null ? identities.get(sub) : null;
+    }
+
+    /**
+     * Stores the relation between subject and user identifier
+     * @param sub user subject
+     * @param id user identifier
+     */
+    public void put(String sub, Long id) {
+        if (sub != null) {
+            identities.put(sub, id);
+        }
+    }
+
+    /**
+     * Removes every relation that involves the informed user identifier
+     * @param id user identifier
+     */
+    public void invalidate(Long id) {
+        identities.invalidateIf((sub, identifier) -> identifier.equals(id));
+    }
+}
@@ -20,9 +20,11 @@ import java.util.Map;
 
 import com.fasterxml.jackson.core.TreeNode;
 
+import io.radien.api.entity.Page;
 import io.radien.api.service.ServiceAccess;
 import io.radien.api.service.ecm.exception.ContentRepositoryNotAvailableException;
 import io.radien.api.service.ecm.exception.ElementNotFoundException;
+import io.radien.api.service.ecm.model.ContentTreeNode;
 import io.radien.api.service.ecm.model.ContentType;
 import io.radien.api.service.ecm.model.EnterpriseContent;
 import io.radien.api.service.mail.model.MailType;
@@ -100,9 +102,24 @@ public interface ContentServiceAccess extends ServiceAccess {
 	/**
 	 * Enterprise Content document tree model getter
 	 * @return the enterprise content document tree model
+	 * @deprecated loads the whole documents subtree, use {@link #getDocumentTreeLevel(String, int, int)}
+	 * to load one level at a time
 	 */
+	@Deprecated
 	TreeNode getDocumentTreeModel();
 
+	/**
+	 * Gets one page of the children of a document tree node (a single level, binaries not loaded)
+	 * @param jcrPath jcr path of the parent node, if null the documents root is used
+	 * @param pageNumber requested page (starting at 1)
+	 * @param pageSize number of children per page
+	 * @return the requested page of children, with a child count hint for each one of them
+	 * @throws ElementNotFoundException if the parent does not exist (or is not part of the document tree)
+	 * @throws ContentRepositoryNotAvailableException in case of repository failure
+	 */
+	Page<ContentTreeNode> getDocumentTreeLevel(String jcrPath, int pageNumber, int pageSize)
+			throws ElementNotFoundException, ContentRepositoryNotAvailableException;
+
 	/**
 	 * Gets a list of all the children files existent for a given view id
 	 * @param viewId to be searched
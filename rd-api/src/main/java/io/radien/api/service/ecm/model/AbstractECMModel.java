@@ -17,12 +17,16 @@
  */
 package io.radien.api.service.ecm.model;
 
+import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.radien.api.model.AbstractModel;
 
+import javax.json.bind.annotation.JsonbTransient;
+
 /**
  * Abstract class for the Enterprise Content Manager
  *
@@ -44,6 +48,7 @@ public abstract class AbstractECMModel extends AbstractModel {
 
 	protected transient byte[] image;
 	protected transient byte[] fileStream;
+	protected transient InputStream fileInputStream;
 	protected String mimeType;
 	protected long fileSize;
 	private List<String> tags;
@@ -292,6 +297,24 @@ public abstract class AbstractECMModel extends AbstractModel {
 		this.fileStream = fileStream;
 	}
 
+	/**
+	 * ECM file input stream getter
+	 * @return ecm file input stream
+	 */
+	@JsonIgnore
+	@JsonbTransient
+	public InputStream getFileInputStream() {
+		return fileInputStream;
+	}
+
+	/**
+	 * ECM file input stream setter
+	 * @param fileInputStream to be set
+	 */
+	public void setFileInputStream(InputStream fileInputStream) {
+		this.fileInputStream = fileInputStream;
+	}
+
 	/**
 	 * ECM mime type getter
 	 * @return ecm mime type
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.api.service.ecm.model;
+
+import java.io.Serializable;
+
+/**
+ * Node of one level of the document tree. Carries the content (without binaries) and a hint
+ * about its children, so a tree can show the expand toggle and load the children only on demand.
+ * The child count is exact up to a limit, above it {@link #isChildCountExact()} is false
+ * and the count is only a lower bound.
+ *
+ * @author Marco Weiland
+ */
+public class ContentTreeNode implements Serializable {
+
+    private static final long serialVersionUID = -4137805126873902516L;
+
+    private EnterpriseContent content;
+    private long childCount;
+    private boolean childCountExact;
+    private long lastModified;
+
+    /**
+     * Empty content tree node constructor
+     */
+    public ContentTreeNode() {
+    }
+
+    /**
+     * Content tree node constructor
+     * @param content node content
+     * @param childCount number of children (lower bound if not exact)
+     * @param childCountExact false if the children were only counted up to a limit
+     * @param lastModified last modification time of the node (in milliseconds)
+     */
+    public ContentTreeNode(EnterpriseContent content, long childCount, boolean childCountExact, long lastModified) {
+        this.content = content;
+        this.childCount = childCount;
+        this.childCountExact = childCountExact;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Content tree node content getter
+     * @return the node content
+     */
+    public EnterpriseContent getContent() {
+        return content;
+    }
+
+    /**
+     * Content tree node content setter
+     * @param content to be set
+     */
+    public void setContent(EnterpriseContent content) {
+        this.content = content;
+    }
+
+    /**
+     * Content tree node child count getter
+     * @return the number of children (lower bound if not exact)
+     */
+    public long getChildCount() {
+        return childCount;
+    }
+
+    /**
+     * Content tree node child count setter
+     * @param childCount to be set
+     */
+    public void setChildCount(long childCount) {
+        this.childCount = childCount;
+    }
+
+    /**
+     * Check if the child count is exact
+     * @return false if the children were only counted up to a limit
+     */
+    public boolean isChildCountExact() {
+        return childCountExact;
+    }
+
+    /**
+     * Content tree node child count exact flag setter
+     * @param childCountExact to be set
+     */
+    public void setChildCountExact(boolean childCountExact) {
+        this.childCountExact = childCountExact;
+    }
+
+    /**
+     * Content tree node last modification getter
+     * @return the last modification time of the node (in milliseconds)
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Content tree node last modification setter
+     * @param lastModified to be set
+     */
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Check if the node has children
+     * @return true if the node has at least one child
+     */
+    public boolean hasChildren() {
+        return childCount > 0;
+    }
+}
@@ -17,6 +17,7 @@
  */
 package io.radien.api.service.ecm.model;
 
+import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
 
@@ -201,6 +202,18 @@ public interface EnterpriseContent extends Model, Comparable<EnterpriseContent>
      */
     void setFile(byte[] file);
 
+    /**
+     * ECM file input stream getter, used to stream the file content instead of holding it in memory
+     * @return the ecm file input stream
+     */
+    InputStream getFileInputStream();
+
+    /**
+     * ECM file input stream setter
+     * @param fileInputStream to be set
+     */
+    void setFileInputStream(InputStream fileInputStream);
+
     /**
      * ECM file size getter
      * @return the ecm file size
@@ -122,4 +122,11 @@ public interface PermissionRESTServiceAccess extends Appframeable {
      * @throws SystemException in case of any communication error
      */
     public Long getTotalRecordsCount() throws SystemException;
+
+    /**
+     * Gets the permission version stamp, that changes whenever any permission is created, updated or deleted
+     * @return the current version stamp
+     * @throws SystemException in case of any communication error
+     */
+    public long getVersionStamp() throws SystemException;
 }
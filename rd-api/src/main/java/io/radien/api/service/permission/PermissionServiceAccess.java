@@ -107,4 +107,11 @@ public interface PermissionServiceAccess extends ServiceAccess {
      * @return the count of permissions
      */
     public long getTotalRecordsCount();
+
+    /**
+     * Gets the permission version stamp, a counter increased on every permission creation, update or deletion.
+     * Allows remote caches to cheaply check if the permissions they hold are still up to date
+     * @return the current version stamp
+     */
+    public long getVersionStamp();
 }
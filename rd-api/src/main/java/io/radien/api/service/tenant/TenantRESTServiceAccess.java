@@ -93,6 +93,14 @@ public interface TenantRESTServiceAccess {
      */
     public boolean deleteTenantHierarchy(long tenantId) throws SystemException;
 
+    /**
+     * Gets the ids of all the tenants below the given tenant (children, grandchildren and so on)
+     * @param tenantId id of the top tenant
+     * @return the ids of all descendant tenants
+     * @throws SystemException in case of token expiration or any issue on the application
+     */
+    public List<Long> getDescendants(long tenantId) throws SystemException;
+
     /**
      * updates given tenant
      * @param contract to be updated
@@ -109,4 +117,11 @@ public interface TenantRESTServiceAccess {
      */
     public boolean isTenantExistent(Long tenantId) throws  SystemException;
 
+    /**
+     * Gets the tenant version stamp, that changes whenever any tenant is created, updated or deleted
+     * @return the current version stamp
+     * @throws SystemException in case of token expiration or any issue on the application
+     */
+    public long getVersionStamp() throws SystemException;
+
 }
@@ -88,6 +88,13 @@ public interface TenantServiceAccess extends ServiceAccess {
      */
     public boolean deleteTenantHierarchy(Long tenantId);
 
+    /**
+     * Gets the ids of all the tenants below the requested one (children, grandchildren and so on)
+     * @param tenantId of the top tenant
+     * @return the ids of all descendant tenants, empty if there are none or the tenant does not exist
+     */
+    public List<Long> getDescendants(Long tenantId);
+
     /**
      * Deletes a collection of tenants
      * @param tenantIds to be deleted
@@ -101,4 +108,11 @@ public interface TenantServiceAccess extends ServiceAccess {
      */
     public boolean exists(Long tenantId) throws NotFoundException;
 
+    /**
+     * Gets the tenant version stamp, a counter increased on every tenant creation, update or deletion.
+     * Allows remote caches to cheaply check if the tenants they hold are still up to date
+     * @return the current version stamp
+     */
+    public long getVersionStamp();
+
 }
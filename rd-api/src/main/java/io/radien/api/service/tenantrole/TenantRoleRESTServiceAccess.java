@@ -15,6 +15,7 @@
  */
 package io.radien.api.service.tenantrole;
 
+import io.radien.api.entity.EffectiveAuthorization;
 import io.radien.api.entity.Page;
 import io.radien.api.model.permission.SystemPermission;
 import io.radien.api.model.role.SystemRole;
@@ -103,6 +104,15 @@ public interface TenantRoleRESTServiceAccess {
      */
     List<? extends SystemRole> getRolesForUserTenant(Long userId, Long tenantId) throws SystemException;
 
+    /**
+     * Retrieves, in one call, all the Roles and Permissions granted to a User (Optionally for a specific Tenant)
+     * @param userId User identifier
+     * @param tenantId Tenant identifier (Optional)
+     * @return effective authorization containing role ids, role names and permission ids
+     * @throws SystemException in case of any error
+     */
+    EffectiveAuthorization getEffectiveAuthorization(Long userId, Long tenantId) throws SystemException;
+
     /**
      * Retrieves TenantRole associations that met the following parameter
      * @param tenantId Tenant identifier
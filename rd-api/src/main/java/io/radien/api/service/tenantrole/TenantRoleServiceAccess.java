@@ -15,6 +15,7 @@
  */
 package io.radien.api.service.tenantrole;
 
+import io.radien.api.entity.EffectiveAuthorization;
 import io.radien.api.entity.Page;
 import io.radien.api.model.tenantrole.SystemTenantRole;
 import io.radien.api.model.tenantrole.SystemTenantRoleSearchFilter;
@@ -25,6 +26,7 @@ import io.radien.exception.UniquenessConstraintException;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -63,6 +65,13 @@ public interface TenantRoleServiceAccess extends ServiceAccess {
      */
     void save(SystemTenantRole tenantRole) throws UniquenessConstraintException;
 
+    /**
+     * Creates a set of tenant role associations at once. The caller is responsible for
+     * checking beforehand that none of them exists
+     * @param tenantRoles tenant role associations to be created
+     */
+    void saveAll(Collection<? extends SystemTenantRole> tenantRoles);
+
     /**
      * Check if a role is already assigned/associated with a tenant
      * @param roleId Role identifier
@@ -122,6 +131,14 @@ public interface TenantRoleServiceAccess extends ServiceAccess {
      */
     boolean hasPermission(Long userId, Long permissionId, Long tenantId);
 
+    /**
+     * Retrieves all the Roles and Permissions granted to a User (Optionally for a specific Tenant)
+     * @param userId User identifier
+     * @param tenantId Tenant identifier (Optional)
+     * @return effective authorization containing role ids, role names and permission ids
+     */
+    EffectiveAuthorization getEffectiveAuthorization(Long userId, Long tenantId);
+
     /**
      * Retrieves strictly the TenantRole id basing on tenant and role
      * @param tenant tenant identifier
@@ -138,4 +155,12 @@ public interface TenantRoleServiceAccess extends ServiceAccess {
      * @throws TenantRoleException in case of any inconsistency found
      */
     List<Long> getTenantRoleIds(Long tenantId, Collection<Long> roleIds) throws TenantRoleException;
+
+    /**
+     * Retrieves the existent TenantRole ids for a tenant and a set of roles
+     * @param tenantId Tenant id
+     * @param roleIds Collection Role ids
+     * @return map that relates each role id (that has an association with the tenant) to its TenantRole id
+     */
+    Map<Long, Long> getTenantRoleIdsByRole(Long tenantId, Collection<Long> roleIds);
 }
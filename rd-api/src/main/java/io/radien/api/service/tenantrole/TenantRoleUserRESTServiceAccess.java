@@ -17,8 +17,10 @@ package io.radien.api.service.tenantrole;
 
 import io.radien.api.entity.Page;
 import io.radien.api.model.tenantrole.SystemTenantRoleUser;
+import io.radien.api.model.tenantrole.TenantRoleUserAssignmentOutcome;
 import io.radien.exception.SystemException;
 import java.util.Collection;
+import java.util.Map;
 
 /**
  * Rest service client responsible to Deal with TenantRoleUser endpoint
@@ -61,6 +63,18 @@ public interface TenantRoleUserRESTServiceAccess {
      */
     Boolean assignUser(SystemTenantRoleUser tenantRoleUser) throws SystemException;
 
+    /**
+     * Assign/associate/add user to a set of roles under a Tenant (TenantRole domain) with a single request.
+     * Missing Tenant Role associations are created as well
+     * @param tenantId Tenant identifier (Mandatory)
+     * @param roleIds Roles identifiers
+     * @param userId User identifier (Mandatory)
+     * @return the outcome for each informed role
+     * @throws SystemException in case of any error
+     */
+    Map<Long, TenantRoleUserAssignmentOutcome> assignUser(Long tenantId, Collection<Long> roleIds, Long userId)
+            throws SystemException;
+
     /**
      * (Un)Assign/Dissociate/remove user from a TenantRole domain
      * @param tenantId Tenant identifier (Mandatory)
@@ -75,6 +75,13 @@ public interface TenantRoleUserServiceAccess extends ServiceAccess {
      */
     void create(SystemTenantRoleUser tenantRolePermission) throws UniquenessConstraintException;
 
+    /**
+     * Creates a set of tenant role user associations at once. The caller is responsible for
+     * checking beforehand that none of them exists
+     * @param tenantRoleUsers tenant role user associations to be created
+     */
+    void createAll(Collection<? extends SystemTenantRoleUser> tenantRoleUsers);
+
     /**
      * Deletes a requested tenant role user association
      * @param tenantRoleUserId tenant role user to be deleted
@@ -130,4 +137,12 @@ public interface TenantRoleUserServiceAccess extends ServiceAccess {
      * @throws TenantRoleUserException if any exception
      */
     Collection<Long> getTenantRoleUserIds(List<Long> tenantRoleIds, Long userId) throws TenantRoleUserException;
+
+    /**
+     * Retrieves, among the informed TenantRole ids, the ones that are already associated with the user
+     * @param tenantRoleIds TenantRole identifiers
+     * @param userId User identifier
+     * @return TenantRole ids already associated with the user
+     */
+    Collection<Long> getAssignedTenantRoleIds(Collection<Long> tenantRoleIds, Long userId);
 }
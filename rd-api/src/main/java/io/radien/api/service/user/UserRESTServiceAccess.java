@@ -79,6 +79,15 @@ public interface UserRESTServiceAccess extends Appframeable{
      */
     public boolean create(SystemUser user,boolean skipKeycloak) throws SystemException;
 
+    /**
+     * Retrieves the user with the same subject of the given one, creating it (only on radien side,
+     * the user already exists on the identity provider) when there is none yet. Done in a single request.
+     * @param user information to be used in case the user needs to be created
+     * @return the existent (or just created) system user
+     * @throws SystemException in case of token expiration or any issue on the application
+     */
+    public SystemUser getOrCreateBySub(SystemUser user) throws SystemException;
+
     /**
      * Returns all the existent System Users into a pagination format
      * @param search in case there should only be returned a specific type of users
@@ -17,6 +17,7 @@ package io.radien.api.service.user;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import io.radien.api.entity.Page;
 import io.radien.api.model.user.SystemUser;
@@ -74,6 +75,14 @@ public interface UserServiceAccess extends ServiceAccess {
      */
     public void save(SystemUser user) throws UserNotFoundException, UniquenessConstraintException;
 
+    /**
+     * Inserts a new user on its own transaction, so a uniqueness violation (including the one caused by a
+     * concurrent insertion of the same subject, logon or email) is reported without affecting the caller
+     * @param user information to be inserted
+     * @throws UniquenessConstraintException in case of the record already exists or has duplicated fields
+     */
+    public void insert(SystemUser user) throws UniquenessConstraintException;
+
     /**
      * Deletes a requested user based on the received id
      * @param userId to be deleted
@@ -106,4 +115,10 @@ public interface UserServiceAccess extends ServiceAccess {
      */
     public BatchSummary create(List<? extends SystemUser> users);
 
+    /**
+     * Batch update of the user subjects (i.e. after the creation of the users accounts on the identity provider)
+     * @param subsByUserId subjects to be set, indexed by user id
+     */
+    public void updateSubs(Map<Long, String> subsByUserId);
+
 }
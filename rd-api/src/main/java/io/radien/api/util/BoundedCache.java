@@ -0,0 +1,435 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.api.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiPredicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded, time based and thread safe in memory cache, shared by the near caches of the services.
+ * Entries expire after a time to live (or at an explicit instant), and the least recently used entries
+ * are removed once the maximum size is exceeded. Every cache keeps the same counters (see {@link CacheStatistics})
+ * so the owners can expose uniform metrics.
+ * Each invalidation starts a new generation: values read before an invalidation may be stored
+ * conditionally with the generation observed before reading them, and are discarded when stale.
+ * Reads take no lock: entries are kept on a concurrent map and each read only stamps the entry access
+ * time, so the eviction order is an approximation of the least recently used one. Conditional stores
+ * share a read lock, invalidations take the write lock so a stale value never survives them.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @author Newton Carvalho
+ */
+public class BoundedCache<K, V> implements CacheStatistics {
+
+    /** Fraction of the max size released at once when the cache overflows, so the eviction scan is amortized */
+    private static final int EVICTION_BATCH_DIVISOR = 20;
+
+    private volatile boolean enabled = true;
+    private volatile long ttlInMillis;
+    private volatile int maxSize;
+    private volatile long generation;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ReadWriteLock generationLock = new ReentrantReadWriteLock();
+    private final Object evictionLock = new Object();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates the cache
+     * @param ttlInMillis time (in milliseconds) that an entry remains valid
+     * @param maxSize maximum number of entries kept
+     */
+    public BoundedCache(long ttlInMillis, int maxSize) {
+        this.ttlInMillis = ttlInMillis;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Changes the cache settings. Entries already stored keep their expiration
+     * @param ttlInMillis time (in milliseconds) that an entry remains valid
+     * @param maxSize maximum number of entries kept
+     */
+    public void configure(long ttlInMillis, int maxSize) {
+        this.ttlInMillis = ttlInMillis;
+        this.maxSize = maxSize;
+        evictIfNeeded();
+    }
+
+    /**
+     * Retrieves a stored (and still valid) value. Expired entries are removed
+     * @param key entry key
+     * @return the value, or null if the cache is disabled or there is no valid entry
+     */
+    public V get(K key) {
+        if (!enabled) {
+            return null;
+        }
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            entry.touch();
+            hits.incrementAndGet();
+            return entry.value;
+        }
+        if (entry != null && entries.remove(key, entry)) {
+            evictions.incrementAndGet();
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Retrieves a stored (and still valid) value without counting it as a request,
+     * meant for inspection (e.g. metrics)
+     * @param key entry key
+     * @return the value, or null if there is no valid entry
+     */
+    public V peek(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && entry.expiresAt > System.currentTimeMillis() ? entry.value : null;
+    }
+
+    /**
+     * Retrieves the stored (and still valid) values for several keys. Expired entries are kept,
+     * so they can be renewed later on (see {@link #renew(Collection)})
+     * @param keys entry keys
+     * @param expired collection to be filled with the keys whose entries are stored but expired
+     * @return the valid values found (key, value), following the order of the informed keys
+     */
+    public Map<K, V> getAll(Collection<K> keys, Collection<K> expired) {
+        Map<K, V> found = new LinkedHashMap<>();
+        if (!enabled) {
+            return found;
+        }
+        long now = System.currentTimeMillis();
+        for (K key : keys) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                entry.touch();
+                found.put(key, entry.value);
+            } else if (entry != null) {
+                expired.add(key);
+            }
+        }
+        hits.addAndGet(found.size());
+        misses.addAndGet(keys.size() - (long) found.size());
+        return found;
+    }
+
+    /**
+     * Stores a value that expires after the configured time to live
+     * @param key entry key
+     * @param value value to be stored
+     */
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + ttlInMillis);
+    }
+
+    /**
+     * Stores a value that expires at the informed instant
+     * @param key entry key
+     * @param value value to be stored
+     * @param expiresAt instant (epoch milliseconds) after which the value is no longer valid
+     */
+    public void put(K key, V value, long expiresAt) {
+        if (!enabled || value == null) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+        evictIfNeeded();
+    }
+
+    /**
+     * Stores a value, unless the cache was invalidated after the informed generation was observed
+     * @param key entry key
+     * @param value value to be stored
+     * @param observedGeneration generation observed (see {@link #getGeneration()}) before the value was read
+     * @return true if the value was stored
+     */
+    public boolean putIfCurrent(K key, V value, long observedGeneration) {
+        Map<K, V> values = new LinkedHashMap<>();
+        values.put(key, value);
+        return putAllIfCurrent(values, observedGeneration);
+    }
+
+    /**
+     * Stores several values, unless the cache was invalidated after the informed generation was observed
+     * @param values values to be stored (key, value)
+     * @param observedGeneration generation observed (see {@link #getGeneration()}) before the values were read
+     * @return true if the values were stored
+     */
+    public boolean putAllIfCurrent(Map<K, V> values, long observedGeneration) {
+        if (!enabled) {
+            return false;
+        }
+        long expiresAt = System.currentTimeMillis() + ttlInMillis;
+        generationLock.readLock().lock();
+        try {
+            if (observedGeneration != generation) {
+                return false;
+            }
+            values.forEach((key, value) -> {
+                if (key != null && value != null) {
+                    entries.put(key, new Entry<>(value, expiresAt));
+                }
+            });
+        } finally {
+            generationLock.readLock().unlock();
+        }
+        evictIfNeeded();
+        return true;
+    }
+
+    /**
+     * Replaces the value of a stored (and still valid) entry, keeping its expiration
+     * @param key entry key
+     * @param function computes the new value from the current one
+     * @return the new value, or null if there was no valid entry
+     */
+    public V replace(K key, UnaryOperator<V> function) {
+        long now = System.currentTimeMillis();
+        Entry<V> replaced = entries.computeIfPresent(key, (k, entry) -> entry.expiresAt <= now ? entry :
+                new Entry<>(function.apply(entry.value), entry.expiresAt));
+        return replaced == null || replaced.expiresAt <= now ? null : replaced.value;
+    }
+
+    /**
+     * Replaces the value of a stored (and still valid) entry, as {@link #replace(Object, UnaryOperator)},
+     * and starts a new generation even when there is no entry to replace. Meant for changes applied
+     * to the source, so values read before the change are no longer stored conditionally
+     * @param key entry key
+     * @param function computes the new value from the current one
+     * @return the new value, or null if there was no valid entry
+     */
+    public V replaceAndAdvance(K key, UnaryOperator<V> function) {
+        generationLock.writeLock().lock();
+        try {
+            generation++;
+            return replace(key, function);
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Renews the informed entries (even if expired) for another time to live period
+     * @param keys keys of the entries to be renewed
+     * @return the renewed values (key, value), entries no longer stored are ignored
+     */
+    public Map<K, V> renew(Collection<K> keys) {
+        Map<K, V> renewed = new LinkedHashMap<>();
+        long expiresAt = System.currentTimeMillis() + ttlInMillis;
+        for (K key : keys) {
+            Entry<V> entry = entries.computeIfPresent(key, (k, current) -> new Entry<>(current.value, expiresAt));
+            if (entry != null) {
+                renewed.put(key, entry.value);
+            }
+        }
+        return renewed;
+    }
+
+    /**
+     * Removes an entry
+     * @param key entry key
+     */
+    public void invalidate(K key) {
+        generationLock.writeLock().lock();
+        try {
+            generation++;
+            if (entries.remove(key) == null) {
+                return;
+            }
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+        evictions.incrementAndGet();
+    }
+
+    /**
+     * Removes every entry that matches the informed condition
+     * @param predicate condition evaluated for each entry (key, value)
+     * @return number of removed entries
+     */
+    public int invalidateIf(BiPredicate<? super K, ? super V> predicate) {
+        int removed = 0;
+        generationLock.writeLock().lock();
+        try {
+            generation++;
+            for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+                if (predicate.test(entry.getKey(), entry.getValue().value) &&
+                        entries.remove(entry.getKey(), entry.getValue())) {
+                    removed++;
+                }
+            }
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+        evictions.addAndGet(removed);
+        return removed;
+    }
+
+    /**
+     * Removes all the entries
+     */
+    public void invalidateAll() {
+        generationLock.writeLock().lock();
+        try {
+            generation++;
+            evictions.addAndGet(entries.size());
+            entries.clear();
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the current generation, which changes on every invalidation
+     * @return the generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets the keys currently stored, from the least to the most recently used
+     * @return a copy of the stored keys
+     */
+    public List<K> keys() {
+        return new ArrayList<>(entries.entrySet()).stream().
+                sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess)).
+                map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
+    /**
+     * Removes the least recently used entries (expired ones first) once the max size is exceeded.
+     * A small batch below the max size is released at once, so big caches do not scan on every store.
+     * Only one thread evicts at a time, the others keep going
+     */
+    private void evictIfNeeded() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        synchronized (evictionLock) {
+            int limit = maxSize;
+            int size = entries.size();
+            if (size <= limit) {
+                return;
+            }
+            int target = Math.max(0, limit - limit / EVICTION_BATCH_DIVISOR);
+            long now = System.currentTimeMillis();
+            List<Map.Entry<K, Entry<V>>> candidates = new ArrayList<>(entries.entrySet());
+            candidates.sort(Comparator.comparing((Map.Entry<K, Entry<V>> entry) -> entry.getValue().expiresAt > now).
+                    thenComparingLong(entry -> entry.getValue().lastAccess));
+            for (Map.Entry<K, Entry<V>> candidate : candidates) {
+                if (size <= target) {
+                    break;
+                }
+                if (entries.remove(candidate.getKey(), candidate.getValue())) {
+                    evictions.incrementAndGet();
+                    size--;
+                }
+            }
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public long getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the time (in milliseconds) that an entry remains valid
+     * @return the time to live
+     */
+    public long getTtlInMillis() {
+        return ttlInMillis;
+    }
+
+    /**
+     * Gets the maximum number of entries kept
+     * @return the max size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Check if the cache is enabled
+     * @return true if values are being cached
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the cache
+     * @param enabled flag that indicates if values must be cached
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Stored value, stamped with its last access so the least recently used entries can be found
+     * @param <V> value type
+     */
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        private volatile long lastAccess = System.nanoTime();
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Registers an access to the entry
+         */
+        void touch() {
+            lastAccess = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.api.util;
+
+import java.util.Arrays;
+
+/**
+ * Counters kept by a cache (hits, misses, evictions and size), exposed with the same metrics by every near cache
+ *
+ * @author Newton Carvalho
+ */
+public interface CacheStatistics {
+
+    /**
+     * Gets the number of requests answered by the cache
+     * @return number of cache hits
+     */
+    long getHitCount();
+
+    /**
+     * Gets the number of requests not found (or found expired) on the cache
+     * @return number of cache misses
+     */
+    long getMissCount();
+
+    /**
+     * Gets the number of entries removed due expiration, capacity or invalidation
+     * @return number of evictions
+     */
+    long getEvictionCount();
+
+    /**
+     * Gets the number of entries currently stored
+     * @return cache size
+     */
+    long getSize();
+
+    /**
+     * Gets the ratio between hits and requests
+     * @return the hit rate (0 when nothing was requested yet)
+     */
+    default double getHitRate() {
+        long hitCount = getHitCount();
+        long requests = hitCount + getMissCount();
+        return requests == 0 ? 0 : hitCount / (double) requests;
+    }
+
+    /**
+     * Sums the counters of several caches, for owners that keep more than one region
+     * @param statistics counters of each cache
+     * @return the summed counters, read every time they are requested
+     */
+    static CacheStatistics sum(CacheStatistics... statistics) {
+        return new CacheStatistics() {
+            @Override
+            public long getHitCount() {
+                return Arrays.stream(statistics).mapToLong(CacheStatistics::getHitCount).sum();
+            }
+
+            @Override
+            public long getMissCount() {
+                return Arrays.stream(statistics).mapToLong(CacheStatistics::getMissCount).sum();
+            }
+
+            @Override
+            public long getEvictionCount() {
+                return Arrays.stream(statistics).mapToLong(CacheStatistics::getEvictionCount).sum();
+            }
+
+            @Override
+            public long getSize() {
+                return Arrays.stream(statistics).mapToLong(CacheStatistics::getSize).sum();
+            }
+        };
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.api.util;
+
+import io.radien.api.SystemVariables;
+import io.radien.api.entity.EffectiveAuthorization;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonString;
+import java.util.Arrays;
+
+/**
+ * Effective authorization factory converter. Converts an {@link EffectiveAuthorization}
+ * into a compact json object (sorted arrays of identifiers and names) and vice versa
+ *
+ * @author Newton Carvalho
+ */
+public class EffectiveAuthorizationFactory {
+
+    /**
+     * Empty private constructor
+     */
+    private EffectiveAuthorizationFactory(){}
+
+    /**
+     * Converts a JsonObject to an EffectiveAuthorization object
+     * @param jsonObject the JsonObject to convert
+     * @return the EffectiveAuthorization object
+     */
+    public static EffectiveAuthorization convert(JsonObject jsonObject) {
+        Long userId = FactoryUtilService.getLongFromJson(SystemVariables.USER_ID.getFieldName(), jsonObject);
+        Long tenantId = FactoryUtilService.getLongFromJson(SystemVariables.TENANT_ID.getFieldName(), jsonObject);
+        JsonArray roleIds = FactoryUtilService.getArrayFromJson(SystemVariables.ROLE_IDS.getFieldName(), jsonObject);
+        JsonArray roleNames = FactoryUtilService.getArrayFromJson(SystemVariables.ROLE_NAMES.getFieldName(), jsonObject);
+        JsonArray permissionIds = FactoryUtilService.getArrayFromJson(SystemVariables.PERMISSION_IDS.getFieldName(), jsonObject);
+        return new EffectiveAuthorization(userId, tenantId, toIds(roleIds), toNames(roleNames), toIds(permissionIds));
+    }
+
+    /**
+     * Converts an EffectiveAuthorization object into a JsonObject
+     * @param effectiveAuthorization to be converted
+     * @return the JsonObject
+     */
+    public static JsonObject convertToJsonObject(EffectiveAuthorization effectiveAuthorization) {
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        FactoryUtilService.addValueLong(builder, SystemVariables.USER_ID.getFieldName(), effectiveAuthorization.getUserId());
+        FactoryUtilService.addValueLong(builder, SystemVariables.TENANT_ID.getFieldName(), effectiveAuthorization.getTenantId());
+
+        JsonArrayBuilder roleIds = Json.createArrayBuilder();
+        Arrays.stream(effectiveAuthorization.getRoleIds()).forEach(roleIds::add);
+        builder.add(SystemVariables.ROLE_IDS.getFieldName(), roleIds);
+
+        JsonArrayBuilder roleNames = Json.createArrayBuilder();
+        Arrays.stream(effectiveAuthorization.getRoleNames()).forEach(roleNames::add);
+        builder.add(SystemVariables.ROLE_NAMES.getFieldName(), roleNames);
+
+        JsonArrayBuilder permissionIds = Json.createArrayBuilder();
+        Arrays.stream(effectiveAuthorization.getPermissionIds()).forEach(permissionIds::add);
+        builder.add(SystemVariables.PERMISSION_IDS.getFieldName(), permissionIds);
+        return builder.build();
+    }
+
+    /**
+     * Converts a json array of numbers into an array of identifiers
+     * @param array json array (may be null)
+     * @return array of identifiers
+     */
+    private static long[] toIds(JsonArray array) {
+        if (array == null) {
+            return new long[0];
+        }
+        return array.getValuesAs(JsonNumber.class).stream().mapToLong(JsonNumber::longValue).toArray();
+    }
+
+    /**
+     * Converts a json array of strings into an array of names
+     * @param array json array (may be null)
+     * @return array of names
+     */
+    private static String[] toNames(JsonArray array) {
+        if (array == null) {
+            return new String[0];
+        }
+        return array.getValuesAs(JsonString.class).stream().map(JsonString::getString).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.api.util;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base for the near caches of the services. On initialization the settings are loaded from the configuration
+ * (properties named after the config prefix, e.g. {@code <prefix>.enabled}, {@code <prefix>.ttl} in seconds and
+ * {@code <prefix>.maxSize}) and the cache counters are registered as gauges named after the metric prefix
+ * ({@code <prefix>.hits}, {@code .misses}, {@code .hitRate}, {@code .evictions} and {@code .size}).
+ * Gauges are only registered when a metric registry is available.
+ *
+ * @author Newton Carvalho
+ */
+public abstract class NearCache implements CacheStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCache.class);
+
+    public static final String ENABLED = "enabled";
+    public static final String TTL = "ttl";
+    public static final String MAX_SIZE = "maxSize";
+
+    @Inject
+    private Instance<MetricRegistry> metricRegistry;
+
+    private final String configPrefix;
+    private final String metricPrefix;
+
+    /**
+     * Creates the cache
+     * @param configPrefix prefix of the configuration properties
+     * @param metricPrefix prefix of the gauge names
+     */
+    protected NearCache(String configPrefix, String metricPrefix) {
+        this.configPrefix = configPrefix;
+        this.metricPrefix = metricPrefix;
+    }
+
+    /**
+     * Loads the cache settings from the configuration and registers the cache gauges
+     */
+    @PostConstruct
+    public void init() {
+        configure(ConfigProvider.getConfig());
+        if (metricRegistry != null && metricRegistry.isResolvable()) {
+            MetricRegistry registry = metricRegistry.get();
+            register(registry, "hits", this::getHitCount);
+            register(registry, "misses", this::getMissCount);
+            register(registry, "hitRate", this::getHitRate);
+            register(registry, "evictions", this::getEvictionCount);
+            register(registry, "size", this::getSize);
+        }
+    }
+
+    /**
+     * Loads the cache settings from the configuration
+     * @param config the configuration
+     */
+    protected abstract void configure(Config config);
+
+    /**
+     * Gets the counters of the cached entries
+     * @return the counters
+     */
+    protected abstract CacheStatistics getStatistics();
+
+    /**
+     * Loads the enabled flag, the ttl (in seconds) and the max size of a cache. Settings not configured
+     * keep the values the cache was created with
+     * @param config the configuration
+     * @param cache the cache to be configured
+     */
+    protected void configure(Config config, BoundedCache<?, ?> cache) {
+        cache.setEnabled(config.getOptionalValue(getConfigName(ENABLED), Boolean.class).orElse(Boolean.TRUE));
+        cache.configure(getTtlInMillis(config, getConfigName(TTL), cache.getTtlInMillis()),
+                config.getOptionalValue(getConfigName(MAX_SIZE), Integer.class).orElse(cache.getMaxSize()));
+        log.info("Cache {} enabled: {}, ttl: {} ms, max size: {}", configPrefix, cache.isEnabled(),
+                cache.getTtlInMillis(), cache.getMaxSize());
+    }
+
+    /**
+     * Reads a time to live, configured in seconds
+     * @param config the configuration
+     * @param name property name
+     * @param defaultTtlInMillis time (in milliseconds) used when the property is not configured
+     * @return the time to live in milliseconds
+     */
+    protected static long getTtlInMillis(Config config, String name, long defaultTtlInMillis) {
+        return config.getOptionalValue(name, Long.class).map(TimeUnit.SECONDS::toMillis).orElse(defaultTtlInMillis);
+    }
+
+    /**
+     * Composes the name of a configuration property of this cache
+     * @param name property name, without prefix
+     * @return the full property name
+     */
+    protected String getConfigName(String name) {
+        return configPrefix + '.' + name;
+    }
+
+    @Override
+    public long getHitCount() {
+        return getStatistics().getHitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return getStatistics().getMissCount();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return getStatistics().getEvictionCount();
+    }
+
+    @Override
+    public long getSize() {
+        return getStatistics().getSize();
+    }
+
+    /**
+     * Registers (or replaces, when the application is redeployed) a gauge
+     * @param registry where the gauge is registered
+     * @param name gauge name, without prefix
+     * @param gauge reads the current value
+     */
+    private void register(MetricRegistry registry, String name, Gauge<? extends Number> gauge) {
+        String fullName = metricPrefix + '.' + name;
+        registry.remove(fullName);
+        registry.register(Metadata.builder().withName(fullName).withType(MetricType.GAUGE).
+                withUnit(MetricUnits.NONE).build(), gauge);
+    }
+}
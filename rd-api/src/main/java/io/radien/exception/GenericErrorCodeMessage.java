@@ -68,6 +68,7 @@ public enum GenericErrorCodeMessage {
     TENANT_ROOT_WITH_PARENT("T9", "error.tenant.root.with.parent", "Tenant root cannot have parent associated."),
     TENANT_ROOT_WITH_CLIENT("T10", "error.tenant.root.with.client", "Tenant root cannot have client associated."),
     TENANT_TYPE_NOT_FOUND("T11", "tenant.type.not.found", "No tenant type found: %s"),
+    TENANT_PARENT_IS_DESCENDANT("T12", "error.tenant.parent.is.descendant", "Parent cannot be the tenant itself or one of its descendants."),
 
     /**
      * Tenant Role Error Code Messages
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.api.security;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Class that aggregates UnitTest cases for {@link UserIdentityCache}
+ *
+ * @author Nuno Santana
+ */
+public class UserIdentityCacheTest {
+
+    /**
+     * Test for methods {@link UserIdentityCache#put(String, Long)} and {@link UserIdentityCache#get(String)}
+     * Expected outcome: stored relations are retrieved and hits/misses are counted
+     */
+    @Test
+    public void testPutAndGet() {
+        UserIdentityCache cache = new UserIdentityCache(60000, 10);
+        assertNull(cache.get("sub-1"));
+        assertNull(cache.get(null));
+
+        cache.put("sub-1", 1L);
+        cache.put("sub-2", null);
+
+        assertEquals(Long.valueOf(1L), cache.get("sub-1"));
+        assertNull(cache.get("sub-2"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getSize());
+    }
+
+    /**
+     * Test for method {@link UserIdentityCache#invalidate(Long)}
+     * Expected outcome: every relation with the user identifier is removed
+     */
+    @Test
+    public void testInvalidate() {
+        UserIdentityCache cache = new UserIdentityCache(60000, 10);
+        cache.put("sub-1", 1L);
+        cache.put("sub-2", 1L);
+        cache.put("sub-3", 2L);
+
+        cache.invalidate(1L);
+
+        assertNull(cache.get("sub-1"));
+        assertEquals(Long.valueOf(2L), cache.get("sub-3"));
+        assertEquals(2, cache.getEvictionCount());
+        assertEquals(1, cache.getSize());
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.api.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * BoundedCache Test class
+ *
+ * @author Newton Carvalho
+ */
+public class BoundedCacheTest {
+
+    /**
+     * Test methods put() and get()
+     * Asserts the stored value and the hit/miss counters
+     */
+    @Test
+    public void testPutAndGet() {
+        BoundedCache<String, String> cache = new BoundedCache<>(60000, 10);
+        assertNull(cache.get("a"));
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0);
+        assertEquals(1, cache.getSize());
+        assertEquals("1", cache.peek("a"));
+        assertNull(cache.peek("b"));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    /**
+     * Test method get() for expired entries
+     * Asserts that the entry is removed and counted as eviction
+     */
+    @Test
+    public void testExpiration() {
+        BoundedCache<String, String> cache = new BoundedCache<>(0, 10);
+        cache.put("a", "1");
+        assertNull(cache.get("a"));
+        cache.put("b", "2", System.currentTimeMillis() + 60000);
+        assertEquals("2", cache.get("b"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1, cache.getSize());
+    }
+
+    /**
+     * Test method put() once the max size is reached
+     * Asserts that the least recently used entry is removed
+     */
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        BoundedCache<String, String> cache = new BoundedCache<>(60000, 2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+        assertEquals(Arrays.asList("a", "c"), cache.keys());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /**
+     * Test methods invalidate(), invalidateIf() and invalidateAll()
+     * Asserts the removed entries and the generation changes
+     */
+    @Test
+    public void testInvalidation() {
+        BoundedCache<String, String> cache = new BoundedCache<>(60000, 10);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        long generation = cache.getGeneration();
+        cache.invalidate("a");
+        assertEquals(1, cache.invalidateIf((key, value) -> value.equals("2")));
+        assertEquals(Collections.singletonList("c"), cache.keys());
+        cache.invalidateAll();
+        assertEquals(0, cache.getSize());
+        assertEquals(3, cache.getEvictionCount());
+        assertEquals(generation + 3, cache.getGeneration());
+    }
+
+    /**
+     * Test method putIfCurrent()
+     * Asserts that a value read before an invalidation is not stored
+     */
+    @Test
+    public void testPutIfCurrent() {
+        BoundedCache<String, String> cache = new BoundedCache<>(60000, 10);
+        long generation = cache.getGeneration();
+        cache.invalidateIf((key, value) -> true);
+        assertFalse(cache.putIfCurrent("a", "stale", generation));
+        assertNull(cache.get("a"));
+        assertTrue(cache.putIfCurrent("a", "1", cache.getGeneration()));
+        assertEquals("1", cache.get("a"));
+    }
+
+    /**
+     * Test methods getAll() and renew()
+     * Asserts that expired entries are reported and can be renewed
+     */
+    @Test
+    public void testGetAllAndRenew() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(60000, 10);
+        cache.put(1L, "1");
+        cache.put(2L, "2", System.currentTimeMillis() - 1);
+        List<Long> expired = new ArrayList<>();
+        Map<Long, String> found = cache.getAll(Arrays.asList(1L, 2L, 3L), expired);
+        assertEquals(Collections.singletonMap(1L, "1"), found);
+        assertEquals(Collections.singletonList(2L), expired);
+        assertEquals(Collections.singletonMap(2L, "2"), cache.renew(expired));
+        assertEquals("2", cache.get(2L));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    /**
+     * Test method replace()
+     * Asserts that only valid entries are replaced
+     */
+    @Test
+    public void testReplace() {
+        BoundedCache<String, String> cache = new BoundedCache<>(60000, 10);
+        assertNull(cache.replace("a", value -> value + "2"));
+        cache.put("a", "1");
+        assertEquals("12", cache.replace("a", value -> value + "2"));
+        assertEquals("12", cache.get("a"));
+    }
+
+    /**
+     * Test method replaceAndAdvance()
+     * Asserts that a new generation starts even without an entry, so values read before are not stored
+     */
+    @Test
+    public void testReplaceAndAdvance() {
+        BoundedCache<String, String> cache = new BoundedCache<>(60000, 10);
+        long generation = cache.getGeneration();
+        assertNull(cache.replaceAndAdvance("a", value -> value + "2"));
+        assertFalse(cache.putIfCurrent("a", "1", generation));
+
+        assertTrue(cache.putIfCurrent("a", "1", cache.getGeneration()));
+        assertEquals("12", cache.replaceAndAdvance("a", value -> value + "2"));
+        assertEquals("12", cache.get("a"));
+    }
+
+    /**
+     * Test method CacheStatistics.sum()
+     * Asserts that the counters (and the hit rate) of several caches are summed
+     */
+    @Test
+    public void testStatisticsSum() {
+        BoundedCache<String, String> first = new BoundedCache<>(60000, 10);
+        BoundedCache<String, String> second = new BoundedCache<>(60000, 10);
+        CacheStatistics statistics = CacheStatistics.sum(first, second);
+        first.put("a", "1");
+        first.get("a");
+        second.put("b", "2");
+        second.get("c");
+        second.invalidate("b");
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(0.5, statistics.getHitRate(), 0);
+        assertEquals(1, statistics.getEvictionCount());
+        assertEquals(1, statistics.getSize());
+    }
+
+    /**
+     * Test method setEnabled()
+     * Asserts that nothing is stored or answered while disabled
+     */
+    @Test
+    public void testDisabled() {
+        BoundedCache<String, String> cache = new BoundedCache<>(60000, 10);
+        cache.setEnabled(false);
+        assertFalse(cache.isEnabled());
+        cache.put("a", "1");
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    /**
+     * Test method get() and put() from several threads
+     * Asserts that concurrent requests are all counted and the max size is respected
+     */
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(60000, 100);
+        int threads = 8;
+        int operations = 10000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < operations; i++) {
+                    int key = i % 150;
+                    if (cache.get(key) == null) {
+                        cache.put(key, key);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertTrue(cache.getSize() <= 100);
+        assertEquals((long) threads * operations, cache.getHitCount() + cache.getMissCount());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.api.util;
+
+import io.radien.api.entity.EffectiveAuthorization;
+
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * EffectiveAuthorizationFactory Test class
+ *
+ * @author Newton Carvalho
+ */
+public class EffectiveAuthorizationFactoryTest {
+
+    /**
+     * Test Methods convertToJsonObject() and convert()
+     * Asserts that the values survive the round trip sorted, and that checks are answered locally
+     */
+    @Test
+    public void testConvertRoundTrip() {
+        EffectiveAuthorization original = new EffectiveAuthorization(10L, 2L,
+                new long[]{3L, 1L}, new String[]{"user", "admin"}, new long[]{30L, 5L, 12L});
+
+        JsonObject json = EffectiveAuthorizationFactory.convertToJsonObject(original);
+        EffectiveAuthorization converted = EffectiveAuthorizationFactory.convert(json);
+
+        assertEquals(Long.valueOf(10L), converted.getUserId());
+        assertEquals(Long.valueOf(2L), converted.getTenantId());
+        assertArrayEquals(new long[]{1L, 3L}, converted.getRoleIds());
+        assertArrayEquals(new String[]{"admin", "user"}, converted.getRoleNames());
+        assertArrayEquals(new long[]{5L, 12L, 30L}, converted.getPermissionIds());
+
+        assertTrue(converted.hasRole("admin"));
+        assertFalse(converted.hasRole("guest"));
+        assertTrue(converted.hasAnyRole(Arrays.asList("guest", "user")));
+        assertFalse(converted.hasAnyRole(Collections.singletonList("guest")));
+        assertTrue(converted.hasRoleId(3L));
+        assertFalse(converted.hasRoleId(2L));
+        assertTrue(converted.hasPermission(12L));
+        assertFalse(converted.hasPermission(13L));
+        assertFalse(converted.hasPermission(null));
+    }
+
+    /**
+     * Test Method convert()
+     * Asserts that missing values result in an effective authorization that grants nothing
+     */
+    @Test
+    public void testConvertEmpty() {
+        EffectiveAuthorization converted = EffectiveAuthorizationFactory.convert(Json.createObjectBuilder().build());
+        assertNull(converted.getUserId());
+        assertNull(converted.getTenantId());
+        assertEquals(0, converted.getRoleIds().length);
+        assertEquals(0, converted.getRoleNames().length);
+        assertFalse(converted.hasPermission(1L));
+        assertFalse(converted.hasRole("admin"));
+    }
+}
@@ -25,7 +25,6 @@ import io.radien.exception.SystemException;
 import io.radien.ms.usermanagement.client.services.UserFactory;
 import io.radien.webapp.JSFUtil;
 import java.io.IOException;
-import java.util.Optional;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.SessionScoped;
 import javax.faces.context.ExternalContext;
@@ -85,19 +84,8 @@ public @Named @SessionScoped class UserSession implements UserSessionEnabled, To
 		this.accessToken = accessToken;
 		this.refreshToken = refreshToken;
 		try {
-			Optional<SystemUser> existingUser = userClientService.getUserBySub(userIdSubject);
-			SystemUser systemUser;
-			if (!existingUser.isPresent()) {
-				systemUser = UserFactory.create(givenname, familyName, preferredUserName, userIdSubject, email, getOAF().getSystemAdminUserId());
-				userClientService.create(systemUser, true);
-				Optional<SystemUser> userBySub = userClientService.getUserBySub(userIdSubject);
-				if(userBySub.isPresent()) {
-					systemUser = userBySub.get();
-				}
-			} else {
-				systemUser = existingUser.get();
-			}
-			this.user = systemUser;
+			SystemUser systemUser = UserFactory.create(givenname, familyName, preferredUserName, userIdSubject, email, getOAF().getSystemAdminUserId());
+			this.user = userClientService.getOrCreateBySub(systemUser);
 		} catch (SystemException exception){
 			log.error(exception.getMessage());
 		}
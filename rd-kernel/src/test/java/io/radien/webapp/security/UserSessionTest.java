@@ -18,6 +18,8 @@ package io.radien.webapp.security;
 import io.radien.api.OAFAccess;
 import io.radien.api.OAFProperties;
 import io.radien.api.model.user.SystemUser;
+import io.radien.api.service.user.UserRESTServiceAccess;
+import io.radien.exception.SystemException;
 import io.radien.webapp.JSFUtil;
 import java.io.IOException;
 import javax.faces.context.ExternalContext;
@@ -37,10 +39,13 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -54,6 +59,9 @@ public class UserSessionTest {
     @Mock
     private OAFAccess oaf;
 
+    @Mock
+    private UserRESTServiceAccess userClientService;
+
     private FacesContext facesContext;
 
     @Before
@@ -77,6 +85,40 @@ public class UserSessionTest {
         when(JSFUtil.getMessage(anyString())).thenAnswer(i -> i.getArguments()[0]);
     }
 
+    /**
+     * Test for method {@link UserSession#login(String, String, String, String, String, String, String)}
+     * Expected outcome: user retrieved (or created) with a single request
+     * @throws Exception in case of any issue while performing the login
+     */
+    @Test
+    public void testLogin() throws Exception {
+        SystemUser user = mock(SystemUser.class);
+        when(user.getId()).thenReturn(10L);
+        when(userClientService.getOrCreateBySub(any())).thenReturn(user);
+
+        userSession.login("sub-1", "a@a.com", "logon", "first", "last", "access", "refresh");
+
+        Assert.assertEquals(user, userSession.getUser());
+        Assert.assertEquals("access", userSession.getAccessToken());
+        verify(userClientService, times(1)).getOrCreateBySub(any());
+    }
+
+    /**
+     * Test for method {@link UserSession#login(String, String, String, String, String, String, String)}
+     * Scenario: user management not reachable
+     * Expected outcome: session started with a user built from the informed data
+     * @throws Exception in case of any issue while performing the login
+     */
+    @Test
+    public void testLoginWhenUserCannotBeRetrieved() throws Exception {
+        when(userClientService.getOrCreateBySub(any())).thenThrow(new SystemException("error"));
+
+        userSession.login("sub-1", "a@a.com", "logon", "first", "last", "access", "refresh");
+
+        Assert.assertEquals("sub-1", userSession.getUser().getSub());
+        Assert.assertEquals(Long.valueOf(-1L), userSession.getUser().getCreateUser());
+    }
+
     /**
      * Test for method {@link UserSession#logout()}
      * @throws ServletException in case of i/o error during request.logout
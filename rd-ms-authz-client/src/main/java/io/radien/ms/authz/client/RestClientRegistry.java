@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.authz.client;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry that keeps the built MicroProfile Rest Client proxies, shared by all the requests.
+ * A proxy is built only once per (endpoint url, client interface) and reused afterwards,
+ * so providers are registered once and the underlying keep-alive connections are reused.
+ * Authorization headers are not affected since they are resolved per invocation.
+ *
+ * @author Newton Carvalho
+ */
+@ApplicationScoped
+public class RestClientRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RestClientRegistry.class);
+
+    public static final String CONNECT_TIMEOUT = "rest.client.connectTimeout";
+    public static final String READ_TIMEOUT = "rest.client.readTimeout";
+
+    private static final long DEFAULT_CONNECT_TIMEOUT_IN_MILLIS = 5000;
+    private static final long DEFAULT_READ_TIMEOUT_IN_MILLIS = 30000;
+
+    private long connectTimeoutInMillis = DEFAULT_CONNECT_TIMEOUT_IN_MILLIS;
+    private long readTimeoutInMillis = DEFAULT_READ_TIMEOUT_IN_MILLIS;
+
+    private final Map<String, Object> clients = new ConcurrentHashMap<>();
+
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong reuses = new AtomicLong();
+
+    /**
+     * Default constructor, the timeouts are read from the configuration by {@link #init()}
+     */
+    public RestClientRegistry() {
+    }
+
+    /**
+     * Constructor that allows to define the timeouts directly
+     * @param connectTimeoutInMillis maximum time (in milliseconds) to establish a connection
+     * @param readTimeoutInMillis maximum time (in milliseconds) to wait for a response
+     */
+    public RestClientRegistry(long connectTimeoutInMillis, long readTimeoutInMillis) {
+        this.connectTimeoutInMillis = connectTimeoutInMillis;
+        this.readTimeoutInMillis = readTimeoutInMillis;
+    }
+
+    /**
+     * Loads the client settings (connect and read timeouts in milliseconds) from the configuration
+     */
+    @PostConstruct
+    public void init() {
+        Config config = ConfigProvider.getConfig();
+        this.connectTimeoutInMillis = config.getOptionalValue(CONNECT_TIMEOUT, Long.class).
+                orElse(DEFAULT_CONNECT_TIMEOUT_IN_MILLIS);
+        this.readTimeoutInMillis = config.getOptionalValue(READ_TIMEOUT, Long.class).
+                orElse(DEFAULT_READ_TIMEOUT_IN_MILLIS);
+        log.info("Rest client registry connect timeout: {} ms, read timeout: {} ms",
+                connectTimeoutInMillis, readTimeoutInMillis);
+    }
+
+    /**
+     * Retrieves the client for the given endpoint and interface, building it on the first request
+     * @param urlStr url of rest endpoint
+     * @param clientClass rest client interface
+     * @param providers providers (exception mappers, message body writers, etc) to be registered
+     * @param <T> rest client type
+     * @return the shared rest client
+     * @throws MalformedURLException in case of any url issue
+     */
+    public <T> T getClient(String urlStr, Class<T> clientClass, Class<?>... providers) throws MalformedURLException {
+        URL url = new URL(urlStr);
+        String key = urlStr + '|' + clientClass.getName();
+        Object client = clients.get(key);
+        if (client == null) {
+            client = clients.computeIfAbsent(key, k -> build(url, clientClass, providers));
+        } else {
+            reuses.incrementAndGet();
+        }
+        return clientClass.cast(client);
+    }
+
+    /**
+     * Removes all the stored clients, so they will be built again on the next request
+     */
+    public void clear() {
+        clients.clear();
+    }
+
+    /**
+     * Gets the number of clients currently stored
+     * @return number of clients
+     */
+    @Gauge(name = "rest.client.registry.size", unit = MetricUnits.NONE, absolute = true)
+    public long getSize() {
+        return clients.size();
+    }
+
+    /**
+     * Gets the number of clients that were built
+     * @return number of builds
+     */
+    @Gauge(name = "rest.client.registry.builds", unit = MetricUnits.NONE, absolute = true)
+    public long getBuildCount() {
+        return builds.get();
+    }
+
+    /**
+     * Gets the number of requests answered with an already built client
+     * @return number of reuses
+     */
+    @Gauge(name = "rest.client.registry.reuses", unit = MetricUnits.NONE, absolute = true)
+    public long getReuseCount() {
+        return reuses.get();
+    }
+
+    /**
+     * Builds a rest client with the configured timeouts and the informed providers
+     * @param url url of rest endpoint
+     * @param clientClass rest client interface
+     * @param providers providers to be registered
+     * @return the built rest client
+     */
+    private Object build(URL url, Class<?> clientClass, Class<?>... providers) {
+        RestClientBuilder builder = RestClientBuilder.
+                newBuilder()
+                .baseUrl(url)
+                .connectTimeout(connectTimeoutInMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutInMillis, TimeUnit.MILLISECONDS);
+        for (Class<?> provider : providers) {
+            builder.register(provider);
+        }
+        builds.incrementAndGet();
+        log.debug("Rest client {} built for {}", clientClass.getName(), url);
+        return builder.build(clientClass);
+    }
+}
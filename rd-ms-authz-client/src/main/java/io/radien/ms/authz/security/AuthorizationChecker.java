@@ -17,8 +17,11 @@ package io.radien.ms.authz.security;
 
 import io.radien.api.OAFAccess;
 import io.radien.api.OAFProperties;
+import io.radien.api.entity.EffectiveAuthorization;
 import io.radien.api.model.user.SystemUser;
 import io.radien.api.security.TokensPlaceHolder;
+import io.radien.api.security.UserIdentityCache;
+import io.radien.api.util.EffectiveAuthorizationFactory;
 import io.radien.exception.GenericErrorCodeMessage;
 import io.radien.exception.SystemException;
 import io.radien.exception.TokenExpiredException;
@@ -27,7 +30,10 @@ import io.radien.ms.authz.client.UserClient;
 import io.radien.ms.authz.client.exception.NotFoundException;
 import org.eclipse.microprofile.rest.client.RestClientBuilder;
 
+import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.spi.CDI;
+import javax.json.Json;
+import javax.json.JsonReader;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 import javax.ws.rs.ProcessingException;
@@ -35,6 +41,7 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import java.io.Serializable;
+import java.io.StringReader;
 import java.net.URL;
 import java.util.List;
 
@@ -59,6 +66,10 @@ public abstract class AuthorizationChecker implements Serializable {
 
     private RestClientBuilder restClientBuilder;
 
+    private transient AuthorizationDecisionCache decisionCache;
+
+    private transient UserIdentityCache userIdentityCache;
+
     public AuthorizationChecker(){
 
     }
@@ -94,25 +105,7 @@ public abstract class AuthorizationChecker implements Serializable {
      * information
      */
     public boolean hasGrant(Long tenantId, String roleName) throws SystemException{
-        try {
-            this.preProcess();
-            Response response;
-            try {
-                response = getTenantRoleClient().
-                        isRoleExistentForUser(getCurrentUserId(), roleName, tenantId);
-            } catch (TokenExpiredException tee) {
-                refreshToken();
-                response = getTenantRoleClient().
-                        isRoleExistentForUser(getCurrentUserId(), roleName, tenantId);
-            }
-            if (response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL) {
-                return response.readEntity(Boolean.class);
-            }
-            return false;
-
-        } catch (SystemException e) {
-            throw new SystemException(GenericErrorCodeMessage.AUTHORIZATION_ERROR.toString(), e);
-        }
+        return getEffectiveAuthorization(tenantId).hasRole(roleName);
     }
 
     /**
@@ -137,26 +130,8 @@ public abstract class AuthorizationChecker implements Serializable {
      */
     public boolean hasGrant(Long permissionId, Long tenantId) throws SystemException {
         try {
-            this.preProcess();
-            Response response;
-            try {
-                response = getTenantRoleClient().isPermissionExistentForUser(getCurrentUserId(),
-                        permissionId, tenantId);
-            } catch (TokenExpiredException e) {
-                try{
-                    refreshToken();
-                    response = getTenantRoleClient().isPermissionExistentForUser(getCurrentUserId(),
-                            permissionId, tenantId);
-                } catch (TokenExpiredException tokenExpiredException){
-                    throw new SystemException(tokenExpiredException);
-                }
-            }
-            if (response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL) {
-                return response.readEntity(Boolean.class);
-            }
-            return false;
-        }
-        catch (SystemException e) {
+            return getEffectiveAuthorization(tenantId).hasPermission(permissionId);
+        } catch (TokenExpiredException e) {
             throw new SystemException(GenericErrorCodeMessage.AUTHORIZATION_ERROR.toString(), e);
         }
     }
@@ -171,20 +146,7 @@ public abstract class AuthorizationChecker implements Serializable {
      */
     public boolean hasGrantMultipleRoles(Long tenantId, List<String> roleNames) throws SystemException{
         try {
-            this.preProcess();
-            Response response = null;
-            try {
-                response = getTenantRoleClient().
-                        checkPermissions(getCurrentUserId(), roleNames, tenantId);
-            } catch (TokenExpiredException tee) {
-                refreshToken();
-                response = getTenantRoleClient().
-                        checkPermissions(getCurrentUserId(), roleNames, tenantId);
-            }
-            if (response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL) {
-                return response.readEntity(Boolean.class);
-            }
-            return false;
+            return getEffectiveAuthorization(tenantId).hasAnyRole(roleNames);
         } catch (Exception e) {
             throw new SystemException(e);
         }
@@ -200,6 +162,68 @@ public abstract class AuthorizationChecker implements Serializable {
         return hasGrantMultipleRoles(null, roleNames);
     }
 
+    /**
+     * Retrieves, in one call, all the roles and permissions granted to the current logged user
+     * (under a specific tenant - optionally). The returned snapshot answers any number of role/permission
+     * checks locally (see {@link EffectiveAuthorization#hasRole(String)},
+     * {@link EffectiveAuthorization#hasAnyRole(java.util.Collection)} and
+     * {@link EffectiveAuthorization#hasPermission(Long)}), so pages that evaluate many grants
+     * do not need one request per check. The snapshot is kept (per subject and tenant) on the
+     * {@link AuthorizationDecisionCache}, which is also what the hasGrant methods evaluate against
+     * @param tenantId Tenant identifier (Optional parameter)
+     * @return the effective authorization (grants nothing if role management could not answer it)
+     * @throws SystemException in case of any issue while getting the current user or the effective authorization
+     */
+    public EffectiveAuthorization getEffectiveAuthorization(Long tenantId) throws SystemException {
+        try {
+            this.preProcess();
+            AuthorizationDecisionCache cache = getDecisionCache();
+            SystemUser user = getInvokerUser();
+            String sub = user != null ? user.getSub() : null;
+            EffectiveAuthorization cached = cache != null ? cache.get(sub, tenantId) : null;
+            if (cached != null) {
+                return cached;
+            }
+            long generation = cache != null ? cache.getGeneration() : 0;
+            Long userId;
+            Response response;
+            try {
+                userId = getCurrentUserId();
+                response = getTenantRoleClient().getEffectiveAuthorization(userId, tenantId);
+            } catch (TokenExpiredException tee) {
+                refreshToken();
+                userId = getCurrentUserId();
+                response = getTenantRoleClient().getEffectiveAuthorization(userId, tenantId);
+            }
+            if (response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL) {
+                EffectiveAuthorization effectiveAuthorization;
+                try (JsonReader jsonReader = Json.createReader(new StringReader(response.readEntity(String.class)))) {
+                    effectiveAuthorization = EffectiveAuthorizationFactory.convert(jsonReader.readObject());
+                }
+                if (cache != null) {
+                    cache.put(sub, userId, tenantId, effectiveAuthorization, generation);
+                }
+                return effectiveAuthorization;
+            }
+            return new EffectiveAuthorization();
+        } catch (SystemException e) {
+            throw new SystemException(GenericErrorCodeMessage.AUTHORIZATION_ERROR.toString(), e);
+        }
+    }
+
+    /**
+     * Invalidates the cached effective authorizations that may be affected after changing
+     * associations of users or permissions
+     * @param tenantId affected tenant identifier (Optional, null means every tenant)
+     * @param userId affected user identifier (Optional, null means every user)
+     */
+    protected void invalidateDecisions(Long tenantId, Long userId) {
+        AuthorizationDecisionCache cache = getDecisionCache();
+        if (cache != null) {
+            cache.invalidate(tenantId, userId);
+        }
+    }
+
     /**
      * Retrieves the User Id using sub as parameter
      * @param sub sub from the current logged logged user
@@ -226,7 +250,11 @@ public abstract class AuthorizationChecker implements Serializable {
     }
 
     /**
-     * Retrieves the ID that belongs to the current logged user
+     * Retrieves the ID that belongs to the current logged user.
+     * The id is resolved (using the sub) only once, and then kept on the user reference
+     * stored into the session and on the {@link UserIdentityCache}, so the following checks
+     * (also the ones of stateless requests, which do not share the user reference) do not need
+     * to contact user management again
      * @return the current user id
      * @throws SystemException in case of current user is null
      */
@@ -236,15 +264,32 @@ public abstract class AuthorizationChecker implements Serializable {
             throw new SystemException(GenericErrorCodeMessage.
                     NO_CURRENT_USER_AVAILABLE.toString());
         }
-        return getCurrentUserIdBySub(user.getSub());
+        if (user.getId() == null) {
+            UserIdentityCache identities = getUserIdentityCache();
+            Long id = identities != null ? identities.get(user.getSub()) : null;
+            if (id == null) {
+                id = getCurrentUserIdBySub(user.getSub());
+                if (identities != null) {
+                    identities.put(user.getSub(), id);
+                }
+            }
+            user.setId(id);
+        }
+        return user.getId();
     }
 
     /**
-     * Retrieves the reference for current logged user
+     * Retrieves the reference for current logged user, taken from the request (stateless
+     * authentication) or, when not present there, from the session (without creating one)
      * @return the reference for current logged user
      */
     protected SystemUser getInvokerUser() {
-        return (SystemUser) getServletRequest().getSession().getAttribute("USER");
+        Object user = getServletRequest().getAttribute("USER");
+        if (user == null) {
+            HttpSession session = getServletRequest().getSession(false);
+            user = session != null ? session.getAttribute("USER") : null;
+        }
+        return (SystemUser) user;
     }
 
     /**
@@ -254,7 +299,7 @@ public abstract class AuthorizationChecker implements Serializable {
     public void preProcess() {
         HttpSession httpSession = this.getServletRequest().getSession(false);
         if (this.getTokensPlaceHolder().getAccessToken() == null) {
-            if (httpSession.getAttribute("accessToken") != null) {
+            if (httpSession != null && httpSession.getAttribute("accessToken") != null) {
                 this.getTokensPlaceHolder().setAccessToken(httpSession.getAttribute("accessToken").toString());
             }
             else {
@@ -324,6 +369,58 @@ public abstract class AuthorizationChecker implements Serializable {
         this.userClient = userClient;
     }
 
+    /**
+     * Gets the (application wide) authorization decision cache
+     * @return the decision cache, or null if there is no CDI container available
+     */
+    public AuthorizationDecisionCache getDecisionCache() {
+        if (decisionCache == null) {
+            try {
+                Instance<AuthorizationDecisionCache> instance = CDI.current().select(AuthorizationDecisionCache.class);
+                if (instance.isResolvable()) {
+                    decisionCache = instance.get();
+                }
+            } catch (IllegalStateException e) {
+                return null;
+            }
+        }
+        return decisionCache;
+    }
+
+    /**
+     * Sets the authorization decision cache
+     * @param decisionCache decision cache to be set
+     */
+    public void setDecisionCache(AuthorizationDecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
+    /**
+     * Gets the (application wide) cache of user identifiers by subject
+     * @return the user identity cache, or null if there is no CDI container available
+     */
+    public UserIdentityCache getUserIdentityCache() {
+        if (userIdentityCache == null) {
+            try {
+                Instance<UserIdentityCache> instance = CDI.current().select(UserIdentityCache.class);
+                if (instance.isResolvable()) {
+                    userIdentityCache = instance.get();
+                }
+            } catch (IllegalStateException e) {
+                return null;
+            }
+        }
+        return userIdentityCache;
+    }
+
+    /**
+     * Sets the cache of user identifiers by subject
+     * @param userIdentityCache user identity cache to be set
+     */
+    public void setUserIdentityCache(UserIdentityCache userIdentityCache) {
+        this.userIdentityCache = userIdentityCache;
+    }
+
     /**
      * Gets the active token place holder
      * @return the active token place holder
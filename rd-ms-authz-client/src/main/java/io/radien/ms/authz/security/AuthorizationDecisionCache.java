@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.authz.security;
+
+import io.radien.api.entity.EffectiveAuthorization;
+import io.radien.api.security.AuthorizationChangeEvent;
+import io.radien.api.util.BoundedCache;
+import io.radien.api.util.CacheStatistics;
+import io.radien.api.util.NearCache;
+import org.eclipse.microprofile.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, time based cache that keeps the effective authorization (granted roles and permissions)
+ * per subject and tenant, shared by all the requests. Role, permission and multiple roles checks
+ * are evaluated locally against the cached authorization.
+ * Entries are evicted when expired, when the cache is full (least recently used first)
+ * or when an {@link AuthorizationChangeEvent} is observed for the related user/tenant.
+ * Configured by the {@code authz.cache.*} properties, measured by the {@code authz.decision.cache.*} gauges.
+ *
+ * @author Newton Carvalho
+ */
+@ApplicationScoped
+public class AuthorizationDecisionCache extends NearCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorizationDecisionCache.class);
+
+    private static final long DEFAULT_TTL_IN_SECONDS = 60;
+    private static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final BoundedCache<String, Decision> decisions;
+
+    /**
+     * Creates the cache keeping up to {@value #DEFAULT_MAX_SIZE} effective authorizations
+     * for {@value #DEFAULT_TTL_IN_SECONDS} seconds, unless configured otherwise
+     */
+    public AuthorizationDecisionCache() {
+        this(TimeUnit.SECONDS.toMillis(DEFAULT_TTL_IN_SECONDS), DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor that allows to define the cache settings directly
+     * @param ttlInMillis time (in milliseconds) that an effective authorization remains valid
+     * @param maxSize maximum number of effective authorizations kept
+     */
+    public AuthorizationDecisionCache(long ttlInMillis, int maxSize) {
+        super("authz.cache", "authz.decision.cache");
+        this.decisions = new BoundedCache<>(ttlInMillis, maxSize);
+    }
+
+    @Override
+    protected void configure(Config config) {
+        configure(config, decisions);
+    }
+
+    @Override
+    protected CacheStatistics getStatistics() {
+        return decisions;
+    }
+
+    /**
+     * Retrieves a previously stored (and still valid) effective authorization
+     * @param sub subject of the user
+     * @param tenantId tenant identifier (Optional)
+     * @return the effective authorization, or null if there is none valid stored
+     */
+    public EffectiveAuthorization get(String sub, Long tenantId) {
+        if (sub == null) {
+            return null;
+        }
+        Decision decision = decisions.get(key(sub, tenantId));
+        return decision != null ? decision.authorization : null;
+    }
+
+    /**
+     * Gets the current invalidation generation, which must be taken before retrieving
+     * the effective authorization from role management (see {@link #put(String, Long, Long, EffectiveAuthorization, long)})
+     * @return the invalidation generation
+     */
+    public long getGeneration() {
+        return decisions.getGeneration();
+    }
+
+    /**
+     * Stores an effective authorization, unless some invalidation happened after the given generation
+     * was observed (in that case the authorization may have been retrieved before the change and is discarded)
+     * @param sub subject of the user
+     * @param userId user identifier (used to handle invalidation)
+     * @param tenantId tenant identifier (Optional)
+     * @param authorization the effective authorization to be stored
+     * @param generation invalidation generation observed before retrieving the authorization
+     * @return true if the authorization was stored
+     */
+    public boolean put(String sub, Long userId, Long tenantId, EffectiveAuthorization authorization, long generation) {
+        if (sub == null || authorization == null) {
+            return false;
+        }
+        return decisions.putIfCurrent(key(sub, tenantId), new Decision(userId, tenantId, authorization), generation);
+    }
+
+    /**
+     * Removes the effective authorizations that may be affected by an authorization change.
+     * A missing user affects every user, a missing tenant affects every tenant.
+     * Authorizations retrieved without tenant are always affected, since they involve all tenants.
+     * @param tenantId tenant identifier (Optional)
+     * @param userId user identifier (Optional)
+     */
+    public void invalidate(Long tenantId, Long userId) {
+        int removed = decisions.invalidateIf((key, decision) ->
+                (userId == null || Objects.equals(userId, decision.userId)) &&
+                (tenantId == null || decision.tenantId == null || tenantId.equals(decision.tenantId)));
+        log.debug("{} effective authorizations invalidated for tenant {} and user {}", removed, tenantId, userId);
+    }
+
+    /**
+     * Removes all the stored effective authorizations
+     */
+    public void invalidateAll() {
+        decisions.invalidateAll();
+    }
+
+    /**
+     * Observes authorization changes (association/dissociation of users and permissions)
+     * in order to invalidate the affected authorizations. The invalidation only happens once the transaction
+     * that changed the associations is committed, otherwise concurrent checks could store again authorizations
+     * based on the previous state (and a rolled back change would invalidate them for nothing)
+     * @param event describes which tenant/user were affected
+     */
+    public void onAuthorizationChange(@Observes(during = TransactionPhase.AFTER_SUCCESS)
+                                              AuthorizationChangeEvent event) {
+        invalidate(event.getTenantId(), event.getUserId());
+    }
+
+    /**
+     * Check if the cache is enabled
+     * @return true if effective authorizations are being cached
+     */
+    public boolean isEnabled() {
+        return decisions.isEnabled();
+    }
+
+    /**
+     * Enables or disables the cache
+     * @param enabled flag that indicates if effective authorizations must be cached
+     */
+    public void setEnabled(boolean enabled) {
+        decisions.setEnabled(enabled);
+    }
+
+    /**
+     * Composes the key for an effective authorization
+     * @param sub subject of the user
+     * @param tenantId tenant identifier (Optional)
+     * @return the key
+     */
+    private static String key(String sub, Long tenantId) {
+        return sub + '|' + tenantId;
+    }
+
+    /**
+     * Stored effective authorization, along with the user/tenant used to handle invalidation
+     */
+    private static class Decision {
+        private final Long userId;
+        private final Long tenantId;
+        private final EffectiveAuthorization authorization;
+
+        Decision(Long userId, Long tenantId, EffectiveAuthorization authorization) {
+            this.userId = userId;
+            this.tenantId = tenantId;
+            this.authorization = authorization;
+        }
+    }
+}
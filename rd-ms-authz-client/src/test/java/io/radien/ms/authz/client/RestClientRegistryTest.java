@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.authz.client;
+
+import io.radien.ms.authz.client.exception.ExceptionMapper;
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Class that aggregates UnitTest cases for {@link RestClientRegistry}
+ *
+ * @author Newton Carvalho
+ */
+public class RestClientRegistryTest {
+
+    /**
+     * Test for method {@link RestClientRegistry#getClient(String, Class, Class[])}
+     * Expected outcome: client is built once per endpoint and interface, and reused afterwards
+     * @throws MalformedURLException in case of any url issue
+     */
+    @Test
+    public void testGetClient() throws MalformedURLException {
+        RestClientRegistry registry = new RestClientRegistry(1000, 1000);
+        UserClient client = registry.getClient("http://url.test.pt", UserClient.class,
+                ExceptionMapper.class);
+        assertNotNull(client);
+        assertSame(client, registry.getClient("http://url.test.pt", UserClient.class,
+                ExceptionMapper.class));
+
+        TenantRoleClient tenantRoleClient = registry.getClient("http://url.test.pt", TenantRoleClient.class);
+        assertNotNull(tenantRoleClient);
+        assertNotSame(client, registry.getClient("http://other.test.pt", UserClient.class));
+
+        assertEquals(3, registry.getSize());
+        assertEquals(3, registry.getBuildCount());
+        assertEquals(1, registry.getReuseCount());
+
+        registry.clear();
+        assertEquals(0, registry.getSize());
+    }
+
+    /**
+     * Test for method {@link RestClientRegistry#getClient(String, Class, Class[])}
+     * Scenario: Invalid url
+     * Expected outcome: MalformedURLException is thrown and nothing is stored
+     * @throws MalformedURLException expected
+     */
+    @Test(expected = MalformedURLException.class)
+    public void testGetClientInvalidUrl() throws MalformedURLException {
+        new RestClientRegistry().getClient("url.test.pt", UserClient.class);
+    }
+}
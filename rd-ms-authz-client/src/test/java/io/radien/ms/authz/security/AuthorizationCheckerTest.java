@@ -17,8 +17,12 @@ package io.radien.ms.authz.security;
 
 import io.radien.api.OAFAccess;
 import io.radien.api.OAFProperties;
+import io.radien.api.entity.EffectiveAuthorization;
+import io.radien.api.security.AuthorizationChangeEvent;
 import io.radien.api.security.TokensPlaceHolder;
+import io.radien.api.security.UserIdentityCache;
 import io.radien.api.service.role.SystemRolesEnum;
+import io.radien.api.util.EffectiveAuthorizationFactory;
 import io.radien.exception.GenericErrorCodeMessage;
 import io.radien.exception.SystemException;
 import io.radien.exception.TokenExpiredException;
@@ -27,6 +31,7 @@ import io.radien.ms.authz.client.UserClient;
 import io.radien.ms.authz.client.exception.NotFoundException;
 import io.radien.ms.openid.entities.Principal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import javax.servlet.http.HttpServletRequest;
@@ -156,8 +161,8 @@ public class AuthorizationCheckerTest {
 
         when(this.userClient.getUserIdBySub(principal.getSub())).
                 thenReturn(Response.ok().entity(userId).build());
-        when(this.tenantRoleClient.isRoleExistentForUser(userId, roleName, null)).
-                thenReturn(Response.ok().entity(Boolean.TRUE).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, null)).
+                thenReturn(effectiveAuthorizationResponse(new String[]{roleName}, new long[0]));
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
         assertTrue(authorizationChecker.hasGrant(roleName));
@@ -187,13 +192,164 @@ public class AuthorizationCheckerTest {
 
         when(this.userClient.getUserIdBySub(principal.getSub())).
                 thenReturn(Response.ok().entity(userId).build());
-        when(this.tenantRoleClient.isRoleExistentForUser(userId, roleName, tenantId)).
-                thenReturn(Response.ok().entity(Boolean.TRUE).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
+                thenReturn(effectiveAuthorizationResponse(new String[]{roleName}, new long[0]));
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
         assertTrue(authorizationChecker.hasGrant(tenantId, roleName));
     }
 
+    /**
+     * Test for methods {@link AuthorizationChecker#hasGrant(Long, String)}, {@link AuthorizationChecker#hasGrant(Long, Long)}
+     * and {@link AuthorizationChecker#hasGrantMultipleRoles(Long, List)}
+     * Scenario: Decision cache is available, so the effective authorization is retrieved once and
+     * all the following checks (for the same user and tenant) are evaluated locally against it
+     * Expected outcome: only one remote invocation until an authorization change is observed
+     * @throws SystemException described on the signature for {@link AuthorizationChecker#hasGrant(Long, String)}
+     */
+    @Test
+    public void testHasGrantUsingDecisionCache() throws SystemException {
+        Long userId = 1001L;
+        Long tenantId = 1111L;
+        String roleName = "admin";
+        Long permissionId = 5L;
+
+        HttpSession session = Mockito.mock(HttpSession.class);
+        Principal principal = new Principal();
+        principal.setSub("aaa-bbb-ccc-ddd");
+
+        when(servletRequest.getSession()).thenReturn(session);
+        when(servletRequest.getSession(false)).thenReturn(session);
+        when(session.getAttribute("USER")).thenReturn(principal);
+
+        when(this.userClient.getUserIdBySub(principal.getSub())).
+                thenReturn(Response.ok().entity(userId).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
+                thenAnswer(i -> effectiveAuthorizationResponse(new String[]{roleName}, new long[]{permissionId}));
+        when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
+
+        AuthorizationDecisionCache decisionCache = new AuthorizationDecisionCache(60000, 10);
+        authorizationChecker.setDecisionCache(decisionCache);
+
+        assertTrue(authorizationChecker.hasGrant(tenantId, roleName));
+        assertFalse(authorizationChecker.hasGrant(tenantId, "guest"));
+        assertTrue(authorizationChecker.hasGrant(permissionId, tenantId));
+        assertFalse(authorizationChecker.hasGrant(6L, tenantId));
+        assertTrue(authorizationChecker.hasGrantMultipleRoles(tenantId, Arrays.asList("guest", roleName)));
+
+        Mockito.verify(this.tenantRoleClient, Mockito.times(1)).getEffectiveAuthorization(userId, tenantId);
+        Mockito.verify(this.tenantRoleClient, Mockito.never()).isRoleExistentForUser(any(), any(), any());
+        Mockito.verify(this.tenantRoleClient, Mockito.never()).isPermissionExistentForUser(any(), any(), any());
+        Mockito.verify(this.tenantRoleClient, Mockito.never()).checkPermissions(any(), any(), any());
+        assertEquals(4, decisionCache.getHitCount());
+        assertEquals(1, decisionCache.getMissCount());
+
+        decisionCache.onAuthorizationChange(new AuthorizationChangeEvent(tenantId, userId));
+        assertTrue(authorizationChecker.hasGrant(tenantId, roleName));
+        Mockito.verify(this.tenantRoleClient, Mockito.times(2)).getEffectiveAuthorization(userId, tenantId);
+    }
+
+    /**
+     * Test for method {@link AuthorizationChecker#getEffectiveAuthorization(Long)}
+     * Scenario: Role management does not answer successfully
+     * Expected outcome: nothing granted and nothing kept on the decision cache, so the next check tries again
+     * @throws SystemException described on the signature for {@link AuthorizationChecker#getEffectiveAuthorization(Long)}
+     */
+    @Test
+    public void testFailedEffectiveAuthorizationNotCached() throws SystemException {
+        Long userId = 1001L;
+        Long tenantId = 1111L;
+
+        HttpSession session = Mockito.mock(HttpSession.class);
+        Principal principal = new Principal();
+        principal.setSub("aaa-bbb-ccc-ddd");
+
+        when(servletRequest.getSession(false)).thenReturn(session);
+        when(session.getAttribute("USER")).thenReturn(principal);
+        when(this.userClient.getUserIdBySub(principal.getSub())).
+                thenReturn(Response.ok().entity(userId).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
+                thenReturn(Response.status(Response.Status.INTERNAL_SERVER_ERROR).build()).
+                thenReturn(effectiveAuthorizationResponse(new String[]{"admin"}, new long[0]));
+        when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
+
+        AuthorizationDecisionCache decisionCache = new AuthorizationDecisionCache(60000, 10);
+        authorizationChecker.setDecisionCache(decisionCache);
+
+        assertFalse(authorizationChecker.hasGrant(tenantId, "admin"));
+        assertEquals(0, decisionCache.getSize());
+        assertTrue(authorizationChecker.hasGrant(tenantId, "admin"));
+        assertEquals(1, decisionCache.getSize());
+    }
+
+    /**
+     * Test for method {@link AuthorizationChecker#getCurrentUserId()
+     * Scenario: Several checks performed for the same logged user
+     * Expected outcome: user id is resolved (by sub) only once and kept on the session user
+     * @throws SystemException described on the signature for {@link AuthorizationChecker#hasGrant(Long, String)}
+     */
+    @Test
+    public void testCurrentUserIdResolvedOnlyOnce() throws SystemException {
+        Long userId = 1001L;
+        Long tenantId = 1111L;
+
+        HttpSession session = Mockito.mock(HttpSession.class);
+        Principal principal = new Principal();
+        principal.setSub("aaa-bbb-ccc-ddd");
+
+        when(servletRequest.getSession()).thenReturn(session);
+        when(servletRequest.getSession(false)).thenReturn(session);
+        when(session.getAttribute("USER")).thenReturn(principal);
+
+        when(this.userClient.getUserIdBySub(principal.getSub())).
+                thenReturn(Response.ok().entity(userId).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
+                thenAnswer(i -> effectiveAuthorizationResponse(new String[]{"admin", "approver"}, new long[0]));
+        when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
+
+        assertTrue(authorizationChecker.hasGrant(tenantId, "admin"));
+        assertTrue(authorizationChecker.hasGrant(tenantId, "approver"));
+
+        assertEquals(userId, principal.getId());
+        Mockito.verify(this.userClient, Mockito.times(1)).getUserIdBySub(principal.getSub());
+    }
+
+    /**
+     * Test for method {@link AuthorizationChecker#getCurrentUserId()
+     * Scenario: Stateless requests, each one with its own user reference (no session)
+     * Expected outcome: user id is resolved (by sub) only once and then taken from the {@link UserIdentityCache}
+     * @throws SystemException described on the signature for {@link AuthorizationChecker#getCurrentUserId()}
+     */
+    @Test
+    public void testCurrentUserIdResolvedOnceForStatelessRequests() throws SystemException {
+        Long userId = 1002L;
+        String sub = "stateless-sub";
+        authorizationChecker.setUserIdentityCache(new UserIdentityCache(60000, 10));
+        when(this.userClient.getUserIdBySub(sub)).thenReturn(Response.ok().entity(userId).build());
+
+        for (int i = 0; i < 3; i++) {
+            Principal principal = new Principal();
+            principal.setSub(sub);
+            when(servletRequest.getAttribute("USER")).thenReturn(principal);
+            assertEquals(userId, authorizationChecker.getCurrentUserId());
+        }
+
+        Mockito.verify(this.userClient, Mockito.times(1)).getUserIdBySub(sub);
+        Mockito.verify(servletRequest, Mockito.never()).getSession(Mockito.anyBoolean());
+    }
+
+    /**
+     * Utility method that produces the role management response for an effective authorization
+     * @param roleNames granted role names
+     * @param permissionIds granted permission identifiers
+     * @return response containing the effective authorization (as json)
+     */
+    protected Response effectiveAuthorizationResponse(String[] roleNames, long[] permissionIds) {
+        EffectiveAuthorization effectiveAuthorization = new EffectiveAuthorization(null, null, new long[0],
+                roleNames, permissionIds);
+        return Response.ok(EffectiveAuthorizationFactory.convertToJsonObject(effectiveAuthorization).toString()).build();
+    }
+
     /**
      * Utility method to reduce cognitive complexity when mocking components for refresh token cases
      * @param holder instance of {@link TokensPlaceHolder}
@@ -237,9 +393,9 @@ public class AuthorizationCheckerTest {
 
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
-        when(this.tenantRoleClient.isRoleExistentForUser(userId, roleName, tenantId)).
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
                 thenThrow(new TokenExpiredException()).
-                thenReturn(Response.ok().entity(Boolean.TRUE).build());
+                thenReturn(effectiveAuthorizationResponse(new String[]{roleName}, new long[0]));
 
         assertTrue(authorizationChecker.hasGrant(tenantId, roleName));
     }
@@ -271,7 +427,7 @@ public class AuthorizationCheckerTest {
                 thenReturn(Response.ok().entity(userId).build());
         prepareMockParamForRefreshToken(tokensPlaceHolder, userClient);
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
-        when(this.tenantRoleClient.isRoleExistentForUser(userId, roleName, tenantId)).
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
                 thenThrow(new TokenExpiredException()).
                 thenThrow(new TokenExpiredException());
 
@@ -301,8 +457,8 @@ public class AuthorizationCheckerTest {
 
         when(this.userClient.getUserIdBySub(principal.getSub())).
                 thenReturn(Response.ok().entity(userId).build());
-        when(this.tenantRoleClient.isRoleExistentForUser(userId, roleName, null)).
-                thenReturn(Response.ok().entity(Boolean.FALSE).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, null)).
+                thenReturn(effectiveAuthorizationResponse(new String[0], new long[0]));
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
         assertFalse(authorizationChecker.hasGrant(roleName));
@@ -332,8 +488,8 @@ public class AuthorizationCheckerTest {
 
         when(this.userClient.getUserIdBySub(principal.getSub())).
                 thenReturn(Response.ok().entity(userId).build());
-        when(this.tenantRoleClient.isRoleExistentForUser(userId, roleName, tenantId)).
-                thenReturn(Response.ok().entity(Boolean.FALSE).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
+                thenReturn(effectiveAuthorizationResponse(new String[0], new long[0]));
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
         assertFalse(authorizationChecker.hasGrant(tenantId, roleName));
@@ -364,7 +520,7 @@ public class AuthorizationCheckerTest {
 
         when(this.userClient.getUserIdBySub(principal.getSub())).
                 thenReturn(Response.ok().entity(userId).build());
-        when(this.tenantRoleClient.isRoleExistentForUser(userId, roleName, tenantId)).
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
                 thenReturn(Response.status(300).build());
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
@@ -552,13 +708,53 @@ public class AuthorizationCheckerTest {
 
         when(this.userClient.getUserIdBySub(principal.getSub())).
                 thenReturn(Response.ok().entity(userId).build());
-        when(this.tenantRoleClient.isPermissionExistentForUser(userId, permissionId, tenantId)).
-                thenReturn(Response.ok(Boolean.TRUE).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
+                thenReturn(effectiveAuthorizationResponse(new String[0], new long[]{permissionId}));
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
         assertTrue(authorizationChecker.hasGrant(permissionId, tenantId));
     }
 
+    /**
+     * Test for method {@link AuthorizationChecker#getEffectiveAuthorization(Long)}
+     * Scenario: roles and permissions retrieved in one call, checks answered locally
+     * Expected outcome: granted roles/permissions TRUE, others FALSE, nothing granted if HTTP status NOK
+     * @throws SystemException described on the signature for {@link AuthorizationChecker#getEffectiveAuthorization(Long)}
+     */
+    @Test
+    public void testGetEffectiveAuthorization() throws SystemException {
+        Long userId = 1001L;
+        Long tenantId = 22L;
+
+        HttpSession session = Mockito.mock(HttpSession.class);
+        Principal principal = new Principal();
+        principal.setSub("aaa-bbb-ccc-ddd");
+
+        when(servletRequest.getSession()).thenReturn(session);
+        when(servletRequest.getSession(false)).thenReturn(session);
+        when(session.getAttribute("USER")).thenReturn(principal);
+
+        when(this.userClient.getUserIdBySub(principal.getSub())).
+                thenReturn(Response.ok().entity(userId).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
+                thenReturn(Response.ok("{\"userId\":1001,\"tenantId\":22,\"roleIds\":[2,1]," +
+                        "\"roleNames\":[\"user\",\"admin\"],\"permissionIds\":[7,3]}").build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, null)).
+                thenReturn(Response.status(Response.Status.INTERNAL_SERVER_ERROR).build());
+        when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
+
+        EffectiveAuthorization effectiveAuthorization = authorizationChecker.getEffectiveAuthorization(tenantId);
+        assertTrue(effectiveAuthorization.hasRole("admin"));
+        assertFalse(effectiveAuthorization.hasRole("guest"));
+        assertTrue(effectiveAuthorization.hasAnyRole(Collections.singletonList("user")));
+        assertTrue(effectiveAuthorization.hasPermission(3L));
+        assertFalse(effectiveAuthorization.hasPermission(4L));
+
+        effectiveAuthorization = authorizationChecker.getEffectiveAuthorization(null);
+        assertFalse(effectiveAuthorization.hasRole("admin"));
+        assertFalse(effectiveAuthorization.hasPermission(3L));
+    }
+
     /**
      * Test for method {@link AuthorizationChecker#hasGrant(Long, Long)}
      * Scenario: User has NO access to an informed permission (id) in a given tenant (id)
@@ -583,8 +779,8 @@ public class AuthorizationCheckerTest {
 
         when(this.userClient.getUserIdBySub(principal.getSub())).
                 thenReturn(Response.ok().entity(userId).build());
-        when(this.tenantRoleClient.isPermissionExistentForUser(userId, permissionId, tenantId)).
-                thenReturn(Response.ok(Boolean.FALSE).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
+                thenReturn(effectiveAuthorizationResponse(new String[0], new long[0]));
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
         assertFalse(authorizationChecker.hasGrant(permissionId, tenantId));
@@ -615,7 +811,7 @@ public class AuthorizationCheckerTest {
 
         when(this.userClient.getUserIdBySub(principal.getSub())).
                 thenReturn(Response.ok().entity(userId).build());
-        when(this.tenantRoleClient.isPermissionExistentForUser(userId, permissionId, tenantId)).
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
                 thenReturn(Response.status(300).build());
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
@@ -650,9 +846,9 @@ public class AuthorizationCheckerTest {
         when(this.userClient.getUserIdBySub(principal.getSub())).
                 thenReturn(Response.ok().entity(userId).build());
 
-        when(this.tenantRoleClient.isPermissionExistentForUser(userId, permissionId, tenantId)).
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
                 thenThrow(TokenExpiredException.class).
-                thenReturn(Response.ok(Boolean.TRUE).build());
+                thenReturn(effectiveAuthorizationResponse(new String[0], new long[]{permissionId}));
 
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
@@ -688,7 +884,7 @@ public class AuthorizationCheckerTest {
         when(this.userClient.getUserIdBySub(principal.getSub())).
                 thenReturn(Response.ok().entity(userId).build());
 
-        when(this.tenantRoleClient.isPermissionExistentForUser(userId, permissionId, tenantId)).
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
                 thenThrow(TokenExpiredException.class).
                 thenThrow(TokenExpiredException.class);
 
@@ -724,8 +920,8 @@ public class AuthorizationCheckerTest {
         when(session.getAttribute("USER")).thenReturn(principal);
 
         when(this.userClient.getUserIdBySub(principal.getSub())).thenReturn(Response.ok().entity(userId).build());
-        when(this.tenantRoleClient.isRoleExistentForUser(userId, roleName, null)).
-                thenReturn(Response.ok().entity(Boolean.TRUE).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, null)).
+                thenReturn(effectiveAuthorizationResponse(new String[]{roleName}, new long[0]));
 
         assertTrue(authorizationChecker.hasGrant(roleName));
     }
@@ -755,8 +951,8 @@ public class AuthorizationCheckerTest {
 
         when(this.userClient.getUserIdBySub(principal.getSub())).thenReturn(Response.ok().entity(userId).build());
 
-        when(this.tenantRoleClient.isRoleExistentForUser(userId, roleName, null)).
-                thenReturn(Response.ok().entity(Boolean.TRUE).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, null)).
+                thenReturn(effectiveAuthorizationResponse(new String[]{roleName}, new long[0]));
 
         assertTrue(authorizationChecker.hasGrant(roleName));
     }
@@ -839,8 +1035,8 @@ public class AuthorizationCheckerTest {
 
         when(this.userClient.getUserIdBySub(principal.getSub())).
                 thenReturn(Response.ok().entity(userId).build());
-        when(this.tenantRoleClient.checkPermissions(userId, roleList, null)).
-                thenReturn(Response.ok().entity(Boolean.TRUE).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, null)).
+                thenReturn(effectiveAuthorizationResponse(new String[]{roleList.get(1)}, new long[0]));
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
         assertTrue(authorizationChecker.hasGrantMultipleRoles(roleList));
@@ -872,8 +1068,8 @@ public class AuthorizationCheckerTest {
 
         when(this.userClient.getUserIdBySub(principal.getSub())).
                 thenReturn(Response.ok().entity(userId).build());
-        when(this.tenantRoleClient.checkPermissions(userId, roleList, null)).
-                thenReturn(Response.ok().entity(Boolean.FALSE).build());
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, null)).
+                thenReturn(effectiveAuthorizationResponse(new String[0], new long[0]));
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
         assertFalse(authorizationChecker.hasGrantMultipleRoles(roleList));
@@ -912,7 +1108,7 @@ public class AuthorizationCheckerTest {
 
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz");
 
-        when(this.tenantRoleClient.checkPermissions(userId, roleList, tenantId)).
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
                 thenThrow(new TokenExpiredException()).
                 thenThrow(new TokenExpiredException());
         SystemException se = assertThrows(SystemException.class,
@@ -952,7 +1148,7 @@ public class AuthorizationCheckerTest {
 
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz").thenReturn("token-yyz");
 
-        when(this.tenantRoleClient.checkPermissions(userId, roleList, tenantId)).
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
                 thenThrow(new TokenExpiredException()).
                 thenThrow(new TokenExpiredException());
 
@@ -993,7 +1189,7 @@ public class AuthorizationCheckerTest {
 
         when(tokensPlaceHolder.getAccessToken()).thenReturn("token-yyz").thenReturn("token-yyz");
 
-        when(this.tenantRoleClient.checkPermissions(userId, roleList, tenantId)).
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
                 thenReturn(Response.status(300).build());
 
         assertFalse(authorizationChecker.hasGrantMultipleRoles(tenantId, roleList));
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.authz.security;
+
+import io.radien.api.entity.EffectiveAuthorization;
+import io.radien.api.security.AuthorizationChangeEvent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class that aggregates UnitTest cases for {@link AuthorizationDecisionCache}
+ *
+ * @author Newton Carvalho
+ */
+public class AuthorizationDecisionCacheTest {
+
+    private final EffectiveAuthorization admin = new EffectiveAuthorization(10L, 1L, new long[]{1},
+            new String[]{"admin"}, new long[]{7});
+
+    /**
+     * Test for methods {@link AuthorizationDecisionCache#put(String, Long, Long, EffectiveAuthorization, long)} and
+     * {@link AuthorizationDecisionCache#get(String, Long)}
+     * Expected outcome: stored authorizations are retrieved and hits/misses are counted
+     */
+    @Test
+    public void testPutAndGet() {
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(60000, 10);
+        assertNull(cache.get("sub-1", 1L));
+
+        assertTrue(cache.put("sub-1", 10L, 1L, admin, cache.getGeneration()));
+        assertTrue(cache.put("sub-1", 10L, 2L, new EffectiveAuthorization(), cache.getGeneration()));
+
+        assertSame(admin, cache.get("sub-1", 1L));
+        assertFalse(cache.get("sub-1", 2L).hasRole("admin"));
+        assertNull(cache.get("sub-2", 1L));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getSize());
+    }
+
+    /**
+     * Test for method {@link AuthorizationDecisionCache#put(String, Long, Long, EffectiveAuthorization, long)}
+     * Scenario: An authorization change is observed while the authorization was being retrieved
+     * Expected outcome: the (possibly stale) authorization is not stored
+     */
+    @Test
+    public void testPutAfterInvalidation() {
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(60000, 10);
+        long generation = cache.getGeneration();
+        cache.onAuthorizationChange(new AuthorizationChangeEvent(1L, 10L));
+        assertFalse(cache.put("sub-1", 10L, 1L, admin, generation));
+        assertNull(cache.get("sub-1", 1L));
+        assertEquals(0, cache.getSize());
+    }
+
+    /**
+     * Test for method {@link AuthorizationDecisionCache#get(String, Long)}
+     * Scenario: Authorization already expired
+     * Expected outcome: authorization is not retrieved and is evicted
+     */
+    @Test
+    public void testExpiredDecision() {
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(0, 10);
+        cache.put("sub-1", 10L, 1L, admin, cache.getGeneration());
+        assertNull(cache.get("sub-1", 1L));
+        assertEquals(0, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /**
+     * Test for method {@link AuthorizationDecisionCache#put(String, Long, Long, EffectiveAuthorization, long)}
+     * Scenario: Max size reached
+     * Expected outcome: least recently used authorization is evicted
+     */
+    @Test
+    public void testMaxSize() {
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(60000, 2);
+        cache.put("sub-1", 10L, 1L, admin, cache.getGeneration());
+        cache.put("sub-2", 20L, 1L, admin, cache.getGeneration());
+        assertNotNull(cache.get("sub-1", 1L));
+        cache.put("sub-3", 30L, 1L, admin, cache.getGeneration());
+
+        assertEquals(2, cache.getSize());
+        assertNull(cache.get("sub-2", 1L));
+        assertNotNull(cache.get("sub-1", 1L));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /**
+     * Test for method {@link AuthorizationDecisionCache#onAuthorizationChange(AuthorizationChangeEvent)}
+     * Expected outcome: only the authorizations related to the informed user/tenant
+     * (and the ones retrieved without tenant) are removed
+     */
+    @Test
+    public void testInvalidation() {
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(60000, 10);
+        cache.put("sub-1", 10L, 1L, admin, cache.getGeneration());
+        cache.put("sub-1", 10L, 2L, admin, cache.getGeneration());
+        cache.put("sub-1", 10L, null, admin, cache.getGeneration());
+        cache.put("sub-2", 20L, 1L, admin, cache.getGeneration());
+
+        cache.onAuthorizationChange(new AuthorizationChangeEvent(1L, 10L));
+        assertNull(cache.get("sub-1", 1L));
+        assertNull(cache.get("sub-1", null));
+        assertNotNull(cache.get("sub-1", 2L));
+        assertNotNull(cache.get("sub-2", 1L));
+
+        cache.onAuthorizationChange(new AuthorizationChangeEvent(1L, null));
+        assertNull(cache.get("sub-2", 1L));
+        assertNotNull(cache.get("sub-1", 2L));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.getSize());
+    }
+
+    /**
+     * Test for method {@link AuthorizationDecisionCache#setEnabled(boolean)}
+     * Expected outcome: nothing is stored when the cache is disabled
+     */
+    @Test
+    public void testDisabled() {
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(60000, 10);
+        cache.setEnabled(false);
+        cache.put("sub-1", 10L, 1L, admin, cache.getGeneration());
+        assertNull(cache.get("sub-1", 1L));
+        assertEquals(0, cache.getSize());
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.client.entities;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable bundle with every message (key and description) of one language
+ *
+ * @author andresousa
+ */
+public class I18NBundle implements Serializable {
+
+    private static final long serialVersionUID = -2395541877281626834L;
+
+    private final String language;
+    private final String version;
+    private final Map<String, String> messages;
+
+    /**
+     * I18N bundle constructor
+     * @param language bundle language
+     * @param version value that changes whenever a message of the bundle changes
+     * @param messages messages (description by key), must not be modified afterwards
+     */
+    public I18NBundle(String language, String version, Map<String, String> messages) {
+        this.language = language;
+        this.version = version;
+        this.messages = Collections.unmodifiableMap(messages);
+    }
+
+    /**
+     * I18N bundle language getter
+     * @return the bundle language
+     */
+    public String getLanguage() {
+        return language;
+    }
+
+    /**
+     * I18N bundle version getter
+     * @return a value that changes whenever a message of the bundle changes
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * I18N bundle messages getter
+     * @return the (unmodifiable) messages, description by key
+     */
+    public Map<String, String> getMessages() {
+        return messages;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.client.services;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.InputStream;
+
+@Path("content")
+public interface ContentResourceClient {
+
+    /**
+     * Rest request to download (stream) the file of a document.
+     * Supports a single http byte range, answered with 206 (Partial Content)
+     * @param jcrPath jcr path of the document
+     * @param range value of the Range header (Optional)
+     * @return a http response with the file content
+     */
+    @GET
+    @Path("/file")
+    @Produces(MediaType.WILDCARD)
+    Response getFile(@QueryParam("jcrPath") String jcrPath, @HeaderParam("Range") String range);
+
+    /**
+     * Rest request to download (stream) the image of a content.
+     * Content listings do not carry the image bytes, only its name and mime type,
+     * so this is the way to resolve the image on demand
+     * @param jcrPath jcr path of the content
+     * @param range value of the Range header (Optional)
+     * @return a http response with the image content
+     */
+    @GET
+    @Path("/image")
+    @Produces(MediaType.WILDCARD)
+    Response getImage(@QueryParam("jcrPath") String jcrPath, @HeaderParam("Range") String range);
+
+    /**
+     * Rest request to retrieve one level of the document tree (paged), so the tree can be expanded on demand.
+     * Each child carries a child count hint and no binaries. Supports conditional requests, a request whose
+     * If-None-Match header matches the current ETag is answered with 304 (Not Modified)
+     * @param jcrPath jcr path of the parent node (Optional, the documents root by default)
+     * @param pageNo requested page (starting at 1)
+     * @param pageSize number of children per page
+     * @param ifNoneMatch value of the If-None-Match header (Optional)
+     * @return a http response with the requested page of children
+     */
+    @GET
+    @Path("/tree")
+    @Produces(MediaType.APPLICATION_JSON)
+    Response getDocumentTreeLevel(@QueryParam("jcrPath") String jcrPath,
+                                  @DefaultValue("1") @QueryParam("pageNo") int pageNo,
+                                  @DefaultValue("50") @QueryParam("pageSize") int pageSize,
+                                  @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch);
+
+    /**
+     * Rest request to upload (stream) the file of a document
+     * @param viewId view id of the document
+     * @param mimeType file mime type
+     * @param file file content
+     * @return a http response with the updated file size
+     */
+    @PUT
+    @Path("/file")
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    @Produces(MediaType.APPLICATION_JSON)
+    Response uploadFile(@QueryParam("viewId") String viewId, @QueryParam("mimeType") String mimeType,
+                        InputStream file);
+
+    /**
+     * Rest request to rebuild the content full-text index.
+     * The rebuild is done asynchronously by the repository
+     * @param secret given secret to match to request the rebuild
+     * @return a http response with status 202 (Accepted)
+     */
+    @POST
+    @Path("/index/reindex/{secret}")
+    Response reindex(@PathParam("secret") String secret);
+}
@@ -22,9 +22,11 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.List;
@@ -87,6 +89,22 @@ public interface I18NPropertyResourceClient {
     @Path("/properties")
     Response getProperties();
 
+    /**
+     * Rest request to get every message (description by key) of a language in a single json object,
+     * so all the labels can be loaded at once. The bundle is gzip compressed if accepted by the client
+     * and supports conditional requests, a request whose If-None-Match header matches the current ETag
+     * is answered with 304 (Not Modified)
+     * @param language bundle language
+     * @param ifNoneMatch value of the If-None-Match header (Optional)
+     * @param acceptEncoding value of the Accept-Encoding header (Optional)
+     * @return a http response
+     */
+    @GET
+    @Path("/bundle/{language}")
+    Response getBundle(@PathParam("language") String language,
+                       @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                       @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding);
+
     /**
      * Rest request to get all the initialized properties
      * @param secret given secret to match to initialize the properties
@@ -16,6 +16,7 @@
 
 package io.radien.ms.ecm.client.services;
 
+import io.radien.ms.ecm.client.entities.I18NBundle;
 import io.radien.ms.ecm.client.entities.I18NProperty;
 
 import java.util.List;
@@ -72,7 +73,22 @@ public interface SystemI18NPropertyService {
     I18NProperty getByKey(String key);
 
     /**
-     * System I18N property initialization
+     * System I18N get every message of a language
+     * @param language to be retrieved
+     * @return the bundle of the requested language (empty if there is no message for it)
+     */
+    I18NBundle getBundle(String language);
+
+    /**
+     * System I18N property initialization, skipped if the resource bundles did not change
+     * since the last initialization
      */
     void initializeProperties();
+
+    /**
+     * System I18N property initialization
+     * @param force if true the resource bundles are synchronized even if they did not change
+     * since the last initialization (i.e. to restore deleted properties)
+     */
+    void initializeProperties(boolean force);
 }
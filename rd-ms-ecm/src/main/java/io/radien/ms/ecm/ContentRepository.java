@@ -26,6 +26,11 @@ import io.radien.api.service.ecm.model.ContentType;
 import io.radien.api.service.ecm.model.EnterpriseContent;
 import io.radien.api.service.ecm.model.RestTreeNode;
 import io.radien.ms.ecm.factory.ContentFactory;
+import io.radien.ms.ecm.jcr.ContentBinary;
+import io.radien.ms.ecm.jcr.DocumentTreeLevel;
+import io.radien.ms.ecm.jcr.ContentIndexInitializer;
+import io.radien.ms.ecm.jcr.JCRSessionPool;
+import io.radien.ms.ecm.service.ContentCache;
 import io.radien.ms.ecm.util.OafConstants;
 import org.apache.jackrabbit.JcrConstants;
 import org.apache.jackrabbit.commons.JcrUtils;
@@ -43,11 +48,14 @@ import javax.jcr.NodeIterator;
 import javax.jcr.PathNotFoundException;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
+import javax.jcr.ValueFactory;
 import javax.jcr.nodetype.NodeType;
 import javax.jcr.query.Query;
 import javax.jcr.query.QueryManager;
 import javax.jcr.query.QueryResult;
+import javax.jcr.query.RowIterator;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -63,11 +71,41 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 
 	private static final Logger log = LoggerFactory.getLogger(ContentRepository.class);
 	private static final long serialVersionUID = 1L;
+
+	public static final String QUERY_BY_VIEW_ID = "select * from [" + JcrConstants.NT_BASE + "] as node " +
+			"where [" + OafConstants.OAF_VIEW_ID + "] = $viewId";
+	public static final String QUERY_BY_ACTIVE_VIEW_ID = QUERY_BY_VIEW_ID +
+			" and [" + OafConstants.OAF_ACTIVE + "] = $active";
+	public static final String QUERY_BY_CONTENT_TYPE = "select * from [" + JcrConstants.NT_BASE + "] as b " +
+			"where [" + OafConstants.OAF_CONTENT_TYPE + "] = $contentType and [" + OafConstants.OAF_SYSTEM + "] = $system";
+	public static final String QUERY_BY_ACTIVE_CONTENT_TYPE = QUERY_BY_CONTENT_TYPE +
+			" and [" + OafConstants.OAF_ACTIVE + "] = $active";
+	private static final String SEARCH_CONDITION = "from [" + JcrConstants.NT_BASE + "] as b " +
+			"where [" + OafConstants.OAF_SYSTEM + "] = $system and ([" + OafConstants.OAF_CONTENT_TYPE + "] = $html " +
+			"or [" + OafConstants.OAF_CONTENT_TYPE + "] = $newsFeed " +
+			"or [" + OafConstants.OAF_CONTENT_TYPE + "] = $notification)";
+	public static final String QUERY_SEARCH = "select * " + SEARCH_CONDITION +
+			" order by [" + JcrConstants.JCR_CREATED + "] desc";
+	public static final String QUERY_SEARCH_COUNT = "select [" + JcrConstants.JCR_PATH + "] " + SEARCH_CONDITION;
+	private static final String FULL_TEXT_CONDITION = " and contains(b.*, $searchTerm)";
+	public static final String QUERY_SEARCH_TEXT = "select * " + SEARCH_CONDITION + FULL_TEXT_CONDITION +
+			" order by [jcr:score] desc";
+	public static final String QUERY_SEARCH_TEXT_COUNT = "select [" + JcrConstants.JCR_PATH + "] " +
+			SEARCH_CONDITION + FULL_TEXT_CONDITION;
+
+	public static final int CHILD_COUNT_HINT_LIMIT = 100;
+
 	@Inject
 	private OAFAccess oaf;
 	@Inject
 	private ContentFactory contentFactory;
 	@Inject
+	private ContentIndexInitializer contentIndexInitializer;
+	@Inject
+	private ContentCache contentCache;
+	@Inject
+	private JCRSessionPool sessionPool;
+	@Inject
 	private Session session;
 
 	@PostConstruct
@@ -76,105 +114,117 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 	}
 
 	public void save(EnterpriseContent obj) {
-		String viewId = obj.getViewId();
-		Node content = null;
-		Node parent = null;
-		boolean isMoveCommand = false;
-		String nameEscaped = Text.escapeIllegalJcrChars(obj.getName());
-
-		if (viewId == null || viewId.equalsIgnoreCase("")) {
-			contentFactory.decorateNewContent(obj);
-		} else {
-			try {
-				content = getNodeByViewId(viewId, false);
-				if (obj.getParentPath() == null) {
-					obj.setParentPath(content.getParent().getPath());
-				}
-				String newPath = obj.getParentPath() + "/" + nameEscaped;
-				if (!newPath.equals(content.getPath())) {
-					isMoveCommand = true;
-				}
-			} catch (Exception e) {
-				// log.info("Error saving content", e);
-				// TODO jsr: refactor all this mess
-			}
+		Session writeSession;
+		try {
+			writeSession = sessionPool.openWriteSession();
+		} catch (RepositoryException e) {
+			log.error("Error saving content", e);
+			return;
 		}
-
 		try {
-			if (content == null) {
-				if (obj.getJcrPath() != null && !obj.getJcrPath().equalsIgnoreCase("")) {
-					content = session.getNode(obj.getJcrPath());
+			String viewId = obj.getViewId();
+			Node content = null;
+			Node parent = null;
+			boolean isMoveCommand = false;
+			String nameEscaped = Text.escapeIllegalJcrChars(obj.getName());
+
+			if (viewId == null || viewId.equalsIgnoreCase("")) {
+				contentFactory.decorateNewContent(obj);
+			} else {
+				try {
+					content = getNodeByViewId(writeSession, viewId, false);
+					if (obj.getParentPath() == null) {
+						obj.setParentPath(content.getParent().getPath());
+					}
+					String newPath = obj.getParentPath() + "/" + nameEscaped;
+					if (!newPath.equals(content.getPath())) {
+						isMoveCommand = true;
+					}
+				} catch (Exception e) {
+					// log.info("Error saving content", e);
+					// TODO jsr: refactor all this mess
 				}
 			}
 
-		} catch (RepositoryException e) {
-			log.info("Error saving the content", e);
-		}
+			try {
+				if (content == null) {
+					if (obj.getJcrPath() != null && !obj.getJcrPath().equalsIgnoreCase("")) {
+						content = writeSession.getNode(obj.getJcrPath());
+					}
+				}
 
-		try {
-			if (obj.getParentPath() != null && !obj.getParentPath().equalsIgnoreCase("")) {
-				parent = session.getNode(obj.getParentPath());
+			} catch (RepositoryException e) {
+				log.info("Error saving the content", e);
 			}
-		} catch (RepositoryException e) {
-			log.error("ERror saving content", e);
-		}
 
-		try {
-			if (content == null) {
-				switch (obj.getContentType()) {
-					case DOCUMENT:
-						if (parent == null) {
-							parent = getDocumentsContentNode();
-						}
-						content = parent.addNode(nameEscaped, JcrConstants.NT_FILE);
-						break;
-					case FOLDER:
-						if (parent == null) {
-							parent = getDocumentsContentNode();
-						}
-						content = parent.addNode(nameEscaped, JcrConstants.NT_FOLDER);
-						break;
-					case HTML:
-						if (parent == null) {
-							parent = getHTMLContentNode();
-						}
-						content = parent.addNode(nameEscaped, JcrConstants.NT_FILE);
-						break;
-					case NEWS_FEED:
-						if (parent == null) {
-							parent = getNewsFeedContentNode();
-						}
-						content = parent.addNode(nameEscaped, JcrConstants.NT_FILE);
-						break;
-					case IMAGE:
-						if (parent == null) {
-							parent = getImageContentNode();
-						}
-						content = parent.addNode(nameEscaped, JcrConstants.NT_FILE);
-						break;
-					case NOTIFICATION:
-						if (parent == null) {
-							parent = getNotificationContentNode();
-						}
-						content = parent.addNode(nameEscaped, JcrConstants.NT_FILE);
-						break;
+			try {
+				if (obj.getParentPath() != null && !obj.getParentPath().equalsIgnoreCase("")) {
+					parent = writeSession.getNode(obj.getParentPath());
 				}
+			} catch (RepositoryException e) {
+				log.error("ERror saving content", e);
+			}
 
-				content.addMixin(OafConstants.OAF_MIXIN_NODE_PROPS);
+			try {
+				if (content == null) {
+					switch (obj.getContentType()) {
+						case DOCUMENT:
+							if (parent == null) {
+								parent = getDocumentsContentNode(writeSession);
+							}
+							content = parent.addNode(nameEscaped, JcrConstants.NT_FILE);
+							break;
+						case FOLDER:
+							if (parent == null) {
+								parent = getDocumentsContentNode(writeSession);
+							}
+							content = parent.addNode(nameEscaped, JcrConstants.NT_FOLDER);
+							break;
+						case HTML:
+							if (parent == null) {
+								parent = getHTMLContentNode(writeSession);
+							}
+							content = parent.addNode(nameEscaped, JcrConstants.NT_FILE);
+							break;
+						case NEWS_FEED:
+							if (parent == null) {
+								parent = getNewsFeedContentNode(writeSession);
+							}
+							content = parent.addNode(nameEscaped, JcrConstants.NT_FILE);
+							break;
+						case IMAGE:
+							if (parent == null) {
+								parent = getImageContentNode(writeSession);
+							}
+							content = parent.addNode(nameEscaped, JcrConstants.NT_FILE);
+							break;
+						case NOTIFICATION:
+							if (parent == null) {
+								parent = getNotificationContentNode(writeSession);
+							}
+							content = parent.addNode(nameEscaped, JcrConstants.NT_FILE);
+							break;
+					}
 
-			}
+					content.addMixin(OafConstants.OAF_MIXIN_NODE_PROPS);
 
-			contentFactory.syncNode(content, obj, session);
+				}
+
+				contentFactory.syncNode(content, obj, writeSession);
+
+				if (isMoveCommand) {
+					writeSession.move(content.getPath(), obj.getParentPath() + "/" + nameEscaped);
+				}
 
-			if (isMoveCommand) {
-				session.move(content.getPath(), obj.getParentPath() + "/" + nameEscaped);
+				writeSession.save();
+				contentCache.invalidate(obj.getViewId());
+			} catch (ContentRepositoryNotAvailableException | RepositoryException e) {
+				log.error("Error saving content", e);
 			}
 
-			session.save();
-		} catch (ContentRepositoryNotAvailableException | RepositoryException e) {
-			log.error("Error saving content", e);
+		} finally {
+			sessionPool.closeWriteSession(writeSession);
 		}
-
 	}
 
 	public EnterpriseContent loadFile(EnterpriseContent content)
@@ -191,20 +241,113 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 		return content;
 	}
 
+	/**
+	 * Retrieves the file content of a document, to be streamed instead of loaded in memory.
+	 * Only files (nt:file nodes) of the document tree can be retrieved, any other node is reported as not found
+	 * @param jcrPath jcr path of the document
+	 * @return the file binary and its metadata
+	 * @throws ElementNotFoundException in case of the document (or its content) does not exist,
+	 * or the node is not a file of the document tree
+	 * @throws ContentRepositoryNotAvailableException in case of repository failure
+	 */
+	public ContentBinary getFileBinary(String jcrPath)
+			throws ElementNotFoundException, ContentRepositoryNotAvailableException {
+		try {
+			Node documents = getDocumentsContentNode(session);
+			Node node = session.getNode(jcrPath);
+			// the path is resolved first, so relative segments cannot escape the document tree
+			if (!Text.isDescendant(documents.getPath(), node.getPath()) ||
+					!node.isNodeType(JcrConstants.NT_FILE)) {
+				throw new ElementNotFoundException(jcrPath);
+			}
+			return contentFactory.getFileBinary(node);
+		} catch (PathNotFoundException e) {
+			throw new ElementNotFoundException(e.getMessage());
+		} catch (RepositoryException e) {
+			log.error("Error loading file", e);
+			throw new ContentRepositoryNotAvailableException();
+		}
+	}
+
+	/**
+	 * Retrieves the image of a content, to be streamed instead of loaded in memory.
+	 * Listings do not load images, this is the way to resolve them on demand
+	 * @param jcrPath jcr path of the content
+	 * @return the image binary and its metadata
+	 * @throws ElementNotFoundException in case of the content (or its image) does not exist
+	 * @throws ContentRepositoryNotAvailableException in case of repository failure
+	 */
+	public ContentBinary getImageBinary(String jcrPath)
+			throws ElementNotFoundException, ContentRepositoryNotAvailableException {
+		try {
+			return contentFactory.getImageBinary(session, jcrPath);
+		} catch (PathNotFoundException e) {
+			throw new ElementNotFoundException(e.getMessage());
+		} catch (RepositoryException e) {
+			log.error("Error loading image", e);
+			throw new ContentRepositoryNotAvailableException();
+		}
+	}
+
+	/**
+	 * Replaces the file content of a document, streaming it directly into the repository
+	 * @param viewId view id of the document
+	 * @param file file content stream
+	 * @param mimeType file mime type
+	 * @return the updated document
+	 * @throws ElementNotFoundException in case of the document does not exist
+	 * @throws ContentRepositoryNotAvailableException in case of repository failure
+	 */
+	public EnterpriseContent saveFile(String viewId, InputStream file, String mimeType)
+			throws ElementNotFoundException, ContentRepositoryNotAvailableException {
+		Session writeSession = null;
+		try {
+			writeSession = sessionPool.openWriteSession();
+			Node node = getNodeByViewId(writeSession, viewId, false);
+			EnterpriseContent content = contentFactory.convertJCRNode(node, false);
+			content.setFileInputStream(file);
+			content.setMimeType(mimeType);
+			contentFactory.syncNode(node, content, writeSession);
+			writeSession.save();
+			contentCache.invalidate(viewId);
+			content.setFileInputStream(null);
+			if (node.hasProperty(OafConstants.OAF_FILE_SIZE)) {
+				content.setFileSize(node.getProperty(OafConstants.OAF_FILE_SIZE).getLong());
+			}
+			return content;
+		} catch (RepositoryException e) {
+			log.error("Error saving file", e);
+			throw new ContentRepositoryNotAvailableException();
+		} finally {
+			sessionPool.closeWriteSession(writeSession);
+		}
+	}
+
 	public void delete(EnterpriseContent obj) {
+		Session writeSession = null;
 		try {
+			writeSession = sessionPool.openWriteSession();
 
-			session.removeItem(obj.getJcrPath());
+			writeSession.removeItem(obj.getJcrPath());
 
-			session.save();
+			writeSession.save();
+			contentCache.invalidate(obj.getViewId());
+			contentCache.invalidatePath(obj.getJcrPath());
 
 		} catch (RepositoryException e) {
 			log.error("Error deleting EnterpriseContent file", e);
+		} finally {
+			sessionPool.closeWriteSession(writeSession);
 		}
 	}
 
 	private Node getNodeByViewId(String viewId, boolean activeOnly)
 			throws ContentRepositoryNotAvailableException, ElementNotFoundException {
+		return getNodeByViewId(session, viewId, activeOnly);
+	}
+
+	private Node getNodeByViewId(Session session, String viewId, boolean activeOnly)
+			throws ContentRepositoryNotAvailableException, ElementNotFoundException {
 
 		List<Node> results = new ArrayList<>();
 
@@ -213,16 +356,14 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 		try {
 			queryManager = session.getWorkspace().getQueryManager();
 
-			String expression = "" + "select * from " + "[" + JcrConstants.NT_BASE + "] as node " + "where ["
-					+ OafConstants.OAF_VIEW_ID + "] = '" + viewId + "' ";
+			Query query = queryManager.createQuery(activeOnly ? QUERY_BY_ACTIVE_VIEW_ID : QUERY_BY_VIEW_ID,
+					Query.JCR_SQL2);
+			ValueFactory valueFactory = session.getValueFactory();
+			query.bindValue("viewId", valueFactory.createValue(viewId));
 			if (activeOnly) {
-				expression += " and [" + OafConstants.OAF_ACTIVE + "] = '" + activeOnly + "' ";
+				query.bindValue("active", valueFactory.createValue(true));
 			}
-
-			Query query = queryManager.createQuery(expression, Query.JCR_SQL2);
-			// TODO: IMPLEMENT PAGINATING
-			// query.setLimit(pageSize);
-			// query.setOffset((pageNumber - 1) * pageSize);
+			query.setLimit(1);
 
 			QueryResult result = query.execute();
 
@@ -245,26 +386,54 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 
 	public EnterpriseContent getByViewId(String viewId, boolean activeOnly)
 			throws ContentRepositoryNotAvailableException, ElementNotFoundException {
-		Node node = getNodeByViewId(viewId, activeOnly);
+		return getByViewId(viewId, activeOnly, null);
+	}
 
+	/**
+	 * Retrieves a content by its view id, answered by the content cache whenever possible
+	 * @param viewId content view id
+	 * @param activeOnly if true only active content is considered
+	 * @param language content language (Optional)
+	 * @return the content
+	 * @throws ContentRepositoryNotAvailableException in case of repository failure
+	 * @throws ElementNotFoundException in case of there is no content (in the informed language) with the view id
+	 */
+	public EnterpriseContent getByViewId(String viewId, boolean activeOnly, String language)
+			throws ContentRepositoryNotAvailableException, ElementNotFoundException {
+		EnterpriseContent content = contentCache.get(viewId, language, activeOnly);
+		if (content != null) {
+			return content;
+		}
+
+		long generation = contentCache.getGeneration();
+		Node node = getNodeByViewId(viewId, activeOnly);
 		try {
-			return contentFactory.convertJCRNode(node);
+			content = contentFactory.convertJCRNode(node);
 		} catch (RepositoryException e) {
 			throw new ContentRepositoryNotAvailableException();
 		}
-
+		if (language != null && !language.equalsIgnoreCase(content.getLanguage())) {
+			throw new ElementNotFoundException("Element [" + viewId + "] not found for language " + language);
+		}
+		contentCache.put(viewId, language, activeOnly, content, generation);
+		return content;
 	}
 
 	public void registerCNDNodeTypes(String cndFileName) {
 		NodeType[] nodeTypes;
+		Session writeSession = null;
 		try {
+			writeSession = sessionPool.openWriteSession();
 			nodeTypes = CndImporter.registerNodeTypes(
-					new InputStreamReader(getClass().getClassLoader().getResourceAsStream(cndFileName)), session);
+					new InputStreamReader(getClass().getClassLoader().getResourceAsStream(cndFileName)), writeSession);
 			for (NodeType nt : nodeTypes) {
 				log.info("Registered: " + nt.getName());
 			}
+			contentIndexInitializer.initialize(writeSession);
 		} catch (Exception e) {
 			log.error("Error registering node type", e);
+		} finally {
+			sessionPool.closeWriteSession(writeSession);
 		}
 
 	}
@@ -279,25 +448,22 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 		try {
 			queryManager = session.getWorkspace().getQueryManager();
 
-			String expression = "" + "select * " + "from " + "[" + JcrConstants.NT_BASE + "] as b " + "where " + "["
-					+ OafConstants.OAF_CONTENT_TYPE + "] = '" + contentType.key() + "' " + "and ["
-					+ OafConstants.OAF_SYSTEM + "] = '" + includeSystemContent + "' ";
+			Query query = queryManager.createQuery(activeOnly ? QUERY_BY_ACTIVE_CONTENT_TYPE : QUERY_BY_CONTENT_TYPE,
+					Query.JCR_SQL2);
+			ValueFactory valueFactory = session.getValueFactory();
+			query.bindValue("contentType", valueFactory.createValue(contentType.key()));
+			query.bindValue("system", valueFactory.createValue(includeSystemContent));
 			if (activeOnly) {
-				expression += "and [" + OafConstants.OAF_ACTIVE + "] = '" + activeOnly + "' ";
+				query.bindValue("active", valueFactory.createValue(true));
 			}
 
-			Query query = queryManager.createQuery(expression, Query.JCR_SQL2);
-			// TODO: IMPLEMENT PAGINATING
-			// query.setLimit(pageSize);
-			// query.setOffset((pageNumber - 1) * pageSize);
-
 			QueryResult result = query.execute();
 
 			final NodeIterator nodes = result.getNodes();
 			while (nodes.hasNext()) {
 				Node contentNode = (Node) nodes.next();
 				try {
-					EnterpriseContent content = contentFactory.convertJCRNode(contentNode);
+					EnterpriseContent content = contentFactory.convertJCRNode(contentNode, false);
 					if (content != null) {
 						fooList.add(content);
 					}
@@ -330,16 +496,9 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 		try {
 			queryManager = session.getWorkspace().getQueryManager();
 
-			String expression = "" + "select * " + "from " + "[" + JcrConstants.NT_BASE + "] as b " + "where " + "["
-					+ OafConstants.OAF_SYSTEM + "] = '" + enableSystemContent + "' " + "and (" + "["
-					+ OafConstants.OAF_CONTENT_TYPE + "] = '" + ContentType.HTML.key() + "' " + " or ["
-					+ OafConstants.OAF_CONTENT_TYPE + "] = '" + ContentType.NEWS_FEED.key() + "' " + " or ["
-					+ OafConstants.OAF_CONTENT_TYPE + "] = '" + ContentType.NOTIFICATION.key() + "' " + ") ";
-
-			Query query = queryManager.createQuery(expression, Query.JCR_SQL2);
-			// TODO: IMPLEMENT PAGINATING
-			// query.setLimit(pageSize);
-			// query.setOffset((pageNumber - 1) * pageSize);
+			Query query = createSearchQuery(queryManager, searchTerm, enableSystemContent, false);
+			query.setLimit(pageSize);
+			query.setOffset((long) (pageNumber - 1) * pageSize);
 
 			QueryResult result = query.execute();
 
@@ -347,7 +506,7 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 			while (nodes.hasNext()) {
 				Node contentNode = (Node) nodes.next();
 				try {
-					EnterpriseContent content = contentFactory.convertJCRNode(contentNode);
+					EnterpriseContent content = contentFactory.convertJCRNode(contentNode, false);
 					if (content != null) {
 						fooList.add(content);
 					}
@@ -364,7 +523,86 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 		return fooList;
 	}
 
-	protected Node getRootNode() throws ContentRepositoryNotAvailableException {
+	/**
+	 * Counts the content matched by {@link #searchContent(int, int, String, boolean)}, so the total number
+	 * of pages can be computed. Only the paths are selected, so no content node is loaded
+	 * @param searchTerm search term
+	 * @param enableSystemContent if true system content is searched, otherwise non system content
+	 * @return total number of results
+	 * @throws ContentRepositoryNotAvailableException in case of repository failure
+	 */
+	public long countContent(String searchTerm, boolean enableSystemContent)
+			throws ContentRepositoryNotAvailableException {
+		try {
+			QueryManager queryManager = session.getWorkspace().getQueryManager();
+			RowIterator rows = createSearchQuery(queryManager, searchTerm, enableSystemContent, true).
+					execute().getRows();
+			long size = rows.getSize();
+			if (size < 0) {
+				// size not known upfront (no fast query size), count the index entries
+				size = 0;
+				while (rows.hasNext()) {
+					rows.nextRow();
+					size++;
+				}
+			}
+			return size;
+		} catch (RepositoryException e) {
+			throw new ContentRepositoryNotAvailableException();
+		}
+	}
+
+	/**
+	 * Creates a search query (html, news feed and notification content) binding its variables.
+	 * When a search term is informed the content is matched by full-text (Lucene index) and ranked by score,
+	 * otherwise the most recent content comes first
+	 * @param queryManager query manager
+	 * @param searchTerm search term (Optional)
+	 * @param enableSystemContent if true system content is searched, otherwise non system content
+	 * @param count if true only the paths are selected, in order to count the results
+	 * @return the query ready to be executed
+	 * @throws RepositoryException in case of invalid query
+	 */
+	private Query createSearchQuery(QueryManager queryManager, String searchTerm, boolean enableSystemContent,
+									boolean count) throws RepositoryException {
+		boolean fullText = searchTerm != null && !searchTerm.trim().isEmpty();
+		String statement;
+		if (fullText) {
+			statement = count ? QUERY_SEARCH_TEXT_COUNT : QUERY_SEARCH_TEXT;
+		} else {
+			statement = count ? QUERY_SEARCH_COUNT : QUERY_SEARCH;
+		}
+		Query query = queryManager.createQuery(statement, Query.JCR_SQL2);
+		ValueFactory valueFactory = session.getValueFactory();
+		query.bindValue("system", valueFactory.createValue(enableSystemContent));
+		query.bindValue("html", valueFactory.createValue(ContentType.HTML.key()));
+		query.bindValue("newsFeed", valueFactory.createValue(ContentType.NEWS_FEED.key()));
+		query.bindValue("notification", valueFactory.createValue(ContentType.NOTIFICATION.key()));
+		if (fullText) {
+			query.bindValue("searchTerm", valueFactory.createValue(
+					Text.escapeIllegalXpathSearchChars(searchTerm.trim())));
+		}
+		return query;
+	}
+
+	/**
+	 * Requests the rebuild of the full-text index, done asynchronously by the repository
+	 * @throws ContentRepositoryNotAvailableException in case of repository failure
+	 */
+	public void reindex() throws ContentRepositoryNotAvailableException {
+		Session writeSession = null;
+		try {
+			writeSession = sessionPool.openWriteSession();
+			contentIndexInitializer.reindex(writeSession);
+		} catch (RepositoryException e) {
+			log.error("Error requesting reindex", e);
+			throw new ContentRepositoryNotAvailableException();
+		} finally {
+			sessionPool.closeWriteSession(writeSession);
+		}
+	}
+
+	protected Node getRootNode(Session session) throws ContentRepositoryNotAvailableException {
 		try {
 			return session.getRootNode();
 		} catch (RepositoryException e) {
@@ -372,56 +610,63 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 		}
 	}
 
-	protected Node getNode(String nodeId) throws ContentRepositoryNotAvailableException {
+	protected Node getNode(Session session, String nodeId) throws ContentRepositoryNotAvailableException {
 		try {
-			return getRootNode().getNode(nodeId);
+			return getRootNode(session).getNode(nodeId);
 		} catch (RepositoryException e) {
 			log.error("Error getting node", e);
 		}
 		return null;
 	}
 
-	protected Node getHTMLContentNode()
+	protected Node getHTMLContentNode(Session session)
 			throws PathNotFoundException, ContentRepositoryNotAvailableException, RepositoryException {
-		return getNode(getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_ROOT))
+		return getNode(session, getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_ROOT))
 				.getNode(getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_HTML));
 	}
 
-	protected Node getNewsFeedContentNode()
+	protected Node getNewsFeedContentNode(Session session)
 			throws PathNotFoundException, ContentRepositoryNotAvailableException, RepositoryException {
-		return getNode(getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_ROOT))
+		return getNode(session, getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_ROOT))
 				.getNode(getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_NEWS_FEED));
 	}
 
-	protected Node getImageContentNode()
+	protected Node getImageContentNode(Session session)
 			throws PathNotFoundException, ContentRepositoryNotAvailableException, RepositoryException {
-		return getNode(getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_ROOT))
+		return getNode(session, getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_ROOT))
 				.getNode(getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_IMAGE));
 	}
 
-	protected Node getDocumentsContentNode()
+	protected Node getDocumentsContentNode(Session session)
 			throws PathNotFoundException, ContentRepositoryNotAvailableException, RepositoryException {
-		return getNode(getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_ROOT))
+		return getNode(session, getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_ROOT))
 				.getNode(getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_DOCS));
 	}
 
-	protected Node getNotificationContentNode()
+	protected Node getNotificationContentNode(Session session)
 			throws PathNotFoundException, ContentRepositoryNotAvailableException, RepositoryException {
-		return getNode(getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_ROOT))
+		return getNode(session, getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_ROOT))
 				.getNode(getOAF().getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_NOTIFICATION));
 	}
 
+	/**
+	 * Builds the complete document tree, reading every node of the documents subtree
+	 * @return the document tree
+	 * @deprecated the cost grows with the size of the document library,
+	 * use {@link #getDocumentTreeLevel(String, int, int)} to read one level at a time
+	 */
+	@Deprecated
 	public TreeNode getDocumentsTreeModel() {
 		TreeNode root = null;
 		try {
-			String rootName = getDocumentsContentNode().getName();
+			String rootName = getDocumentsContentNode(session).getName();
 
 			EnterpriseContent enterpriseContent = null;
 
 			enterpriseContent = contentFactory.create(rootName, rootName, ContentType.FOLDER);
 
 			root = new RestTreeNode(enterpriseContent, null);
-			for (Node node : JcrUtils.getChildNodes(getDocumentsContentNode())) {
+			for (Node node : JcrUtils.getChildNodes(getDocumentsContentNode(session))) {
 				loopNodes(root, node);
 			}
 
@@ -439,7 +684,7 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 			return;
 		}
 
-		EnterpriseContent doc = contentFactory.convertJCRNode(node);
+		EnterpriseContent doc = contentFactory.convertJCRNode(node, false);
 		TreeNode treeNode = null;
 		switch (doc.getContentType()) {
 			case DOCUMENT:
@@ -457,6 +702,112 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 		}
 	}
 
+	/**
+	 * Reads one page of the children of a document tree node. Every child of the parent is visited
+	 * (only its name is checked) to find the page and count the children, so the cost grows with the number
+	 * of children of the parent, but not with the size of the library: binaries are not loaded, the children
+	 * of each child of the page are only counted (up to {@link #CHILD_COUNT_HINT_LIMIT}) and the page nodes
+	 * are only converted when the page is requested (see {@link DocumentTreeLevel})
+	 * @param jcrPath jcr path of the parent node, if null the documents root is used
+	 * @param pageNumber requested page (starting at 1)
+	 * @param pageSize number of children per page (at least 1)
+	 * @return the requested page of children
+	 * @throws ElementNotFoundException if the parent does not exist or is not part of the document tree
+	 * @throws ContentRepositoryNotAvailableException in case of repository failure
+	 */
+	public DocumentTreeLevel getDocumentTreeLevel(String jcrPath, int pageNumber, int pageSize)
+			throws ElementNotFoundException, ContentRepositoryNotAvailableException {
+		if (pageNumber < 1 || pageSize < 1) {
+			throw new IllegalArgumentException("Invalid page " + pageNumber + " of size " + pageSize);
+		}
+		try {
+			Node documents = getDocumentsContentNode(session);
+			Node parent = documents;
+			if (jcrPath != null) {
+				parent = session.getNode(jcrPath);
+				// the path is resolved first, so relative segments cannot escape the document tree
+				if (!Text.isDescendantOrEqual(documents.getPath(), parent.getPath())) {
+					throw new ElementNotFoundException(jcrPath);
+				}
+			}
+
+			long offset = (long) (pageNumber - 1) * pageSize;
+			List<DocumentTreeLevel.Child> children = new ArrayList<>();
+			int totalResults = 0;
+			NodeIterator nodes = parent.getNodes();
+			while (nodes.hasNext()) {
+				Node node = nodes.nextNode();
+				if (isDocumentTreeNode(node)) {
+					if (totalResults >= offset && children.size() < pageSize) {
+						children.add(createTreeLevelChild(node));
+					}
+					totalResults++;
+				}
+			}
+			int totalPages = totalResults % pageSize == 0 ? totalResults / pageSize : totalResults / pageSize + 1;
+			return new DocumentTreeLevel(pageNumber, totalResults, totalPages, children,
+					node -> contentFactory.convertJCRNode(node, false));
+		} catch (PathNotFoundException e) {
+			throw new ElementNotFoundException(e.getMessage());
+		} catch (RepositoryException e) {
+			log.error("Error getting document tree level {}", jcrPath, e);
+			throw new ContentRepositoryNotAvailableException();
+		}
+	}
+
+	/**
+	 * Reads the document tree values of a node, counting its children (up to {@link #CHILD_COUNT_HINT_LIMIT})
+	 * @param node jcr node
+	 * @return the document tree level child
+	 * @throws RepositoryException in case of error reading the node
+	 */
+	private DocumentTreeLevel.Child createTreeLevelChild(Node node) throws RepositoryException {
+		long childCount = 0;
+		NodeIterator children = node.getNodes();
+		while (children.hasNext() && childCount < CHILD_COUNT_HINT_LIMIT) {
+			if (isDocumentTreeNode(children.nextNode())) {
+				childCount++;
+			}
+		}
+		return new DocumentTreeLevel.Child(node, childCount, !children.hasNext(), getLastModified(node));
+	}
+
+	/**
+	 * Gets the last modification time of a node, the most recent of its creation time,
+	 * last modification time and last modification time of its resource (jcr:content, the file of a document)
+	 * @param node jcr node
+	 * @return last modification time (in milliseconds), or 0 if not known
+	 * @throws RepositoryException in case of error reading the node
+	 */
+	private static long getLastModified(Node node) throws RepositoryException {
+		long lastModified = 0;
+		if (node.hasProperty(JcrConstants.JCR_CREATED)) {
+			lastModified = node.getProperty(JcrConstants.JCR_CREATED).getDate().getTimeInMillis();
+		}
+		if (node.hasProperty(JcrConstants.JCR_LASTMODIFIED)) {
+			lastModified = Math.max(lastModified,
+					node.getProperty(JcrConstants.JCR_LASTMODIFIED).getDate().getTimeInMillis());
+		}
+		String resourceLastModified = JcrConstants.JCR_CONTENT + "/" + JcrConstants.JCR_LASTMODIFIED;
+		if (node.hasProperty(resourceLastModified)) {
+			lastModified = Math.max(lastModified,
+					node.getProperty(resourceLastModified).getDate().getTimeInMillis());
+		}
+		return lastModified;
+	}
+
+	/**
+	 * Check if a node is shown on the document tree, the virtual jcr:system subtree
+	 * and the jcr:content child (the file of a document) are not
+	 * @param node jcr node
+	 * @return true if the node is part of the document tree
+	 * @throws RepositoryException in case of error reading the node
+	 */
+	private static boolean isDocumentTreeNode(Node node) throws RepositoryException {
+		String name = node.getName();
+		return !name.equals(JcrConstants.JCR_SYSTEM) && !name.equals(JcrConstants.JCR_CONTENT);
+	}
+
 	public Collection<? extends EnterpriseContent> getChildren(String viewId)
 			throws ContentRepositoryNotAvailableException, ElementNotFoundException {
 
@@ -490,7 +841,7 @@ public @RequestScoped @Default class ContentRepository implements Serializable,
 		}
 
 		if (!node.getName().equalsIgnoreCase(JcrConstants.JCR_CONTENT)) {
-			EnterpriseContent doc = contentFactory.convertJCRNode(node);
+			EnterpriseContent doc = contentFactory.convertJCRNode(node, false);
 			results.add(doc);
 		}
 
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.entities;
+
+import org.jnosql.artemis.Column;
+import org.jnosql.artemis.Entity;
+import org.jnosql.artemis.Id;
+
+import java.io.Serializable;
+
+/**
+ * State of the last synchronization between the I18N resource bundles and the stored I18N properties.
+ * Keeps the content hash of the synchronized bundles, so unchanged bundles are not synchronized again.
+ *
+ * @author andresousa
+ */
+@Entity
+public class I18NSyncStateEntity implements Serializable {
+
+    private static final long serialVersionUID = 2271395845614339785L;
+
+    @Id
+    private String id;
+
+    @Column
+    private String contentHash;
+
+    /**
+     * I18N synchronization state identifier getter
+     * @return the state identifier
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * I18N synchronization state identifier setter
+     * @param id to be set
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * I18N synchronization state content hash getter
+     * @return the content hash of the synchronized resource bundles
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * I18N synchronization state content hash setter
+     * @param contentHash to be set
+     */
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+}
@@ -23,6 +23,7 @@ import io.radien.api.service.ecm.model.GenericEnterpriseContent;
 import io.radien.api.service.ecm.model.ContentType;
 import io.radien.api.service.ecm.model.EnterpriseContent;
 import io.radien.ms.ecm.constants.CmsConstants;
+import io.radien.ms.ecm.jcr.ContentBinary;
 import io.radien.ms.ecm.util.OafConstants;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jackrabbit.JcrConstants;
@@ -121,6 +122,19 @@ public @RequestScoped class ContentFactory implements Serializable {
 	}
 
 	public EnterpriseContent convertJCRNode(Node node) throws RepositoryException {
+		return convertJCRNode(node, true);
+	}
+
+	/**
+	 * Converts a JCR node into an enterprise content
+	 * @param node jcr node to be converted
+	 * @param loadImage if true the image (oaf:image binary) is read into the content,
+	 * otherwise only its name and mime type are set and the image can be retrieved later
+	 * (see {@link #getImageBinary(Session, String)}). Listings should not load images.
+	 * @return the converted content
+	 * @throws RepositoryException in case of error reading the node
+	 */
+	public EnterpriseContent convertJCRNode(Node node, boolean loadImage) throws RepositoryException {
 
 		try {
 			EnterpriseContent systemContent = null;
@@ -150,9 +164,13 @@ public @RequestScoped class ContentFactory implements Serializable {
 							bin = node.getProperty(CmsConstants.OAF_IMAGE).getBinary();
 						}
 						if (bin != null) {
-							stream = bin.getStream();
-							byte[] imageArray = ByteStreams.toByteArray(stream);
-							systemContent.setImage(imageArray);
+							if (loadImage) {
+								stream = bin.getStream();
+								byte[] imageArray = ByteStreams.toByteArray(stream);
+								systemContent.setImage(imageArray);
+							} else {
+								bin.dispose();
+							}
 							systemContent.setImageMimeType(node.getProperty(CmsConstants.OAF_IMAGE_MIME_TYPE).getString());
 							systemContent.setImageName(node.getProperty(CmsConstants.OAF_IMAGE_NAME).getString());
 						}
@@ -219,6 +237,37 @@ public @RequestScoped class ContentFactory implements Serializable {
 		return StringUtils.EMPTY.getBytes();
 	}
 
+	/**
+	 * Retrieves the file content (jcr:data binary) without reading it, so it can be streamed
+	 * @param fileNode jcr file node
+	 * @return the file binary and its metadata
+	 * @throws RepositoryException in case of the node is not a file (has no content)
+	 */
+	public ContentBinary getFileBinary(Node fileNode) throws RepositoryException {
+		Node contentNode = fileNode.getNode(JcrConstants.JCR_CONTENT);
+		String mimeType = contentNode.hasProperty(JcrConstants.JCR_MIMETYPE) ?
+				contentNode.getProperty(JcrConstants.JCR_MIMETYPE).getString() : null;
+		return new ContentBinary(contentNode.getProperty(JcrConstants.JCR_DATA).getBinary(),
+				Text.unescapeIllegalJcrChars(fileNode.getName()), mimeType);
+	}
+
+	/**
+	 * Retrieves the image (oaf:image binary) of a content without reading it, so it can be streamed
+	 * @param session jcr session
+	 * @param path jcr path of the content
+	 * @return the image binary and its metadata
+	 * @throws PathNotFoundException in case of the content does not exist or has no image
+	 * @throws RepositoryException in case of error reading the node
+	 */
+	public ContentBinary getImageBinary(Session session, String path) throws RepositoryException {
+		Node node = session.getNode(path);
+		return new ContentBinary(node.getProperty(CmsConstants.OAF_IMAGE).getBinary(),
+				node.hasProperty(CmsConstants.OAF_IMAGE_NAME) ?
+						node.getProperty(CmsConstants.OAF_IMAGE_NAME).getString() : node.getName(),
+				node.hasProperty(CmsConstants.OAF_IMAGE_MIME_TYPE) ?
+						node.getProperty(CmsConstants.OAF_IMAGE_MIME_TYPE).getString() : null);
+	}
+
 	private Node getNode(Node node, Node contentNode) {
 		try {
 			contentNode = node.getNode(JcrConstants.JCR_CONTENT);
@@ -237,6 +286,7 @@ public @RequestScoped class ContentFactory implements Serializable {
 		try {
 
 			node.setProperty(OafConstants.OAF_VIEW_ID, obj.getViewId());
+			node.setProperty(CmsConstants.OAF_NAME, obj.getName());
 			node.setProperty(OafConstants.OAF_CONTENT_TYPE, obj.getContentType().key());
 			node.setProperty(OafConstants.OAF_ACTIVE, obj.isActive());
 			node.setProperty(OafConstants.OAF_HTML_CONTENT, obj.getHtmlContent());
@@ -274,7 +324,7 @@ public @RequestScoped class ContentFactory implements Serializable {
 			switch (obj.getContentType()) {
 				case DOCUMENT:
 				case IMAGE:
-					if (obj.getFile() != null) {
+					if (obj.getFileInputStream() != null || obj.getFile() != null) {
 						Node contentNode = null;
 						contentNode = getNode(node, contentNode);
 
@@ -282,7 +332,8 @@ public @RequestScoped class ContentFactory implements Serializable {
 							contentNode = node.addNode(JcrConstants.JCR_CONTENT, JcrConstants.NT_RESOURCE);
 						}
 
-						InputStream streamFile = new ByteArrayInputStream(obj.getFile());
+						InputStream streamFile = obj.getFileInputStream() != null ?
+								obj.getFileInputStream() : new ByteArrayInputStream(obj.getFile());
 						Binary file  = session.getValueFactory().createBinary(streamFile);
 						contentNode.setProperty(JcrConstants.JCR_DATA, file);
 						contentNode.setProperty(JcrConstants.JCR_MIMETYPE, obj.getMimeType());
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.jcr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.jcr.Binary;
+import javax.jcr.RepositoryException;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * File content stored on the repository (jcr:data binary) together with its metadata.
+ * Allows the content (or part of it) to be streamed directly from the repository to the response,
+ * using a fixed size buffer, so the memory used does not depend on the size of the file.
+ *
+ * @author Marco Weiland
+ */
+public class ContentBinary {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentBinary.class);
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Binary binary;
+    private final String name;
+    private final String mimeType;
+    private final long size;
+
+    /**
+     * Content binary constructor
+     * @param binary repository binary
+     * @param name file name
+     * @param mimeType file mime type
+     * @throws RepositoryException in case of the binary size cannot be retrieved
+     */
+    public ContentBinary(Binary binary, String name, String mimeType) throws RepositoryException {
+        this.binary = binary;
+        this.name = name;
+        this.mimeType = mimeType;
+        this.size = binary.getSize();
+    }
+
+    /**
+     * File name getter
+     * @return the file name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * File mime type getter
+     * @return the file mime type
+     */
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * File size getter
+     * @return the file size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Creates the output that streams a range of the file, releasing the binary once written
+     * @param start first byte position (inclusive)
+     * @param length number of bytes to be written
+     * @return the streaming output
+     */
+    public StreamingOutput stream(long start, long length) {
+        return output -> {
+            try (InputStream input = binary.getStream()) {
+                skip(input, start);
+                copy(input, output, length);
+            } catch (RepositoryException e) {
+                throw new IOException(e);
+            } finally {
+                binary.dispose();
+            }
+        };
+    }
+
+    /**
+     * Releases the binary, when it is not going to be streamed
+     */
+    public void dispose() {
+        binary.dispose();
+    }
+
+    /**
+     * Skips the informed number of bytes of the stream
+     * @param input stream
+     * @param bytes number of bytes to be skipped
+     * @throws IOException in case of the stream ends before
+     */
+    private static void skip(InputStream input, long bytes) throws IOException {
+        long remaining = bytes;
+        while (remaining > 0) {
+            long skipped = input.skip(remaining);
+            if (skipped <= 0) {
+                if (input.read() < 0) {
+                    throw new IOException("Unexpected end of content");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * Copies the informed number of bytes from the stream to the output
+     * @param input stream
+     * @param output destination
+     * @param length number of bytes to be copied
+     * @throws IOException in case of read or write failure
+     */
+    private static void copy(InputStream input, OutputStream output, long length) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long remaining = length;
+        while (remaining > 0) {
+            int read = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                log.warn("Content ended {} bytes before the expected length", remaining);
+                break;
+            }
+            output.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.jcr;
+
+import io.radien.ms.ecm.constants.CmsConstants;
+import io.radien.ms.ecm.util.OafConstants;
+import org.apache.jackrabbit.JcrConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.jcr.Node;
+import javax.jcr.PropertyType;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class responsible for provisioning the Oak indexes (under /oak:index) used by the content queries,
+ * so they are answered by an index instead of traversing the repository: property indexes for the
+ * lookups and an asynchronous Lucene index for the full-text search (html content, name and the text
+ * extracted from the document files).
+ * Missing index definitions are created (and indexed) on startup and whenever the node types are registered,
+ * existing ones are kept untouched.
+ *
+ * @author Bruno Gama
+ */
+public @ApplicationScoped class ContentIndexInitializer implements Serializable {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentIndexInitializer.class);
+    private static final long serialVersionUID = -3419316458934706557L;
+
+    public static final String OAK_INDEX = "/oak:index";
+    private static final String INDEX_DEFINITION_TYPE = "oak:QueryIndexDefinition";
+    private static final String TYPE = "type";
+    private static final String PROPERTY_INDEX_TYPE = "property";
+    private static final String PROPERTY_NAMES = "propertyNames";
+    private static final String REINDEX = "reindex";
+    private static final String OAF_PREFIX = "oaf";
+
+    public static final String FULL_TEXT_INDEX = "oafContentText";
+    private static final String LUCENE_INDEX_TYPE = "lucene";
+    private static final String ASYNC = "async";
+    private static final String COMPAT_VERSION = "compatVersion";
+    private static final String EVALUATE_PATH_RESTRICTIONS = "evaluatePathRestrictions";
+    private static final String INDEX_RULES = "indexRules";
+    private static final String PROPERTIES = "properties";
+    private static final String AGGREGATES = "aggregates";
+    private static final String NAME = "name";
+    private static final String PATH = "path";
+
+    private static final Map<String, String> PROPERTY_INDEXES = new LinkedHashMap<>();
+
+    static {
+        PROPERTY_INDEXES.put("oafViewId", OafConstants.OAF_VIEW_ID);
+        PROPERTY_INDEXES.put("oafContentType", OafConstants.OAF_CONTENT_TYPE);
+        PROPERTY_INDEXES.put("oafSystem", OafConstants.OAF_SYSTEM);
+        PROPERTY_INDEXES.put("oafActive", OafConstants.OAF_ACTIVE);
+    }
+
+    /**
+     * Creates the missing index definitions
+     * @param session jcr session (with permission to write under /oak:index)
+     * @return number of index definitions created
+     * @throws RepositoryException in case of error reading or writing the index definitions
+     */
+    public int initialize(Session session) throws RepositoryException {
+        if (!Arrays.asList(session.getNamespacePrefixes()).contains(OAF_PREFIX)) {
+            // indexed property names are only valid once the node types (cnd) are registered
+            log.warn("[CMS] namespace {} not registered, property indexes not provisioned", OAF_PREFIX);
+            return 0;
+        }
+        Node indexes = session.getNode(OAK_INDEX);
+        int created = 0;
+        for (Map.Entry<String, String> entry : PROPERTY_INDEXES.entrySet()) {
+            if (!indexes.hasNode(entry.getKey())) {
+                Node index = indexes.addNode(entry.getKey(), INDEX_DEFINITION_TYPE);
+                index.setProperty(TYPE, PROPERTY_INDEX_TYPE);
+                index.setProperty(PROPERTY_NAMES, new String[] { entry.getValue() }, PropertyType.NAME);
+                index.setProperty(REINDEX, true);
+                created++;
+                log.info("[CMS] property index {} created for {}", entry.getKey(), entry.getValue());
+            }
+        }
+        if (!indexes.hasNode(FULL_TEXT_INDEX)) {
+            createFullTextIndex(indexes);
+            created++;
+            log.info("[CMS] full-text index {} created", FULL_TEXT_INDEX);
+        }
+        if (created > 0) {
+            session.save();
+        }
+        return created;
+    }
+
+    /**
+     * Requests the (asynchronous) rebuild of the full-text index, which is done by the next async indexing cycle
+     * @param session jcr session (with permission to write under /oak:index)
+     * @throws RepositoryException in case of the index does not exist or cannot be updated
+     */
+    public void reindex(Session session) throws RepositoryException {
+        session.getNode(OAK_INDEX).getNode(FULL_TEXT_INDEX).setProperty(REINDEX, true);
+        session.save();
+        log.info("[CMS] reindex requested for {}", FULL_TEXT_INDEX);
+    }
+
+    /**
+     * Creates the Lucene index definition. Html content and name are analyzed (full-text),
+     * the jcr:content child is aggregated so the text extracted (tika) from the document file is searchable,
+     * and the properties used on the search conditions and ordering are indexed as well
+     * so the whole search is answered by this index.
+     * @param indexes the oak:index node
+     * @throws RepositoryException in case of error writing the index definition
+     */
+    private void createFullTextIndex(Node indexes) throws RepositoryException {
+        Node index = indexes.addNode(FULL_TEXT_INDEX, INDEX_DEFINITION_TYPE);
+        index.setProperty(TYPE, LUCENE_INDEX_TYPE);
+        index.setProperty(ASYNC, ASYNC);
+        index.setProperty(COMPAT_VERSION, 2L);
+        index.setProperty(EVALUATE_PATH_RESTRICTIONS, true);
+
+        Node properties = index.addNode(INDEX_RULES, JcrConstants.NT_UNSTRUCTURED).
+                addNode(JcrConstants.NT_BASE, JcrConstants.NT_UNSTRUCTURED).
+                addNode(PROPERTIES, JcrConstants.NT_UNSTRUCTURED);
+        addFullTextProperty(properties, "htmlContent", OafConstants.OAF_HTML_CONTENT);
+        addFullTextProperty(properties, "name", CmsConstants.OAF_NAME);
+        addProperty(properties, "contentType", OafConstants.OAF_CONTENT_TYPE).setProperty("propertyIndex", true);
+        addProperty(properties, "system", OafConstants.OAF_SYSTEM).setProperty("propertyIndex", true);
+        addProperty(properties, "active", OafConstants.OAF_ACTIVE).setProperty("propertyIndex", true);
+        addProperty(properties, "created", JcrConstants.JCR_CREATED).setProperty("ordered", true);
+
+        index.addNode(AGGREGATES, JcrConstants.NT_UNSTRUCTURED).
+                addNode(JcrConstants.NT_BASE, JcrConstants.NT_UNSTRUCTURED).
+                addNode("include0", JcrConstants.NT_UNSTRUCTURED).setProperty(PATH, JcrConstants.JCR_CONTENT);
+    }
+
+    /**
+     * Adds an analyzed (full-text) property to the index rule
+     * @param properties the index rule properties node
+     * @param key property definition node name
+     * @param property indexed property
+     * @throws RepositoryException in case of error writing the index definition
+     */
+    private void addFullTextProperty(Node properties, String key, String property) throws RepositoryException {
+        Node definition = addProperty(properties, key, property);
+        definition.setProperty("analyzed", true);
+        definition.setProperty("nodeScopeIndex", true);
+        definition.setProperty("useInExcerpt", true);
+    }
+
+    /**
+     * Adds a property to the index rule
+     * @param properties the index rule properties node
+     * @param key property definition node name
+     * @param property indexed property
+     * @return the property definition node
+     * @throws RepositoryException in case of error writing the index definition
+     */
+    private Node addProperty(Node properties, String key, String property) throws RepositoryException {
+        Node definition = properties.addNode(key, JcrConstants.NT_UNSTRUCTURED);
+        definition.setProperty(NAME, property);
+        return definition;
+    }
+
+    /**
+     * Gets the provisioned property indexes
+     * @return map of index name to indexed property
+     */
+    public static Map<String, String> getPropertyIndexes() {
+        return PROPERTY_INDEXES;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.jcr;
+
+import io.radien.api.entity.Page;
+import io.radien.api.service.ecm.exception.ContentRepositoryNotAvailableException;
+import io.radien.api.service.ecm.model.ContentTreeNode;
+import io.radien.api.service.ecm.model.EnterpriseContent;
+import io.radien.ms.ecm.util.EntityTags;
+import io.radien.ms.ecm.util.OafConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of the children of a document tree node, read from the repository in two steps.
+ * The entity tag is computed when the page is read, from the state of its nodes (paths, identifiers,
+ * view ids, types, states, file sizes, child count hints and last modifications), while the conversion
+ * of the nodes into {@link ContentTreeNode} only happens when the page is requested. So a conditional
+ * request answered with 304 (Not Modified) does not pay for the conversion.
+ *
+ * @author Marco Weiland
+ */
+public class DocumentTreeLevel {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentTreeLevel.class);
+    private static final char SEPARATOR = '|';
+
+    private final int pageNumber;
+    private final int totalResults;
+    private final int totalPages;
+    private final List<Child> children;
+    private final NodeConverter converter;
+    private final String entityTag;
+
+    /**
+     * Document tree level constructor
+     * @param pageNumber requested page (starting at 1)
+     * @param totalResults number of children of the parent node
+     * @param totalPages number of pages
+     * @param children children of the requested page
+     * @param converter converts the children nodes into contents
+     * @throws RepositoryException in case of error reading the children nodes
+     */
+    public DocumentTreeLevel(int pageNumber, int totalResults, int totalPages, List<Child> children,
+                             NodeConverter converter) throws RepositoryException {
+        this.pageNumber = pageNumber;
+        this.totalResults = totalResults;
+        this.totalPages = totalPages;
+        this.children = children;
+        this.converter = converter;
+        this.entityTag = computeEntityTag();
+    }
+
+    /**
+     * Entity tag getter
+     * @return the entity tag value (not quoted) of the page
+     */
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    /**
+     * Converts the children nodes of the page
+     * @return the page of document tree nodes
+     * @throws ContentRepositoryNotAvailableException in case of error reading the children nodes
+     */
+    public Page<ContentTreeNode> getPage() throws ContentRepositoryNotAvailableException {
+        List<ContentTreeNode> results = new ArrayList<>(children.size());
+        try {
+            for (Child child : children) {
+                results.add(new ContentTreeNode(converter.convert(child.node), child.childCount,
+                        child.childCountExact, child.lastModified));
+            }
+        } catch (RepositoryException e) {
+            log.error("Error converting document tree level", e);
+            throw new ContentRepositoryNotAvailableException();
+        }
+        return new Page<>(results, pageNumber, totalResults, totalPages);
+    }
+
+    /**
+     * Computes the entity tag, a digest of the paging and of the state of each child
+     * @return the entity tag value (not quoted)
+     * @throws RepositoryException in case of error reading the children nodes
+     */
+    private String computeEntityTag() throws RepositoryException {
+        StringBuilder state = new StringBuilder().append(pageNumber).append(SEPARATOR).
+                append(totalResults).append(SEPARATOR).append(totalPages);
+        for (Child child : children) {
+            Node node = child.node;
+            state.append(SEPARATOR).append(node.getPath()).append(SEPARATOR).append(node.getIdentifier()).
+                    append(SEPARATOR).append(getValue(node, OafConstants.OAF_VIEW_ID)).
+                    append(SEPARATOR).append(getValue(node, OafConstants.OAF_CONTENT_TYPE)).
+                    append(SEPARATOR).append(getValue(node, OafConstants.OAF_ACTIVE)).
+                    append(SEPARATOR).append(getValue(node, OafConstants.OAF_FILE_SIZE)).
+                    append(SEPARATOR).append(child.childCount).append(SEPARATOR).append(child.childCountExact).
+                    append(SEPARATOR).append(child.lastModified);
+        }
+        return EntityTags.digest(state.toString());
+    }
+
+    /**
+     * Reads a (single valued) property of a node
+     * @param node jcr node
+     * @param property property name
+     * @return the property value, or an empty value if the node does not have it
+     * @throws RepositoryException in case of error reading the node
+     */
+    private static String getValue(Node node, String property) throws RepositoryException {
+        return node.hasProperty(property) ? node.getProperty(property).getString() : "";
+    }
+
+    /**
+     * Converts a jcr node into an enterprise content
+     */
+    @FunctionalInterface
+    public interface NodeConverter {
+        /**
+         * Converts a jcr node into an enterprise content
+         * @param node jcr node
+         * @return the converted content
+         * @throws RepositoryException in case of error reading the node
+         */
+        EnterpriseContent convert(Node node) throws RepositoryException;
+    }
+
+    /**
+     * Child of the page, together with the values that are computed while reading the level
+     */
+    public static class Child {
+        private final Node node;
+        private final long childCount;
+        private final boolean childCountExact;
+        private final long lastModified;
+
+        /**
+         * Document tree level child constructor
+         * @param node jcr node
+         * @param childCount number of children of the node (up to the count limit)
+         * @param childCountExact false if the node has more children than the counted ones
+         * @param lastModified last modification time (in milliseconds), or 0 if not known
+         */
+        public Child(Node node, long childCount, boolean childCountExact, long lastModified) {
+            this.node = node;
+            this.childCount = childCount;
+            this.childCountExact = childCountExact;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -18,16 +18,21 @@ package io.radien.ms.ecm.jcr;
 
 import io.radien.api.OAFAccess;
 import io.radien.api.OAFProperties;
+import io.radien.ms.ecm.service.ContentCache;
 import org.apache.jackrabbit.commons.JcrUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.RequestScoped;
 import javax.enterprise.inject.Produces;
 import javax.inject.Inject;
+import javax.jcr.Credentials;
 import javax.jcr.Repository;
+import javax.jcr.Session;
+import javax.jcr.SimpleCredentials;
 import java.io.Serializable;
 
 /**
@@ -41,8 +46,13 @@ public @ApplicationScoped class JCRRepositoryProducer implements Serializable {
     private static final long serialVersionUID = 2126413751365548137L;
     @Inject
     private OAFAccess oaf;
+    @Inject
+    private ContentIndexInitializer contentIndexInitializer;
+    @Inject
+    private ContentCache contentCache;
 
     private Repository repository = null;
+    private transient Session observationSession = null;
 
     @PostConstruct
     private void init() {
@@ -65,6 +75,8 @@ public @ApplicationScoped class JCRRepositoryProducer implements Serializable {
                 log.info("## " + repository.getDescriptor(Repository.SPEC_NAME_DESC) + " v"
                         + repository.getDescriptor(Repository.SPEC_VERSION_DESC));
                 log.info("##########################################################################");
+                initIndexes();
+                initObservation();
             }
 
         } catch (Exception e) {
@@ -72,6 +84,55 @@ public @ApplicationScoped class JCRRepositoryProducer implements Serializable {
         }
     }
 
+    /**
+     * Provisions the property indexes used by the content queries
+     */
+    private void initIndexes() {
+        Session session = null;
+        try {
+            session = repository.login(adminCredentials());
+            int created = contentIndexInitializer.initialize(session);
+            log.info("[CMS] {} property indexes created", created);
+        } catch (Exception e) {
+            log.error("Error provisioning the JCR property indexes", e);
+        } finally {
+            if (session != null) {
+                session.logout();
+            }
+        }
+    }
+
+    /**
+     * Registers the content cache as repository listener, so cached content is invalidated
+     * whenever it is changed (by any session or cluster node). The listener lives as long as its session
+     */
+    private void initObservation() {
+        try {
+            observationSession = repository.login(adminCredentials());
+            observationSession.getWorkspace().getObservationManager().addEventListener(contentCache,
+                    ContentCache.OBSERVED_EVENTS, "/", true, null, null, false);
+        } catch (Exception e) {
+            log.error("Error registering the content cache listener, disabling the content cache", e);
+            contentCache.setEnabled(false);
+        }
+    }
+
+    /**
+     * Composes the repository admin credentials from the configuration
+     * @return the admin credentials
+     */
+    private Credentials adminCredentials() {
+        return new SimpleCredentials(oaf.getProperty(OAFProperties.SYSTEM_CMS_REPO_ADMIN_USER),
+                oaf.getProperty(OAFProperties.SYSTEM_CMS_REPO_ADMIN_PASSWORD).toCharArray());
+    }
+
+    @PreDestroy
+    private void destroy() {
+        if (observationSession != null) {
+            observationSession.logout();
+        }
+    }
+
     @Produces
     @RequestScoped
     public Repository create() {
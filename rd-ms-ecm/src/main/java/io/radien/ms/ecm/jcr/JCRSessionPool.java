@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.jcr;
+
+import io.radien.api.OAFProperties;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.jcr.Credentials;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.SimpleCredentials;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of long lived JCR read sessions, so a request borrows an already logged in session
+ * (refreshed to the latest repository state) instead of logging in and out every time.
+ * Sessions are used by one request at a time. At most maxTotal sessions are borrowed at once, further borrows
+ * wait (up to the borrow timeout) for a session to be released. At most maxIdle sessions are kept, extra sessions
+ * created under load are logged out when released.
+ * Writes use short lived sessions ({@link #openWriteSession()}), so pending changes never outlive the write
+ * and pooled sessions stay read only.
+ *
+ * @author Bruno Gama
+ */
+@ApplicationScoped
+public class JCRSessionPool {
+
+    private static final Logger log = LoggerFactory.getLogger(JCRSessionPool.class);
+
+    public static final String POOL_MAX_IDLE = "ecm.jcr.session.pool.maxIdle";
+    public static final String POOL_MAX_TOTAL = "ecm.jcr.session.pool.maxTotal";
+    public static final String POOL_BORROW_TIMEOUT = "ecm.jcr.session.pool.borrowTimeout";
+    private static final int DEFAULT_MAX_IDLE = 20;
+    private static final int DEFAULT_MAX_TOTAL = 50;
+    private static final long DEFAULT_BORROW_TIMEOUT_IN_MILLIS = 5000;
+
+    @Inject
+    private Repository repository;
+
+    private Credentials credentials;
+    private int maxIdle = DEFAULT_MAX_IDLE;
+    private int maxTotal = DEFAULT_MAX_TOTAL;
+    private long borrowTimeoutInMillis = DEFAULT_BORROW_TIMEOUT_IN_MILLIS;
+    private Semaphore permits = new Semaphore(DEFAULT_MAX_TOTAL);
+
+    private final Deque<Session> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger borrowed = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong writeSessions = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * Default constructor, the repository is injected and the credentials and pool sizes are read by {@link #init()}
+     */
+    public JCRSessionPool() {
+        // repository is injected
+    }
+
+    /**
+     * Constructor that allows to define the repository and the pool settings directly
+     * @param repository jcr repository
+     * @param credentials credentials used to log in the sessions
+     * @param maxIdle maximum number of idle sessions kept
+     * @param maxTotal maximum number of sessions borrowed at once
+     * @param borrowTimeoutInMillis maximum time (in milliseconds) waiting for a session once maxTotal are borrowed
+     */
+    public JCRSessionPool(Repository repository, Credentials credentials, int maxIdle, int maxTotal,
+                          long borrowTimeoutInMillis) {
+        this.repository = repository;
+        this.credentials = credentials;
+        configure(maxIdle, maxTotal, borrowTimeoutInMillis);
+    }
+
+    /**
+     * Loads the repository credentials and the pool settings (max idle sessions, max borrowed sessions
+     * and borrow timeout in milliseconds) from the configuration
+     */
+    @PostConstruct
+    public void init() {
+        Config config = ConfigProvider.getConfig();
+        this.credentials = new SimpleCredentials(
+                config.getValue(OAFProperties.SYSTEM_CMS_REPO_ADMIN_USER.propKey(), String.class),
+                config.getValue(OAFProperties.SYSTEM_CMS_REPO_ADMIN_PASSWORD.propKey(), String.class).toCharArray());
+        configure(config.getOptionalValue(POOL_MAX_IDLE, Integer.class).orElse(DEFAULT_MAX_IDLE),
+                config.getOptionalValue(POOL_MAX_TOTAL, Integer.class).orElse(DEFAULT_MAX_TOTAL),
+                config.getOptionalValue(POOL_BORROW_TIMEOUT, Long.class).orElse(DEFAULT_BORROW_TIMEOUT_IN_MILLIS));
+        log.info("JCR session pool max idle sessions: {}, max borrowed sessions: {}, borrow timeout: {} ms",
+                maxIdle, maxTotal, borrowTimeoutInMillis);
+    }
+
+    /**
+     * Borrows a read session, reusing an idle one (refreshed, discarding any transient change) when available.
+     * Waits up to the borrow timeout when maxTotal sessions are already borrowed
+     * @return a live session, to be given back through {@link #release(Session)}
+     * @throws RepositoryException in case of no session is released within the borrow timeout
+     * or a new session can not be created
+     */
+    public Session borrow() throws RepositoryException {
+        acquire();
+        try {
+            Session session = pollIdle();
+            if (session == null) {
+                session = login();
+                created.incrementAndGet();
+            }
+            borrowed.incrementAndGet();
+            return session;
+        } catch (RepositoryException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gives back a borrowed read session. The session is kept for reuse unless the pool is full
+     * @param session session previously borrowed
+     */
+    public void release(Session session) {
+        if (session == null) {
+            return;
+        }
+        borrowed.decrementAndGet();
+        try {
+            keepOrLogout(session);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Opens a short lived session to persist changes, to be closed through {@link #closeWriteSession(Session)}
+     * as soon as the changes are saved
+     * @return a new session
+     * @throws RepositoryException in case of the session can not be created
+     */
+    public Session openWriteSession() throws RepositoryException {
+        writeSessions.incrementAndGet();
+        return login();
+    }
+
+    /**
+     * Closes a write session, discarding any unsaved change
+     * @param session write session (Optional)
+     */
+    public void closeWriteSession(Session session) {
+        if (session != null && session.isLive()) {
+            session.logout();
+        }
+    }
+
+    /**
+     * Logs out every idle session
+     */
+    @PreDestroy
+    public void shutdown() {
+        Session session = idle.pollFirst();
+        while (session != null) {
+            idleCount.decrementAndGet();
+            session.logout();
+            session = idle.pollFirst();
+        }
+    }
+
+    /**
+     * Gets the number of idle sessions kept by the pool
+     * @return idle sessions
+     */
+    @Gauge(name = "ecm.jcr.session.pool.idle", unit = MetricUnits.NONE, absolute = true)
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    /**
+     * Gets the number of read sessions currently borrowed
+     * @return borrowed sessions
+     */
+    @Gauge(name = "ecm.jcr.session.pool.borrowed", unit = MetricUnits.NONE, absolute = true)
+    public int getBorrowedCount() {
+        return borrowed.get();
+    }
+
+    /**
+     * Gets the number of read sessions created (logins)
+     * @return created sessions
+     */
+    @Gauge(name = "ecm.jcr.session.pool.created", unit = MetricUnits.NONE, absolute = true)
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * Gets the number of borrows answered by an idle session
+     * @return reused sessions
+     */
+    @Gauge(name = "ecm.jcr.session.pool.reused", unit = MetricUnits.NONE, absolute = true)
+    public long getReusedCount() {
+        return reused.get();
+    }
+
+    /**
+     * Gets the number of write sessions opened
+     * @return write sessions
+     */
+    @Gauge(name = "ecm.jcr.session.pool.writeSessions", unit = MetricUnits.NONE, absolute = true)
+    public long getWriteSessionCount() {
+        return writeSessions.get();
+    }
+
+    /**
+     * Gets the number of borrows that gave up waiting for a session
+     * @return borrow timeouts
+     */
+    @Gauge(name = "ecm.jcr.session.pool.timeouts", unit = MetricUnits.NONE, absolute = true)
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    /**
+     * Changes the pool settings
+     * @param maxIdle maximum number of idle sessions kept
+     * @param maxTotal maximum number of sessions borrowed at once
+     * @param borrowTimeoutInMillis maximum time (in milliseconds) waiting for a session once maxTotal are borrowed
+     */
+    private void configure(int maxIdle, int maxTotal, long borrowTimeoutInMillis) {
+        this.maxIdle = maxIdle;
+        this.maxTotal = maxTotal;
+        this.borrowTimeoutInMillis = borrowTimeoutInMillis;
+        this.permits = new Semaphore(maxTotal);
+    }
+
+    /**
+     * Waits (up to the borrow timeout) until a session can be borrowed
+     * @throws RepositoryException in case of no session is released within the borrow timeout
+     */
+    private void acquire() throws RepositoryException {
+        try {
+            if (permits.tryAcquire(borrowTimeoutInMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Interrupted while waiting for a JCR session", e);
+        }
+        timeouts.incrementAndGet();
+        throw new RepositoryException("No JCR session released within " + borrowTimeoutInMillis + " ms, " +
+                maxTotal + " sessions are borrowed");
+    }
+
+    /**
+     * Retrieves an idle session, refreshed to the latest repository state. Sessions that are no longer
+     * live or can not be refreshed are discarded
+     * @return the session, or null if there is no idle session
+     */
+    private Session pollIdle() {
+        Session session = idle.pollFirst();
+        while (session != null) {
+            idleCount.decrementAndGet();
+            if (session.isLive()) {
+                try {
+                    session.refresh(false);
+                    reused.incrementAndGet();
+                    return session;
+                } catch (RepositoryException e) {
+                    log.warn("Discarding pooled JCR session that could not be refreshed", e);
+                    session.logout();
+                }
+            }
+            session = idle.pollFirst();
+        }
+        return null;
+    }
+
+    /**
+     * Keeps a released session for reuse (discarding any transient change), unless it is no longer live,
+     * can not be cleaned or the pool is full. Done before the session permit is given back, so a waiting borrow
+     * finds the session idle
+     * @param session released session
+     */
+    private void keepOrLogout(Session session) {
+        if (!session.isLive()) {
+            return;
+        }
+        try {
+            if (session.hasPendingChanges()) {
+                session.refresh(false);
+            }
+        } catch (RepositoryException e) {
+            log.warn("Discarding JCR session that could not be cleaned", e);
+            session.logout();
+            return;
+        }
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offerFirst(session);
+        } else {
+            idleCount.decrementAndGet();
+            session.logout();
+        }
+    }
+
+    /**
+     * Logs in a new session
+     * @return the session
+     * @throws RepositoryException in case of login failure
+     */
+    private Session login() throws RepositoryException {
+        return repository.login(credentials);
+    }
+}
@@ -23,13 +23,12 @@ import javax.enterprise.context.RequestScoped;
 import javax.enterprise.inject.Disposes;
 import javax.enterprise.inject.Produces;
 import javax.inject.Inject;
-import javax.jcr.Repository;
 import javax.jcr.Session;
-import javax.jcr.SimpleCredentials;
 import java.io.Serializable;
 
 /**
- * Class responsible for creating a jcr session per request
+ * Class responsible for providing a jcr session per request, borrowed from (and given back to)
+ * the {@link JCRSessionPool}
  *
  * @author Bruno Gama
  */
@@ -40,17 +39,14 @@ public @RequestScoped class JCRSessionProducer implements Serializable {
 	private long initCount = 0;
 
 	@Inject
-	private Repository repository;
+	private JCRSessionPool sessionPool;
 
 	@Produces
 	@RequestScoped
 	public Session create() {
 		boolean error = false;
 		try {
-
-			// TODO: CHANGE REPOSITORY ADMIN PASSWORD
-
-			return repository.login(new SimpleCredentials("admin", "admin".toCharArray()));
+			return sessionPool.borrow();
 		} catch (Exception e) {
 			log.error("Error creating new JCR session", e);
 			error = true;
@@ -67,7 +63,7 @@ public @RequestScoped class JCRSessionProducer implements Serializable {
 
 	public void destroy(@Disposes Session session) {
 		try {
-			session.logout();
+			sessionPool.release(session);
 		} catch (Exception e) {
 			log.error("Error destroying JCR session", e);
 		} finally {
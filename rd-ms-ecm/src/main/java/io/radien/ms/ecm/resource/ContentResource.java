@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.resource;
+
+import io.radien.api.OAFAccess;
+import io.radien.api.OAFProperties;
+import io.radien.api.service.ecm.exception.ContentRepositoryNotAvailableException;
+import io.radien.api.service.ecm.exception.ElementNotFoundException;
+import io.radien.api.service.ecm.model.EnterpriseContent;
+import io.radien.ms.ecm.client.services.ContentResourceClient;
+import io.radien.ms.ecm.jcr.ContentBinary;
+import io.radien.ms.ecm.jcr.DocumentTreeLevel;
+import io.radien.ms.ecm.service.ContentService;
+import io.radien.ms.ecm.util.ByteRange;
+import io.radien.ms.ecm.util.EntityTags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.json.Json;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.InputStream;
+
+/**
+ * Content resource methods, files are streamed from/to the repository
+ * so the memory used per request does not depend on the file size
+ *
+ * @author Marco Weiland
+ */
+@Path("content")
+@RequestScoped
+public class ContentResource implements ContentResourceClient {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentResource.class);
+
+    private static final String ACCEPT_RANGES = "Accept-Ranges";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final String BYTES = "bytes";
+
+    @Inject
+    private ContentService contentService;
+    @Inject
+    private OAFAccess oafAccess;
+
+    /**
+     * Streams the file of a document, or the requested byte range of it
+     * @param jcrPath jcr path of the document
+     * @param range value of the Range header (Optional)
+     * @return 200 with the complete file, 206 with the requested range,
+     * 416 if the range cannot be satisfied or 404 if the path is not a file of the document tree
+     */
+    @Override
+    public Response getFile(String jcrPath, String range) {
+        if (jcrPath == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        try {
+            return stream(contentService.getFileBinary(jcrPath), range, "attachment");
+        } catch (ElementNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        } catch (ContentRepositoryNotAvailableException e) {
+            log.error("Error streaming file {}", jcrPath, e);
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Streams the image of a content, or the requested byte range of it
+     * @param jcrPath jcr path of the content
+     * @param range value of the Range header (Optional)
+     * @return 200 with the complete image, 206 with the requested range,
+     * 416 if the range cannot be satisfied or 404 if the content (or its image) does not exist
+     */
+    @Override
+    public Response getImage(String jcrPath, String range) {
+        if (jcrPath == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        try {
+            return stream(contentService.getImageBinary(jcrPath), range, "inline");
+        } catch (ElementNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        } catch (ContentRepositoryNotAvailableException e) {
+            log.error("Error streaming image {}", jcrPath, e);
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Retrieves one page of the children of a document tree node, tagged with an ETag.
+     * The ETag is checked before the children are converted, so a 304 response skips that work
+     * @param jcrPath jcr path of the parent node (Optional, the documents root by default)
+     * @param pageNo requested page (starting at 1)
+     * @param pageSize number of children per page
+     * @param ifNoneMatch value of the If-None-Match header (Optional)
+     * @return 200 with the requested page, 304 if the client already has it,
+     * 400 if the page number or size is lower than 1 or 404 if the parent does not exist
+     */
+    @Override
+    public Response getDocumentTreeLevel(String jcrPath, int pageNo, int pageSize, String ifNoneMatch) {
+        if (pageNo < 1 || pageSize < 1) {
+            return Response.status(Response.Status.BAD_REQUEST).
+                    entity("pageNo and pageSize must be greater than zero").build();
+        }
+        try {
+            DocumentTreeLevel level = contentService.readDocumentTreeLevel(jcrPath, pageNo, pageSize);
+            EntityTag entityTag = new EntityTag(level.getEntityTag());
+            if (EntityTags.matches(ifNoneMatch, level.getEntityTag())) {
+                return Response.notModified(entityTag).build();
+            }
+            return Response.ok(level.getPage()).tag(entityTag).build();
+        } catch (ElementNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        } catch (ContentRepositoryNotAvailableException e) {
+            log.error("Error getting document tree level {}", jcrPath, e);
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Replaces the file of a document, streaming the request body into the repository
+     * @param viewId view id of the document
+     * @param mimeType file mime type
+     * @param file file content
+     * @return 200 with the stored file size or 404 if the document does not exist
+     */
+    @Override
+    public Response uploadFile(String viewId, String mimeType, InputStream file) {
+        if (viewId == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        try {
+            EnterpriseContent content = contentService.saveFile(viewId,
+                    file, mimeType != null ? mimeType : MediaType.APPLICATION_OCTET_STREAM);
+            return Response.ok(Json.createObjectBuilder().add("fileSize", content.getFileSize()).build()).build();
+        } catch (ElementNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        } catch (ContentRepositoryNotAvailableException e) {
+            log.error("Error uploading file to {}", viewId, e);
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Requests the rebuild of the content full-text index if the given secret is the correct one
+     * @param secret to be compared, if matched will request the rebuild
+     * @return 202 if the rebuild was requested or 401 if the secret does not match
+     */
+    @Override
+    public Response reindex(String secret) {
+        String correctSecret = oafAccess.getProperty(OAFProperties.SYSTEM_MS_SECRET_ECM);
+        if (correctSecret == null || !correctSecret.equals(secret)) {
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        try {
+            contentService.reindex();
+            return Response.accepted().build();
+        } catch (ContentRepositoryNotAvailableException e) {
+            log.error("Error requesting reindex", e);
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Builds the response that streams a binary (or the requested byte range of it)
+     * @param file binary to be streamed
+     * @param range value of the Range header (Optional)
+     * @param disposition content disposition type (attachment or inline)
+     * @return 200 with the complete binary, 206 with the requested range or 416 if the range cannot be satisfied
+     */
+    private Response stream(ContentBinary file, String range, String disposition) {
+        long size = file.getSize();
+        ByteRange byteRange;
+        try {
+            byteRange = ByteRange.parse(range, size);
+        } catch (IllegalArgumentException e) {
+            file.dispose();
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE).
+                    header(CONTENT_RANGE, BYTES + " */" + size).build();
+        }
+        String mimeType = file.getMimeType() != null ? file.getMimeType() : MediaType.APPLICATION_OCTET_STREAM;
+        Response.ResponseBuilder builder;
+        if (byteRange == null) {
+            builder = Response.ok(file.stream(0, size), mimeType).
+                    header(HttpHeaders.CONTENT_LENGTH, size);
+        } else {
+            builder = Response.status(Response.Status.PARTIAL_CONTENT).
+                    entity(file.stream(byteRange.getStart(), byteRange.getLength())).type(mimeType).
+                    header(CONTENT_RANGE, byteRange.toContentRange(size)).
+                    header(HttpHeaders.CONTENT_LENGTH, byteRange.getLength());
+        }
+        return builder.header(ACCEPT_RANGES, BYTES).
+                header("Content-Disposition", disposition + "; filename=\"" +
+                        file.getName().replace("\"", "") + "\"").build();
+    }
+}
@@ -17,17 +17,30 @@ package io.radien.ms.ecm.resource;
 
 import io.radien.api.OAFAccess;
 import io.radien.api.OAFProperties;
+import io.radien.ms.ecm.client.entities.I18NBundle;
 import io.radien.ms.ecm.client.entities.I18NProperty;
 import io.radien.ms.ecm.client.services.I18NPropertyResourceClient;
 import io.radien.ms.ecm.client.services.SystemI18NPropertyService;
+import io.radien.ms.ecm.util.EntityTags;
 
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
+import javax.json.Json;
+import javax.json.JsonObjectBuilder;
 import javax.ws.rs.Path;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * I18N Property Resource resource methods
@@ -38,6 +51,8 @@ import java.util.stream.Collectors;
 @RequestScoped
 public class I18NPropertyResource implements I18NPropertyResourceClient {
 
+    private static final String GZIP = "gzip";
+
     @Inject
     private SystemI18NPropertyService propertyManager;
     @Inject
@@ -105,7 +120,40 @@ public class I18NPropertyResource implements I18NPropertyResourceClient {
     public Response getProperties() { return Response.ok(propertyManager.getAll()).build(); }
 
     /**
-     * Request to initialize the I18N properties if the given secret is the correct one
+     * Request to retrieve every message of a language, gzip compressed if accepted by the client
+     * @param language bundle language
+     * @param ifNoneMatch value of the If-None-Match header (Optional)
+     * @param acceptEncoding value of the Accept-Encoding header (Optional)
+     * @return a http request response with the bundle, or 304 if the client already has it
+     */
+    @Override
+    public Response getBundle(String language, String ifNoneMatch, String acceptEncoding) {
+        I18NBundle bundle = propertyManager.getBundle(language);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains(GZIP);
+        // each encoding is a different representation, so it has its own entity tag
+        String version = gzip ? bundle.getVersion() + "-" + GZIP : bundle.getVersion();
+        if (EntityTags.matches(ifNoneMatch, version)) {
+            return Response.notModified(new EntityTag(version)).
+                    header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        JsonObjectBuilder messages = Json.createObjectBuilder();
+        bundle.getMessages().forEach(messages::add);
+        byte[] json = messages.build().toString().getBytes(StandardCharsets.UTF_8);
+        Response.ResponseBuilder builder;
+        if (gzip) {
+            builder = Response.ok(compress(json)).header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        } else {
+            builder = Response.ok(json);
+        }
+        return builder.type(MediaType.APPLICATION_JSON_TYPE.withCharset(StandardCharsets.UTF_8.name())).
+                tag(new EntityTag(version)).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+    }
+
+    /**
+     * Request to initialize the I18N properties if the given secret is the correct one.
+     * The initialization is forced, so properties deleted meanwhile are restored even if the
+     * resource bundles did not change
      * @param secret to be compared, if matched will initialize the properties
      * @return a 200 http message if the property has been initialized with success
      */
@@ -115,7 +163,23 @@ public class I18NPropertyResource implements I18NPropertyResourceClient {
         if(!correctSecret.equals(secret)) {
             return Response.status(Response.Status.UNAUTHORIZED).build();
         }
-        propertyManager.initializeProperties();
+        propertyManager.initializeProperties(true);
         return Response.ok().build();
     }
+
+    /**
+     * Compresses a content using gzip
+     * @param content content to be compressed
+     * @return the compressed content
+     */
+    private static byte[] compress(byte[] content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            // never thrown by an in memory stream
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.service;
+
+import io.radien.api.service.ecm.exception.NameNotValidException;
+import io.radien.api.service.ecm.model.EnterpriseContent;
+import io.radien.api.util.BoundedCache;
+import io.radien.api.util.CacheStatistics;
+import io.radien.api.util.NearCache;
+import org.eclipse.microprofile.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.jcr.RepositoryException;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.EventListener;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, time based read-through cache of the content resolved by view id, shared by all the requests.
+ * Keyed by view id, language and active flag. Stores a read only snapshot of the content (see {@link ContentSnapshot}),
+ * copied once when stored and handed out as is on every hit, so callers can not change what is cached.
+ * Entries are evicted when expired, when the cache is full (least recently used first),
+ * when the content is changed through the repository or when the repository notifies
+ * (observation) a change on the content node or on one of its ancestors/descendants.
+ * Content read from the repository is stored together with the generation observed before reading it,
+ * and is discarded if an invalidation happened meanwhile (it may be older than the change).
+ * The generation is kept for the whole cache, since a path based invalidation can not tell
+ * which keys (not yet stored) would be affected.
+ * Configured by the {@code ecm.content.cache.*} properties (see {@link NearCache}).
+ *
+ * @author Bruno Gama
+ */
+@ApplicationScoped
+public class ContentCache extends NearCache implements EventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentCache.class);
+
+    private static final String PREFIX = "ecm.content.cache";
+
+    /** Observed events: every change that may affect a cached content */
+    public static final int OBSERVED_EVENTS = Event.NODE_ADDED | Event.NODE_REMOVED | Event.NODE_MOVED |
+            Event.PROPERTY_ADDED | Event.PROPERTY_CHANGED | Event.PROPERTY_REMOVED;
+
+    private static final long DEFAULT_TTL_IN_SECONDS = 300;
+    private static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final String SRC_ABS_PATH = "srcAbsPath";
+
+    private final BoundedCache<String, EnterpriseContent> contents;
+
+    /**
+     * Creates the cache keeping up to {@value #DEFAULT_MAX_SIZE} contents for {@value #DEFAULT_TTL_IN_SECONDS} seconds,
+     * unless configured otherwise
+     */
+    public ContentCache() {
+        this(TimeUnit.SECONDS.toMillis(DEFAULT_TTL_IN_SECONDS), DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor that allows to define the cache settings directly
+     * @param ttlInMillis time (in milliseconds) that a content remains valid
+     * @param maxSize maximum number of contents kept
+     */
+    public ContentCache(long ttlInMillis, int maxSize) {
+        super(PREFIX, PREFIX);
+        this.contents = new BoundedCache<>(ttlInMillis, maxSize);
+    }
+
+    @Override
+    protected void configure(Config config) {
+        configure(config, contents);
+    }
+
+    @Override
+    protected CacheStatistics getStatistics() {
+        return contents;
+    }
+
+    /**
+     * Retrieves a previously stored (and still valid) content
+     * @param viewId content view id
+     * @param language content language (Optional)
+     * @param activeOnly if the content was resolved considering only active content
+     * @return the read only snapshot of the content, or null if there is no valid content stored
+     */
+    public EnterpriseContent get(String viewId, String language, boolean activeOnly) {
+        if (viewId == null) {
+            return null;
+        }
+        return contents.get(key(viewId, language, activeOnly));
+    }
+
+    /**
+     * Gets the current cache generation, to be observed before reading a content from the repository
+     * @return the generation, which changes on every invalidation
+     */
+    public long getGeneration() {
+        return contents.getGeneration();
+    }
+
+    /**
+     * Stores a snapshot of a content
+     * @param viewId content view id
+     * @param language content language (Optional)
+     * @param activeOnly if the content was resolved considering only active content
+     * @param content the content to be stored
+     */
+    public void put(String viewId, String language, boolean activeOnly, EnterpriseContent content) {
+        EnterpriseContent snapshot = snapshot(content);
+        if (viewId == null || snapshot == null) {
+            return;
+        }
+        contents.put(key(viewId, language, activeOnly), snapshot);
+    }
+
+    /**
+     * Stores a snapshot of a content read from the repository, unless the cache was invalidated
+     * after the informed generation was observed
+     * @param viewId content view id
+     * @param language content language (Optional)
+     * @param activeOnly if the content was resolved considering only active content
+     * @param content the content to be stored
+     * @param generation generation observed (see {@link #getGeneration()}) before the content was read
+     * @return true if the content was stored
+     */
+    public boolean put(String viewId, String language, boolean activeOnly, EnterpriseContent content,
+                       long generation) {
+        EnterpriseContent snapshot = snapshot(content);
+        if (viewId == null || snapshot == null) {
+            return false;
+        }
+        return contents.putIfCurrent(key(viewId, language, activeOnly), snapshot, generation);
+    }
+
+    /**
+     * Removes every stored content with the informed view id
+     * @param viewId content view id
+     */
+    public void invalidate(String viewId) {
+        if (viewId == null) {
+            return;
+        }
+        contents.invalidateIf((key, content) -> viewId.equals(content.getViewId()));
+    }
+
+    /**
+     * Removes every stored content affected by a change on the informed path, which means content
+     * stored on that path, on one of its ancestors (property or jcr:content changed) or on one of its descendants
+     * (ancestor moved or removed)
+     * @param path changed node or property path
+     */
+    public void invalidatePath(String path) {
+        if (path == null) {
+            return;
+        }
+        contents.invalidateIf((key, content) -> {
+            String jcrPath = content.getJcrPath();
+            return jcrPath == null || jcrPath.equals(path) || path.startsWith(jcrPath + "/") ||
+                    jcrPath.startsWith(path + "/");
+        });
+    }
+
+    /**
+     * Removes all the stored contents
+     */
+    public void invalidateAll() {
+        contents.invalidateAll();
+    }
+
+    /**
+     * Repository observation callback, invalidates the content affected by the saved changes
+     * @param events saved changes
+     */
+    @Override
+    public void onEvent(EventIterator events) {
+        while (events.hasNext()) {
+            Event event = events.nextEvent();
+            try {
+                invalidatePath(event.getPath());
+                if (event.getType() == Event.NODE_MOVED && event.getInfo().get(SRC_ABS_PATH) != null) {
+                    invalidatePath(event.getInfo().get(SRC_ABS_PATH).toString());
+                }
+            } catch (RepositoryException e) {
+                log.error("Error handling repository event, invalidating the content cache", e);
+                invalidateAll();
+            }
+        }
+    }
+
+    /**
+     * Enables or disables the cache
+     * @param enabled flag that indicates if contents must be cached
+     */
+    public void setEnabled(boolean enabled) {
+        contents.setEnabled(enabled);
+    }
+
+    /**
+     * Creates the read only snapshot of a content, unless it is already one
+     * @param content content to be copied (Optional)
+     * @return the snapshot, or null if there is no content or it can not be copied
+     */
+    private static EnterpriseContent snapshot(EnterpriseContent content) {
+        if (content == null || content instanceof ContentSnapshot) {
+            return content;
+        }
+        try {
+            return new ContentSnapshot(content);
+        } catch (NameNotValidException e) {
+            log.warn("Content {} without a name is not cached", content.getViewId());
+            return null;
+        }
+    }
+
+    /**
+     * Composes the key for a content
+     * @param viewId content view id
+     * @param language content language (Optional)
+     * @param activeOnly active flag
+     * @return the key
+     */
+    private static String key(String viewId, String language, boolean activeOnly) {
+        return viewId + '|' + language + '|' + activeOnly;
+    }
+}
@@ -17,19 +17,24 @@
 package io.radien.ms.ecm.service;
 
 import com.fasterxml.jackson.core.TreeNode;
+import io.radien.api.entity.Page;
 import io.radien.api.service.ecm.ContentServiceAccess;
 import io.radien.api.service.ecm.exception.ContentRepositoryNotAvailableException;
 import io.radien.api.service.ecm.exception.ElementNotFoundException;
+import io.radien.api.service.ecm.model.ContentTreeNode;
 import io.radien.api.service.ecm.model.ContentType;
 import io.radien.api.service.ecm.model.EnterpriseContent;
 import io.radien.api.service.mail.model.MailType;
 import io.radien.ms.ecm.factory.ContentFactory;
 import io.radien.ms.ecm.ContentRepository;
+import io.radien.ms.ecm.jcr.ContentBinary;
+import io.radien.ms.ecm.jcr.DocumentTreeLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +50,8 @@ class ContentService implements ContentServiceAccess {
     private static final Logger log = LoggerFactory.getLogger(ContentService.class);
     private static final long serialVersionUID = 8354030307902734111L;
 
+    public static final int MAX_TREE_PAGE_SIZE = 500;
+
     @Inject
     private ContentFactory factory;
 
@@ -131,6 +138,44 @@ class ContentService implements ContentServiceAccess {
         return contentRepository.loadFile(content);
     }
 
+    /**
+     * Retrieves the file content of a document, to be streamed instead of loaded in memory
+     * @param jcrPath jcr path of the document
+     * @return the file binary and its metadata
+     * @throws ElementNotFoundException in case of the document does not exist
+     * @throws ContentRepositoryNotAvailableException in case of repository failure
+     */
+    public ContentBinary getFileBinary(String jcrPath)
+            throws ElementNotFoundException, ContentRepositoryNotAvailableException {
+        return contentRepository.getFileBinary(jcrPath);
+    }
+
+    /**
+     * Retrieves the image of a content, so it can be streamed instead of loaded in memory
+     * @param jcrPath jcr path of the content
+     * @return the image binary and its metadata
+     * @throws ElementNotFoundException in case of the content (or its image) does not exist
+     * @throws ContentRepositoryNotAvailableException in case of repository failure
+     */
+    public ContentBinary getImageBinary(String jcrPath)
+            throws ElementNotFoundException, ContentRepositoryNotAvailableException {
+        return contentRepository.getImageBinary(jcrPath);
+    }
+
+    /**
+     * Replaces the file content of a document, streaming it directly into the repository
+     * @param viewId view id of the document
+     * @param file file content stream
+     * @param mimeType file mime type
+     * @return the updated document
+     * @throws ElementNotFoundException in case of the document does not exist
+     * @throws ContentRepositoryNotAvailableException in case of repository failure
+     */
+    public EnterpriseContent saveFile(String viewId, InputStream file, String mimeType)
+            throws ElementNotFoundException, ContentRepositoryNotAvailableException {
+        return contentRepository.saveFile(viewId, file, mimeType);
+    }
+
     public void delete(EnterpriseContent obj) {
         try {
             contentRepository.delete(obj);
@@ -162,6 +207,40 @@ class ContentService implements ContentServiceAccess {
         return searchContent;
     }
 
+    /**
+     * Searches the content (html, news feed and notification) returning the requested page
+     * together with the total number of results and pages
+     * @param pageSize number of results per page
+     * @param pageNumber requested page (starting at 1)
+     * @param searchTerm search term
+     * @return the requested page
+     */
+    public Page<EnterpriseContent> searchPage(int pageSize, int pageNumber, String searchTerm) {
+        if (pageNumber == 0) {
+            pageNumber = 1;
+        }
+        if (pageSize == 0) {
+            pageSize = 10;
+        }
+        try {
+            List<EnterpriseContent> results = contentRepository.searchContent(pageSize, pageNumber, searchTerm, true);
+            int totalResults = (int) contentRepository.countContent(searchTerm, true);
+            int totalPages = totalResults % pageSize == 0 ? totalResults / pageSize : totalResults / pageSize + 1;
+            return new Page<>(results, pageNumber, totalResults, totalPages);
+        } catch (ContentRepositoryNotAvailableException e) {
+            log.error("Error searching", e);
+        }
+        return new Page<>();
+    }
+
+    /**
+     * Requests the rebuild of the content full-text index
+     * @throws ContentRepositoryNotAvailableException in case of repository failure
+     */
+    public void reindex() throws ContentRepositoryNotAvailableException {
+        contentRepository.reindex();
+    }
+
     public List<EnterpriseContent> getByContentType(ContentType contentType) {
         return getByContentType(contentType, false);
     }
@@ -177,10 +256,43 @@ class ContentService implements ContentServiceAccess {
         return results;
     }
 
+    @Deprecated
     public TreeNode getDocumentTreeModel() {
         return contentRepository.getDocumentsTreeModel();
     }
 
+    /**
+     * Gets one page of the children of a document tree node
+     * @param jcrPath jcr path of the parent node, if null the documents root is used
+     * @param pageNumber requested page (starting at 1)
+     * @param pageSize number of children per page (limited to {@link #MAX_TREE_PAGE_SIZE})
+     * @return the requested page of children
+     * @throws ElementNotFoundException if the parent does not exist or is not part of the document tree
+     * @throws ContentRepositoryNotAvailableException in case of repository failure
+     * @throws IllegalArgumentException if the page number or the page size is lower than 1
+     */
+    @Override
+    public Page<ContentTreeNode> getDocumentTreeLevel(String jcrPath, int pageNumber, int pageSize)
+            throws ElementNotFoundException, ContentRepositoryNotAvailableException {
+        return readDocumentTreeLevel(jcrPath, pageNumber, pageSize).getPage();
+    }
+
+    /**
+     * Reads one page of the children of a document tree node, without converting them yet,
+     * so its entity tag can be checked first
+     * @param jcrPath jcr path of the parent node, if null the documents root is used
+     * @param pageNumber requested page (starting at 1)
+     * @param pageSize number of children per page (limited to {@link #MAX_TREE_PAGE_SIZE})
+     * @return the requested page of children
+     * @throws ElementNotFoundException if the parent does not exist or is not part of the document tree
+     * @throws ContentRepositoryNotAvailableException in case of repository failure
+     * @throws IllegalArgumentException if the page number or the page size is lower than 1
+     */
+    public DocumentTreeLevel readDocumentTreeLevel(String jcrPath, int pageNumber, int pageSize)
+            throws ElementNotFoundException, ContentRepositoryNotAvailableException {
+        return contentRepository.getDocumentTreeLevel(jcrPath, pageNumber, Math.min(pageSize, MAX_TREE_PAGE_SIZE));
+    }
+
     public ContentFactory getFactory() {
         return factory;
     }
@@ -204,6 +316,12 @@ class ContentService implements ContentServiceAccess {
 
     @Override
     public List<EnterpriseContent> getByViewIdLanguage(String viewId, boolean activeOnly, String language) {
-        return null;
+        List<EnterpriseContent> results = new ArrayList<>();
+        try {
+            results.add(contentRepository.getByViewId(viewId, activeOnly, language));
+        } catch (ContentRepositoryNotAvailableException | ElementNotFoundException e) {
+            log.debug("Content {} not found for language {}", viewId, language);
+        }
+        return results;
     }
 }
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.service;
+
+import io.radien.api.service.ecm.exception.NameNotValidException;
+import io.radien.api.service.ecm.model.ContentType;
+import io.radien.api.service.ecm.model.ContentVersion;
+import io.radien.api.service.ecm.model.EnterpriseContent;
+import io.radien.api.service.ecm.model.GenericEnterpriseContent;
+import io.radien.api.service.ecm.model.SystemContentVersion;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Read only snapshot of a content, kept by the {@link ContentCache} and handed out as is on every hit.
+ * The content is copied once (when stored) and every setter is rejected afterwards.
+ * Dates and version are handed out as copies, since they are mutable and cheap to copy. The binaries
+ * (image and file) are shared, copying them on every hit is exactly what the snapshot avoids,
+ * so they must not be changed by the callers. The file input stream is not kept, as it can not be shared.
+ *
+ * @author Bruno Gama
+ */
+final class ContentSnapshot extends GenericEnterpriseContent {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String READ_ONLY_MESSAGE = "Cached content is read only, copy it before changing";
+
+    /**
+     * Creates the snapshot of a content
+     * @param content content to be copied
+     * @throws NameNotValidException in case of the content does not have a name
+     */
+    ContentSnapshot(EnterpriseContent content) throws NameNotValidException {
+        super(content.getName());
+        super.setId(content.getId());
+        super.setCreateDate(copy(content.getCreateDate()));
+        super.setLastUpdate(copy(content.getLastUpdate()));
+        super.setCreateUser(content.getCreateUser());
+        super.setLastUpdateUser(content.getLastUpdateUser());
+        super.setViewId(content.getViewId());
+        super.setLanguage(content.getLanguage());
+        super.setHtmlContent(content.getHtmlContent());
+        super.setContentType(content.getContentType());
+        super.setApp(content.getApp());
+        super.setAuthor(content.getAuthor());
+        super.setActive(content.isActive());
+        super.setJcrPath(content.getJcrPath());
+        super.setParentPath(content.getParentPath());
+        super.setImage(content.getImage() != null ? content.getImage().clone() : null);
+        super.setImageMimeType(content.getImageMimeType());
+        super.setImageName(content.getImageName());
+        super.setFile(content.getFile() != null ? content.getFile().clone() : null);
+        super.setMimeType(content.getMimeType());
+        super.setFileSize(content.getFileSize());
+        super.setSystem(content.isSystem());
+        super.setTags(content.getTags() != null ?
+                Collections.unmodifiableList(new ArrayList<>(content.getTags())) : null);
+        super.setPermissions(content.getPermissions());
+        super.setVersionable(content.isVersionable());
+        super.setVersionComment(content.getVersionComment());
+        super.setValidDate(copy(content.getValidDate()));
+        super.setVersion(copy(content.getVersion()));
+        super.setVersionableName(content.getVersionableName());
+        super.setUpdateOnLaunch(content.isUpdateOnLaunch());
+    }
+
+    @Override
+    public Date getCreateDate() {
+        return copy(super.getCreateDate());
+    }
+
+    @Override
+    public Date getLastUpdate() {
+        return copy(super.getLastUpdate());
+    }
+
+    @Override
+    public Date getValidDate() {
+        return copy(super.getValidDate());
+    }
+
+    @Override
+    public SystemContentVersion getVersion() {
+        return copy(super.getVersion());
+    }
+
+    @Override
+    public void setId(Long id) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setCreateDate(Date createDate) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setLastUpdate(Date lastUpdate) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setCreateUser(Long createUser) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setLastUpdateUser(Long lastUpdateUser) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setViewId(String viewId) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setLanguage(String language) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setName(String name) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setHtmlContent(String htmlContent) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setContentType(ContentType contentType) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setApp(String app) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setAuthor(String author) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setActive(boolean active) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setJcrPath(String jcrPath) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setParentPath(String parentPath) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setImage(byte[] image) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setImageMimeType(String imageMimeType) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setImageName(String imageName) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setFile(byte[] file) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setFileInputStream(InputStream fileInputStream) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setMimeType(String mimeType) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setFileSize(long fileSize) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setSystem(boolean system) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setTags(List<String> tags) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setPermissions(String permissions) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setVersionable(boolean versionable) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setVersionComment(String versionComment) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setValidDate(Date validDate) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setVersion(SystemContentVersion version) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setVersionableName(String versionableName) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void setUpdateOnLaunch(boolean updateOnLaunch) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    /**
+     * Copies a date
+     * @param date date to be copied (Optional)
+     * @return the copy, or null
+     */
+    private static Date copy(Date date) {
+        return date != null ? new Date(date.getTime()) : null;
+    }
+
+    /**
+     * Copies a version
+     * @param version version to be copied (Optional)
+     * @return the copy, or null
+     */
+    private static SystemContentVersion copy(SystemContentVersion version) {
+        return version != null ? new ContentVersion(version.getVersion()) : null;
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.service;
+
+import io.radien.api.util.BoundedCache;
+import io.radien.api.util.CacheStatistics;
+import io.radien.api.util.NearCache;
+import io.radien.ms.ecm.client.entities.I18NBundle;
+import io.radien.ms.ecm.client.entities.I18NProperty;
+import io.radien.ms.ecm.client.entities.Translation;
+import io.radien.ms.ecm.util.EntityTags;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In memory copy of the I18N properties, so messages are resolved without querying the document store.
+ * Each {@link Snapshot} is immutable and replaced as a whole (copy on write) when properties are saved or
+ * deleted through this node. Snapshots expire after the configured ttl, so changes done by other nodes
+ * are eventually loaded.
+ * Every change done through this node starts a new generation, and a snapshot loaded from the document store
+ * is only stored if no change happened since the generation observed before loading it (it may miss the change).
+ * The snapshot ttl (in seconds) is configured by the {@code ecm.i18n.cache.ttl} property.
+ *
+ * @author andresousa
+ */
+@ApplicationScoped
+public class I18NPropertyCache extends NearCache {
+
+    private static final String PREFIX = "ecm.i18n.cache";
+
+    private static final long DEFAULT_TTL_IN_SECONDS = 300;
+
+    /** Key of the single entry that holds the current snapshot */
+    private static final String SNAPSHOT = "snapshot";
+
+    private final BoundedCache<String, Snapshot> snapshots;
+
+    private final AtomicLong loads = new AtomicLong();
+
+    /**
+     * Creates the cache keeping the snapshot for {@value #DEFAULT_TTL_IN_SECONDS} seconds, unless configured otherwise
+     */
+    public I18NPropertyCache() {
+        this(TimeUnit.SECONDS.toMillis(DEFAULT_TTL_IN_SECONDS));
+    }
+
+    /**
+     * Constructor that allows to define the cache settings directly
+     * @param ttlInMillis time (in milliseconds) that a snapshot remains valid
+     */
+    public I18NPropertyCache(long ttlInMillis) {
+        super(PREFIX, PREFIX);
+        this.snapshots = new BoundedCache<>(ttlInMillis, 1);
+    }
+
+    @Override
+    protected void configure(Config config) {
+        snapshots.configure(getTtlInMillis(config, getConfigName(TTL), snapshots.getTtlInMillis()), 1);
+    }
+
+    @Override
+    protected CacheStatistics getStatistics() {
+        return snapshots;
+    }
+
+    /**
+     * Retrieves the current snapshot
+     * @return the snapshot, or null if not loaded yet (or expired)
+     */
+    public Snapshot get() {
+        return snapshots.get(SNAPSHOT);
+    }
+
+    /**
+     * Gets the current generation, to be observed before loading the properties from the document store
+     * @return the generation, which changes on every save, delete or invalidation
+     */
+    public long getGeneration() {
+        return snapshots.getGeneration();
+    }
+
+    /**
+     * Replaces the snapshot by one with the informed properties, unless the properties were changed
+     * after the informed generation was observed
+     * @param properties every existent property
+     * @param generation generation observed (see {@link #getGeneration()}) before the properties were loaded
+     * @return the new snapshot, returned even when it is not stored
+     */
+    public Snapshot load(Collection<I18NProperty> properties, long generation) {
+        Map<String, I18NProperty> byKey = new LinkedHashMap<>();
+        for (I18NProperty property : properties) {
+            byKey.put(property.getKey(), property);
+        }
+        loads.incrementAndGet();
+        Snapshot snapshot = new Snapshot(byKey);
+        snapshots.putIfCurrent(SNAPSHOT, snapshot, generation);
+        return snapshot;
+    }
+
+    /**
+     * Adds (or replaces) properties on the current snapshot. Nothing is done if not loaded,
+     * the properties will be part of the next load
+     * @param properties saved properties
+     */
+    public void put(Collection<I18NProperty> properties) {
+        snapshots.replaceAndAdvance(SNAPSHOT, current -> {
+            Map<String, I18NProperty> byKey = new LinkedHashMap<>(current.properties);
+            for (I18NProperty property : properties) {
+                byKey.put(property.getKey(), property);
+            }
+            return new Snapshot(byKey);
+        });
+    }
+
+    /**
+     * Removes a property from the current snapshot
+     * @param key key of the deleted property
+     */
+    public void remove(String key) {
+        snapshots.replaceAndAdvance(SNAPSHOT, current -> {
+            if (!current.properties.containsKey(key)) {
+                return current;
+            }
+            Map<String, I18NProperty> byKey = new LinkedHashMap<>(current.properties);
+            byKey.remove(key);
+            return new Snapshot(byKey);
+        });
+    }
+
+    /**
+     * Discards the current snapshot, so the next access loads the properties again
+     */
+    public void invalidate() {
+        snapshots.invalidateAll();
+    }
+
+    /**
+     * Gets the number of times that the properties were loaded from the document store
+     * @return number of loads
+     */
+    @Gauge(name = "ecm.i18n.cache.loads", unit = MetricUnits.NONE, absolute = true)
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    /**
+     * Gets the number of properties currently cached
+     * @return cache size
+     */
+    @Override
+    public long getSize() {
+        Snapshot current = snapshots.peek(SNAPSHOT);
+        return current != null ? current.properties.size() : 0;
+    }
+
+    /**
+     * Normalizes a language, so lookups are case insensitive
+     * @param language language to be normalized
+     * @return the normalized language
+     */
+    private static String normalize(String language) {
+        return language != null ? language.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Immutable view of the I18N properties, indexed by key and by language
+     */
+    public static class Snapshot {
+        private final Map<String, I18NProperty> properties;
+        private final Map<String, Map<String, String>> messages;
+        private final Map<String, I18NBundle> bundles = new ConcurrentHashMap<>();
+
+        Snapshot(Map<String, I18NProperty> properties) {
+            this.properties = Collections.unmodifiableMap(properties);
+            Map<String, Map<String, String>> byLanguage = new HashMap<>();
+            for (I18NProperty property : properties.values()) {
+                if (property.getTranslations() == null) {
+                    continue;
+                }
+                for (Translation translation : property.getTranslations()) {
+                    if (translation.getLanguage() != null && translation.getDescription() != null) {
+                        byLanguage.computeIfAbsent(normalize(translation.getLanguage()), l -> new TreeMap<>()).
+                                put(property.getKey(), translation.getDescription());
+                    }
+                }
+            }
+            this.messages = byLanguage;
+        }
+
+        /**
+         * Retrieves a property
+         * @param key property key
+         * @return the property, or null if not found
+         */
+        public I18NProperty getProperty(String key) {
+            return properties.get(key);
+        }
+
+        /**
+         * Retrieves the description of a property in a language
+         * @param key property key
+         * @param language description language
+         * @return the description, or null if not found
+         */
+        public String getMessage(String key, String language) {
+            Map<String, String> bundle = messages.get(normalize(language));
+            return bundle != null ? bundle.get(key) : null;
+        }
+
+        /**
+         * Retrieves every property key
+         * @return the property keys
+         */
+        public List<String> getKeys() {
+            return new ArrayList<>(properties.keySet());
+        }
+
+        /**
+         * Retrieves every property
+         * @return the properties
+         */
+        public List<I18NProperty> getProperties() {
+            return new ArrayList<>(properties.values());
+        }
+
+        /**
+         * Retrieves every message of a language. The bundle (and its version) is only built once per snapshot
+         * @param language bundle language
+         * @return the bundle of the requested language
+         */
+        public I18NBundle getBundle(String language) {
+            String normalized = normalize(language);
+            return bundles.computeIfAbsent(normalized, l -> {
+                Map<String, String> bundle = messages.getOrDefault(l, Collections.emptyMap());
+                StringBuilder state = new StringBuilder(l);
+                bundle.forEach((key, description) -> state.append('\n').append(key).append('=').append(description));
+                return new I18NBundle(l, EntityTags.digest(state.toString()), bundle);
+            });
+        }
+    }
+}
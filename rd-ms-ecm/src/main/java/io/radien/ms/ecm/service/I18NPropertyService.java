@@ -17,36 +17,72 @@ package io.radien.ms.ecm.service;
 
 import io.radien.api.OAFAccess;
 import io.radien.api.OAFProperties;
+import io.radien.ms.ecm.client.entities.I18NBundle;
 import io.radien.ms.ecm.client.entities.I18NProperty;
 import io.radien.ms.ecm.client.entities.Translation;
 import io.radien.ms.ecm.entities.I18NPropertyEntity;
+import io.radien.ms.ecm.entities.I18NSyncStateEntity;
 import io.radien.ms.ecm.client.services.SystemI18NPropertyService;
 import io.radien.ms.ecm.util.I18NPropertyEntityMapper;
 import io.radien.ms.ecm.util.ResourceBundleLoader;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.jnosql.artemis.document.DocumentTemplate;
 import org.jnosql.diana.api.document.DocumentQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 import static org.jnosql.diana.api.document.query.DocumentQueryBuilder.select;
 
 /**
- * I18N property resource service requests
+ * I18N property resource service requests.
+ * Reads are answered by the {@link I18NPropertyCache}, which is loaded once from the document store
+ * and updated on every save and delete
  *
  * @author andresousa
  */
 @ApplicationScoped
 public class I18NPropertyService implements SystemI18NPropertyService {
 
+    private static final Logger log = LoggerFactory.getLogger(I18NPropertyService.class);
+
+    public static final String SYNC_BATCH_SIZE = "ecm.i18n.sync.batchSize";
+
+    private static final String DEFAULT_LANGUAGE = "en";
+    private static final String SYNC_STATE_ID = "resource-bundles";
+    private static final int DEFAULT_SYNC_BATCH_SIZE = 500;
+
     @Inject
     private DocumentTemplate documentTemplate;
     @Inject
     private OAFAccess oafAccess;
+    @Inject
+    private I18NPropertyCache cache;
+
+    private int syncBatchSize = DEFAULT_SYNC_BATCH_SIZE;
+
+    /**
+     * Loads the resource bundles synchronization settings (batch size) from the configuration
+     */
+    @PostConstruct
+    public void init() {
+        Config config = ConfigProvider.getConfig();
+        this.syncBatchSize = Math.max(1, config.getOptionalValue(SYNC_BATCH_SIZE, Integer.class).
+                orElse(DEFAULT_SYNC_BATCH_SIZE));
+    }
 
     /**
      * Method to lookup the I18N property by a given key value
@@ -55,9 +91,16 @@ public class I18NPropertyService implements SystemI18NPropertyService {
      */
     @Override
     public String getLocalizedMessage(String messageCode) {
+        String message = getSnapshot().getMessage(messageCode, DEFAULT_LANGUAGE);
+        if (message != null) {
+            return message;
+        }
         I18NProperty property = getByKey(messageCode);
-
-        return property.getTranslations().stream().filter(t -> t.getLanguage().equalsIgnoreCase("en")).findFirst()
+        if (property == null) {
+            return messageCode;
+        }
+        return property.getTranslations().stream().filter(t -> t.getLanguage().equalsIgnoreCase(DEFAULT_LANGUAGE))
+                .findFirst()
                 .map(Translation::getDescription)
                 .orElse(property.getKey());
     }
@@ -71,7 +114,9 @@ public class I18NPropertyService implements SystemI18NPropertyService {
     public I18NProperty save(I18NProperty property) {
         I18NPropertyEntity entity = I18NPropertyEntityMapper.mapToEntity(property);
         entity = documentTemplate.insert(entity);
-        return I18NPropertyEntityMapper.mapToDTO(entity);
+        I18NProperty saved = I18NPropertyEntityMapper.mapToDTO(entity);
+        cache.put(Collections.singletonList(saved));
+        return saved;
     }
 
     /**
@@ -85,6 +130,7 @@ public class I18NPropertyService implements SystemI18NPropertyService {
         Iterable<I18NPropertyEntity> properties = documentTemplate.insert(entityList);
         List<I18NProperty> result = new ArrayList<>();
         properties.forEach(property -> result.add(I18NPropertyEntityMapper.mapToDTO(property)));
+        cache.put(result);
 
         return result;
     }
@@ -97,6 +143,7 @@ public class I18NPropertyService implements SystemI18NPropertyService {
     public void delete(I18NProperty property) {
         I18NPropertyEntity entity = I18NPropertyEntityMapper.mapToEntity(property);
         documentTemplate.delete(I18NPropertyEntity.class, entity);
+        cache.remove(property.getKey());
     }
 
     /**
@@ -105,7 +152,7 @@ public class I18NPropertyService implements SystemI18NPropertyService {
      */
     @Override
     public List<String> getKeys() {
-        return getAll().stream().map(I18NProperty::getKey).collect(Collectors.toList());
+        return getSnapshot().getKeys();
     }
 
     /**
@@ -114,9 +161,7 @@ public class I18NPropertyService implements SystemI18NPropertyService {
      */
     @Override
     public List<I18NProperty> getAll() {
-        DocumentQuery query = select().from("I18NPropertyEntity").build();
-        List<I18NPropertyEntity> list = documentTemplate.select(query);
-        return I18NPropertyEntityMapper.mapToDTO(list);
+        return getSnapshot().getProperties();
     }
 
     /**
@@ -126,34 +171,159 @@ public class I18NPropertyService implements SystemI18NPropertyService {
      */
     @Override
     public I18NProperty getByKey(String key) {
+        I18NProperty property = getSnapshot().getProperty(key);
+        if (property != null) {
+            return property;
+        }
+        // not known by this node (may have been created by another node since the last load)
         Optional<I18NPropertyEntity> propertyOptional = documentTemplate.find(I18NPropertyEntity.class, key);
         return propertyOptional.map(I18NPropertyEntityMapper::mapToDTO).orElse(null);
     }
 
     /**
-     * Request to initialize the I18N property
+     * Retrieves every message of a language, resolved from the cache
+     * @param language to be retrieved
+     * @return the bundle of the requested language (empty if there is no message for it)
+     */
+    @Override
+    public I18NBundle getBundle(String language) {
+        return getSnapshot().getBundle(language != null ? language : DEFAULT_LANGUAGE);
+    }
+
+    /**
+     * Request to initialize the I18N property.
+     * Nothing is done if the resource bundles did not change since the last initialization
      */
     @Override
     public void initializeProperties() {
+        initializeProperties(false);
+    }
+
+    /**
+     * Request to initialize the I18N property.
+     * Unless forced, nothing is done if the resource bundles did not change since the last initialization
+     * @param force if true the stored properties are synchronized with the resource bundles anyway
+     */
+    @Override
+    public void initializeProperties(boolean force) {
         String availableLanguages = oafAccess.getProperty(OAFProperties.SYSTEM_MS_CONFIG_SUPPORTED_LANG_ECM);
         String defaultLanguage = oafAccess.getProperty(OAFProperties.SYSTEM_MS_CONFIG_DEFAULT_LANG_ECM);
         ResourceBundleLoader loader = new ResourceBundleLoader(availableLanguages, defaultLanguage);
 
-        saveOrUpdate(loader.getAllProperties());
+        String contentHash = loader.getContentHash();
+        Optional<I18NSyncStateEntity> state = documentTemplate.find(I18NSyncStateEntity.class, SYNC_STATE_ID);
+        if (!force && state.isPresent() && contentHash.equals(state.get().getContentHash())) {
+            log.info("I18N resource bundles did not change since the last initialization");
+            return;
+        }
+
+        if (saveOrUpdate(loader.getAllProperties()) > 0) {
+            cache.invalidate();
+        }
+
+        I18NSyncStateEntity newState = new I18NSyncStateEntity();
+        newState.setId(SYNC_STATE_ID);
+        newState.setContentHash(contentHash);
+        if (state.isPresent()) {
+            documentTemplate.update(newState);
+        } else {
+            documentTemplate.insert(newState);
+        }
     }
 
     /**
-     * Method that will validate if the requested given list of I18N should be saved or updated
+     * Method that will validate if the requested given list of I18N should be saved or updated.
+     * The stored properties are indexed by key, so the comparison is linear, and only new properties
+     * or properties with new or changed translations are written (in batches of {@link #SYNC_BATCH_SIZE})
      * @param propList of I18N properties to be saved or updated
+     * @return number of properties written
+     */
+    int saveOrUpdate(List<I18NProperty> propList) {
+        Map<String, I18NProperty> storedProperties = new HashMap<>();
+        for (I18NProperty property : loadAll()) {
+            storedProperties.put(property.getKey(), property);
+        }
+
+        List<I18NProperty> newProperties = new ArrayList<>();
+        List<I18NProperty> updatedProperties = new ArrayList<>();
+        for (I18NProperty property : propList) {
+            I18NProperty stored = storedProperties.get(property.getKey());
+            if (stored == null) {
+                newProperties.add(property);
+            } else {
+                I18NProperty merged = mergeTranslations(stored, property);
+                if (merged != null) {
+                    updatedProperties.add(merged);
+                }
+            }
+        }
+
+        writeInBatches(newProperties, batch -> documentTemplate.insert(batch));
+        writeInBatches(updatedProperties, batch -> documentTemplate.update(batch));
+        log.info("I18N properties initialized, {} new, {} updated and {} unchanged", newProperties.size(),
+                updatedProperties.size(), propList.size() - newProperties.size() - updatedProperties.size());
+        return newProperties.size() + updatedProperties.size();
+    }
+
+    /**
+     * Applies the translations of a resource bundle property to the stored property.
+     * Stored translations of languages that are not part of the bundles are kept
+     * @param stored stored property
+     * @param bundle resource bundle property
+     * @return the property to be updated, or null if no translation is new or changed
+     */
+    private static I18NProperty mergeTranslations(I18NProperty stored, I18NProperty bundle) {
+        Map<String, Translation> translations = new LinkedHashMap<>();
+        if (stored.getTranslations() != null) {
+            stored.getTranslations().forEach(t -> translations.put(t.getLanguage(), t));
+        }
+        boolean changed = false;
+        for (Translation translation : bundle.getTranslations()) {
+            Translation current = translations.put(translation.getLanguage(), translation);
+            changed |= current == null || !Objects.equals(current.getDescription(), translation.getDescription());
+        }
+        if (!changed) {
+            return null;
+        }
+        I18NProperty merged = new I18NProperty();
+        merged.setKey(stored.getKey());
+        merged.setType(stored.getType() != null ? stored.getType() : bundle.getType());
+        merged.setTranslations(new ArrayList<>(translations.values()));
+        return merged;
+    }
+
+    /**
+     * Writes properties into the document store in batches
+     * @param properties properties to be written
+     * @param writer operation that writes one batch
+     */
+    private void writeInBatches(List<I18NProperty> properties, Consumer<List<I18NPropertyEntity>> writer) {
+        for (int from = 0; from < properties.size(); from += syncBatchSize) {
+            int to = Math.min(from + syncBatchSize, properties.size());
+            writer.accept(I18NPropertyEntityMapper.mapToEntity(properties.subList(from, to)));
+        }
+    }
+
+    /**
+     * Retrieves the cached properties, loading them from the document store if needed
+     * @return the current snapshot
      */
-    private void saveOrUpdate(List<I18NProperty> propList) {
-        List<I18NProperty> propertyList = getAll();
-        List<I18NProperty> newProperties = new ArrayList<>(propList);
-        List<I18NProperty> updatedProperties = new ArrayList<>(propList);
-        newProperties.removeIf(p -> propertyList.stream().anyMatch(property -> property.getKey().equals(p.getKey())));
-        updatedProperties.removeIf(p -> newProperties.stream().anyMatch(property -> property.getKey().equals(p.getKey())));
+    private I18NPropertyCache.Snapshot getSnapshot() {
+        I18NPropertyCache.Snapshot snapshot = cache.get();
+        if (snapshot == null) {
+            long generation = cache.getGeneration();
+            snapshot = cache.load(loadAll(), generation);
+        }
+        return snapshot;
+    }
 
-        documentTemplate.insert(I18NPropertyEntityMapper.mapToEntity(newProperties));
-        documentTemplate.update(I18NPropertyEntityMapper.mapToEntity(updatedProperties));
+    /**
+     * Loads every property from the document store
+     * @return a list of all the stored I18N properties
+     */
+    private List<I18NProperty> loadAll() {
+        DocumentQuery query = select().from("I18NPropertyEntity").build();
+        List<I18NPropertyEntity> list = documentTemplate.select(query);
+        return I18NPropertyEntityMapper.mapToDTO(list);
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.util;
+
+/**
+ * Single byte range requested through the http Range header (RFC 7233),
+ * already resolved against the size of the requested content
+ *
+ * @author Marco Weiland
+ */
+public class ByteRange {
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long start;
+    private final long end;
+
+    /**
+     * Byte range constructor
+     * @param start first byte position (inclusive)
+     * @param end last byte position (inclusive)
+     */
+    public ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Parses the http Range header. Only single ranges are supported, a multiple range request
+     * (or a header that cannot be understood) is answered with the complete content.
+     * @param header value of the Range header (Optional)
+     * @param size size of the requested content
+     * @return the requested range, or null if the complete content must be sent
+     * @throws IllegalArgumentException in case of the range cannot be satisfied
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith(BYTES_UNIT) || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    throw new IllegalArgumentException("Range not satisfiable: " + header);
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start >= size || start > end) {
+                throw new IllegalArgumentException("Range not satisfiable: " + header);
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * First byte position getter
+     * @return first byte position (inclusive)
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Last byte position getter
+     * @return last byte position (inclusive)
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Number of bytes on the range
+     * @return the range length
+     */
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * Value for the Content-Range response header
+     * @param size size of the complete content
+     * @return the Content-Range header value
+     */
+    public String toContentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+}
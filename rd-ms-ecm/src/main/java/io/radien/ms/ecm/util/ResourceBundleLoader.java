@@ -43,6 +43,7 @@ public class ResourceBundleLoader implements Serializable {
      * The default resource bundle for i18n support
      */
     public static final String DEFAULT_BUNDLE_NAME = "i18n/Language";
+    private static final char SEPARATOR = '\u0000';
     private final List<Locale> locales;
 
     private List<I18NProperty> allProperties;
@@ -94,6 +95,24 @@ public class ResourceBundleLoader implements Serializable {
         return this.allProperties;
     }
 
+    /**
+     * Computes a hash of every loaded key and translation, so it is possible to know
+     * if the bundles changed since they were last loaded
+     * @return the content hash of the loaded properties
+     */
+    public String getContentHash() {
+        StringBuilder content = new StringBuilder();
+        for (I18NProperty property : allProperties) {
+            content.append(property.getKey()).append(SEPARATOR).append(property.getType());
+            for (Translation translation : property.getTranslations()) {
+                content.append(SEPARATOR).append(translation.getLanguage()).
+                        append(SEPARATOR).append(translation.getDescription());
+            }
+            content.append(SEPARATOR);
+        }
+        return EntityTags.digest(content.toString());
+    }
+
     /**
      * List of supported locales
      */
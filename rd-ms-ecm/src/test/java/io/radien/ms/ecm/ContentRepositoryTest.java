@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm;
+
+import io.radien.api.OAFAccess;
+import io.radien.api.OAFProperties;
+import io.radien.api.service.ecm.exception.ContentRepositoryNotAvailableException;
+import io.radien.api.service.ecm.exception.ElementNotFoundException;
+import io.radien.ms.ecm.factory.ContentFactory;
+import io.radien.ms.ecm.jcr.ContentBinary;
+import junit.framework.TestCase;
+import org.apache.jackrabbit.JcrConstants;
+import org.apache.jackrabbit.oak.Oak;
+import org.apache.jackrabbit.oak.jcr.Jcr;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.SimpleCredentials;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Class that aggregates UnitTest cases for {@link ContentRepository} file retrieval
+ *
+ * @author Marco Weiland
+ */
+public class ContentRepositoryTest extends TestCase {
+
+    @InjectMocks
+    private ContentRepository contentRepository;
+    @Mock
+    private OAFAccess oafAccess;
+    @Spy
+    private ContentFactory contentFactory = new ContentFactory();
+
+    private Session session;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(oafAccess.getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_ROOT)).thenReturn("radien");
+        when(oafAccess.getProperty(OAFProperties.SYSTEM_CMS_CFG_NODE_DOCS)).thenReturn("documents");
+
+        session = new Jcr(new Oak()).createRepository().login(new SimpleCredentials("admin", "admin".toCharArray()));
+        Node root = session.getRootNode().addNode("radien", JcrConstants.NT_FOLDER);
+        Node documents = root.addNode("documents", JcrConstants.NT_FOLDER);
+        addFile(documents.addNode("folder", JcrConstants.NT_FOLDER), "report.txt", "0123456789");
+        addFile(root.addNode("html", JcrConstants.NT_FOLDER), "page.html", "<p>html</p>");
+        session.save();
+
+        Field field = ContentRepository.class.getDeclaredField("session");
+        field.setAccessible(true);
+        field.set(contentRepository, session);
+    }
+
+    @After
+    public void tearDown() {
+        session.logout();
+    }
+
+    /**
+     * Test for method {@link ContentRepository#getFileBinary(String)}
+     * Expected outcome: the file of a document is retrieved
+     */
+    @Test
+    public void testGetFileBinary() throws ElementNotFoundException, ContentRepositoryNotAvailableException {
+        ContentBinary binary = contentRepository.getFileBinary("/radien/documents/folder/report.txt");
+
+        assertEquals("report.txt", binary.getName());
+        assertEquals("text/plain", binary.getMimeType());
+        assertEquals(10, binary.getSize());
+        binary.dispose();
+    }
+
+    /**
+     * Test for method {@link ContentRepository#getFileBinary(String)}
+     * Expected outcome: missing nodes, nodes that are not files and files outside of the document tree
+     * are not found
+     */
+    @Test
+    public void testGetFileBinary_notADocument() throws ContentRepositoryNotAvailableException {
+        assertNotFound("/radien/documents/folder/missing.txt");
+        assertNotFound("/radien/documents/folder");
+        assertNotFound("/radien/documents/folder/report.txt/" + JcrConstants.JCR_CONTENT);
+        assertNotFound("/radien/html/page.html");
+        assertNotFound("/radien/documents/../html/page.html");
+        assertNotFound("/jcr:system");
+    }
+
+    private void assertNotFound(String jcrPath) throws ContentRepositoryNotAvailableException {
+        try {
+            contentRepository.getFileBinary(jcrPath);
+            fail("File should not be found: " + jcrPath);
+        } catch (ElementNotFoundException e) {
+            assertNotNull(e);
+        }
+    }
+
+    private void addFile(Node parent, String name, String data) throws RepositoryException {
+        Node file = parent.addNode(name, JcrConstants.NT_FILE);
+        Node content = file.addNode(JcrConstants.JCR_CONTENT, JcrConstants.NT_RESOURCE);
+        content.setProperty(JcrConstants.JCR_MIMETYPE, "text/plain");
+        content.setProperty(JcrConstants.JCR_DATA, session.getValueFactory().createBinary(
+                new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8))));
+    }
+}
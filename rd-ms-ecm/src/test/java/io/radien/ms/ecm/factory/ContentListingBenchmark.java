@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.factory;
+
+import io.radien.api.service.ecm.model.ContentType;
+import io.radien.api.service.ecm.model.EnterpriseContent;
+import io.radien.ms.ecm.constants.CmsConstants;
+import io.radien.ms.ecm.util.OafConstants;
+import org.apache.jackrabbit.JcrConstants;
+import org.apache.jackrabbit.commons.JcrUtils;
+import org.apache.jackrabbit.commons.cnd.CndImporter;
+import org.apache.jackrabbit.oak.Oak;
+import org.apache.jackrabbit.oak.jcr.Jcr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.jcr.Binary;
+import javax.jcr.Node;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.SimpleCredentials;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the conversion of listed content nodes ({@link ContentFactory#convertJCRNode(Node, boolean)})
+ * against an in memory Oak repository. Lists 500 news feed items, each one with a 256 KB image,
+ * loading the images eagerly (as before) and lazily (as listings do now).
+ * {@link #main(String[])} adds the GC profiler, which reports the bytes allocated per listing.
+ * Not executed by surefire, run {@link #main(String[])} from the test classpath.
+ *
+ * @author Marco Weiland
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentListingBenchmark {
+
+    private static final int ITEMS = 500;
+    private static final int IMAGE_SIZE = 256 * 1024;
+
+    private static final String NODE_TYPES = "<oaf = 'http://radien.io/oaf'>\n" +
+            "[" + OafConstants.OAF_MIXIN_NODE_PROPS + "] mixin\n" +
+            "  - * (undefined)\n";
+
+    @Param({"true", "false"})
+    private boolean loadImage;
+
+    private Session session;
+    private Node parent;
+    private final ContentFactory contentFactory = new ContentFactory();
+
+    /**
+     * Creates the repository and the listed items (outside the measurement)
+     * @throws Exception in case of repository failure
+     */
+    @Setup
+    public void setUp() throws Exception {
+        Repository repository = new Jcr(new Oak()).createRepository();
+        session = repository.login(new SimpleCredentials("admin", "admin".toCharArray()));
+        parent = createContent(session);
+    }
+
+    /**
+     * Logs out the session
+     */
+    @TearDown
+    public void tearDown() {
+        session.logout();
+    }
+
+    /**
+     * Converts every child of the parent node, as the listings do
+     * @return the converted content
+     * @throws RepositoryException in case of repository failure
+     */
+    @Benchmark
+    public List<EnterpriseContent> list() throws RepositoryException {
+        List<EnterpriseContent> results = new ArrayList<>(ITEMS);
+        for (Node node : JcrUtils.getChildNodes(parent)) {
+            results.add(contentFactory.convertJCRNode(node, loadImage));
+        }
+        return results;
+    }
+
+    /**
+     * Runs the benchmark, reporting the allocations per listing as well
+     * @param args not used
+     * @throws RunnerException in case of benchmark failure
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ContentListingBenchmark.class.getSimpleName()).
+                addProfiler(GCProfiler.class).build()).run();
+    }
+
+    /**
+     * Creates the news feed items (with image) to be listed
+     * @param session jcr session
+     * @return node that contains the items
+     * @throws Exception in case of repository failure
+     */
+    private static Node createContent(Session session) throws Exception {
+        CndImporter.registerNodeTypes(new StringReader(NODE_TYPES), session);
+        Node parent = session.getRootNode().addNode("news", JcrConstants.NT_UNSTRUCTURED);
+        Random random = new Random(1);
+        byte[] image = new byte[IMAGE_SIZE];
+        for (int i = 0; i < ITEMS; i++) {
+            random.nextBytes(image);
+            Node node = parent.addNode("news-" + i, JcrConstants.NT_UNSTRUCTURED);
+            node.addMixin(OafConstants.OAF_MIXIN_NODE_PROPS);
+            node.addMixin("mix:created");
+            node.setProperty(OafConstants.OAF_VIEW_ID, "news-" + i);
+            node.setProperty(OafConstants.OAF_HTML_CONTENT, "<p>news " + i + "</p>");
+            node.setProperty(OafConstants.OAF_CONTENT_TYPE, ContentType.NEWS_FEED.key());
+            node.setProperty(OafConstants.OAF_ACTIVE, true);
+            node.setProperty(OafConstants.OAF_SYSTEM, false);
+            node.setProperty(OafConstants.OAF_CONTENT_LANG, "en");
+            node.setProperty(CmsConstants.OAF_IMAGE, createBinary(session, image));
+            node.setProperty(CmsConstants.OAF_IMAGE_NAME, "news-" + i + ".png");
+            node.setProperty(CmsConstants.OAF_IMAGE_MIME_TYPE, "image/png");
+        }
+        session.save();
+        return parent;
+    }
+
+    /**
+     * Stores an image on the repository
+     * @param session jcr session
+     * @param image image content
+     * @return the repository binary
+     * @throws RepositoryException in case of repository failure
+     * @throws IOException in case of error reading the image
+     */
+    private static Binary createBinary(Session session, byte[] image) throws RepositoryException, IOException {
+        try (ByteArrayInputStream stream = new ByteArrayInputStream(image)) {
+            return session.getValueFactory().createBinary(stream);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.jcr;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+import javax.jcr.Binary;
+import javax.jcr.RepositoryException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class that aggregates UnitTest cases for {@link ContentBinary}
+ *
+ * @author Marco Weiland
+ */
+public class ContentBinaryTest extends TestCase {
+
+    private static final byte[] DATA = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    private Binary binary() throws RepositoryException {
+        Binary binary = mock(Binary.class);
+        when(binary.getSize()).thenReturn((long) DATA.length);
+        when(binary.getStream()).thenAnswer(invocation -> new ByteArrayInputStream(DATA));
+        return binary;
+    }
+
+    /**
+     * Test for method {@link ContentBinary#stream(long, long)}
+     * Expected outcome: the complete content is written and the binary released
+     */
+    @Test
+    public void testStream() throws RepositoryException, IOException {
+        Binary binary = binary();
+        ContentBinary contentBinary = new ContentBinary(binary, "file.txt", "text/plain");
+        assertEquals(DATA.length, contentBinary.getSize());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        contentBinary.stream(0, contentBinary.getSize()).write(output);
+        assertEquals("0123456789", new String(output.toByteArray(), StandardCharsets.UTF_8));
+        verify(binary, times(1)).dispose();
+    }
+
+    /**
+     * Test for method {@link ContentBinary#stream(long, long)}
+     * Expected outcome: only the requested range is written
+     */
+    @Test
+    public void testStreamRange() throws RepositoryException, IOException {
+        ContentBinary contentBinary = new ContentBinary(binary(), "file.txt", "text/plain");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        contentBinary.stream(2, 3).write(output);
+        assertEquals("234", new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test for method {@link ContentBinary#stream(long, long)}
+     * Scenario: the content is shorter than the requested length
+     * Expected outcome: the available bytes are written
+     */
+    @Test
+    public void testStreamShorterContent() throws RepositoryException, IOException {
+        ContentBinary contentBinary = new ContentBinary(binary(), "file.txt", "text/plain");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        contentBinary.stream(8, 5).write(output);
+        assertEquals("89", new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.jcr;
+
+import io.radien.api.service.ecm.model.ContentType;
+import io.radien.ms.ecm.ContentRepository;
+import junit.framework.TestCase;
+import org.apache.jackrabbit.oak.Oak;
+import org.apache.jackrabbit.oak.jcr.Jcr;
+import org.apache.jackrabbit.oak.query.QueryEngineSettings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.jcr.Node;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.SimpleCredentials;
+import javax.jcr.ValueFactory;
+import javax.jcr.query.Query;
+import javax.jcr.query.QueryResult;
+import javax.jcr.query.Row;
+import javax.jcr.query.RowIterator;
+
+/**
+ * Class that aggregates UnitTest cases for {@link ContentIndexInitializer}.
+ * The repository is configured to fail traversing queries, so every content query
+ * must be answered by one of the provisioned property indexes.
+ *
+ * @author Bruno Gama
+ */
+public class ContentIndexInitializerTest extends TestCase {
+
+    private Session session;
+
+    @Before
+    public void setUp() throws RepositoryException {
+        QueryEngineSettings settings = new QueryEngineSettings();
+        settings.setFailTraversal(true);
+        Repository repository = new Jcr(new Oak()).with(settings).createRepository();
+        session = repository.login(new SimpleCredentials("admin", "admin".toCharArray()));
+        // registered by the node types cnd on a deployed repository
+        session.getWorkspace().getNamespaceRegistry().registerNamespace("oaf", "http://radien.io/oaf");
+    }
+
+    @After
+    public void tearDown() {
+        session.logout();
+    }
+
+    /**
+     * Test for method {@link ContentIndexInitializer#initialize(Session)}
+     * Expected outcome: indexes are created only once
+     */
+    @Test
+    public void testInitialize() throws RepositoryException {
+        ContentIndexInitializer initializer = new ContentIndexInitializer();
+        assertEquals(ContentIndexInitializer.getPropertyIndexes().size() + 1, initializer.initialize(session));
+        assertEquals(0, initializer.initialize(session));
+        for (String index : ContentIndexInitializer.getPropertyIndexes().keySet()) {
+            assertTrue(session.nodeExists(ContentIndexInitializer.OAK_INDEX + "/" + index));
+        }
+        Node fullText = session.getNode(ContentIndexInitializer.OAK_INDEX + "/" + ContentIndexInitializer.FULL_TEXT_INDEX);
+        assertEquals("lucene", fullText.getProperty("type").getString());
+        assertEquals("async", fullText.getProperty("async").getString());
+        assertTrue(fullText.hasNode("indexRules/nt:base/properties/htmlContent"));
+        assertTrue(fullText.hasNode("aggregates/nt:base/include0"));
+    }
+
+    /**
+     * Test for method {@link ContentIndexInitializer#reindex(Session)}
+     * Expected outcome: the full-text index is flagged to be rebuilt
+     */
+    @Test
+    public void testReindex() throws RepositoryException {
+        ContentIndexInitializer initializer = new ContentIndexInitializer();
+        initializer.initialize(session);
+        initializer.reindex(session);
+        assertTrue(session.getNode(ContentIndexInitializer.OAK_INDEX + "/" + ContentIndexInitializer.FULL_TEXT_INDEX).
+                getProperty("reindex").getBoolean());
+    }
+
+    /**
+     * Test for the content queries
+     * Scenario: property indexes not provisioned
+     * Expected outcome: queries fail, since they would traverse the repository
+     */
+    @Test
+    public void testQueriesTraverseWithoutIndexes() throws RepositoryException {
+        try {
+            execute(createContentTypeQuery(ContentRepository.QUERY_BY_CONTENT_TYPE));
+            fail("Traversing query should fail");
+        } catch (RuntimeException | RepositoryException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Traversal query"));
+        }
+    }
+
+    /**
+     * Test for the content queries plans
+     * Expected outcome: every query uses a property index and none traverses the repository
+     */
+    @Test
+    public void testQueryPlans() throws RepositoryException {
+        new ContentIndexInitializer().initialize(session);
+
+        Query query = createQuery("explain " + ContentRepository.QUERY_BY_VIEW_ID);
+        query.bindValue("viewId", valueFactory().createValue("viewId"));
+        assertIndexed(query);
+
+        query = createQuery("explain " + ContentRepository.QUERY_BY_ACTIVE_VIEW_ID);
+        query.bindValue("viewId", valueFactory().createValue("viewId"));
+        query.bindValue("active", valueFactory().createValue(true));
+        assertIndexed(query);
+
+        assertIndexed(createContentTypeQuery("explain " + ContentRepository.QUERY_BY_CONTENT_TYPE));
+
+        query = createContentTypeQuery("explain " + ContentRepository.QUERY_BY_ACTIVE_CONTENT_TYPE);
+        query.bindValue("active", valueFactory().createValue(true));
+        assertIndexed(query);
+
+        assertIndexed(createSearchQuery("explain " + ContentRepository.QUERY_SEARCH));
+        assertIndexed(createSearchQuery("explain " + ContentRepository.QUERY_SEARCH_COUNT));
+
+        execute(createSearchQuery(ContentRepository.QUERY_SEARCH));
+    }
+
+    private void assertIndexed(Query query) throws RepositoryException {
+        RowIterator rows = execute(query).getRows();
+        while (rows.hasNext()) {
+            Row row = rows.nextRow();
+            String plan = row.getValue("plan").getString();
+            assertFalse(plan, plan.contains("/* traverse"));
+            assertTrue(plan, plan.contains("property"));
+        }
+    }
+
+    private Query createContentTypeQuery(String statement) throws RepositoryException {
+        Query query = createQuery(statement);
+        query.bindValue("contentType", valueFactory().createValue(ContentType.NEWS_FEED.key()));
+        query.bindValue("system", valueFactory().createValue(false));
+        return query;
+    }
+
+    private Query createSearchQuery(String statement) throws RepositoryException {
+        Query query = createQuery(statement);
+        query.bindValue("system", valueFactory().createValue(false));
+        query.bindValue("html", valueFactory().createValue(ContentType.HTML.key()));
+        query.bindValue("newsFeed", valueFactory().createValue(ContentType.NEWS_FEED.key()));
+        query.bindValue("notification", valueFactory().createValue(ContentType.NOTIFICATION.key()));
+        return query;
+    }
+
+    private Query createQuery(String statement) throws RepositoryException {
+        return session.getWorkspace().getQueryManager().createQuery(statement, Query.JCR_SQL2);
+    }
+
+    private QueryResult execute(Query query) throws RepositoryException {
+        QueryResult result = query.execute();
+        // results are lazy, iterate so traversal is detected
+        RowIterator rows = result.getRows();
+        while (rows.hasNext()) {
+            rows.nextRow();
+        }
+        return query.execute();
+    }
+
+    private ValueFactory valueFactory() throws RepositoryException {
+        return session.getValueFactory();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.jcr;
+
+import io.radien.api.entity.Page;
+import io.radien.api.service.ecm.exception.ContentRepositoryNotAvailableException;
+import io.radien.api.service.ecm.exception.NameNotValidException;
+import io.radien.api.service.ecm.model.ContentTreeNode;
+import io.radien.api.service.ecm.model.EnterpriseContent;
+import io.radien.api.service.ecm.model.GenericEnterpriseContent;
+import io.radien.ms.ecm.util.OafConstants;
+import junit.framework.TestCase;
+import org.apache.jackrabbit.oak.Oak;
+import org.apache.jackrabbit.oak.jcr.Jcr;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.jcr.Node;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.SimpleCredentials;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class that aggregates UnitTest cases for {@link DocumentTreeLevel}
+ *
+ * @author Marco Weiland
+ */
+public class DocumentTreeLevelTest extends TestCase {
+
+    private Session session;
+    private Node folder;
+    private EnterpriseContent content;
+    private AtomicInteger conversions;
+
+    @Before
+    public void setUp() throws RepositoryException, NameNotValidException {
+        Repository repository = new Jcr(new Oak()).createRepository();
+        session = repository.login(new SimpleCredentials("admin", "admin".toCharArray()));
+        session.getWorkspace().getNamespaceRegistry().registerNamespace("oaf", "http://radien.io/oaf");
+        folder = session.getRootNode().addNode("folder");
+        folder.setProperty(OafConstants.OAF_VIEW_ID, "folder");
+        folder.setProperty(OafConstants.OAF_ACTIVE, true);
+        session.save();
+        content = new GenericEnterpriseContent("folder");
+        content.setJcrPath(folder.getPath());
+        conversions = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        session.logout();
+    }
+
+    /**
+     * Test for method {@link DocumentTreeLevel#getEntityTag()}
+     * Expected outcome: same tag for the same level, different tag once a child changes,
+     * and the children are not converted to compute it
+     */
+    @Test
+    public void testGetEntityTag() throws RepositoryException {
+        String tag = level(1, 1000L).getEntityTag();
+        assertEquals(tag, level(1, 1000L).getEntityTag());
+        assertFalse(tag.equals(level(2, 1000L).getEntityTag()));
+        assertFalse(tag.equals(level(1, 2000L).getEntityTag()));
+
+        folder.setProperty(OafConstants.OAF_ACTIVE, false);
+        assertFalse(tag.equals(level(1, 1000L).getEntityTag()));
+        assertEquals(0, conversions.get());
+    }
+
+    /**
+     * Test for method {@link DocumentTreeLevel#getPage()}
+     * Expected outcome: the children are converted with the computed values
+     */
+    @Test
+    public void testGetPage() throws RepositoryException, ContentRepositoryNotAvailableException {
+        Page<ContentTreeNode> page = level(3, 1000L).getPage();
+
+        assertEquals(1, conversions.get());
+        assertEquals(1, page.getCurrentPage());
+        assertEquals(1, page.getTotalResults());
+        assertEquals(1, page.getResults().size());
+        ContentTreeNode node = page.getResults().get(0);
+        assertEquals("/folder", node.getContent().getJcrPath());
+        assertEquals(3, node.getChildCount());
+        assertEquals(1000L, node.getLastModified());
+    }
+
+    private DocumentTreeLevel level(long childCount, long lastModified) throws RepositoryException {
+        return new DocumentTreeLevel(1, 1, 1,
+                Collections.singletonList(new DocumentTreeLevel.Child(folder, childCount, true, lastModified)),
+                node -> {
+                    conversions.incrementAndGet();
+                    return content;
+                });
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.jcr;
+
+import org.apache.jackrabbit.oak.Oak;
+import org.apache.jackrabbit.oak.jcr.Jcr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.jcr.Node;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.SimpleCredentials;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the per request cost of obtaining a JCR session and reading a node.
+ * Compares the {@link JCRSessionPool} (borrow, refresh and release) against the login/logout per request
+ * done before the pool. Runs against an in memory Oak repository, so the login cost of a persistent
+ * (document or segment) node store is not included and the gap is a lower bound.
+ * Not executed by surefire, run {@link #main(String[])} from the test classpath.
+ *
+ * @author Bruno Gama
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class JCRSessionPoolBenchmark {
+
+    private Repository repository;
+    private JCRSessionPool pool;
+
+    /**
+     * Creates the repository, a content node and the pool (outside the measurement)
+     * @throws RepositoryException in case of repository failure
+     */
+    @Setup
+    public void setUp() throws RepositoryException {
+        repository = new Jcr(new Oak()).createRepository();
+        pool = new JCRSessionPool(repository, new SimpleCredentials("admin", "admin".toCharArray()), 8, 8, 5000);
+        Session session = pool.openWriteSession();
+        Node node = session.getRootNode().addNode("radien").addNode("view-1");
+        node.setProperty("htmlContent", "<p>content</p>");
+        session.save();
+        pool.closeWriteSession(session);
+    }
+
+    /**
+     * Logs out the idle sessions
+     */
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Request served by a pooled session
+     * @return read value
+     * @throws RepositoryException in case of repository failure
+     */
+    @Benchmark
+    public String pooledSession() throws RepositoryException {
+        Session session = pool.borrow();
+        try {
+            return session.getNode("/radien/view-1").getProperty("htmlContent").getString();
+        } finally {
+            pool.release(session);
+        }
+    }
+
+    /**
+     * Request served by a session logged in (and out) for the request
+     * @return read value
+     * @throws RepositoryException in case of repository failure
+     */
+    @Benchmark
+    public String sessionPerRequest() throws RepositoryException {
+        Session session = repository.login(new SimpleCredentials("admin", "admin".toCharArray()));
+        try {
+            return session.getNode("/radien/view-1").getProperty("htmlContent").getString();
+        } finally {
+            session.logout();
+        }
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args not used
+     * @throws RunnerException in case of benchmark failure
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JCRSessionPoolBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.jcr;
+
+import org.apache.jackrabbit.oak.Oak;
+import org.apache.jackrabbit.oak.jcr.Jcr;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.jcr.Credentials;
+import javax.jcr.Node;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.SimpleCredentials;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Class that aggregates UnitTest cases for {@link JCRSessionPool}
+ *
+ * @author Bruno Gama
+ */
+public class JCRSessionPoolTest {
+
+    private static final Credentials ADMIN = new SimpleCredentials("admin", "admin".toCharArray());
+
+    private Repository repository;
+
+    @Before
+    public void setUp() {
+        repository = new Jcr(new Oak()).createRepository();
+    }
+
+    /**
+     * Test for methods {@link JCRSessionPool#borrow()} and {@link JCRSessionPool#release(Session)}
+     * Expected outcome: released sessions are reused and the counters are updated
+     */
+    @Test
+    public void testBorrowAndRelease() throws RepositoryException {
+        JCRSessionPool pool = new JCRSessionPool(repository, ADMIN, 2, 4, 1000);
+        Session first = pool.borrow();
+        assertEquals(1, pool.getBorrowedCount());
+        pool.release(first);
+        assertEquals(0, pool.getBorrowedCount());
+        assertEquals(1, pool.getIdleCount());
+
+        Session second = pool.borrow();
+        assertSame(first, second);
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(1, pool.getReusedCount());
+        pool.release(second);
+    }
+
+    /**
+     * Test for method {@link JCRSessionPool#release(Session)}
+     * Scenario: Max idle sessions reached
+     * Expected outcome: extra sessions are logged out
+     */
+    @Test
+    public void testMaxIdle() throws RepositoryException {
+        JCRSessionPool pool = new JCRSessionPool(repository, ADMIN, 1, 4, 1000);
+        Session first = pool.borrow();
+        Session second = pool.borrow();
+        assertNotSame(first, second);
+        pool.release(first);
+        pool.release(second);
+
+        assertEquals(1, pool.getIdleCount());
+        assertTrue(first.isLive());
+        assertFalse(second.isLive());
+
+        pool.shutdown();
+        assertEquals(0, pool.getIdleCount());
+        assertFalse(first.isLive());
+    }
+
+    /**
+     * Test for method {@link JCRSessionPool#borrow()}
+     * Scenario: Changes saved by a write session after the read session was pooled,
+     * transient changes left on the read session
+     * Expected outcome: borrowed session sees the saved changes and not the transient ones
+     */
+    @Test
+    public void testRefreshOnBorrow() throws RepositoryException {
+        JCRSessionPool pool = new JCRSessionPool(repository, ADMIN, 1, 4, 1000);
+        Session read = pool.borrow();
+        read.getRootNode().addNode("transient");
+        pool.release(read);
+
+        Session write = pool.openWriteSession();
+        Node node = write.getRootNode().addNode("saved");
+        node.setProperty("value", "1");
+        write.save();
+        pool.closeWriteSession(write);
+        assertFalse(write.isLive());
+
+        read = pool.borrow();
+        assertTrue(read.nodeExists("/saved"));
+        assertFalse(read.nodeExists("/transient"));
+        assertEquals(1, pool.getWriteSessionCount());
+        pool.release(read);
+    }
+
+    /**
+     * Test for method {@link JCRSessionPool#borrow()}
+     * Scenario: Max borrowed sessions reached
+     * Expected outcome: the borrow waits for a released session, and fails once the borrow timeout elapses
+     */
+    @Test
+    public void testMaxTotal() throws RepositoryException, InterruptedException {
+        JCRSessionPool pool = new JCRSessionPool(repository, ADMIN, 1, 1, 200);
+        Session first = pool.borrow();
+        try {
+            pool.borrow();
+            fail("Borrow must time out while the only session is borrowed");
+        } catch (RepositoryException e) {
+            assertEquals(1, pool.getTimeoutCount());
+            assertEquals(1, pool.getBorrowedCount());
+        }
+
+        Thread releaser = new Thread(() -> pool.release(first));
+        releaser.start();
+        Session second = pool.borrow();
+        releaser.join();
+        assertSame(first, second);
+        assertEquals(1, pool.getCreatedCount());
+        pool.release(second);
+        pool.shutdown();
+    }
+}
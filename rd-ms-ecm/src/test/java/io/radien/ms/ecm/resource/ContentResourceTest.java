@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.resource;
+
+import io.radien.api.OAFAccess;
+import io.radien.api.OAFProperties;
+import io.radien.api.entity.Page;
+import io.radien.api.service.ecm.exception.ContentRepositoryNotAvailableException;
+import io.radien.api.service.ecm.exception.ElementNotFoundException;
+import io.radien.api.service.ecm.model.ContentTreeNode;
+import io.radien.ms.ecm.jcr.ContentBinary;
+import io.radien.ms.ecm.jcr.DocumentTreeLevel;
+import io.radien.ms.ecm.service.ContentService;
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.util.Collections;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class ContentResourceTest extends TestCase {
+
+    private static final String SECRET = "secret";
+
+    @InjectMocks
+    private ContentResource contentResource;
+    @Mock
+    private ContentService contentService;
+    @Mock
+    private OAFAccess oafAccess;
+
+    public ContentResourceTest() {
+        MockitoAnnotations.initMocks(this);
+        when(oafAccess.getProperty(OAFProperties.SYSTEM_MS_SECRET_ECM)).thenReturn(SECRET);
+    }
+
+    @Test
+    public void testReindex() throws ContentRepositoryNotAvailableException {
+        Response response = contentResource.reindex(SECRET);
+
+        assertEquals(202, response.getStatus());
+        verify(contentService).reindex();
+    }
+
+    @Test
+    public void testReindex_wrongSecret() {
+        assertEquals(401, contentResource.reindex("wrong").getStatus());
+        assertEquals(401, contentResource.reindex(null).getStatus());
+        verifyZeroInteractions(contentService);
+    }
+
+    @Test
+    public void testReindex_repositoryNotAvailable() throws ContentRepositoryNotAvailableException {
+        doThrow(new ContentRepositoryNotAvailableException()).when(contentService).reindex();
+
+        assertEquals(503, contentResource.reindex(SECRET).getStatus());
+    }
+
+    @Test
+    public void testGetDocumentTreeLevel_invalidPaging() {
+        assertEquals(400, contentResource.getDocumentTreeLevel(null, 0, 50, null).getStatus());
+        assertEquals(400, contentResource.getDocumentTreeLevel(null, -1, 50, null).getStatus());
+        assertEquals(400, contentResource.getDocumentTreeLevel(null, 1, 0, null).getStatus());
+        verifyZeroInteractions(contentService);
+    }
+
+    @Test
+    public void testGetDocumentTreeLevel() throws Exception {
+        DocumentTreeLevel level = mock(DocumentTreeLevel.class);
+        Page<ContentTreeNode> page = new Page<>(Collections.emptyList(), 1, 0, 0);
+        when(level.getEntityTag()).thenReturn("tag");
+        when(level.getPage()).thenReturn(page);
+        when(contentService.readDocumentTreeLevel(null, 1, 50)).thenReturn(level);
+
+        Response response = contentResource.getDocumentTreeLevel(null, 1, 50, null);
+        assertEquals(200, response.getStatus());
+        assertEquals(page, response.getEntity());
+        assertEquals("tag", response.getEntityTag().getValue());
+    }
+
+    @Test
+    public void testGetDocumentTreeLevel_notModified() throws Exception {
+        DocumentTreeLevel level = mock(DocumentTreeLevel.class);
+        when(level.getEntityTag()).thenReturn("tag");
+        when(contentService.readDocumentTreeLevel(null, 1, 50)).thenReturn(level);
+
+        assertEquals(304, contentResource.getDocumentTreeLevel(null, 1, 50, "\"tag\"").getStatus());
+        verify(level, never()).getPage();
+    }
+
+    @Test
+    public void testGetFile() throws Exception {
+        ContentBinary binary = mock(ContentBinary.class);
+        when(binary.getSize()).thenReturn(10L);
+        when(binary.getName()).thenReturn("report.txt");
+        when(binary.getMimeType()).thenReturn("text/plain");
+        when(contentService.getFileBinary("/radien/documents/report.txt")).thenReturn(binary);
+
+        Response response = contentResource.getFile("/radien/documents/report.txt", null);
+        assertEquals(200, response.getStatus());
+        assertEquals("10", response.getHeaderString(HttpHeaders.CONTENT_LENGTH));
+
+        response = contentResource.getFile("/radien/documents/report.txt", "bytes=2-4");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-4/10", response.getHeaderString("Content-Range"));
+    }
+
+    @Test
+    public void testGetFile_notFound() throws Exception {
+        when(contentService.getFileBinary("/radien/documents/missing.txt")).
+                thenThrow(new ElementNotFoundException("missing"));
+        when(contentService.getFileBinary("/radien/documents/folder")).
+                thenThrow(new ElementNotFoundException("not a file"));
+
+        assertEquals(404, contentResource.getFile("/radien/documents/missing.txt", null).getStatus());
+        assertEquals(404, contentResource.getFile("/radien/documents/folder", null).getStatus());
+        assertEquals(404, contentResource.getFile(null, null).getStatus());
+    }
+
+    @Test
+    public void testGetFile_unsatisfiableRange() throws Exception {
+        ContentBinary binary = mock(ContentBinary.class);
+        when(binary.getSize()).thenReturn(10L);
+        when(contentService.getFileBinary("/radien/documents/report.txt")).thenReturn(binary);
+
+        Response response = contentResource.getFile("/radien/documents/report.txt", "bytes=20-30");
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeaderString("Content-Range"));
+        verify(binary).dispose();
+    }
+}
@@ -15,6 +15,8 @@
  */
 package io.radien.ms.ecm.resource;
 
+import com.google.common.io.ByteStreams;
+import io.radien.ms.ecm.client.entities.I18NBundle;
 import io.radien.ms.ecm.client.entities.I18NProperty;
 import io.radien.ms.ecm.client.entities.LabelTypeEnum;
 import io.radien.ms.ecm.client.services.SystemI18NPropertyService;
@@ -26,10 +28,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.any;
@@ -112,4 +120,26 @@ public class I18NPropertyResourceTest extends TestCase {
         assertEquals(((List<I18NProperty>)response.getEntity()).size(), mockPropertyList.size());
     }
 
+    @Test
+    public void testGetBundle() throws IOException {
+        when(propertyService.getBundle("en")).thenReturn(
+                new I18NBundle("en", "v1", Collections.singletonMap("test", "test message")));
+        Response response = propertyResource.getBundle("en", null, null);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("\"v1\"", response.getHeaderString(HttpHeaders.ETAG));
+        assertEquals("{\"test\":\"test message\"}", new String((byte[]) response.getEntity(), StandardCharsets.UTF_8));
+
+        response = propertyResource.getBundle("en", null, "gzip, deflate");
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream((byte[]) response.getEntity()))) {
+            assertEquals("{\"test\":\"test message\"}", new String(ByteStreams.toByteArray(gzip), StandardCharsets.UTF_8));
+        }
+
+        response = propertyResource.getBundle("en", "\"v1\"", null);
+        assertEquals(304, response.getStatus());
+        response = propertyResource.getBundle("en", "\"v1\"", "gzip");
+        assertEquals(200, response.getStatus());
+    }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.service;
+
+import io.radien.api.service.ecm.exception.NameNotValidException;
+import io.radien.api.service.ecm.model.EnterpriseContent;
+import io.radien.api.service.ecm.model.GenericEnterpriseContent;
+import org.junit.Test;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class that aggregates UnitTest cases for {@link ContentCache}
+ *
+ * @author Bruno Gama
+ */
+public class ContentCacheTest {
+
+    /**
+     * Test for methods {@link ContentCache#put(String, String, boolean, EnterpriseContent)} and
+     * {@link ContentCache#get(String, String, boolean)}
+     * Expected outcome: a read only snapshot of the stored content is retrieved and hits/misses are counted
+     */
+    @Test
+    public void testPutAndGet() throws NameNotValidException {
+        ContentCache cache = new ContentCache(60000, 10);
+        assertNull(cache.get("view-1", null, true));
+
+        EnterpriseContent content = create("view-1", "/radien/html/view-1");
+        content.setImage(new byte[] { 1, 2 });
+        cache.put("view-1", null, true, content);
+        content.setHtmlContent("changed after caching");
+
+        EnterpriseContent cached = cache.get("view-1", null, true);
+        assertNotNull(cached);
+        assertNotSame(content, cached);
+        assertEquals("<p>view-1</p>", cached.getHtmlContent());
+        assertArrayEquals(new byte[] { 1, 2 }, cached.getImage());
+        try {
+            cached.setHtmlContent("changed by the caller");
+            fail("Cached content must be read only");
+        } catch (UnsupportedOperationException e) {
+            assertEquals("<p>view-1</p>", cache.get("view-1", null, true).getHtmlContent());
+        }
+
+        assertNull(cache.get("view-1", null, false));
+        assertNull(cache.get("view-1", "de", true));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(0.4, cache.getHitRate(), 0.0001);
+        assertEquals(1, cache.getSize());
+    }
+
+    /**
+     * Test for method {@link ContentCache#get(String, String, boolean)}
+     * Scenario: Content already expired
+     * Expected outcome: content is not retrieved and is evicted
+     */
+    @Test
+    public void testExpiredContent() throws NameNotValidException {
+        ContentCache cache = new ContentCache(0, 10);
+        cache.put("view-1", null, true, create("view-1", "/radien/html/view-1"));
+        assertNull(cache.get("view-1", null, true));
+        assertEquals(0, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /**
+     * Test for method {@link ContentCache#put(String, String, boolean, EnterpriseContent)}
+     * Scenario: Max size reached
+     * Expected outcome: least recently used content is evicted
+     */
+    @Test
+    public void testMaxSize() throws NameNotValidException {
+        ContentCache cache = new ContentCache(60000, 2);
+        cache.put("view-1", null, true, create("view-1", "/radien/html/view-1"));
+        cache.put("view-2", null, true, create("view-2", "/radien/html/view-2"));
+        assertNotNull(cache.get("view-1", null, true));
+        cache.put("view-3", null, true, create("view-3", "/radien/html/view-3"));
+
+        assertEquals(2, cache.getSize());
+        assertNull(cache.get("view-2", null, true));
+        assertNotNull(cache.get("view-1", null, true));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /**
+     * Test for methods {@link ContentCache#invalidate(String)} and {@link ContentCache#invalidatePath(String)}
+     * Expected outcome: only the contents related to the view id or path are removed
+     */
+    @Test
+    public void testInvalidation() throws NameNotValidException {
+        ContentCache cache = new ContentCache(60000, 10);
+        cache.put("view-1", null, true, create("view-1", "/radien/html/view-1"));
+        cache.put("view-1", null, false, create("view-1", "/radien/html/view-1"));
+        cache.put("view-2", null, true, create("view-2", "/radien/html/view-2"));
+        cache.put("view-3", null, true, create("view-3", "/radien/news/view-3"));
+
+        cache.invalidate("view-1");
+        assertEquals(2, cache.getSize());
+
+        cache.invalidatePath("/radien/html/view-2/jcr:content/jcr:data");
+        assertNull(cache.get("view-2", null, true));
+
+        cache.invalidatePath("/radien/html/view-20");
+        assertNotNull(cache.get("view-3", null, true));
+        cache.invalidatePath("/radien/news");
+        assertEquals(0, cache.getSize());
+    }
+
+    /**
+     * Test for method {@link ContentCache#onEvent(EventIterator)}
+     * Expected outcome: contents changed or moved on the repository are removed
+     */
+    @Test
+    public void testOnEvent() throws NameNotValidException, RepositoryException {
+        ContentCache cache = new ContentCache(60000, 10);
+        cache.put("view-1", null, true, create("view-1", "/radien/html/view-1"));
+        cache.put("view-2", null, true, create("view-2", "/radien/html/view-2"));
+        cache.put("view-3", null, true, create("view-3", "/radien/html/view-3"));
+
+        Event changed = mock(Event.class);
+        when(changed.getType()).thenReturn(Event.PROPERTY_CHANGED);
+        when(changed.getPath()).thenReturn("/radien/html/view-1/oaf:htmlContent");
+        Event moved = mock(Event.class);
+        when(moved.getType()).thenReturn(Event.NODE_MOVED);
+        when(moved.getPath()).thenReturn("/radien/archive/view-2");
+        when(moved.getInfo()).thenReturn(Collections.singletonMap("srcAbsPath", "/radien/html/view-2"));
+        EventIterator events = mock(EventIterator.class);
+        when(events.hasNext()).thenReturn(true, true, false);
+        when(events.nextEvent()).thenReturn(changed, moved);
+
+        cache.onEvent(events);
+        assertNull(cache.get("view-1", null, true));
+        assertNull(cache.get("view-2", null, true));
+        assertNotNull(cache.get("view-3", null, true));
+    }
+
+    /**
+     * Test for method {@link ContentCache#put(String, String, boolean, EnterpriseContent, long)}
+     * Scenario: Content read before an invalidation is stored afterwards
+     * Expected outcome: the stale content is not stored
+     */
+    @Test
+    public void testPutAfterInvalidation() throws NameNotValidException {
+        ContentCache cache = new ContentCache(60000, 10);
+        long generation = cache.getGeneration();
+        cache.invalidatePath("/radien/html/view-1/oaf:htmlContent");
+
+        assertFalse(cache.put("view-1", null, true, create("view-1", "/radien/html/view-1"), generation));
+        assertNull(cache.get("view-1", null, true));
+
+        assertTrue(cache.put("view-1", null, true, create("view-1", "/radien/html/view-1"),
+                cache.getGeneration()));
+        assertNotNull(cache.get("view-1", null, true));
+    }
+
+    /**
+     * Test for methods {@link ContentCache#put(String, String, boolean, EnterpriseContent)} and
+     * {@link ContentCache#get(String, String, boolean)}
+     * Expected outcome: the content is copied once when stored, so later changes on the original (image and tags
+     * included) do not affect the cache, and the same snapshot is handed out on every hit
+     */
+    @Test
+    public void testSnapshotCopiedOnce() throws NameNotValidException {
+        ContentCache cache = new ContentCache(60000, 10);
+        EnterpriseContent content = create("view-1", "/radien/html/view-1");
+        content.setImage(new byte[] { 1, 2 });
+        content.setTags(new ArrayList<>(Collections.singletonList("news")));
+        cache.put("view-1", null, true, content);
+        content.getImage()[0] = 9;
+        content.getTags().add("archive");
+
+        EnterpriseContent cached = cache.get("view-1", null, true);
+        assertArrayEquals(new byte[] { 1, 2 }, cached.getImage());
+        assertEquals(Collections.singletonList("news"), cached.getTags());
+        assertSame(cached, cache.get("view-1", null, true));
+    }
+
+    /**
+     * Test for method {@link ContentCache#setEnabled(boolean)}
+     * Expected outcome: nothing is stored when the cache is disabled
+     */
+    @Test
+    public void testDisabled() throws NameNotValidException {
+        ContentCache cache = new ContentCache(60000, 10);
+        cache.setEnabled(false);
+        cache.put("view-1", null, true, create("view-1", "/radien/html/view-1"));
+        assertNull(cache.get("view-1", null, true));
+        assertEquals(0, cache.getSize());
+    }
+
+    private EnterpriseContent create(String viewId, String jcrPath) throws NameNotValidException {
+        EnterpriseContent content = new GenericEnterpriseContent(viewId);
+        content.setViewId(viewId);
+        content.setJcrPath(jcrPath);
+        content.setHtmlContent("<p>" + viewId + "</p>");
+        return content;
+    }
+}
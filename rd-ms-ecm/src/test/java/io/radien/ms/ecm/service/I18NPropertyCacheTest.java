@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.service;
+
+import io.radien.ms.ecm.client.entities.I18NBundle;
+import io.radien.ms.ecm.client.entities.I18NProperty;
+import io.radien.ms.ecm.client.entities.LabelTypeEnum;
+import io.radien.ms.ecm.factory.I18NPropertyEntityFactory;
+import io.radien.ms.ecm.util.I18NPropertyEntityMapper;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class that aggregates UnitTest cases for {@link I18NPropertyCache}
+ *
+ * @author andresousa
+ */
+public class I18NPropertyCacheTest {
+
+    /**
+     * Test for methods {@link I18NPropertyCache#load(java.util.Collection, long)} and {@link I18NPropertyCache#get()}
+     * Expected outcome: properties are resolved by key and messages by (case insensitive) language
+     */
+    @Test
+    public void testLoad() {
+        I18NPropertyCache cache = new I18NPropertyCache(60000);
+        assertNull(cache.get());
+
+        I18NPropertyCache.Snapshot snapshot = cache.load(Arrays.asList(property("b", "en", "B"),
+                property("a", "en", "A"), property("c", "de", "C")), cache.getGeneration());
+        assertSame(snapshot, cache.get());
+        assertEquals(Arrays.asList("b", "a", "c"), snapshot.getKeys());
+        assertEquals("c", snapshot.getProperty("c").getKey());
+        assertEquals("A", snapshot.getMessage("a", "EN"));
+        assertNull(snapshot.getMessage("c", "en"));
+        assertEquals(1, cache.getLoadCount());
+        assertEquals(3, cache.getSize());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0001);
+    }
+
+    /**
+     * Test for method {@link I18NPropertyCache.Snapshot#getBundle(String)}
+     * Expected outcome: bundle holds the messages of the language (sorted by key) and
+     * is built once per snapshot, its version changes when a message changes
+     */
+    @Test
+    public void testBundle() {
+        I18NPropertyCache cache = new I18NPropertyCache(60000);
+        cache.load(Arrays.asList(property("b", "en", "B"), property("a", "en", "A"), property("c", "de", "C")),
+                cache.getGeneration());
+
+        I18NBundle bundle = cache.get().getBundle("en");
+        assertEquals("en", bundle.getLanguage());
+        assertEquals(Arrays.asList("a", "b"), Arrays.asList(bundle.getMessages().keySet().toArray()));
+        assertSame(bundle, cache.get().getBundle("EN"));
+        assertTrue(cache.get().getBundle("fr").getMessages().isEmpty());
+
+        cache.put(Collections.singletonList(property("a", "en", "A2")));
+        I18NBundle changed = cache.get().getBundle("en");
+        assertEquals("A2", changed.getMessages().get("a"));
+        assertNotEquals(bundle.getVersion(), changed.getVersion());
+        assertEquals(cache.get().getBundle("de").getVersion(), bundle(cache, "de").getVersion());
+    }
+
+    /**
+     * Test for methods {@link I18NPropertyCache#put(java.util.Collection)} and {@link I18NPropertyCache#remove(String)}
+     * Expected outcome: a new snapshot is created, previous snapshots are not changed
+     */
+    @Test
+    public void testPutAndRemove() {
+        I18NPropertyCache cache = new I18NPropertyCache(60000);
+        cache.put(Collections.singletonList(property("a", "en", "A")));
+        assertNull(cache.get());
+
+        I18NPropertyCache.Snapshot snapshot = cache.load(Collections.singletonList(property("a", "en", "A")),
+                cache.getGeneration());
+        cache.put(Collections.singletonList(property("b", "en", "B")));
+        assertNull(snapshot.getProperty("b"));
+        assertNotNull(cache.get().getProperty("b"));
+
+        cache.remove("a");
+        assertNull(cache.get().getProperty("a"));
+        assertNotNull(snapshot.getProperty("a"));
+        assertEquals(1, cache.getSize());
+    }
+
+    /**
+     * Test for methods {@link I18NPropertyCache#get()} and {@link I18NPropertyCache#invalidate()}
+     * Scenario: Snapshot expired or invalidated
+     * Expected outcome: snapshot is not retrieved
+     */
+    @Test
+    public void testExpiredAndInvalidated() {
+        I18NPropertyCache cache = new I18NPropertyCache(0);
+        cache.load(Collections.singletonList(property("a", "en", "A")), cache.getGeneration());
+        assertNull(cache.get());
+
+        cache = new I18NPropertyCache(60000);
+        cache.load(Collections.singletonList(property("a", "en", "A")), cache.getGeneration());
+        cache.invalidate();
+        assertNull(cache.get());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /**
+     * Test for method {@link I18NPropertyCache#load(java.util.Collection, long)}
+     * Scenario: Properties loaded while a property is saved or deleted
+     * Expected outcome: the loaded snapshot (which may miss the change) is not stored
+     */
+    @Test
+    public void testLoadAfterChange() {
+        I18NPropertyCache cache = new I18NPropertyCache(60000);
+        long generation = cache.getGeneration();
+        cache.put(Collections.singletonList(property("b", "en", "B")));
+        assertNotNull(cache.load(Collections.singletonList(property("a", "en", "A")), generation));
+        assertNull(cache.get());
+
+        generation = cache.getGeneration();
+        cache.remove("a");
+        cache.load(Collections.singletonList(property("a", "en", "A")), generation);
+        assertNull(cache.get());
+
+        cache.load(Collections.singletonList(property("a", "en", "A")), cache.getGeneration());
+        assertNotNull(cache.get().getProperty("a"));
+    }
+
+    private static I18NBundle bundle(I18NPropertyCache cache, String language) {
+        return new I18NPropertyCache(60000).load(cache.get().getProperties(), 0).getBundle(language);
+    }
+
+    private static I18NProperty property(String key, String language, String description) {
+        return I18NPropertyEntityMapper.mapToDTO(
+                I18NPropertyEntityFactory.createWithDefaults(key, LabelTypeEnum.MESSAGE, language, description));
+    }
+}
@@ -15,11 +15,17 @@
  */
 package io.radien.ms.ecm.service;
 
+import io.radien.api.OAFAccess;
+import io.radien.api.OAFProperties;
+import io.radien.ms.ecm.client.entities.I18NBundle;
 import io.radien.ms.ecm.client.entities.I18NProperty;
 import io.radien.ms.ecm.client.entities.LabelTypeEnum;
+import io.radien.ms.ecm.client.entities.Translation;
 import io.radien.ms.ecm.entities.I18NPropertyEntity;
+import io.radien.ms.ecm.entities.I18NSyncStateEntity;
 import io.radien.ms.ecm.factory.I18NPropertyEntityFactory;
 import io.radien.ms.ecm.util.I18NPropertyEntityMapper;
+import io.radien.ms.ecm.util.ResourceBundleLoader;
 import junit.framework.TestCase;
 import org.jnosql.artemis.document.DocumentTemplate;
 import org.jnosql.diana.api.document.DocumentQuery;
@@ -29,14 +35,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class I18NPropertyServiceTest extends TestCase {
@@ -47,6 +59,10 @@ public class I18NPropertyServiceTest extends TestCase {
     private DocumentTemplate documentTemplate;
     @Mock
     private DocumentSelect documentSelect;
+    @Mock
+    private OAFAccess oafAccess;
+    @Spy
+    private I18NPropertyCache cache = new I18NPropertyCache(60000);
 
     private I18NPropertyEntity mockPropertyEntity;
     private I18NProperty mockProperty;
@@ -141,4 +157,134 @@ public class I18NPropertyServiceTest extends TestCase {
 
         assertEquals(i18NPropertyService.getLocalizedMessage("test"), "test description");
     }
+
+    @Test
+    public void testPropertiesLoadedOnce() {
+        Mockito.<List<I18NPropertyEntity>>when(documentTemplate.select(any(DocumentQuery.class))).thenReturn(mockPropertyEntityList);
+        i18NPropertyService.getAll();
+        i18NPropertyService.getKeys();
+
+        assertEquals("test_1", i18NPropertyService.getLocalizedMessage("test_1"));
+        assertEquals("test_2", i18NPropertyService.getByKey("test_2").getKey());
+        verify(documentTemplate, times(1)).select(any(DocumentQuery.class));
+        verify(documentTemplate, times(0)).find(any(), any());
+    }
+
+    @Test
+    public void testSaveAndDeleteUpdateCache() {
+        Mockito.<List<I18NPropertyEntity>>when(documentTemplate.select(any(DocumentQuery.class))).thenReturn(mockPropertyEntityList);
+        when(documentTemplate.insert(any(I18NPropertyEntity.class))).thenReturn(mockPropertyEntity);
+        i18NPropertyService.getAll();
+        i18NPropertyService.save(mockProperty);
+
+        assertEquals("test description", i18NPropertyService.getLocalizedMessage("test"));
+        assertEquals(6, i18NPropertyService.getKeys().size());
+
+        i18NPropertyService.delete(mockProperty);
+        assertEquals(5, i18NPropertyService.getKeys().size());
+        verify(documentTemplate, times(1)).select(any(DocumentQuery.class));
+    }
+
+    @Test
+    public void testGetBundle() {
+        Mockito.<List<I18NPropertyEntity>>when(documentTemplate.select(any(DocumentQuery.class))).thenReturn(mockPropertyEntityList);
+        I18NBundle bundle = i18NPropertyService.getBundle("EN");
+
+        assertEquals(mockPropertyEntityList.size(), bundle.getMessages().size());
+        assertEquals("test_3", bundle.getMessages().get("test_3"));
+        assertTrue(i18NPropertyService.getBundle("de").getMessages().isEmpty());
+    }
+
+    @Test
+    public void testInitializeProperties() {
+        when(oafAccess.getProperty(OAFProperties.SYSTEM_MS_CONFIG_SUPPORTED_LANG_ECM)).thenReturn("de,pt");
+        when(oafAccess.getProperty(OAFProperties.SYSTEM_MS_CONFIG_DEFAULT_LANG_ECM)).thenReturn("en");
+        when(documentTemplate.find(eq(I18NSyncStateEntity.class), any())).thenReturn(Optional.empty());
+        i18NPropertyService.initializeProperties();
+
+        verify(documentTemplate, times(1)).insert(any(Iterable.class));
+        verify(documentTemplate, times(1)).insert(any(I18NSyncStateEntity.class));
+        verify(documentTemplate, never()).update(any(Iterable.class));
+    }
+
+    @Test
+    public void testInitializeProperties_unchanged() {
+        when(oafAccess.getProperty(OAFProperties.SYSTEM_MS_CONFIG_SUPPORTED_LANG_ECM)).thenReturn("de,pt");
+        when(oafAccess.getProperty(OAFProperties.SYSTEM_MS_CONFIG_DEFAULT_LANG_ECM)).thenReturn("en");
+        I18NSyncStateEntity state = new I18NSyncStateEntity();
+        state.setContentHash(new ResourceBundleLoader("de,pt", "en").getContentHash());
+        when(documentTemplate.find(eq(I18NSyncStateEntity.class), any())).thenReturn(Optional.of(state));
+        i18NPropertyService.initializeProperties();
+
+        verify(documentTemplate, never()).select(any(DocumentQuery.class));
+        verify(documentTemplate, never()).insert(any(Iterable.class));
+        verify(documentTemplate, never()).update(any(Iterable.class));
+    }
+
+    @Test
+    public void testInitializeProperties_forcedAfterDeletion() {
+        when(oafAccess.getProperty(OAFProperties.SYSTEM_MS_CONFIG_SUPPORTED_LANG_ECM)).thenReturn("de,pt");
+        when(oafAccess.getProperty(OAFProperties.SYSTEM_MS_CONFIG_DEFAULT_LANG_ECM)).thenReturn("en");
+        ResourceBundleLoader loader = new ResourceBundleLoader("de,pt", "en");
+        I18NSyncStateEntity state = new I18NSyncStateEntity();
+        state.setContentHash(loader.getContentHash());
+        when(documentTemplate.find(eq(I18NSyncStateEntity.class), any())).thenReturn(Optional.of(state));
+        // every bundle property is stored except the first one, that has been deleted
+        List<I18NProperty> bundleProperties = loader.getAllProperties();
+        List<I18NPropertyEntity> stored = I18NPropertyEntityMapper.mapToEntity(
+                bundleProperties.subList(1, bundleProperties.size()));
+        Mockito.<List<I18NPropertyEntity>>when(documentTemplate.select(any(DocumentQuery.class))).thenReturn(stored);
+        List<I18NPropertyEntity> inserted = new ArrayList<>();
+        doAnswer(invocationOnMock -> {
+            ((Iterable<I18NPropertyEntity>) invocationOnMock.getArgument(0)).forEach(inserted::add);
+            return null;
+        }).when(documentTemplate).insert(any(Iterable.class));
+
+        i18NPropertyService.initializeProperties();
+        assertTrue(inserted.isEmpty());
+
+        i18NPropertyService.initializeProperties(true);
+        assertEquals(1, inserted.size());
+        assertEquals(bundleProperties.get(0).getKey(), inserted.get(0).getKey());
+        verify(documentTemplate, never()).update(any(Iterable.class));
+    }
+
+    @Test
+    public void testSaveOrUpdate() {
+        List<I18NPropertyEntity> stored = Arrays.asList(
+                I18NPropertyEntityMapper.mapToEntity(property("same", "de", "same")),
+                I18NPropertyEntityMapper.mapToEntity(property("changed", "de", "old", "fr", "kept")));
+        Mockito.<List<I18NPropertyEntity>>when(documentTemplate.select(any(DocumentQuery.class))).thenReturn(stored);
+        List<I18NPropertyEntity> updated = new ArrayList<>();
+        doAnswer(invocationOnMock -> {
+            ((Iterable<I18NPropertyEntity>) invocationOnMock.getArgument(0)).forEach(updated::add);
+            return null;
+        }).when(documentTemplate).update(any(Iterable.class));
+
+        int written = i18NPropertyService.saveOrUpdate(Arrays.asList(property("same", "de", "same"),
+                property("changed", "de", "new"), property("new", "de", "new")));
+
+        assertEquals(2, written);
+        verify(documentTemplate, times(1)).insert(any(Iterable.class));
+        assertEquals(1, updated.size());
+        assertEquals("changed", updated.get(0).getKey());
+        assertEquals(2, updated.get(0).getTranslations().size());
+        assertEquals("new", updated.get(0).getTranslations().get(0).getDescription());
+        assertEquals("kept", updated.get(0).getTranslations().get(1).getDescription());
+    }
+
+    private static I18NProperty property(String key, String... translations) {
+        I18NProperty property = new I18NProperty();
+        property.setKey(key);
+        property.setType(LabelTypeEnum.MESSAGE);
+        List<Translation> list = new ArrayList<>();
+        for (int i = 0; i < translations.length; i += 2) {
+            Translation translation = new Translation();
+            translation.setLanguage(translations[i]);
+            translation.setDescription(translations[i + 1]);
+            list.add(translation);
+        }
+        property.setTranslations(list);
+        return property;
+    }
 }
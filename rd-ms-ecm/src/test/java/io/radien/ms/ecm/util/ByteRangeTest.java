@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Class that aggregates UnitTest cases for {@link ByteRange}
+ *
+ * @author Marco Weiland
+ */
+public class ByteRangeTest {
+
+    /**
+     * Test for method {@link ByteRange#parse(String, long)}
+     * Scenario: Missing, multiple or not understood range
+     * Expected outcome: complete content is requested
+     */
+    @Test
+    public void testParseCompleteContent() {
+        assertNull(ByteRange.parse(null, 100));
+        assertNull(ByteRange.parse("items=0-10", 100));
+        assertNull(ByteRange.parse("bytes=0-10,20-30", 100));
+        assertNull(ByteRange.parse("bytes=a-b", 100));
+    }
+
+    /**
+     * Test for method {@link ByteRange#parse(String, long)}
+     * Expected outcome: first-last, open ended and suffix ranges are resolved against the content size
+     */
+    @Test
+    public void testParse() {
+        ByteRange range = ByteRange.parse("bytes=10-19", 100);
+        assertEquals(10, range.getStart());
+        assertEquals(19, range.getEnd());
+        assertEquals(10, range.getLength());
+        assertEquals("bytes 10-19/100", range.toContentRange(100));
+
+        range = ByteRange.parse("bytes=90-", 100);
+        assertEquals(90, range.getStart());
+        assertEquals(99, range.getEnd());
+
+        range = ByteRange.parse("bytes=-30", 100);
+        assertEquals(70, range.getStart());
+        assertEquals(30, range.getLength());
+
+        range = ByteRange.parse("bytes=50-500", 100);
+        assertEquals(99, range.getEnd());
+    }
+
+    /**
+     * Test for method {@link ByteRange#parse(String, long)}
+     * Scenario: Range starts after the end of the content
+     * Expected outcome: IllegalArgumentException is thrown
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNotSatisfiable() {
+        ByteRange.parse("bytes=100-", 100);
+    }
+
+    /**
+     * Test for method {@link ByteRange#parse(String, long)}
+     * Scenario: Last position before the first one
+     * Expected outcome: IllegalArgumentException is thrown
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvertedRange() {
+        ByteRange.parse("bytes=20-10", 100);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.ecm.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class that aggregates UnitTest cases for {@link EntityTags}
+ *
+ * @author Marco Weiland
+ */
+public class EntityTagsTest {
+
+    /**
+     * Test for method {@link EntityTags#matches(String, String)}
+     * Expected outcome: matched by the exact, weak, list or any (*) value
+     */
+    @Test
+    public void testMatches() {
+        String tag = "abc";
+        assertFalse(EntityTags.matches(null, tag));
+        assertFalse(EntityTags.matches("\"abd\"", tag));
+        assertFalse(EntityTags.matches("abc", tag));
+        assertTrue(EntityTags.matches("\"abc\"", tag));
+        assertTrue(EntityTags.matches("W/\"abc\"", tag));
+        assertTrue(EntityTags.matches("\"xyz\", \"abc\"", tag));
+        assertTrue(EntityTags.matches("*", tag));
+    }
+}
@@ -15,26 +15,27 @@
  */
 package io.radien.ms.openid.security;
 
-import com.auth0.jwk.Jwk;
-import com.auth0.jwk.JwkException;
-import com.auth0.jwk.JwkProvider;
 import com.auth0.jwk.UrlJwkProvider;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSObject;
 import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.Payload;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
+import io.radien.api.security.UserIdentityCache;
 import io.radien.ms.openid.entities.Principal;
 import io.radien.ms.openid.service.PrincipalFactory;
+import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
+import javax.inject.Inject;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
@@ -53,13 +54,13 @@ import java.io.StringReader;
 import java.net.MalformedURLException;
 import java.net.URL;
 
-import java.security.interfaces.RSAPublicKey;
-
 import java.text.ParseException;
 import java.time.Instant;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  *A Filter that performs authentication of a particular request.
@@ -73,10 +74,52 @@ public class AuthenticationFilter implements Filter {
     private ResourceInfo resourceInfo;
     private static final Logger log = LoggerFactory.getLogger(AuthenticationFilter.class);
 
+    private static final long DEFAULT_JWKS_TTL_IN_SECONDS = 3600;
+    private static final long DEFAULT_JWKS_MIN_REFRESH_INTERVAL_IN_SECONDS = 30;
+
+    private String issuer;
+
+    private boolean stateless = true;
+
+    private JwkVerifierCache jwkVerifierCache;
+
+    @Resource
+    private ManagedExecutorService executorService;
 
+    @Inject
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Inject
+    private UserIdentityCache userIdentityCache;
+
+    /**
+     * Reads (only once) the issuer and the JWKS settings, and prepares the cache of
+     * signature verifiers shared by all the requests
+     * @param filterConfig filter configuration
+     * @throws ServletException if an exception occurs that interferes with the filter's normal operation
+     */
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
         log.debug("AuthenticationFilter init");
+        Config config = ConfigProvider.getConfig();
+        this.issuer = config.getOptionalValue("auth.issuer", String.class).orElse(null);
+        this.stateless = config.getOptionalValue("auth.stateless", Boolean.class).orElse(Boolean.TRUE);
+        String jwkUrl = config.getOptionalValue("auth.jwkUrl", String.class).orElse(null);
+        long ttl = config.getOptionalValue("auth.jwks.ttl", Long.class).orElse(DEFAULT_JWKS_TTL_IN_SECONDS);
+        long minRefreshInterval = config.getOptionalValue("auth.jwks.minRefreshInterval", Long.class).
+                orElse(DEFAULT_JWKS_MIN_REFRESH_INTERVAL_IN_SECONDS);
+        try {
+            // Without a managed executor (outside of the container) the refreshes run on the requesting thread
+            Executor executor = executorService != null ? executorService : Runnable::run;
+            this.jwkVerifierCache = new JwkVerifierCache(new UrlJwkProvider(new URL(jwkUrl)),
+                    TimeUnit.SECONDS.toMillis(ttl), TimeUnit.SECONDS.toMillis(minRefreshInterval), executor);
+        } catch (MalformedURLException e) {
+            log.error("Invalid JWKS url {}, access tokens cannot be validated", jwkUrl, e);
+        }
+        if (this.verifiedTokenCache == null) {
+            this.verifiedTokenCache = new VerifiedTokenCache();
+            this.verifiedTokenCache.init();
+        }
     }
 
     /**
@@ -112,7 +155,7 @@ public class AuthenticationFilter implements Filter {
             String accessToken = req.getHeader(HttpHeaders.AUTHORIZATION);
             if (accessToken.startsWith("Bearer ")) {
                 accessToken = accessToken.substring(7);
-                failed = !validateToken(req.getSession(), accessToken);
+                failed = !validateToken(req, accessToken);
                 if (!failed) {
                     chain.doFilter(request, response);
                 }
@@ -134,63 +177,101 @@ public class AuthenticationFilter implements Filter {
     }
 
     /**
-     * Everytime the container receives a request/response the following method will get the authorization issuer and
-     * url to validate the request/response authentication
-     * @param session where the request/response is coming or going into
+     * Everytime the container receives a request/response the following method will validate the access token
+     * and keep the corresponding principal on the request (stateless mode, the default) or on the session.
+     * The user id already resolved for the subject (kept on the session or, in stateless mode,
+     * on the {@link UserIdentityCache}) is kept on the new principal.
+     * Tokens already verified are taken from the {@link VerifiedTokenCache}, so repeated requests with the
+     * same token only pay a hash lookup
+     * @param request where the request/response is coming or going into
      * @param accessToken user access token to be validated or added
      * @return true in case the token has been validated with success
      */
-    private boolean validateToken(HttpSession session, String accessToken) {
+    private boolean validateToken(HttpServletRequest request, String accessToken) {
+        JsonObject claims = verifiedTokenCache != null ? verifiedTokenCache.get(accessToken) : null;
+        if (claims == null) {
+            claims = verifyToken(accessToken);
+            if (claims == null) {
+                return false;
+            }
+            if (verifiedTokenCache != null) {
+                verifiedTokenCache.put(accessToken, claims,
+                        TimeUnit.SECONDS.toMillis(claims.getJsonNumber("exp").longValue()));
+            }
+        }
+        Principal principal = PrincipalFactory.convert(claims);
+        if (stateless) {
+            if (userIdentityCache != null) {
+                principal.setId(userIdentityCache.get(principal.getSub()));
+            }
+            request.setAttribute("USER", principal);
+        } else {
+            HttpSession session = request.getSession();
+            keepResolvedUserId(session, principal);
+            session.setAttribute("USER", principal);
+        }
+        return true;
+    }
+
+    /**
+     * Verifies the access token (signature, issuer, type and expiration). The signature is checked with
+     * the verifier kept by the {@link JwkVerifierCache}, so no JWKS request is made per token
+     * @param accessToken user access token to be verified
+     * @return the token claims in case the token has been verified with success, otherwise null
+     */
+    private JsonObject verifyToken(String accessToken) {
         try {
             JWSObject jwsObject = JWSObject.parse(accessToken);
 
-            String issuer = ConfigProvider.getConfig().getValue("auth.issuer", String.class);
-            String jwkUrl = ConfigProvider.getConfig().getValue("auth.jwkUrl", String.class);
-
             //check acr on payload when with totp
             //acr stands for Authentication Context Class
 
             JWSHeader header = jwsObject.getHeader();
-            String kid = header.getKeyID();
-
-            final JwkProvider provider = new UrlJwkProvider(new URL(jwkUrl));
-            final Jwk jwk = provider.get(kid);
-
-
-            JWSVerifier verifier = new RSASSAVerifier((RSAPublicKey) jwk.getPublicKey());
-            if (!jwsObject.verify(verifier)) {
-                return false;
+            JWSVerifier verifier = jwkVerifierCache != null ? jwkVerifierCache.getVerifier(header.getKeyID()) : null;
+            if (verifier == null || !jwsObject.verify(verifier)) {
+                return null;
             }
 
             Payload payload = jwsObject.getPayload();
             try (JsonReader reader = Json.createReader(new StringReader(payload.toString()))) {
                 JsonObject jsonObject = reader.readObject();
 
-                if (!issuer.equals(jsonObject.getString("iss"))) {
-                    return false;
+                if (issuer == null || !issuer.equals(jsonObject.getString("iss"))) {
+                    return null;
                 }
 
                 if (!jsonObject.getString("typ").equals("Bearer")) {
-                    return false;
+                    return null;
                 }
 
                 LocalDateTime exp = LocalDateTime.ofInstant(Instant.ofEpochSecond(jsonObject.getJsonNumber("exp").longValue()), ZoneId.systemDefault());
                 if (exp.isBefore(LocalDateTime.now())) {
                     //TODO: refresh token
-                    return false;
+                    return null;
 
                 }
-                Principal principal = PrincipalFactory.convert(jsonObject);
-                session.setAttribute("USER", principal);
+                return jsonObject;
             }
-
-
-
-            return true;
-        } catch (ParseException | MalformedURLException | JwkException | JOSEException e) {
+        } catch (ParseException | JOSEException e) {
             log.error("Unable to parse Access Token", e);
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * The user id is resolved (from the sub) only once per session. If the session already holds
+     * a principal with the same subject, its resolved id is kept on the new principal
+     * @param session where the current principal is stored
+     * @param principal new principal (built from the access token)
+     */
+    private void keepResolvedUserId(HttpSession session, Principal principal) {
+        Object current = session.getAttribute("USER");
+        if (current instanceof Principal) {
+            Principal previous = (Principal) current;
+            if (previous.getId() != null && previous.getSub() != null && previous.getSub().equals(principal.getSub())) {
+                principal.setId(previous.getId());
+            }
+        }
     }
 
     /**
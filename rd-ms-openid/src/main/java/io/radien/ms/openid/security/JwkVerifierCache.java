@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.openid.security;
+
+import com.auth0.jwk.InvalidPublicKeyException;
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import com.auth0.jwk.UrlJwkProvider;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shared cache of signature verifiers, one per key (kid) published on the JWKS endpoint.
+ * The whole key set is loaded with a single request and the verifiers are built once, so
+ * validating a token does not involve any network access. The key set is refreshed in background
+ * shortly before expiring, and on demand when an unknown kid shows up (at most once per
+ * minimum refresh interval, so forged kids cannot be used to flood the identity provider).
+ * Loads are single-flight: callers arriving while a load is in progress wait for it and use its result.
+ *
+ * @author Nuno Santana
+ */
+public class JwkVerifierCache {
+
+    private static final Logger log = LoggerFactory.getLogger(JwkVerifierCache.class);
+
+    private static final double REFRESH_AHEAD_FACTOR = 0.8;
+
+    private final UrlJwkProvider provider;
+    private final long ttlInMillis;
+    private final long minRefreshIntervalInMillis;
+    private final Executor executor;
+
+    private volatile Map<String, JWSVerifier> verifiers = Collections.emptyMap();
+    private volatile long loadedAt;
+    private volatile long loadAttempts;
+    private long lastRefreshAttempt;
+    private boolean lastRefreshSucceeded;
+    private final Object loadLock = new Object();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    /**
+     * Jwk verifier cache constructor
+     * @param provider provider that retrieves the key set from the JWKS endpoint
+     * @param ttlInMillis time (in milliseconds) that a loaded key set remains valid
+     * @param minRefreshIntervalInMillis minimum time (in milliseconds) between two key set loads
+     * @param executor (managed) executor that runs the background refreshes
+     */
+    public JwkVerifierCache(UrlJwkProvider provider, long ttlInMillis, long minRefreshIntervalInMillis,
+                            Executor executor) {
+        this.provider = provider;
+        this.ttlInMillis = ttlInMillis;
+        this.minRefreshIntervalInMillis = minRefreshIntervalInMillis;
+        this.executor = executor;
+    }
+
+    /**
+     * Retrieves the verifier for a given key
+     * @param kid key identifier (taken from the token header)
+     * @return the verifier, or null if the key is not (or no longer) published
+     */
+    public JWSVerifier getVerifier(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        long age = System.currentTimeMillis() - loadedAt;
+        JWSVerifier verifier = verifiers.get(kid);
+        if (verifier == null || age >= ttlInMillis) {
+            // Even when no load happens (rate limited or failed) a concurrent one may have published new keys
+            refresh();
+            return verifiers.get(kid);
+        }
+        if (age >= ttlInMillis * REFRESH_AHEAD_FACTOR) {
+            refreshInBackground();
+        }
+        return verifier;
+    }
+
+    /**
+     * Loads the key set (unless another load happened during the minimum refresh interval).
+     * If a load is already in progress, waits for it and answers its outcome instead of starting another one
+     * @return true if the key set was loaded
+     */
+    protected boolean refresh() {
+        long seenAttempts = loadAttempts;
+        synchronized (loadLock) {
+            if (loadAttempts != seenAttempts) {
+                return lastRefreshSucceeded;
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastRefreshAttempt < minRefreshIntervalInMillis) {
+                return false;
+            }
+            lastRefreshAttempt = now;
+            try {
+                verifiers = load(provider.getAll());
+                loadedAt = System.currentTimeMillis();
+                lastRefreshSucceeded = true;
+                log.info("JWKS loaded with {} keys", verifiers.size());
+            } catch (SigningKeyNotFoundException e) {
+                lastRefreshSucceeded = false;
+                log.error("Unable to load JWKS, keeping the previous keys", e);
+            } finally {
+                loadAttempts++;
+            }
+            return lastRefreshSucceeded;
+        }
+    }
+
+    /**
+     * Triggers (if not already running) a key set load without blocking the caller
+     */
+    private void refreshInBackground() {
+        if (refreshing.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        refresh();
+                    } finally {
+                        refreshing.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                refreshing.set(false);
+                log.warn("JWKS background refresh rejected, keys will be refreshed on expiration", e);
+            }
+        }
+    }
+
+    /**
+     * Builds the verifiers for the RSA keys of a key set
+     * @param jwks key set
+     * @return verifiers by key identifier
+     */
+    private static Map<String, JWSVerifier> load(List<Jwk> jwks) {
+        Map<String, JWSVerifier> loaded = new HashMap<>();
+        for (Jwk jwk : jwks) {
+            if (jwk.getId() == null || !"RSA".equals(jwk.getType())) {
+                continue;
+            }
+            try {
+                loaded.put(jwk.getId(), new RSASSAVerifier((RSAPublicKey) jwk.getPublicKey()));
+            } catch (InvalidPublicKeyException e) {
+                log.warn("Ignoring invalid public key {}", jwk.getId(), e);
+            }
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * Gets the number of keys currently loaded
+     * @return number of verifiers
+     */
+    public int getSize() {
+        return verifiers.size();
+    }
+}
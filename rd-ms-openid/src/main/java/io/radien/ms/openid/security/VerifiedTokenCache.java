@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.openid.security;
+
+import io.radien.api.util.BoundedCache;
+import io.radien.api.util.CacheStatistics;
+import io.radien.api.util.NearCache;
+import org.eclipse.microprofile.config.Config;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.json.JsonObject;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Bounded cache of access tokens that were already verified (signature, issuer, type and expiration).
+ * Keeps the token claims, keyed by a SHA-256 hash of the token (the token itself is never stored),
+ * until the token expires. Least recently used tokens are removed first once the max size is reached.
+ * Configured by the {@code auth.token.cache.enabled} and {@code auth.token.cache.maxSize} properties.
+ *
+ * @author Nuno Santana
+ */
+@ApplicationScoped
+public class VerifiedTokenCache extends NearCache {
+
+    private static final String PREFIX = "auth.token.cache";
+
+    private static final int DEFAULT_MAX_SIZE = 10000;
+
+    /** Tokens are always stored with their own expiration, there is no default time to live */
+    private static final long NO_TTL = 0;
+
+    private final BoundedCache<String, JsonObject> tokens;
+
+    /**
+     * Creates the cache keeping up to {@value #DEFAULT_MAX_SIZE} verified tokens, unless configured otherwise
+     */
+    public VerifiedTokenCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor that allows to define the max size directly
+     * @param maxSize maximum number of verified tokens kept
+     */
+    public VerifiedTokenCache(int maxSize) {
+        super(PREFIX, PREFIX);
+        this.tokens = new BoundedCache<>(NO_TTL, maxSize);
+    }
+
+    @Override
+    protected void configure(Config config) {
+        configure(config, tokens);
+    }
+
+    @Override
+    protected CacheStatistics getStatistics() {
+        return tokens;
+    }
+
+    /**
+     * Retrieves the claims of a previously verified (and not yet expired) token
+     * @param accessToken the access token
+     * @return the token claims, or null if the token was not verified yet (or already expired)
+     */
+    public JsonObject get(String accessToken) {
+        return tokens.isEnabled() ? tokens.get(hash(accessToken)) : null;
+    }
+
+    /**
+     * Stores the claims of a verified token
+     * @param accessToken the access token
+     * @param claims the token claims
+     * @param expiresAt token expiration (epoch milliseconds)
+     */
+    public void put(String accessToken, JsonObject claims, long expiresAt) {
+        if (!tokens.isEnabled() || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        tokens.put(hash(accessToken), claims, expiresAt);
+    }
+
+    /**
+     * Enables or disables the cache
+     * @param enabled flag that indicates if verified tokens must be cached
+     */
+    public void setEnabled(boolean enabled) {
+        tokens.setEnabled(enabled);
+    }
+
+    /**
+     * Calculates the key (SHA-256 hash) for a token
+     * @param accessToken the access token
+     * @return the key
+     */
+    private static String hash(String accessToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(accessToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
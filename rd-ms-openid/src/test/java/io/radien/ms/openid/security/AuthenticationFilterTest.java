@@ -15,11 +15,17 @@
  */
 package io.radien.ms.openid.security;
 
+import io.radien.api.security.UserIdentityCache;
+import io.radien.ms.openid.entities.Principal;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import javax.json.Json;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -31,9 +37,21 @@ import javax.ws.rs.core.HttpHeaders;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class AuthenticationFilterTest {
@@ -43,6 +61,12 @@ public class AuthenticationFilterTest {
     @InjectMocks
     AuthenticationFilter target;
 
+    @Spy
+    VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(100);
+
+    @Spy
+    UserIdentityCache userIdentityCache = new UserIdentityCache(60000, 100);
+
     @Before
     public void setUp(){
         MockitoAnnotations.initMocks(this);
@@ -65,4 +89,67 @@ public class AuthenticationFilterTest {
         target.destroy();
     }
 
-}
\ No newline at end of file
+    /**
+     * Load test for the stateless mode: many concurrent requests carrying an (already verified) token
+     * must be authenticated without creating (or even looking up) any http session
+     */
+    @Test
+    public void testStatelessRequestsDoNotCreateSessions() throws Exception {
+        target.init(null);
+        String token = "load-test-token";
+        verifiedTokenCache.put(token, Json.createObjectBuilder().add("sub", "sub-1").
+                add("exp", System.currentTimeMillis() / 1000 + 3600).build(), System.currentTimeMillis() + 60000);
+
+        HttpServletRequest req = Mockito.mock(HttpServletRequest.class);
+        HttpServletResponse resp = Mockito.mock(HttpServletResponse.class);
+        FilterChain chain = Mockito.mock(FilterChain.class);
+        when(req.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + token);
+        when(req.getRequestURI()).thenReturn("/usermanagementservice/v1/user");
+
+        int requests = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Void>> results = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            results.add(executor.submit((Callable<Void>) () -> {
+                target.doFilter(req, resp, chain);
+                return null;
+            }));
+        }
+        for (Future<Void> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        verify(chain, times(requests)).doFilter(req, resp);
+        verify(req, times(requests)).setAttribute(eq("USER"), any());
+        verify(req, never()).getSession();
+        verify(req, never()).getSession(anyBoolean());
+        assertEquals(requests, verifiedTokenCache.getHitCount());
+    }
+
+    /**
+     * Stateless mode: the user id already resolved for the subject is taken from the {@link UserIdentityCache},
+     * so it is not requested again for every request
+     */
+    @Test
+    public void testStatelessRequestReusesResolvedUserId() throws Exception {
+        target.init(null);
+        String token = "resolved-user-token";
+        verifiedTokenCache.put(token, Json.createObjectBuilder().add("sub", "sub-1").
+                add("exp", System.currentTimeMillis() / 1000 + 3600).build(), System.currentTimeMillis() + 60000);
+        userIdentityCache.put("sub-1", 7L);
+
+        HttpServletRequest req = Mockito.mock(HttpServletRequest.class);
+        HttpServletResponse resp = Mockito.mock(HttpServletResponse.class);
+        FilterChain chain = Mockito.mock(FilterChain.class);
+        when(req.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + token);
+        when(req.getRequestURI()).thenReturn("/usermanagementservice/v1/user");
+
+        target.doFilter(req, resp, chain);
+
+        ArgumentCaptor<Object> principal = ArgumentCaptor.forClass(Object.class);
+        verify(req).setAttribute(eq("USER"), principal.capture());
+        assertEquals(Long.valueOf(7L), ((Principal) principal.getValue()).getId());
+        verify(chain).doFilter(req, resp);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.openid.security;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import com.auth0.jwk.UrlJwkProvider;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class that aggregates UnitTest cases for {@link JwkVerifierCache}
+ *
+ * @author Nuno Santana
+ */
+public class JwkVerifierCacheTest {
+
+    private RSAKey rsaKey;
+    private StubJwkProvider provider;
+
+    @Before
+    public void setUp() throws JOSEException, MalformedURLException {
+        rsaKey = new RSAKeyGenerator(2048).keyID("kid-1").generate();
+        provider = new StubJwkProvider();
+        provider.jwks = Collections.singletonList(Jwk.fromValues(rsaKey.toPublicJWK().toJSONObject()));
+    }
+
+    /**
+     * Test for method {@link JwkVerifierCache#getVerifier(String)}
+     * Expected outcome: key set loaded only once and the same verifier reused to validate signatures
+     */
+    @Test
+    public void testVerifierReused() throws JOSEException {
+        JwkVerifierCache cache = new JwkVerifierCache(provider, 60000, 60000, Runnable::run);
+        JWSVerifier verifier = cache.getVerifier("kid-1");
+        assertNotNull(verifier);
+        assertSame(verifier, cache.getVerifier("kid-1"));
+        assertEquals(1, provider.loads.get());
+        assertEquals(1, cache.getSize());
+
+        JWSObject jwsObject = new JWSObject(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("kid-1").build(),
+                new Payload("{\"sub\":\"test\"}"));
+        jwsObject.sign(new RSASSASigner(rsaKey));
+        assertTrue(jwsObject.verify(cache.getVerifier(jwsObject.getHeader().getKeyID())));
+    }
+
+    /**
+     * Test for method {@link JwkVerifierCache#getVerifier(String)}
+     * Scenario: unknown kids
+     * Expected outcome: the key set is reloaded at most once per minimum refresh interval
+     */
+    @Test
+    public void testUnknownKidRateLimited() {
+        JwkVerifierCache cache = new JwkVerifierCache(provider, 60000, 60000, Runnable::run);
+        assertNull(cache.getVerifier("unknown-1"));
+        assertNull(cache.getVerifier("unknown-2"));
+        assertNull(cache.getVerifier(null));
+        assertEquals(1, provider.loads.get());
+        assertNotNull(cache.getVerifier("kid-1"));
+    }
+
+    /**
+     * Test for method {@link JwkVerifierCache#getVerifier(String)}
+     * Scenario: key set expired and the JWKS endpoint is not available
+     * Expected outcome: the previous keys are kept
+     */
+    @Test
+    public void testExpiredKeysKeptWhenLoadFails() {
+        JwkVerifierCache cache = new JwkVerifierCache(provider, 0, 0, Runnable::run);
+        assertNotNull(cache.getVerifier("kid-1"));
+        provider.fail = true;
+        assertNotNull(cache.getVerifier("kid-1"));
+        assertEquals(2, provider.loads.get());
+    }
+
+    /**
+     * Test for method {@link JwkVerifierCache#getVerifier(String)}
+     * Scenario: concurrent requests on a cold cache, while the key set is being loaded
+     * Expected outcome: a single load, and every request waits for it and gets the verifier
+     */
+    @Test
+    public void testConcurrentColdStartSingleLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        provider.loading = loading;
+        provider.release = release;
+        JwkVerifierCache cache = new JwkVerifierCache(provider, 60000, 60000, Runnable::run);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<JWSVerifier>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.getVerifier("kid-1")));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < threads; i++) {
+                results.add(executor.submit(() -> cache.getVerifier("kid-1")));
+            }
+            release.countDown();
+            for (Future<JWSVerifier> result : results) {
+                assertNotNull(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, provider.loads.get());
+    }
+
+    /**
+     * Test for method {@link JwkVerifierCache#getVerifier(String)}
+     * Scenario: key set about to expire
+     * Expected outcome: the key set is refreshed by the informed executor, without blocking the caller
+     */
+    @Test
+    public void testRefreshAheadUsesExecutor() throws InterruptedException {
+        List<Runnable> tasks = new ArrayList<>();
+        JwkVerifierCache cache = new JwkVerifierCache(provider, 2000, 0, tasks::add);
+        assertNotNull(cache.getVerifier("kid-1"));
+        Thread.sleep(1700);
+        assertNotNull(cache.getVerifier("kid-1"));
+        assertNotNull(cache.getVerifier("kid-1"));
+        assertEquals(1, tasks.size());
+        assertEquals(1, provider.loads.get());
+
+        tasks.get(0).run();
+        assertEquals(2, provider.loads.get());
+    }
+
+    /**
+     * Provider that serves a fixed key set instead of requesting the JWKS endpoint
+     */
+    private static class StubJwkProvider extends UrlJwkProvider {
+        private final AtomicInteger loads = new AtomicInteger();
+        private List<Jwk> jwks;
+        private boolean fail;
+        private CountDownLatch loading;
+        private CountDownLatch release;
+
+        StubJwkProvider() throws MalformedURLException {
+            super(new URL("http://localhost/jwks"));
+        }
+
+        @Override
+        public List<Jwk> getAll() throws SigningKeyNotFoundException {
+            loads.incrementAndGet();
+            if (loading != null) {
+                loading.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (fail) {
+                throw new SigningKeyNotFoundException("unavailable", null);
+            }
+            return jwks;
+        }
+    }
+}
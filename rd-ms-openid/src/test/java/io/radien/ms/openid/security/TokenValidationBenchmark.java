@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.openid.security;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkException;
+import com.auth0.jwk.UrlJwkProvider;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the per request cost of validating an access token signature.
+ * Compares the verifier kept by {@link JwkVerifierCache} against building the public key and the
+ * verifier on every request (as done before the cache, which also paid one JWKS request per token).
+ * Not executed by surefire, run {@link #main(String[])} from the test classpath.
+ *
+ * @author Nuno Santana
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenValidationBenchmark {
+
+    private String accessToken;
+    private Jwk jwk;
+    private JwkVerifierCache cache;
+
+    /**
+     * Generates the key, signs the token and loads the cache (outside the measurement)
+     * @throws JOSEException in case of signing failure
+     * @throws MalformedURLException never, the url is not requested
+     */
+    @Setup
+    public void setUp() throws JOSEException, MalformedURLException {
+        RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("kid-1").generate();
+        jwk = Jwk.fromValues(rsaKey.toPublicJWK().toJSONObject());
+        JWSObject jwsObject = new JWSObject(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("kid-1").build(),
+                new Payload("{\"iss\":\"issuer\",\"typ\":\"Bearer\",\"sub\":\"benchmark\"}"));
+        jwsObject.sign(new RSASSASigner(rsaKey));
+        accessToken = jwsObject.serialize();
+
+        List<Jwk> jwks = Collections.singletonList(jwk);
+        cache = new JwkVerifierCache(new UrlJwkProvider(new URL("http://localhost/jwks")) {
+            @Override
+            public List<Jwk> getAll() {
+                return jwks;
+            }
+        }, TimeUnit.HOURS.toMillis(1), TimeUnit.HOURS.toMillis(1), Runnable::run);
+        cache.getVerifier("kid-1");
+    }
+
+    /**
+     * Validation using the cached verifier
+     * @return validation result
+     * @throws ParseException in case of malformed token
+     * @throws JOSEException in case of verification failure
+     */
+    @Benchmark
+    public boolean cachedVerifier() throws ParseException, JOSEException {
+        JWSObject jwsObject = JWSObject.parse(accessToken);
+        return jwsObject.verify(cache.getVerifier(jwsObject.getHeader().getKeyID()));
+    }
+
+    /**
+     * Validation building the public key and the verifier for every token (excluding the JWKS request)
+     * @return validation result
+     * @throws ParseException in case of malformed token
+     * @throws JOSEException in case of verification failure
+     * @throws JwkException in case of invalid key
+     */
+    @Benchmark
+    public boolean verifierPerRequest() throws ParseException, JOSEException, JwkException {
+        JWSObject jwsObject = JWSObject.parse(accessToken);
+        return jwsObject.verify(new RSASSAVerifier((RSAPublicKey) jwk.getPublicKey()));
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args not used
+     * @throws RunnerException in case of benchmark failure
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenValidationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
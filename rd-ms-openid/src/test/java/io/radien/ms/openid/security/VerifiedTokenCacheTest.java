@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.openid.security;
+
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Class that aggregates UnitTest cases for {@link VerifiedTokenCache}
+ *
+ * @author Nuno Santana
+ */
+public class VerifiedTokenCacheTest {
+
+    private final JsonObject claims = Json.createObjectBuilder().add("sub", "sub-1").build();
+
+    /**
+     * Test for methods {@link VerifiedTokenCache#put(String, JsonObject, long)} and
+     * {@link VerifiedTokenCache#get(String)}
+     * Expected outcome: claims retrieved for the same token, hits and misses counted
+     */
+    @Test
+    public void testPutAndGet() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        assertNull(cache.get("token-1"));
+        cache.put("token-1", claims, System.currentTimeMillis() + 60000);
+
+        assertSame(claims, cache.get("token-1"));
+        assertNull(cache.get("token-2"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getSize());
+    }
+
+    /**
+     * Test for method {@link VerifiedTokenCache#get(String)}
+     * Scenario: token expired after being stored, or already expired when informed
+     * Expected outcome: claims not retrieved
+     */
+    @Test
+    public void testExpiredToken() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token-1", claims, System.currentTimeMillis() - 1);
+        assertEquals(0, cache.getSize());
+
+        cache.put("token-2", claims, System.currentTimeMillis() + 5);
+        Thread.sleep(10);
+        assertNull(cache.get("token-2"));
+        assertEquals(0, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /**
+     * Test for method {@link VerifiedTokenCache#put(String, JsonObject, long)}
+     * Scenario: max size reached
+     * Expected outcome: least recently used token is evicted
+     */
+    @Test
+    public void testMaxSize() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        long expiresAt = System.currentTimeMillis() + 60000;
+        cache.put("token-1", claims, expiresAt);
+        cache.put("token-2", claims, expiresAt);
+        cache.get("token-1");
+        cache.put("token-3", claims, expiresAt);
+
+        assertEquals(2, cache.getSize());
+        assertNull(cache.get("token-2"));
+        assertSame(claims, cache.get("token-1"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /**
+     * Test for method {@link VerifiedTokenCache#setEnabled(boolean)}
+     * Expected outcome: nothing stored when the cache is disabled
+     */
+    @Test
+    public void testDisabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.setEnabled(false);
+        cache.put("token-1", claims, System.currentTimeMillis() + 60000);
+        assertNull(cache.get("token-1"));
+        assertEquals(0, cache.getSize());
+    }
+}
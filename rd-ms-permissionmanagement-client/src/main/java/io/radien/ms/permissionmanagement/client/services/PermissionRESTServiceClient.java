@@ -425,6 +425,45 @@ public class PermissionRESTServiceClient extends AuthorizationChecker implements
         }
     }
 
+    /**
+     * Calls the requester to retrieve the permission version stamp, if not possible will refresh
+     * the access token and retry
+     * @return the current version stamp
+     * @throws SystemException in case of communication error or if URL is malformed
+     */
+    @Override
+    public long getVersionStamp() throws SystemException {
+        try {
+            return getVersionStampRequester();
+        } catch (TokenExpiredException expiredException) {
+            refreshToken();
+            try{
+                return getVersionStampRequester();
+            } catch (TokenExpiredException expiredException1){
+                throw new SystemException(GenericErrorCodeMessage.EXPIRED_ACCESS_TOKEN.toString());
+            }
+        }
+    }
+
+    /**
+     * Retrieves the permission version stamp
+     * @return the current version stamp
+     * @throws SystemException in case of communication error or if URL is malformed
+     */
+    private long getVersionStampRequester() throws SystemException {
+        try {
+            PermissionResourceClient client = clientServiceUtil.getPermissionResourceClient(oaf.getProperty
+                    (OAFProperties.SYSTEM_MS_ENDPOINT_PERMISSIONMANAGEMENT));
+            Response response = client.getVersionStamp();
+            if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                throw new SystemException(response.readEntity(String.class));
+            }
+            return Long.parseLong(response.readEntity(String.class));
+        } catch (ExtensionException | ProcessingException | MalformedURLException e){
+            throw new SystemException(e);
+        }
+    }
+
     /**
      * Calls the requester to retrieve from DB a collection containing permissions. The retrieval process will be
      * based on a list containing permission identifiers. In case of JWT expiration, the process will be attempt once more
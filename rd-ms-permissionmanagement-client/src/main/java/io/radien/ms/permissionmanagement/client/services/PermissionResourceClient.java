@@ -170,4 +170,12 @@ public interface PermissionResourceClient {
     @GET
     @Path("/countRecords")
     public Response getTotalRecordsCount();
+
+    /**
+     * Gets the permission version stamp, that changes whenever any permission is created, updated or deleted
+     * @return the current version stamp
+     */
+    @GET
+    @Path("/version")
+    public Response getVersionStamp();
 }
\ No newline at end of file
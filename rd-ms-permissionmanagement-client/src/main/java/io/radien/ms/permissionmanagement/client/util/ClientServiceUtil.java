@@ -15,19 +15,19 @@
  */
 package io.radien.ms.permissionmanagement.client.util;
 
+import io.radien.ms.authz.client.RestClientRegistry;
 import io.radien.ms.permissionmanagement.client.providers.ActionMessageBodyWriter;
 import io.radien.ms.permissionmanagement.client.providers.PermissionMessageBodyWriter;
 import io.radien.ms.permissionmanagement.client.providers.ResourceMessageBodyWriter;
 import io.radien.ms.permissionmanagement.client.services.ActionResourceClient;
 import io.radien.ms.permissionmanagement.client.services.ResourceResourceClient;
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 
 import io.radien.ms.permissionmanagement.client.PermissionResponseExceptionMapper;
 import io.radien.ms.permissionmanagement.client.services.PermissionResourceClient;
 
 import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
 import java.net.MalformedURLException;
-import java.net.URL;
 
 /**
  * Utility class that produces Rest Clients for Permission and Action
@@ -36,6 +36,9 @@ import java.net.URL;
 @RequestScoped
 public class ClientServiceUtil {
 
+    @Inject
+    private RestClientRegistry restClientRegistry;
+
     /**
      * Gets a Rest Client for Permission
      * @param urlStr url of rest endpoint
@@ -43,13 +46,8 @@ public class ClientServiceUtil {
      * @throws MalformedURLException in case of any url issue
      */
     public PermissionResourceClient getPermissionResourceClient(String urlStr) throws MalformedURLException {
-        URL url = new URL(urlStr);
-        return RestClientBuilder.
-                newBuilder()
-                .baseUrl(url)
-                .register(PermissionResponseExceptionMapper.class)
-                .register(PermissionMessageBodyWriter.class)
-                .build(PermissionResourceClient.class);
+        return restClientRegistry.getClient(urlStr, PermissionResourceClient.class,
+                PermissionResponseExceptionMapper.class, PermissionMessageBodyWriter.class);
     }
 
     /**
@@ -59,13 +57,8 @@ public class ClientServiceUtil {
      * @throws MalformedURLException in case of any url issue
      */
     public ActionResourceClient getActionResourceClient(String urlStr) throws MalformedURLException {
-        URL url = new URL(urlStr);
-        return RestClientBuilder.
-                newBuilder()
-                .baseUrl(url)
-                .register(PermissionResponseExceptionMapper.class)
-                .register(ActionMessageBodyWriter.class)
-                .build(ActionResourceClient.class);
+        return restClientRegistry.getClient(urlStr, ActionResourceClient.class,
+                PermissionResponseExceptionMapper.class, ActionMessageBodyWriter.class);
     }
 
     /**
@@ -75,12 +68,7 @@ public class ClientServiceUtil {
      * @throws MalformedURLException in case of any url issue
      */
     public ResourceResourceClient getResourceResourceClient(String urlStr) throws MalformedURLException {
-        URL url = new URL(urlStr);
-        return RestClientBuilder.
-                newBuilder()
-                .baseUrl(url)
-                .register(PermissionResponseExceptionMapper.class)
-                .register(ResourceMessageBodyWriter.class)
-                .build(ResourceResourceClient.class);
+        return restClientRegistry.getClient(urlStr, ResourceResourceClient.class,
+                PermissionResponseExceptionMapper.class, ResourceMessageBodyWriter.class);
     }
 }
@@ -958,5 +958,49 @@ public class PermissionRESTServiceClientTest {
         assertEquals(1, outcome.size());
     }
 
+    /**
+     * Test to retrieve the permission version stamp
+     * @throws MalformedURLException in case of malformed permission endpoint url
+     * @throws SystemException in case of token expiration or error in the system
+     */
+    @Test
+    public void testGetVersionStamp() throws MalformedURLException, SystemException {
+        PermissionResourceClient resourceClient = Mockito.mock(PermissionResourceClient.class);
+        when(resourceClient.getVersionStamp()).thenReturn(Response.ok("4").build());
+        when(clientServiceUtil.getPermissionResourceClient(getPermissionManagementUrl())).thenReturn(resourceClient);
+
+        assertEquals(4L, target.getVersionStamp());
+    }
+
+    /**
+     * Test to retrieve the permission version stamp when the resource answers with an error
+     * @throws MalformedURLException in case of malformed permission endpoint url
+     * @throws SystemException in case of token expiration or error in the system
+     */
+    @Test(expected = SystemException.class)
+    public void testGetVersionStampError() throws MalformedURLException, SystemException {
+        PermissionResourceClient resourceClient = Mockito.mock(PermissionResourceClient.class);
+        when(resourceClient.getVersionStamp()).thenReturn(Response.serverError().entity("error").build());
+        when(clientServiceUtil.getPermissionResourceClient(getPermissionManagementUrl())).thenReturn(resourceClient);
+
+        target.getVersionStamp();
+    }
+
+    /**
+     * Test to attempt to retrieve the permission version stamp but with the token expired
+     * @throws MalformedURLException in case of malformed permission endpoint url
+     * @throws SystemException in case of token expiration or error in the system
+     */
+    @Test(expected = SystemException.class)
+    public void testGetVersionStampTokenExpiration() throws MalformedURLException, SystemException {
+        PermissionResourceClient resourceClient = Mockito.mock(PermissionResourceClient.class);
+        when(clientServiceUtil.getPermissionResourceClient(getPermissionManagementUrl())).thenReturn(resourceClient);
+        when(resourceClient.getVersionStamp()).thenThrow(new TokenExpiredException(testValue));
+
+        when(authorizationChecker.getUserClient()).thenReturn(userClient);
+        when(tokensPlaceHolder.getRefreshToken()).thenReturn(testValue);
+        when(userClient.refreshToken(anyString())).thenReturn(Response.ok().entity(testValue).build());
 
-}
\ No newline at end of file
+        target.getVersionStamp();
+    }
+}
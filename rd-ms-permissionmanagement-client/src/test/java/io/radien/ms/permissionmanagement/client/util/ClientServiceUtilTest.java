@@ -15,10 +15,12 @@
  */
 package io.radien.ms.permissionmanagement.client.util;
 
+import io.radien.ms.authz.client.RestClientRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import io.radien.ms.permissionmanagement.client.util.ClientServiceUtil;
 
@@ -28,6 +30,9 @@ import static org.junit.Assert.*;
 
 public class ClientServiceUtilTest {
 
+    @Spy
+    private RestClientRegistry restClientRegistry = new RestClientRegistry();
+
     @InjectMocks
     private ClientServiceUtil clientServiceUtil;
 
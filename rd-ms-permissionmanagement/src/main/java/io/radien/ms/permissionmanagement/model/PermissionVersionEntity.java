@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.permissionmanagement.model;
+
+import java.io.Serializable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Permission version stamp with JPA descriptors.
+ * Single record holding a counter that is increased (on the same transaction) whenever
+ * a permission is created, updated or deleted, so remote caches can check cheaply if their copies are still valid.
+ *
+ * @author Newton Carvalho
+ */
+@Entity
+@Table(name = "PERM_VRS01")
+public class PermissionVersionEntity implements Serializable {
+
+	private static final long serialVersionUID = -3371680259340148826L;
+
+	/**
+	 * Identifier of the (single) version stamp record
+	 */
+	public static final Long STAMP_ID = 1L;
+
+	@Id
+	private Long id;
+
+	@Column(nullable = false)
+	private long stamp;
+
+	/**
+	 * Permission version empty constructor
+	 */
+	public PermissionVersionEntity() { }
+
+	/**
+	 * Permission version constructor
+	 * @param id record identifier
+	 * @param stamp initial version stamp
+	 */
+	public PermissionVersionEntity(Long id, long stamp) {
+		this.id = id;
+		this.stamp = stamp;
+	}
+
+	/**
+	 * Record identifier getter
+	 * @return the record identifier
+	 */
+	public Long getId() {
+		return id;
+	}
+
+	/**
+	 * Record identifier setter
+	 * @param id to be set
+	 */
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	/**
+	 * Version stamp getter
+	 * @return the version stamp
+	 */
+	public long getStamp() {
+		return stamp;
+	}
+
+	/**
+	 * Version stamp setter
+	 * @param stamp to be set
+	 */
+	public void setStamp(long stamp) {
+		this.stamp = stamp;
+	}
+}
@@ -247,4 +247,17 @@ public class PermissionResource implements PermissionResourceClient {
 			return GenericErrorMessagesToResponseMapper.getGenericError(e);
 		}
 	}
+
+	/**
+	 * Gets the permission version stamp, that changes whenever any permission is created, updated or deleted
+	 * @return 200 code message with the version stamp in case of success or 500 in case of any error
+	 */
+	@Override
+	public Response getVersionStamp() {
+		try {
+			return Response.ok(permissionServiceAccess.getVersionStamp()).build();
+		} catch(Exception e) {
+			return GenericErrorMessagesToResponseMapper.getGenericError(e);
+		}
+	}
 }
\ No newline at end of file
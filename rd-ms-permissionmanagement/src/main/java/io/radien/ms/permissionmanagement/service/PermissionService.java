@@ -41,10 +41,12 @@ import io.radien.exception.UniquenessConstraintException;
 
 import io.radien.ms.permissionmanagement.client.entities.PermissionSearchFilter;
 import io.radien.ms.permissionmanagement.model.PermissionEntity;
+import io.radien.ms.permissionmanagement.model.PermissionVersionEntity;
 
 /**
  * Permission DB connection requests
- * All the requests made between the permission entity and the database will be performed in here
+ * All the requests made between the permission entity and the database will be performed in here.
+ * Every change also increases the permission version stamp (see {@link PermissionVersionEntity}).
  *
  * @author Newton Carvalho
  */
@@ -181,6 +183,7 @@ public class PermissionService implements PermissionServiceAccess {
         } else {
             em.merge(permission);
         }
+        increaseVersionStamp(em);
     }
 
     /**
@@ -216,7 +219,9 @@ public class PermissionService implements PermissionServiceAccess {
         Root<PermissionEntity> permissionRoot = criteriaDelete.from(PermissionEntity.class);
 
         criteriaDelete.where(cb.equal(permissionRoot.get("id"),permissionId));
-        em.createQuery(criteriaDelete).executeUpdate();
+        if (em.createQuery(criteriaDelete).executeUpdate() > 0) {
+            increaseVersionStamp(em);
+        }
     }
 
     /**
@@ -234,7 +239,9 @@ public class PermissionService implements PermissionServiceAccess {
         Root<PermissionEntity> permissionRoot = criteriaDelete.from(PermissionEntity.class);
 
         criteriaDelete.where(permissionRoot.get("id").in(permissionIds));
-        em.createQuery(criteriaDelete).executeUpdate();
+        if (em.createQuery(criteriaDelete).executeUpdate() > 0) {
+            increaseVersionStamp(em);
+        }
     }
 
     /**
@@ -416,4 +423,27 @@ public class PermissionService implements PermissionServiceAccess {
         CriteriaBuilder criteriaBuilder = getEntityManager().getCriteriaBuilder();
         return getCount(criteriaBuilder.isTrue(criteriaBuilder.literal(true)), criteriaBuilder.createQuery(Long.class).from(PermissionEntity.class), getEntityManager());
     }
+
+    /**
+     * Gets the permission version stamp, a counter increased on every permission creation, update or deletion
+     * @return the current version stamp (zero if no permission was ever changed)
+     */
+    @Override
+    public long getVersionStamp() {
+        List<Long> stamps = getEntityManager().createQuery("SELECT v.stamp FROM PermissionVersionEntity v " +
+                "WHERE v.id = :id", Long.class).setParameter("id", PermissionVersionEntity.STAMP_ID).getResultList();
+        return stamps.isEmpty() ? 0L : stamps.get(0);
+    }
+
+    /**
+     * Increases the permission version stamp on the current transaction, creating the record on the first change
+     * @param em already created entity manager
+     */
+    private void increaseVersionStamp(EntityManager em) {
+        int updated = em.createQuery("UPDATE PermissionVersionEntity v SET v.stamp = v.stamp + 1 WHERE v.id = :id").
+                setParameter("id", PermissionVersionEntity.STAMP_ID).executeUpdate();
+        if (updated == 0) {
+            em.persist(new PermissionVersionEntity(PermissionVersionEntity.STAMP_ID, 1L));
+        }
+    }
 }
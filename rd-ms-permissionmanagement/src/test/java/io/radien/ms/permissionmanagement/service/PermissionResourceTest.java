@@ -364,4 +364,25 @@ public class PermissionResourceTest {
         Response response = permissionResource.hasPermission("add", "contract");
         assertEquals(Response.Status.INTERNAL_SERVER_ERROR, response.getStatusInfo().toEnum());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the Get version stamp request which will return a success message code 200.
+     */
+    @Test
+    public void testGetVersionStamp() {
+        when(permissionServiceAccess.getVersionStamp()).thenReturn(3L);
+        Response response = permissionResource.getVersionStamp();
+        assertEquals(200,response.getStatus());
+        assertEquals(3L,response.getEntity());
+    }
+
+    /**
+     * Test the Get version stamp request Exception which will return a generic error message code 500.
+     */
+    @Test
+    public void testGetVersionStampGenericException() {
+        when(permissionServiceAccess.getVersionStamp()).thenThrow(new RuntimeException());
+        Response response = permissionResource.getVersionStamp();
+        assertEquals(500,response.getStatus());
+    }
+}
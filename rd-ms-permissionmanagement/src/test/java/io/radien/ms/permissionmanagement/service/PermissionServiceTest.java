@@ -722,4 +722,32 @@ public class PermissionServiceTest {
         assertEquals(p7.getActionId(), a2.getId());
         assertEquals(p7.getResourceId(), r1.getId());
     }
+
+    /**
+     * Test to validate that the version stamp changes on every permission creation, update and deletion
+     * (and only when something was really changed)
+     * @throws UniquenessConstraintException in case of one or multiple fields with incorrect or invalid data
+     */
+    @Test
+    public void testVersionStamp() throws UniquenessConstraintException {
+        long stamp = permissionServiceAccess.getVersionStamp();
+
+        SystemPermission permission = new PermissionEntity();
+        permission.setName("testVersionStamp");
+        permissionServiceAccess.save(permission);
+        long afterCreation = permissionServiceAccess.getVersionStamp();
+        assertTrue(afterCreation > stamp);
+
+        permission.setName("testVersionStampUpdated");
+        permissionServiceAccess.save(permission);
+        long afterUpdate = permissionServiceAccess.getVersionStamp();
+        assertTrue(afterUpdate > afterCreation);
+
+        permissionServiceAccess.delete(permission.getId());
+        long afterDeletion = permissionServiceAccess.getVersionStamp();
+        assertTrue(afterDeletion > afterUpdate);
+
+        permissionServiceAccess.delete(permission.getId());
+        assertEquals(afterDeletion, permissionServiceAccess.getVersionStamp());
+    }
 }
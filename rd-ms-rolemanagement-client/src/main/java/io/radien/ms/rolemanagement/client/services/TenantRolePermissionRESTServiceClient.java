@@ -93,7 +93,11 @@ public class TenantRolePermissionRESTServiceClient extends AuthorizationChecker
             TenantRolePermissionResourceClient client = clientServiceUtil.getTenantRolePermissionResourceClient(oaf.
                     getProperty(OAFProperties.SYSTEM_MS_ENDPOINT_ROLEMANAGEMENT));
             Response response = client.assignPermission((TenantRolePermission) tenantRolePermission);
-            return response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+            boolean success = response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+            if (success) {
+                invalidateDecisions(null, null);
+            }
+            return success;
         }
         catch (ExtensionException | ProcessingException | MalformedURLException e) {
             throw new SystemException(e);
@@ -138,7 +142,11 @@ public class TenantRolePermissionRESTServiceClient extends AuthorizationChecker
             TenantRolePermissionResourceClient client = clientServiceUtil.getTenantRolePermissionResourceClient(oaf.
                     getProperty(OAFProperties.SYSTEM_MS_ENDPOINT_ROLEMANAGEMENT));
             Response response = client.unAssignPermission(tenantId, roleId, permissionId);
-            return response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+            boolean success = response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+            if (success) {
+                invalidateDecisions(tenantId, null);
+            }
+            return success;
         }
         catch (ExtensionException | ProcessingException | MalformedURLException e) {
             throw new SystemException(e);
@@ -235,7 +243,11 @@ public class TenantRolePermissionRESTServiceClient extends AuthorizationChecker
             TenantRolePermissionResourceClient client = clientServiceUtil.getTenantRolePermissionResourceClient(
                     oaf.getProperty(OAFProperties.SYSTEM_MS_ENDPOINT_ROLEMANAGEMENT));
             Response response = client.delete(tenantRolePermissionId);
-            return response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+            boolean success = response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+            if (success) {
+                invalidateDecisions(null, null);
+            }
+            return success;
         }
         catch (ExtensionException | ProcessingException | MalformedURLException e) {
             throw new SystemException(e);
@@ -17,12 +17,14 @@ package io.radien.ms.rolemanagement.client.services;
 
 import io.radien.api.OAFAccess;
 import io.radien.api.OAFProperties;
+import io.radien.api.entity.EffectiveAuthorization;
 import io.radien.api.entity.Page;
 import io.radien.api.model.permission.SystemPermission;
 import io.radien.api.model.role.SystemRole;
 import io.radien.api.model.tenant.SystemTenant;
 import io.radien.api.model.tenantrole.SystemTenantRole;
 import io.radien.api.service.tenantrole.TenantRoleRESTServiceAccess;
+import io.radien.api.util.EffectiveAuthorizationFactory;
 import io.radien.exception.GenericErrorCodeMessage;
 import io.radien.exception.NotFoundException;
 import io.radien.exception.SystemException;
@@ -41,6 +43,8 @@ import java.util.List;
 import java.util.Optional;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
+import javax.json.Json;
+import javax.json.JsonReader;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.core.Response;
 import org.apache.cxf.bus.extension.ExtensionException;
@@ -423,6 +427,53 @@ public class TenantRoleRESTServiceClient extends AuthorizationChecker implements
         }
     }
 
+    /**
+     * Retrieves, in one call, all the Roles and Permissions granted to a User (Optionally for a specific Tenant)
+     * For this, it Invokes the core method counterpart and handles TokenExpiration error
+     * @param userId User identifier
+     * @param tenantId Tenant identifier (Optional)
+     * @return effective authorization containing role ids, role names and permission ids
+     * @throws SystemException in case of any error
+     */
+    @Override
+    public EffectiveAuthorization getEffectiveAuthorization(Long userId, Long tenantId) throws SystemException {
+        try {
+            return getEffectiveAuthorizationCore(userId, tenantId);
+        } catch (TokenExpiredException expiredException) {
+            refreshToken();
+            try{
+                return getEffectiveAuthorizationCore(userId, tenantId);
+            } catch (TokenExpiredException expiredException1){
+                throw new SystemException(GenericErrorCodeMessage.EXPIRED_ACCESS_TOKEN.toString());
+            }
+        }
+    }
+
+    /**
+     * Core method that retrieves all the Roles and Permissions granted to a User (Optionally for a specific Tenant)
+     * @param userId User identifier
+     * @param tenantId Tenant identifier (Optional)
+     * @return effective authorization containing role ids, role names and permission ids
+     * @throws TokenExpiredException if JWT token expires
+     * @throws SystemException in case of any error (also when role management does not answer successfully)
+     */
+    private EffectiveAuthorization getEffectiveAuthorizationCore(Long userId, Long tenantId) throws SystemException {
+        try {
+            TenantRoleResourceClient client = clientServiceUtil.getTenantResourceClient(oaf.
+                    getProperty(OAFProperties.SYSTEM_MS_ENDPOINT_ROLEMANAGEMENT));
+            Response response = client.getEffectiveAuthorization(userId, tenantId);
+            if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                throw new SystemException(response.readEntity(String.class));
+            }
+            try (JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                return EffectiveAuthorizationFactory.convert(jsonReader.readObject());
+            }
+        }
+        catch (ExtensionException | ProcessingException | MalformedURLException e) {
+            throw new SystemException(e);
+        }
+    }
+
     /**
      * Summary: Retrieve TenantRole associations by tenant identifier, role identifier and a
      * junction function
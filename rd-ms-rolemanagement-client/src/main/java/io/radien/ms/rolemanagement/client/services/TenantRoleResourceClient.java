@@ -212,4 +212,17 @@ public interface TenantRoleResourceClient {
                                          @QueryParam("permissionId") Long permissionId,
                                          @QueryParam("tenantId") Long tenantId);
 
-}
\ No newline at end of file
+
+    /**
+     * Retrieves, in one call, all the Roles and Permissions granted to a User (Optionally under a Tenant)
+     * @param userId User identifier
+     * @param tenantId Tenant identifier (Optional)
+     * @return Response OK containing the effective authorization (sorted role ids, role names and permission ids).
+     * Response 404 in case of absence of user identifier.
+     * Response 500 in case of any error
+     */
+    @GET
+    @Path("/effective")
+    Response getEffectiveAuthorization(@QueryParam("userId") Long userId,
+                                       @QueryParam("tenantId") Long tenantId);
+}
@@ -19,6 +19,7 @@ import io.radien.api.OAFAccess;
 import io.radien.api.OAFProperties;
 import io.radien.api.entity.Page;
 import io.radien.api.model.tenantrole.SystemTenantRoleUser;
+import io.radien.api.model.tenantrole.TenantRoleUserAssignmentOutcome;
 import io.radien.api.service.tenantrole.TenantRoleUserRESTServiceAccess;
 import io.radien.api.util.FactoryUtilService;
 import io.radien.exception.GenericErrorCodeMessage;
@@ -32,7 +33,9 @@ import io.radien.ms.rolemanagement.client.util.TenantRoleUserModelMapper;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
@@ -40,6 +43,7 @@ import javax.json.Json;
 import javax.json.JsonNumber;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
+import javax.json.JsonString;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.core.Response;
 import org.apache.cxf.bus.extension.ExtensionException;
@@ -225,7 +229,67 @@ public class TenantRoleUserRESTServiceClient extends AuthorizationChecker implem
             TenantRoleUserResourceClient client = clientServiceUtil.getTenantRoleUserResourceClient(oaf.
                     getProperty(OAFProperties.SYSTEM_MS_ENDPOINT_ROLEMANAGEMENT));
             Response response = client.assignUser((TenantRoleUser) tenantRoleUser);
-            return response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+            boolean success = response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+            if (success) {
+                invalidateDecisions(null, tenantRoleUser.getUserId());
+            }
+            return success;
+        }
+        catch (ExtensionException | ProcessingException | MalformedURLException e) {
+            throw new SystemException(e);
+        }
+    }
+
+    /**
+     * Assign/associate/add user to a set of roles under a Tenant (TenantRole domain) with a single request.
+     * To perform the action above, It will invoke the equivalent core method counterpart, and
+     * will handle Token Expiration error as well
+     * @param tenantId Tenant identifier (Mandatory)
+     * @param roleIds Roles identifiers
+     * @param userId User identifier (Mandatory)
+     * @return the outcome for each informed role
+     * @throws SystemException in case of any error
+     */
+    @Override
+    public Map<Long, TenantRoleUserAssignmentOutcome> assignUser(Long tenantId, Collection<Long> roleIds, Long userId)
+            throws SystemException {
+        try {
+            return assignUserCore(tenantId, roleIds, userId);
+        } catch (TokenExpiredException expiredException) {
+            refreshToken();
+            try{
+                return assignUserCore(tenantId, roleIds, userId);
+            } catch (TokenExpiredException expiredException1){
+                throw new SystemException(GenericErrorCodeMessage.EXPIRED_ACCESS_TOKEN.toString());
+            }
+        }
+    }
+
+    /**
+     * Core method that assigns/associates/adds user to a set of roles under a Tenant (TenantRole domain)
+     * @param tenantId Tenant identifier (Mandatory)
+     * @param roleIds Roles identifiers
+     * @param userId User identifier (Mandatory)
+     * @return the outcome for each informed role
+     * @throws TokenExpiredException in case of JWT expiration
+     * @throws SystemException in case of any error
+     */
+    private Map<Long, TenantRoleUserAssignmentOutcome> assignUserCore(Long tenantId, Collection<Long> roleIds,
+                                                                      Long userId) throws SystemException {
+        try {
+            TenantRoleUserResourceClient client = clientServiceUtil.getTenantRoleUserResourceClient(oaf.
+                    getProperty(OAFProperties.SYSTEM_MS_ENDPOINT_ROLEMANAGEMENT));
+            Response response = client.assignUser(tenantId, roleIds, userId);
+            if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                throw new SystemException(response.readEntity(String.class));
+            }
+            invalidateDecisions(tenantId, userId);
+            Map<Long, TenantRoleUserAssignmentOutcome> outcomes = new LinkedHashMap<>();
+            try (JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                jsonReader.readObject().forEach((roleId, outcome) -> outcomes.put(Long.valueOf(roleId),
+                        TenantRoleUserAssignmentOutcome.valueOf(((JsonString) outcome).getString())));
+            }
+            return outcomes;
         }
         catch (ExtensionException | ProcessingException | MalformedURLException e) {
             throw new SystemException(e);
@@ -270,7 +334,11 @@ public class TenantRoleUserRESTServiceClient extends AuthorizationChecker implem
             TenantRoleUserResourceClient client = clientServiceUtil.getTenantRoleUserResourceClient(oaf.
                     getProperty(OAFProperties.SYSTEM_MS_ENDPOINT_ROLEMANAGEMENT));
             Response response = client.unAssignUser(tenantId, roleIds, userId);
-            return response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+            boolean success = response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+            if (success) {
+                invalidateDecisions(tenantId, userId);
+            }
+            return success;
         }
         catch (ExtensionException | ProcessingException | MalformedURLException e) {
             throw new SystemException(e);
@@ -316,7 +384,11 @@ public class TenantRoleUserRESTServiceClient extends AuthorizationChecker implem
             TenantRoleUserResourceClient client = clientServiceUtil.getTenantRoleUserResourceClient(
                     oaf.getProperty(OAFProperties.SYSTEM_MS_ENDPOINT_ROLEMANAGEMENT));
             Response response = client.delete(tenantRoleUserId);
-            return response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+            boolean success = response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+            if (success) {
+                invalidateDecisions(null, null);
+            }
+            return success;
         }
         catch (ExtensionException | ProcessingException | MalformedURLException e) {
             throw new SystemException(e);
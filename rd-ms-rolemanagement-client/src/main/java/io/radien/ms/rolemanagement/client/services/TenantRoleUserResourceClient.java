@@ -103,6 +103,23 @@ public interface TenantRoleUserResourceClient {
     @Consumes(MediaType.APPLICATION_JSON)
     Response assignUser(TenantRoleUser tenantRoleUser);
 
+    /**
+     * Assign/associate/add user to a set of roles under a Tenant (TenantRole domain), in a single transaction.
+     * Missing Tenant Role associations are created as well
+     * @param tenantId Tenant identifier (Mandatory)
+     * @param roleIds Roles identifiers
+     * @param userId User identifier (Mandatory)
+     * @return Response OK containing a json object that relates each role id to its outcome
+     * (ASSIGNED, ALREADY_ASSIGNED or ROLE_NOT_FOUND).
+     * Response status 400 in case of violations regarding business rules (i.e. tenant not found)
+     * Response 500 in case of any other error (i.e communication issue with REST client services)
+     */
+    @POST
+    @Path("/assign")
+    Response assignUser(@QueryParam("tenantId") Long tenantId,
+                        @QueryParam("roleIds") Collection<Long> roleIds,
+                        @QueryParam("userId") Long userId);
+
     /**
      * (Un)Assign/Dissociate/remove user from a TenantRole domain
      * @param tenantId Tenant identifier (Mandatory)
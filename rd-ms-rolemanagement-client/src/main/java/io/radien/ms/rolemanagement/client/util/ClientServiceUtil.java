@@ -15,6 +15,7 @@
  */
 package io.radien.ms.rolemanagement.client.util;
 
+import io.radien.ms.authz.client.RestClientRegistry;
 import io.radien.ms.rolemanagement.client.exception.RoleResponseExceptionMapper;
 import io.radien.ms.rolemanagement.client.providers.RoleMessageBodyWriter;
 import io.radien.ms.rolemanagement.client.providers.TenantRoleMessageBodyWriter;
@@ -24,11 +25,10 @@ import io.radien.ms.rolemanagement.client.services.RoleResourceClient;
 import io.radien.ms.rolemanagement.client.services.TenantRolePermissionResourceClient;
 import io.radien.ms.rolemanagement.client.services.TenantRoleResourceClient;
 import io.radien.ms.rolemanagement.client.services.TenantRoleUserResourceClient;
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 
 import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
 import java.net.MalformedURLException;
-import java.net.URL;
 
 /**
  * Constructor for communication with the linked authorization and role clients
@@ -38,6 +38,9 @@ import java.net.URL;
 @RequestScoped
 public class ClientServiceUtil {
 
+    @Inject
+    private RestClientRegistry restClientRegistry;
+
     /**
      * Communication requester constructor for the role side
      * @param urlStr role resource client URL
@@ -46,13 +49,8 @@ public class ClientServiceUtil {
      * @throws MalformedURLException in case of error in the given URL or communication cannot be performed
      */
     public RoleResourceClient getRoleResourceClient(String urlStr) throws MalformedURLException {
-        URL url = new URL(urlStr);
-        return RestClientBuilder.
-                newBuilder()
-                .baseUrl(url)
-                .register(RoleResponseExceptionMapper.class)
-                .register(RoleMessageBodyWriter.class)
-                .build(RoleResourceClient.class);
+        return restClientRegistry.getClient(urlStr, RoleResourceClient.class,
+                RoleResponseExceptionMapper.class, RoleMessageBodyWriter.class);
     }
 
     /**
@@ -63,13 +61,8 @@ public class ClientServiceUtil {
      * @throws MalformedURLException in case of error in the given URL or communication cannot be performed
      */
     public TenantRoleResourceClient getTenantResourceClient(String urlStr) throws MalformedURLException {
-        URL url = new URL(urlStr);
-        return RestClientBuilder.
-                newBuilder()
-                .baseUrl(url)
-                .register(RoleResponseExceptionMapper.class)
-                .register(TenantRoleMessageBodyWriter.class)
-                .build(TenantRoleResourceClient.class);
+        return restClientRegistry.getClient(urlStr, TenantRoleResourceClient.class,
+                RoleResponseExceptionMapper.class, TenantRoleMessageBodyWriter.class);
     }
 
     /**
@@ -80,13 +73,8 @@ public class ClientServiceUtil {
      * @throws MalformedURLException in case of error in the given URL or communication cannot be performed
      */
     public TenantRoleUserResourceClient getTenantRoleUserResourceClient(String urlStr) throws MalformedURLException {
-        URL url = new URL(urlStr);
-        return RestClientBuilder.
-                newBuilder()
-                .baseUrl(url)
-                .register(RoleResponseExceptionMapper.class)
-                .register(TenantRoleUserMessageBodyWriter.class)
-                .build(TenantRoleUserResourceClient.class);
+        return restClientRegistry.getClient(urlStr, TenantRoleUserResourceClient.class,
+                RoleResponseExceptionMapper.class, TenantRoleUserMessageBodyWriter.class);
     }
 
     /**
@@ -97,12 +85,7 @@ public class ClientServiceUtil {
      * @throws MalformedURLException in case of error in the given URL or communication cannot be performed
      */
     public TenantRolePermissionResourceClient getTenantRolePermissionResourceClient(String urlStr) throws MalformedURLException {
-        URL url = new URL(urlStr);
-        return RestClientBuilder.
-                newBuilder()
-                .baseUrl(url)
-                .register(RoleResponseExceptionMapper.class)
-                .register(TenantRolePermissionMessageBodyWriter.class)
-                .build(TenantRolePermissionResourceClient.class);
+        return restClientRegistry.getClient(urlStr, TenantRolePermissionResourceClient.class,
+                RoleResponseExceptionMapper.class, TenantRolePermissionMessageBodyWriter.class);
     }
 }
@@ -17,6 +17,7 @@ package io.radien.ms.rolemanagement.client.services;
 
 import io.radien.api.OAFAccess;
 import io.radien.api.OAFProperties;
+import io.radien.api.entity.EffectiveAuthorization;
 import io.radien.api.entity.Page;
 import io.radien.api.model.permission.SystemPermission;
 import io.radien.api.model.role.SystemRole;
@@ -777,4 +778,78 @@ public class TenantRoleRESTServiceClientTest {
         target.getRolesForUserTenant(1L, 1L);
     }
 
+    /**
+     * Test method getEffectiveAuthorization()
+     * Test case - success scenario
+     */
+    @Test
+    public void testGetEffectiveAuthorization() {
+        String json = "{\"userId\": 1, \"tenantId\": 2, \"roleIds\": [5, 3], " +
+                "\"roleNames\": [\"user\", \"admin\"], \"permissionIds\": [20, 10]}";
+        InputStream is = new ByteArrayInputStream(json.getBytes());
+        Response response = Response.ok(is).build();
+        TenantRoleResourceClient client = Mockito.mock(TenantRoleResourceClient.class);
+
+        when(client.getEffectiveAuthorization(1L, 2L)).thenReturn(response);
+        assertDoesNotThrow(() -> when(roleServiceUtil.getTenantResourceClient(getRoleManagementUrl())).
+                thenReturn(client));
+
+        EffectiveAuthorization result = assertDoesNotThrow(() -> target.getEffectiveAuthorization(1L, 2L));
+        assertNotNull(result);
+        assertTrue(result.hasRole("admin"));
+        assertTrue(result.hasRoleId(5L));
+        assertTrue(result.hasPermission(10L));
+        assertFalse(result.hasPermission(30L));
+    }
+
+    /**
+     * Test method getEffectiveAuthorization()
+     * Test case - failure scenario, role management answers with an error status
+     * (the error body must not be parsed as an authorization)
+     */
+    @Test
+    public void testGetEffectiveAuthorizationNotSuccessful() {
+        TenantRoleResourceClient client = Mockito.mock(TenantRoleResourceClient.class);
+        when(client.getEffectiveAuthorization(1L, 2L)).
+                thenReturn(Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("role management error").build());
+        assertDoesNotThrow(() -> when(roleServiceUtil.getTenantResourceClient(getRoleManagementUrl())).
+                thenReturn(client));
+
+        SystemException se = assertThrows(SystemException.class, () -> target.getEffectiveAuthorization(1L, 2L));
+        assertTrue(se.getMessage().contains("role management error"));
+    }
+
+    /**
+     * Test method getEffectiveAuthorization()
+     * Test case - failure scenario of
+     * Token expire
+     * @throws Exception if any error
+     */
+    @Test(expected = SystemException.class)
+    public void testGetEffectiveAuthorizationTokenExpiration() throws Exception {
+        TenantRoleResourceClient client = Mockito.mock(TenantRoleResourceClient.class);
+
+        when(roleServiceUtil.getTenantResourceClient(getRoleManagementUrl())).thenReturn(client);
+        when(authorizationChecker.getUserClient()).thenReturn(userClient);
+        when(tokensPlaceHolder.getRefreshToken()).thenReturn("test");
+        when(userClient.refreshToken(anyString())).thenReturn(Response.ok().entity("test").build());
+        when(client.getEffectiveAuthorization(anyLong(), anyLong())).thenThrow(new TokenExpiredException("test"));
+
+        target.getEffectiveAuthorization(1L, 2L);
+    }
+
+    /**
+     * Test method getEffectiveAuthorization()
+     * Test case - failure scenario
+     * @throws Exception if any error
+     */
+    @Test(expected = SystemException.class)
+    public void testGetEffectiveAuthorizationException() throws Exception {
+        TenantRoleResourceClient client = Mockito.mock(TenantRoleResourceClient.class);
+
+        when(roleServiceUtil.getTenantResourceClient(getRoleManagementUrl())).thenReturn(client);
+        when(client.getEffectiveAuthorization(anyLong(), anyLong())).thenThrow(new ProcessingException("test"));
+
+        target.getEffectiveAuthorization(1L, 2L);
+    }
 }
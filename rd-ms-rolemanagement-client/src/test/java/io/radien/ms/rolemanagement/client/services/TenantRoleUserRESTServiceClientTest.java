@@ -19,6 +19,7 @@ import io.radien.api.OAFAccess;
 import io.radien.api.OAFProperties;
 import io.radien.api.entity.Page;
 import io.radien.api.model.tenantrole.SystemTenantRoleUser;
+import io.radien.api.model.tenantrole.TenantRoleUserAssignmentOutcome;
 import io.radien.api.security.TokensPlaceHolder;
 import io.radien.exception.GenericErrorCodeMessage;
 import io.radien.exception.SystemException;
@@ -32,7 +33,9 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.core.Response;
 import org.junit.Before;
@@ -301,6 +304,54 @@ public class TenantRoleUserRESTServiceClientTest {
         assertFalse(result);
     }
 
+    /**
+     * Test the assignment of a user to a set of roles with a single request
+     * @throws MalformedURLException for url informed incorrectly
+     * @throws SystemException in case of any communication issue
+     */
+    @Test
+    public void testAssignUserToRoles() throws MalformedURLException, SystemException {
+        TenantRoleUserResourceClient client = mock(TenantRoleUserResourceClient.class);
+        Collection<Long> roleIds = Arrays.asList(2L, 3L);
+        InputStream is = new ByteArrayInputStream("{\"2\":\"ASSIGNED\",\"3\":\"ROLE_NOT_FOUND\"}".getBytes());
+        when(client.assignUser(1L, roleIds, 4L)).thenReturn(Response.ok(is).build());
+        when(roleServiceUtil.getTenantRoleUserResourceClient(getRoleManagementUrl())).thenReturn(client);
+
+        Map<Long, TenantRoleUserAssignmentOutcome> outcomes = target.assignUser(1L, roleIds, 4L);
+        assertEquals(2, outcomes.size());
+        assertEquals(TenantRoleUserAssignmentOutcome.ASSIGNED, outcomes.get(2L));
+        assertEquals(TenantRoleUserAssignmentOutcome.ROLE_NOT_FOUND, outcomes.get(3L));
+    }
+
+    /**
+     * Test the assignment of a user to a set of roles with a single request,
+     * but with unsuccessful response, token expired and exception being throw
+     * @throws MalformedURLException for url informed incorrectly
+     * @throws SystemException in case of any communication issue
+     */
+    @Test
+    public void testAssignUserToRolesError() throws MalformedURLException, SystemException {
+        TenantRoleUserResourceClient client = mock(TenantRoleUserResourceClient.class);
+        Collection<Long> roleIds = Collections.singletonList(2L);
+        String msg = "error performing renewing token";
+        when(roleServiceUtil.getTenantRoleUserResourceClient(getRoleManagementUrl())).thenReturn(client);
+        when(client.assignUser(1L, roleIds, 3L)).thenReturn(Response.status(400).entity("invalid").build());
+        when(client.assignUser(2L, roleIds, 3L)).
+                thenThrow(new TokenExpiredException(msg)).
+                thenThrow(new TokenExpiredException(msg));
+        when(client.assignUser(3L, roleIds, 3L)).thenThrow(new ProcessingException("test"));
+
+        when(authorizationChecker.getUserClient()).thenReturn(userClient);
+        when(tokensPlaceHolder.getRefreshToken()).thenReturn("test");
+        when(userClient.refreshToken(anyString())).thenReturn(Response.ok().entity("test").build());
+
+        SystemException se = assertThrows(SystemException.class, () -> target.assignUser(1L, roleIds, 3L));
+        assertEquals("invalid", se.getMessages().get(0));
+        se = assertThrows(SystemException.class, () -> target.assignUser(2L, roleIds, 3L));
+        assertEquals(GenericErrorCodeMessage.EXPIRED_ACCESS_TOKEN.toString(), se.getMessages().get(0));
+        assertThrows(SystemException.class, () -> target.assignUser(3L, roleIds, 3L));
+    }
+
     /**
      * Test the un-assignment of a user to the association
      * @throws MalformedURLException for url informed incorrectly
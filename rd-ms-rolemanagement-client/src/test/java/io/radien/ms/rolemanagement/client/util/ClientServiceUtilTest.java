@@ -15,11 +15,13 @@
  */
 package io.radien.ms.rolemanagement.client.util;
 
+import io.radien.ms.authz.client.RestClientRegistry;
 import junit.framework.TestCase;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.net.MalformedURLException;
 
@@ -28,6 +30,9 @@ import java.net.MalformedURLException;
  */
 public class ClientServiceUtilTest extends TestCase {
 
+    @Spy
+    private RestClientRegistry restClientRegistry = new RestClientRegistry();
+
     @InjectMocks
     private ClientServiceUtil roleServiceUtil;
 
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.entities;
+
+import java.io.Serializable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.TableGenerator;
+import javax.persistence.Version;
+
+/**
+ * Pending Active Tenant change (outbox entry) with JPA descriptors.
+ * Written on the same transaction that changes the Tenant Role User associations and delivered
+ * later to the tenant management service. There is at most one pending entry per tenant and user
+ * (idempotency key), so consecutive changes for the same pair are collapsed into the last one.
+ * Entries that could not be delivered after the maximum number of attempts are kept as dead letters.
+ *
+ * @author Newton Carvalho
+ */
+@Entity
+@Table(name = "ACT_TNT_OUTBOX01", indexes = @Index(name = "IDX_ACT_TNT_OUTBOX01_NEXT", columnList = "status, nextAttempt"))
+public class ActiveTenantOutboxEntity implements Serializable {
+
+	private static final long serialVersionUID = -2840139582117606543L;
+
+	/**
+	 * Change to be applied on the Active Tenant of the user
+	 */
+	public enum Operation {
+		CREATE,
+		DELETE
+	}
+
+	/**
+	 * Delivery state of the entry
+	 */
+	public enum Status {
+		PENDING,
+		DEAD_LETTER
+	}
+
+	@Id
+	@TableGenerator(name = "GEN_SEQ_ACT_TNT_OUTBOX01", allocationSize = 100)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "GEN_SEQ_ACT_TNT_OUTBOX01")
+	private Long id;
+
+	@Version
+	private Long version;
+
+	@Column(unique = true, nullable = false, length = 64)
+	private String idempotencyKey;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private Operation operation;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private Status status = Status.PENDING;
+
+	@Column(nullable = false)
+	private Long tenantId;
+
+	@Column(nullable = false)
+	private Long userId;
+
+	@Column
+	private int attempts;
+
+	@Column(nullable = false)
+	private Long nextAttempt;
+
+	@Column(length = 1024)
+	private String lastError;
+
+	/**
+	 * Composes the idempotency key for a tenant and user pair
+	 * @param tenantId tenant identifier
+	 * @param userId user identifier
+	 * @return the idempotency key
+	 */
+	public static String idempotencyKey(Long tenantId, Long userId) {
+		return tenantId + ":" + userId;
+	}
+
+	/**
+	 * Outbox entry id getter
+	 * @return outbox entry id
+	 */
+	public Long getId() {
+		return id;
+	}
+
+	/**
+	 * Outbox entry id setter
+	 * @param id to be set
+	 */
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	/**
+	 * Outbox entry version getter, changes every time the entry is updated
+	 * @return outbox entry version
+	 */
+	public Long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Outbox entry version setter
+	 * @param version to be set
+	 */
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	/**
+	 * Outbox entry idempotency key getter
+	 * @return outbox entry idempotency key
+	 */
+	public String getIdempotencyKey() {
+		return idempotencyKey;
+	}
+
+	/**
+	 * Outbox entry idempotency key setter
+	 * @param idempotencyKey to be set
+	 */
+	public void setIdempotencyKey(String idempotencyKey) {
+		this.idempotencyKey = idempotencyKey;
+	}
+
+	/**
+	 * Outbox entry operation getter
+	 * @return outbox entry operation
+	 */
+	public Operation getOperation() {
+		return operation;
+	}
+
+	/**
+	 * Outbox entry operation setter
+	 * @param operation to be set
+	 */
+	public void setOperation(Operation operation) {
+		this.operation = operation;
+	}
+
+	/**
+	 * Outbox entry status getter
+	 * @return outbox entry delivery state
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Outbox entry status setter
+	 * @param status to be set
+	 */
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	/**
+	 * Outbox entry tenant id getter
+	 * @return outbox entry tenant id
+	 */
+	public Long getTenantId() {
+		return tenantId;
+	}
+
+	/**
+	 * Outbox entry tenant id setter
+	 * @param tenantId to be set
+	 */
+	public void setTenantId(Long tenantId) {
+		this.tenantId = tenantId;
+	}
+
+	/**
+	 * Outbox entry user id getter
+	 * @return outbox entry user id
+	 */
+	public Long getUserId() {
+		return userId;
+	}
+
+	/**
+	 * Outbox entry user id setter
+	 * @param userId to be set
+	 */
+	public void setUserId(Long userId) {
+		this.userId = userId;
+	}
+
+	/**
+	 * Outbox entry attempts getter
+	 * @return number of failed delivery attempts
+	 */
+	public int getAttempts() {
+		return attempts;
+	}
+
+	/**
+	 * Outbox entry attempts setter
+	 * @param attempts to be set
+	 */
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	/**
+	 * Outbox entry next attempt getter
+	 * @return moment (epoch milliseconds) from which the entry can be delivered
+	 */
+	public Long getNextAttempt() {
+		return nextAttempt;
+	}
+
+	/**
+	 * Outbox entry next attempt setter
+	 * @param nextAttempt to be set
+	 */
+	public void setNextAttempt(Long nextAttempt) {
+		this.nextAttempt = nextAttempt;
+	}
+
+	/**
+	 * Outbox entry last error getter
+	 * @return description of the last delivery failure
+	 */
+	public String getLastError() {
+		return lastError;
+	}
+
+	/**
+	 * Outbox entry last error setter
+	 * @param lastError to be set
+	 */
+	public void setLastError(String lastError) {
+		this.lastError = lastError;
+	}
+}
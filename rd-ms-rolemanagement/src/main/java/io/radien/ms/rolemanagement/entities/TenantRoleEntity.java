@@ -22,6 +22,8 @@ import javax.persistence.Id;
 import javax.persistence.TableGenerator;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 
 /**
@@ -29,9 +31,58 @@ import javax.persistence.Table;
  * @author Newton Carvalho
  */
 @Entity
+@NamedQueries({
+		@NamedQuery(name = TenantRoleEntity.COUNT_BY_TENANT_AND_ROLE, query = "SELECT COUNT(tr) FROM TenantRoleEntity tr " +
+				"WHERE tr.tenantId = :tenantId AND tr.roleId = :roleId"),
+		@NamedQuery(name = TenantRoleEntity.COUNT_BY_TENANT_AND_ROLE_EXCLUDING_ID, query = "SELECT COUNT(tr) FROM TenantRoleEntity tr " +
+				"WHERE tr.tenantId = :tenantId AND tr.roleId = :roleId AND tr.id <> :id"),
+		@NamedQuery(name = TenantRoleEntity.GET_PERMISSION_IDS, query = "SELECT trp.permissionId " +
+				"FROM TenantRoleEntity tr, TenantRolePermissionEntity trp " +
+				"WHERE tr.tenantId = :tenantId AND tr.roleId = :roleId AND tr.id = trp.tenantRoleId"),
+		@NamedQuery(name = TenantRoleEntity.GET_PERMISSION_IDS_FOR_USER, query = "SELECT trp.permissionId " +
+				"FROM TenantRoleEntity tr, TenantRolePermissionEntity trp, TenantRoleUserEntity tru " +
+				"WHERE tr.tenantId = :tenantId AND tr.roleId = :roleId AND tr.id = trp.tenantRoleId " +
+				"AND tr.id = tru.tenantRoleId AND tru.userId = :userId"),
+		@NamedQuery(name = TenantRoleEntity.GET_TENANT_IDS_FOR_USER, query = "SELECT DISTINCT tr.tenantId " +
+				"FROM TenantRoleUserEntity tru, TenantRoleEntity tr " +
+				"WHERE tru.userId = :userId AND tr.id = tru.tenantRoleId"),
+		@NamedQuery(name = TenantRoleEntity.GET_TENANT_IDS_FOR_USER_AND_ROLE, query = "SELECT DISTINCT tr.tenantId " +
+				"FROM TenantRoleEntity tr, TenantRoleUserEntity tru " +
+				"WHERE tr.id = tru.tenantRoleId AND tr.roleId = :roleId AND tru.userId = :userId"),
+		@NamedQuery(name = TenantRoleEntity.GET_ROLE_IDS_FOR_USER_AND_TENANT, query = "SELECT DISTINCT tr.roleId " +
+				"FROM TenantRoleEntity tr, TenantRoleUserEntity tru " +
+				"WHERE tr.id = tru.tenantRoleId AND tr.tenantId = :tenantId AND tru.userId = :userId"),
+		@NamedQuery(name = TenantRoleEntity.COUNT_ROLES_FOR_USER, query = "SELECT COUNT(tr) " +
+				"FROM TenantRoleUserEntity tru, TenantRoleEntity tr, RoleEntity r " +
+				"WHERE tru.userId = :userId AND tr.id = tru.tenantRoleId AND r.id = tr.roleId AND r.name IN :roleNames"),
+		@NamedQuery(name = TenantRoleEntity.COUNT_ROLES_FOR_USER_AND_TENANT, query = "SELECT COUNT(tr) " +
+				"FROM RoleEntity r, TenantRoleEntity tr, TenantRoleUserEntity tru " +
+				"WHERE r.name IN :roleNames AND r.id = tr.roleId AND tr.id = tru.tenantRoleId AND tru.userId = :userId " +
+				"AND tr.tenantId = :tenantId"),
+		@NamedQuery(name = TenantRoleEntity.COUNT_PERMISSION_FOR_USER, query = "SELECT COUNT(tr) " +
+				"FROM TenantRoleUserEntity tru, TenantRoleEntity tr, TenantRolePermissionEntity trp " +
+				"WHERE tru.userId = :userId AND tr.id = tru.tenantRoleId AND tr.id = trp.tenantRoleId " +
+				"AND trp.permissionId = :permissionId"),
+		@NamedQuery(name = TenantRoleEntity.COUNT_PERMISSION_FOR_USER_AND_TENANT, query = "SELECT COUNT(tr) " +
+				"FROM TenantRoleEntity tr, TenantRolePermissionEntity trp, TenantRoleUserEntity tru " +
+				"WHERE tr.id = trp.tenantRoleId AND tr.id = tru.tenantRoleId AND trp.permissionId = :permissionId " +
+				"AND tru.userId = :userId AND tr.tenantId = :tenantId")
+})
 @Table(name = "TNT_ROL01", uniqueConstraints = @UniqueConstraint(columnNames = {"tenantId, roleId"}))
 public class TenantRoleEntity extends io.radien.ms.rolemanagement.client.entities.TenantRole {
 
+	public static final String COUNT_BY_TENANT_AND_ROLE = "TenantRoleEntity.countByTenantAndRole";
+	public static final String COUNT_BY_TENANT_AND_ROLE_EXCLUDING_ID = "TenantRoleEntity.countByTenantAndRoleExcludingId";
+	public static final String GET_PERMISSION_IDS = "TenantRoleEntity.getPermissionIds";
+	public static final String GET_PERMISSION_IDS_FOR_USER = "TenantRoleEntity.getPermissionIdsForUser";
+	public static final String GET_TENANT_IDS_FOR_USER = "TenantRoleEntity.getTenantIdsForUser";
+	public static final String GET_TENANT_IDS_FOR_USER_AND_ROLE = "TenantRoleEntity.getTenantIdsForUserAndRole";
+	public static final String GET_ROLE_IDS_FOR_USER_AND_TENANT = "TenantRoleEntity.getRoleIdsForUserAndTenant";
+	public static final String COUNT_ROLES_FOR_USER = "TenantRoleEntity.countRolesForUser";
+	public static final String COUNT_ROLES_FOR_USER_AND_TENANT = "TenantRoleEntity.countRolesForUserAndTenant";
+	public static final String COUNT_PERMISSION_FOR_USER = "TenantRoleEntity.countPermissionForUser";
+	public static final String COUNT_PERMISSION_FOR_USER_AND_TENANT = "TenantRoleEntity.countPermissionForUserAndTenant";
+
 	/**
 	 * Tenant Role entity empty constructor
 	 */
@@ -22,6 +22,7 @@ import javax.persistence.Id;
 import javax.persistence.TableGenerator;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 
 /**
@@ -29,9 +30,13 @@ import javax.persistence.Table;
  * @author Newton Carvalho
  */
 @Entity
+@NamedQuery(name = TenantRolePermissionEntity.COUNT_BY_PERMISSION_AND_TENANT_ROLE, query = "SELECT COUNT(trp) " +
+		"FROM TenantRolePermissionEntity trp WHERE trp.permissionId = :permissionId AND trp.tenantRoleId = :tenantRoleId")
 @Table(name = "TNT_ROL_PER01", uniqueConstraints = @UniqueConstraint(columnNames = {"tenantRoleId, permissionId"}))
 public class TenantRolePermissionEntity extends io.radien.ms.rolemanagement.client.entities.TenantRolePermission {
 
+	public static final String COUNT_BY_PERMISSION_AND_TENANT_ROLE = "TenantRolePermissionEntity.countByPermissionAndTenantRole";
+
 	/**
 	 * Tenant Role Permission entity empty constructor
 	 */
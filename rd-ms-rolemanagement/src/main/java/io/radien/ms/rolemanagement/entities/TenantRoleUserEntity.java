@@ -22,6 +22,7 @@ import javax.persistence.Id;
 import javax.persistence.TableGenerator;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 
 /**
@@ -29,9 +30,13 @@ import javax.persistence.Table;
  * @author Newton Carvalho
  */
 @Entity
+@NamedQuery(name = TenantRoleUserEntity.COUNT_BY_USER_AND_TENANT_ROLE, query = "SELECT COUNT(tru) " +
+		"FROM TenantRoleUserEntity tru WHERE tru.userId = :userId AND tru.tenantRoleId = :tenantRoleId")
 @Table(name = "TNT_ROL_USR01", uniqueConstraints = @UniqueConstraint(columnNames = {"tenantRoleId, userId"}))
 public class TenantRoleUserEntity extends io.radien.ms.rolemanagement.client.entities.TenantRoleUser {
 
+	public static final String COUNT_BY_USER_AND_TENANT_ROLE = "TenantRoleUserEntity.countByUserAndTenantRole";
+
 	/**
 	 * Tenant Role User entity empty constructor
 	 */
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.security;
+
+import io.radien.exception.SystemException;
+import io.radien.ms.authz.client.RestClientRegistry;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.HttpHeaders;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+
+/**
+ * Registry that keeps the MicroProfile Rest Client proxies used by the background tasks.
+ * Unlike the ones kept by {@link RestClientRegistry}, which carry the token of the user session,
+ * every request sent by these clients is authenticated with the service account token
+ * ({@link ServiceAccountTokenProvider}), so they work without any request or session context.
+ *
+ * @author Newton Carvalho
+ */
+@ApplicationScoped
+public class ServiceAccountRestClientRegistry {
+
+    private static final long DEFAULT_CONNECT_TIMEOUT_IN_MILLIS = 5000;
+    private static final long DEFAULT_READ_TIMEOUT_IN_MILLIS = 30000;
+
+    private long connectTimeoutInMillis = DEFAULT_CONNECT_TIMEOUT_IN_MILLIS;
+    private long readTimeoutInMillis = DEFAULT_READ_TIMEOUT_IN_MILLIS;
+
+    private final Map<String, Object> clients = new ConcurrentHashMap<>();
+
+    @Inject
+    private ServiceAccountTokenProvider serviceAccountTokenProvider;
+
+    /**
+     * Loads the client timeouts (in milliseconds), shared with the {@link RestClientRegistry}, from the configuration
+     */
+    @PostConstruct
+    public void init() {
+        Config config = ConfigProvider.getConfig();
+        this.connectTimeoutInMillis = config.getOptionalValue(RestClientRegistry.CONNECT_TIMEOUT, Long.class).
+                orElse(DEFAULT_CONNECT_TIMEOUT_IN_MILLIS);
+        this.readTimeoutInMillis = config.getOptionalValue(RestClientRegistry.READ_TIMEOUT, Long.class).
+                orElse(DEFAULT_READ_TIMEOUT_IN_MILLIS);
+    }
+
+    /**
+     * Retrieves the client for the given endpoint and interface, building it on the first request
+     * @param urlStr url of rest endpoint
+     * @param clientClass rest client interface
+     * @param providers providers (exception mappers, message body writers, etc) to be registered
+     * @param <T> rest client type
+     * @return the shared rest client
+     * @throws MalformedURLException in case of any url issue
+     */
+    public <T> T getClient(String urlStr, Class<T> clientClass, Class<?>... providers) throws MalformedURLException {
+        URL url = new URL(urlStr);
+        Object client = clients.computeIfAbsent(urlStr + '|' + clientClass.getName(),
+                k -> build(url, clientClass, providers));
+        return clientClass.cast(client);
+    }
+
+    /**
+     * Discards the current service account token, so a new one is requested on the next request
+     */
+    public void invalidateToken() {
+        serviceAccountTokenProvider.invalidate();
+    }
+
+    /**
+     * Builds a rest client with the configured timeouts, the informed providers and the service account authentication
+     * @param url url of rest endpoint
+     * @param clientClass rest client interface
+     * @param providers providers to be registered
+     * @return the built rest client
+     */
+    private Object build(URL url, Class<?> clientClass, Class<?>... providers) {
+        RestClientBuilder builder = RestClientBuilder.
+                newBuilder()
+                .baseUrl(url)
+                .connectTimeout(connectTimeoutInMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutInMillis, TimeUnit.MILLISECONDS)
+                .register(new ServiceAccountAuthenticationFilter(serviceAccountTokenProvider));
+        for (Class<?> provider : providers) {
+            builder.register(provider);
+        }
+        return builder.build(clientClass);
+    }
+
+    /**
+     * Request filter that authenticates the requests with the service account token. Filters run after
+     * the client headers factories, so this token replaces any other one
+     */
+    static class ServiceAccountAuthenticationFilter implements ClientRequestFilter {
+
+        private final ServiceAccountTokenProvider serviceAccountTokenProvider;
+
+        /**
+         * Filter constructor
+         * @param serviceAccountTokenProvider provider of the service account token
+         */
+        ServiceAccountAuthenticationFilter(ServiceAccountTokenProvider serviceAccountTokenProvider) {
+            this.serviceAccountTokenProvider = serviceAccountTokenProvider;
+        }
+
+        /**
+         * Sets the service account token as bearer authorization of the request
+         * @param requestContext request context
+         */
+        @Override
+        public void filter(ClientRequestContext requestContext) {
+            try {
+                requestContext.getHeaders().putSingle(HttpHeaders.AUTHORIZATION,
+                        "Bearer " + serviceAccountTokenProvider.getAccessToken());
+            } catch (SystemException e) {
+                throw new ProcessingException(e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.security;
+
+import io.radien.exception.SystemException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.json.JsonObject;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides the access token of the service account (OAuth2 client credentials grant) used by the
+ * background tasks, which have no user session (and therefore no user token) to rely on.
+ * The token is requested on demand and kept until shortly before its expiration.
+ *
+ * @author Newton Carvalho
+ */
+@ApplicationScoped
+public class ServiceAccountTokenProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceAccountTokenProvider.class);
+
+    public static final String ACCESS_TOKEN_URI = "auth.accessTokenUri";
+    public static final String CLIENT_ID = "auth.clientId";
+    public static final String CLIENT_SECRET = "auth.clientSecret";
+
+    private static final long EXPIRATION_MARGIN_IN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private String accessTokenUri;
+    private String clientId;
+    private String clientSecret;
+
+    private String accessToken;
+    private long expiration;
+
+    /**
+     * Loads the token endpoint and the client credentials from the configuration
+     */
+    @PostConstruct
+    public void init() {
+        Config config = ConfigProvider.getConfig();
+        this.accessTokenUri = config.getOptionalValue(ACCESS_TOKEN_URI, String.class).orElse(null);
+        this.clientId = config.getOptionalValue(CLIENT_ID, String.class).orElse(null);
+        this.clientSecret = config.getOptionalValue(CLIENT_SECRET, String.class).orElse(null);
+    }
+
+    /**
+     * Retrieves the service account access token, requesting a new one if there is none or if it is about to expire
+     * @return the service account access token
+     * @throws SystemException in case the token could not be obtained
+     */
+    public synchronized String getAccessToken() throws SystemException {
+        long now = System.currentTimeMillis();
+        if (accessToken == null || now >= expiration) {
+            JsonObject tokenResponse = requestToken();
+            if (!tokenResponse.containsKey("access_token")) {
+                throw new SystemException("Service account access token not granted: " + tokenResponse);
+            }
+            accessToken = tokenResponse.getString("access_token");
+            long expiresIn = TimeUnit.SECONDS.toMillis(tokenResponse.getInt("expires_in", 0));
+            expiration = now + Math.max(0, expiresIn - EXPIRATION_MARGIN_IN_MILLIS);
+            log.debug("Service account access token obtained, valid for {} ms", expiresIn);
+        }
+        return accessToken;
+    }
+
+    /**
+     * Discards the current token (rejected by a service, for instance), so a new one is requested on the next access
+     */
+    public synchronized void invalidate() {
+        accessToken = null;
+    }
+
+    /**
+     * Requests a new access token to the authorization server using the client credentials grant
+     * @return the token response
+     * @throws SystemException in case the service account is not configured or the request fails
+     */
+    protected JsonObject requestToken() throws SystemException {
+        if (accessTokenUri == null || clientId == null || clientSecret == null) {
+            throw new SystemException("Service account not configured (" + ACCESS_TOKEN_URI + ", " +
+                    CLIENT_ID + ", " + CLIENT_SECRET + ")");
+        }
+        Form form = new Form();
+        form.param("grant_type", "client_credentials");
+        String credentials = Base64.getEncoder().encodeToString((clientId + ":" + clientSecret).
+                getBytes(StandardCharsets.UTF_8));
+        Client client = ClientBuilder.newClient();
+        try {
+            return client.target(accessTokenUri).request(MediaType.APPLICATION_JSON_TYPE)
+                    .header(HttpHeaders.AUTHORIZATION, "Basic " + credentials)
+                    .post(Entity.entity(form, MediaType.APPLICATION_FORM_URLENCODED_TYPE), JsonObject.class);
+        } catch (ProcessingException | WebApplicationException e) {
+            throw new SystemException(e);
+        } finally {
+            client.close();
+        }
+    }
+}
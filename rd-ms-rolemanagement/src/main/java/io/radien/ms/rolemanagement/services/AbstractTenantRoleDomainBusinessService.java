@@ -17,6 +17,7 @@ package io.radien.ms.rolemanagement.services;
 
 import io.radien.api.SystemVariables;
 import io.radien.api.model.tenant.SystemTenant;
+import io.radien.api.security.AuthorizationChangeEvent;
 import io.radien.api.service.permission.PermissionRESTServiceAccess;
 import io.radien.api.service.role.RoleServiceAccess;
 import io.radien.api.service.tenant.TenantRESTServiceAccess;
@@ -29,6 +30,7 @@ import io.radien.exception.TenantRoleIllegalArgumentException;
 import io.radien.exception.TenantRoleNotFoundException;
 import io.radien.ms.tenantmanagement.client.exceptions.InternalServerErrorException;
 import java.util.Optional;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 import static io.radien.exception.GenericErrorCodeMessage.TENANT_ROLE_ASSOCIATION_TENANT_ROLE;
@@ -51,6 +53,9 @@ public abstract class AbstractTenantRoleDomainBusinessService {
     @Inject
     private RoleServiceAccess roleServiceAccess;
 
+    @Inject
+    private Event<AuthorizationChangeEvent> authorizationChangeEvent;
+
     /**
      * Utility method to retrieve tenant and reduce cognitive complexity
      * @param tenantId tenant identifier
@@ -134,6 +139,16 @@ public abstract class AbstractTenantRoleDomainBusinessService {
         }
     }
 
+    /**
+     * Notifies (the interested observers, like authorization decision caches) that an association
+     * involved on authorization decisions has changed
+     * @param tenantId affected tenant identifier (Optional, null means every tenant)
+     * @param userId affected user identifier (Optional, null means every user)
+     */
+    protected void notifyAuthorizationChange(Long tenantId, Long userId) {
+        authorizationChangeEvent.fire(new AuthorizationChangeEvent(tenantId, userId));
+    }
+
     /**
      * Getter for the property {@link TenantRoleBusinessService#tenantRESTServiceAccess}
      * @return tenantRESTServiceAccess instance of TenantRESTServiceAccess
@@ -197,4 +212,20 @@ public abstract class AbstractTenantRoleDomainBusinessService {
     public void setTenantRoleServiceAccess(TenantRoleServiceAccess tenantRoleServiceAccess) {
         this.tenantRoleServiceAccess = tenantRoleServiceAccess;
     }
+
+    /**
+     * Getter for the property {@link AbstractTenantRoleDomainBusinessService#authorizationChangeEvent}
+     * @return instance of the authorization change event
+     */
+    public Event<AuthorizationChangeEvent> getAuthorizationChangeEvent() {
+        return authorizationChangeEvent;
+    }
+
+    /**
+     * Setter for the property {@link AbstractTenantRoleDomainBusinessService#authorizationChangeEvent}
+     * @param authorizationChangeEvent instance of the authorization change event
+     */
+    public void setAuthorizationChangeEvent(Event<AuthorizationChangeEvent> authorizationChangeEvent) {
+        this.authorizationChangeEvent = authorizationChangeEvent;
+    }
 }
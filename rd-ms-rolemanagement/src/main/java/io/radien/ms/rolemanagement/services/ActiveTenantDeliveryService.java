@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.services;
+
+import io.radien.api.OAFProperties;
+import io.radien.exception.GenericErrorCodeMessage;
+import io.radien.exception.NotFoundException;
+import io.radien.exception.SystemException;
+import io.radien.exception.TokenExpiredException;
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity;
+import io.radien.ms.rolemanagement.security.ServiceAccountRestClientRegistry;
+import io.radien.ms.tenantmanagement.client.TenantResponseExceptionMapper;
+import io.radien.ms.tenantmanagement.client.entities.Tenant;
+import io.radien.ms.tenantmanagement.client.providers.ActiveTenantMessageBodyWriter;
+import io.radien.ms.tenantmanagement.client.providers.TenantMessageBodyWriter;
+import io.radien.ms.tenantmanagement.client.services.ActiveTenantFactory;
+import io.radien.ms.tenantmanagement.client.services.ActiveTenantResourceClient;
+import io.radien.ms.tenantmanagement.client.services.TenantResourceClient;
+import io.radien.ms.tenantmanagement.client.util.TenantModelMapper;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.text.ParseException;
+import java.util.Optional;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Response;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers the Active Tenant changes registered on the outbox to the tenant management service.
+ * Deliveries are idempotent: creation only happens if the Active Tenant does not exist yet, and
+ * removing an Active Tenant that was already removed is harmless.
+ * Deliveries run on the background (no request or user session), so the tenant management service
+ * is called with the service account token ({@link ServiceAccountRestClientRegistry}).
+ *
+ * @author Newton Carvalho
+ */
+@Stateless
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class ActiveTenantDeliveryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveTenantDeliveryService.class);
+
+    @Inject
+    private ServiceAccountRestClientRegistry serviceAccountRestClientRegistry;
+
+    /**
+     * Applies the change described by the entry on the tenant management service. If the service account
+     * token is rejected, a new one is requested and the delivery is retried once
+     * @param entry to be delivered
+     * @return true if the change was applied (or was not necessary anymore)
+     * @throws SystemException in case of any communication issue with the tenant management service
+     */
+    public boolean deliver(ActiveTenantOutboxEntity entry) throws SystemException {
+        try {
+            return deliverChange(entry);
+        } catch (TokenExpiredException expiredException) {
+            serviceAccountRestClientRegistry.invalidateToken();
+            try {
+                return deliverChange(entry);
+            } catch (TokenExpiredException expiredException1) {
+                throw new SystemException(GenericErrorCodeMessage.EXPIRED_ACCESS_TOKEN.toString());
+            }
+        }
+    }
+
+    /**
+     * Applies the change described by the entry on the tenant management service
+     * @param entry to be delivered
+     * @return true if the change was applied (or was not necessary anymore)
+     * @throws SystemException in case of any communication issue with the tenant management service
+     */
+    private boolean deliverChange(ActiveTenantOutboxEntity entry) throws SystemException {
+        Long tenantId = entry.getTenantId();
+        Long userId = entry.getUserId();
+        ActiveTenantResourceClient client = getClient(ActiveTenantResourceClient.class,
+                ActiveTenantMessageBodyWriter.class);
+        try {
+            if (entry.getOperation() == ActiveTenantOutboxEntity.Operation.DELETE) {
+                try (Response response = client.delete(tenantId, userId)) {
+                    if (!isSuccessful(response)) {
+                        log.warn("Active tenant removal for tenant {} and user {} not accepted (status {})",
+                                tenantId, userId, response.getStatus());
+                        return false;
+                    }
+                    if (!response.readEntity(Boolean.class)) {
+                        log.info("No active tenant removed for tenant {} and user {}", tenantId, userId);
+                    }
+                } catch (NotFoundException n) {
+                    log.info("No active tenant found for tenant {} and user {}", tenantId, userId);
+                }
+                return true;
+            }
+            try (Response response = client.exists(userId, tenantId)) {
+                if (isSuccessful(response) && response.readEntity(Boolean.class)) {
+                    return true;
+                }
+            }
+            Optional<Tenant> tenant = getTenant(tenantId);
+            if (!tenant.isPresent()) {
+                log.warn("Tenant {} not found, active tenant for user {} discarded", tenantId, userId);
+                return true;
+            }
+            try (Response response = client.create(ActiveTenantFactory.create(userId, tenantId,
+                    tenant.get().getName(), false))) {
+                return isSuccessful(response);
+            }
+        } catch (ProcessingException e) {
+            throw new SystemException(e);
+        }
+    }
+
+    /**
+     * Retrieves a tenant from the tenant management service
+     * @param tenantId tenant identifier
+     * @return the tenant, or empty if it does not exist
+     * @throws SystemException in case the tenant could not be retrieved
+     */
+    private Optional<Tenant> getTenant(Long tenantId) throws SystemException {
+        TenantResourceClient client = getClient(TenantResourceClient.class, TenantMessageBodyWriter.class);
+        try (Response response = client.getById(tenantId)) {
+            if (!isSuccessful(response)) {
+                throw new SystemException(response.readEntity(String.class));
+            }
+            return Optional.of(TenantModelMapper.map(response.readEntity(InputStream.class)));
+        } catch (NotFoundException n) {
+            return Optional.empty();
+        } catch (ParseException e) {
+            throw new SystemException(e);
+        }
+    }
+
+    /**
+     * Retrieves a tenant management client authenticated with the service account
+     * @param clientClass rest client interface
+     * @param provider message body writer to be registered
+     * @param <T> rest client type
+     * @return the rest client
+     * @throws SystemException in case the tenant management endpoint is malformed
+     */
+    private <T> T getClient(Class<T> clientClass, Class<?> provider) throws SystemException {
+        String url = ConfigProvider.getConfig().getValue(OAFProperties.SYSTEM_MS_ENDPOINT_TENANTMANAGEMENT.propKey(),
+                String.class);
+        try {
+            return serviceAccountRestClientRegistry.getClient(url, clientClass,
+                    TenantResponseExceptionMapper.class, provider);
+        } catch (MalformedURLException e) {
+            throw new SystemException(e);
+        }
+    }
+
+    /**
+     * Checks if the response has a successful status
+     * @param response to be checked
+     * @return true for the 2xx status
+     */
+    private boolean isSuccessful(Response response) {
+        return response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+    }
+
+    /**
+     * Setter for the property {@link ActiveTenantDeliveryService#serviceAccountRestClientRegistry}
+     * @param serviceAccountRestClientRegistry instance of ServiceAccountRestClientRegistry to be set
+     */
+    public void setServiceAccountRestClientRegistry(ServiceAccountRestClientRegistry serviceAccountRestClientRegistry) {
+        this.serviceAccountRestClientRegistry = serviceAccountRestClientRegistry;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.services;
+
+import io.radien.exception.SystemException;
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Background dispatcher that delivers the Active Tenant changes registered on the outbox
+ * ({@link ActiveTenantOutboxService}) to the tenant management service, in batches.
+ * Failed deliveries are retried with an exponential backoff, up to a maximum number of attempts, after which
+ * the entry is kept as a dead letter (see {@link ActiveTenantOutboxService#deadLetter}). Deliveries are idempotent
+ * (see {@link ActiveTenantDeliveryService}), so an entry delivered twice does not cause any harm.
+ *
+ * @author Newton Carvalho
+ */
+@Singleton
+@Startup
+public class ActiveTenantOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveTenantOutboxDispatcher.class);
+
+    public static final String DISPATCH_INTERVAL = "outbox.dispatch.interval";
+    public static final String DISPATCH_BATCH_SIZE = "outbox.dispatch.batchSize";
+    public static final String DISPATCH_MAX_ATTEMPTS = "outbox.dispatch.maxAttempts";
+
+    private static final long DEFAULT_INTERVAL_IN_MILLIS = 5000;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_MAX_ATTEMPTS = 10;
+    private static final long MAX_RETRY_DELAY_IN_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private long interval = DEFAULT_INTERVAL_IN_MILLIS;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    @Resource
+    private TimerService timerService;
+
+    @EJB
+    private ActiveTenantOutboxService activeTenantOutboxService;
+
+    @EJB
+    private ActiveTenantDeliveryService activeTenantDeliveryService;
+
+    /**
+     * Loads the dispatcher settings (interval in milliseconds, batch size and maximum delivery attempts) from the configuration
+     * and schedules the (non persistent) dispatch timer. An interval lower or equal to zero disables the dispatcher
+     */
+    @PostConstruct
+    public void init() {
+        Config config = ConfigProvider.getConfig();
+        this.interval = config.getOptionalValue(DISPATCH_INTERVAL, Long.class).orElse(DEFAULT_INTERVAL_IN_MILLIS);
+        this.batchSize = config.getOptionalValue(DISPATCH_BATCH_SIZE, Integer.class).orElse(DEFAULT_BATCH_SIZE);
+        this.maxAttempts = config.getOptionalValue(DISPATCH_MAX_ATTEMPTS, Integer.class).orElse(DEFAULT_MAX_ATTEMPTS);
+        if (interval <= 0) {
+            log.warn("Active tenant outbox dispatcher disabled");
+            return;
+        }
+        timerService.createIntervalTimer(interval, interval, new TimerConfig(null, false));
+        log.info("Active tenant outbox dispatcher interval: {} ms, batch size: {}, max attempts: {}",
+                interval, batchSize, maxAttempts);
+    }
+
+    /**
+     * Delivers the pending entries, batch by batch, until there is nothing else ready to be delivered.
+     * Runs outside of a transaction, each outbox access runs on its own
+     * @return number of delivered entries
+     */
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public int dispatch() {
+        int delivered = 0;
+        List<ActiveTenantOutboxEntity> entries;
+        do {
+            entries = activeTenantOutboxService.getDue(batchSize);
+            for (ActiveTenantOutboxEntity entry : entries) {
+                if (dispatch(entry)) {
+                    delivered++;
+                }
+            }
+        } while (entries.size() == batchSize);
+        if (delivered > 0) {
+            log.info("{} active tenant changes delivered", delivered);
+        }
+        return delivered;
+    }
+
+    /**
+     * Delivers one entry, removing it from the outbox in case of success or postponing it otherwise.
+     * Once the maximum number of attempts is reached, the entry is moved to the dead letters
+     * @param entry to be delivered
+     * @return true if delivered
+     */
+    protected boolean dispatch(ActiveTenantOutboxEntity entry) {
+        String error;
+        try {
+            if (activeTenantDeliveryService.deliver(entry)) {
+                activeTenantOutboxService.remove(entry);
+                return true;
+            }
+            error = "Active tenant " + entry.getOperation() + " not accepted";
+        } catch (SystemException | RuntimeException e) {
+            error = e.getMessage();
+        }
+        int attempts = entry.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            log.error("Active tenant {} for tenant {} and user {} failed (attempt {}), moved to dead letters: {}",
+                    entry.getOperation(), entry.getTenantId(), entry.getUserId(), attempts, error);
+            activeTenantOutboxService.deadLetter(entry, error);
+            return false;
+        }
+        long delay = Math.min(MAX_RETRY_DELAY_IN_MILLIS, interval << Math.min(entry.getAttempts(), 16));
+        log.warn("Active tenant {} for tenant {} and user {} failed (attempt {}), retrying in {} ms: {}",
+                entry.getOperation(), entry.getTenantId(), entry.getUserId(), attempts, delay, error);
+        activeTenantOutboxService.reschedule(entry, System.currentTimeMillis() + delay, error);
+        return false;
+    }
+
+    /**
+     * Setter for the property {@link ActiveTenantOutboxDispatcher#activeTenantOutboxService}
+     * @param activeTenantOutboxService instance of ActiveTenantOutboxService to be set
+     */
+    public void setActiveTenantOutboxService(ActiveTenantOutboxService activeTenantOutboxService) {
+        this.activeTenantOutboxService = activeTenantOutboxService;
+    }
+
+    /**
+     * Setter for the property {@link ActiveTenantOutboxDispatcher#activeTenantDeliveryService}
+     * @param activeTenantDeliveryService instance of ActiveTenantDeliveryService to be set
+     */
+    public void setActiveTenantDeliveryService(ActiveTenantDeliveryService activeTenantDeliveryService) {
+        this.activeTenantDeliveryService = activeTenantDeliveryService;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.services;
+
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity;
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity.Operation;
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity.Status;
+import java.util.List;
+import javax.ejb.Stateless;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Repository for the Active Tenant outbox. Entries are written on the same transaction that changes
+ * the Tenant Role User associations, and consumed by the {@link ActiveTenantOutboxDispatcher}.
+ * Removal and rescheduling are conditioned by the entry version, so an entry changed after being read
+ * by the dispatcher is never lost. Entries that exhausted their delivery attempts are kept as dead letters,
+ * out of the dispatcher reach, until a new change for the same tenant and user is registered.
+ *
+ * @author Newton Carvalho
+ */
+@Stateless
+public class ActiveTenantOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveTenantOutboxService.class);
+
+    private static final int LAST_ERROR_MAX_LENGTH = 1024;
+
+    @PersistenceContext(unitName = "persistenceUnit")
+    private EntityManager entityManager;
+
+    /**
+     * Registers an Active Tenant change for a tenant and user. If there is already a pending change for
+     * the same pair (pending or dead letter), it is replaced (only the last change matters) and becomes
+     * immediately deliverable
+     * @param operation change to be applied
+     * @param tenantId tenant identifier
+     * @param userId user identifier
+     */
+    public void enqueue(Operation operation, Long tenantId, Long userId) {
+        String key = ActiveTenantOutboxEntity.idempotencyKey(tenantId, userId);
+        List<ActiveTenantOutboxEntity> pending = entityManager.createQuery("SELECT o FROM ActiveTenantOutboxEntity o " +
+                "WHERE o.idempotencyKey = :key", ActiveTenantOutboxEntity.class).setParameter("key", key).getResultList();
+        ActiveTenantOutboxEntity entry = pending.isEmpty() ? new ActiveTenantOutboxEntity() : pending.get(0);
+        entry.setIdempotencyKey(key);
+        entry.setOperation(operation);
+        entry.setStatus(Status.PENDING);
+        entry.setTenantId(tenantId);
+        entry.setUserId(userId);
+        entry.setAttempts(0);
+        entry.setNextAttempt(System.currentTimeMillis());
+        entry.setLastError(null);
+        if (entry.getId() == null) {
+            entityManager.persist(entry);
+        }
+        log.info("Active tenant {} registered for tenant {} and user {}", operation, tenantId, userId);
+    }
+
+    /**
+     * Retrieves the pending entries that are ready to be delivered, oldest first
+     * @param maxResults maximum number of entries to be retrieved
+     * @return list of entries ready to be delivered
+     */
+    public List<ActiveTenantOutboxEntity> getDue(int maxResults) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ActiveTenantOutboxEntity> criteriaQuery = criteriaBuilder.createQuery(ActiveTenantOutboxEntity.class);
+        Root<ActiveTenantOutboxEntity> root = criteriaQuery.from(ActiveTenantOutboxEntity.class);
+        criteriaQuery.select(root).
+                where(criteriaBuilder.equal(root.get("status"), Status.PENDING),
+                        criteriaBuilder.le(root.get("nextAttempt"), System.currentTimeMillis())).
+                orderBy(criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(criteriaQuery).setMaxResults(maxResults).getResultList();
+    }
+
+    /**
+     * Removes a delivered entry, as long as it was not changed in the meantime
+     * @param entry delivered entry
+     * @return true if removed, false if the entry was changed (or removed) after being retrieved
+     */
+    public boolean remove(ActiveTenantOutboxEntity entry) {
+        return entityManager.createQuery("DELETE FROM ActiveTenantOutboxEntity o " +
+                "WHERE o.id = :id AND o.version = :version").
+                setParameter("id", entry.getId()).
+                setParameter("version", entry.getVersion()).
+                executeUpdate() > 0;
+    }
+
+    /**
+     * Registers a failed delivery attempt and postpones the entry, as long as it was not
+     * changed in the meantime
+     * @param entry entry that could not be delivered
+     * @param nextAttempt moment (epoch milliseconds) of the next delivery attempt
+     * @param error description of the failure
+     * @return true if rescheduled, false if the entry was changed (or removed) after being retrieved
+     */
+    public boolean reschedule(ActiveTenantOutboxEntity entry, long nextAttempt, String error) {
+        return registerFailure(entry, nextAttempt, Status.PENDING, error);
+    }
+
+    /**
+     * Registers the last failed delivery attempt and moves the entry to the dead letters, as long as it was not
+     * changed in the meantime. Dead letters are not delivered anymore
+     * @param entry entry that could not be delivered
+     * @param error description of the failure
+     * @return true if moved, false if the entry was changed (or removed) after being retrieved
+     */
+    public boolean deadLetter(ActiveTenantOutboxEntity entry, String error) {
+        return registerFailure(entry, entry.getNextAttempt(), Status.DEAD_LETTER, error);
+    }
+
+    /**
+     * Registers a failed delivery attempt, as long as the entry was not changed in the meantime
+     * @param entry entry that could not be delivered
+     * @param nextAttempt moment (epoch milliseconds) of the next delivery attempt
+     * @param status delivery state of the entry after the failure
+     * @param error description of the failure
+     * @return true if updated, false if the entry was changed (or removed) after being retrieved
+     */
+    private boolean registerFailure(ActiveTenantOutboxEntity entry, long nextAttempt, Status status, String error) {
+        String lastError = error != null && error.length() > LAST_ERROR_MAX_LENGTH ?
+                error.substring(0, LAST_ERROR_MAX_LENGTH) : error;
+        // Bulk update (instead of merge) so the version check and the increment happen on a single statement
+        return entityManager.createQuery("UPDATE ActiveTenantOutboxEntity o " +
+                "SET o.attempts = o.attempts + 1, o.nextAttempt = :nextAttempt, o.lastError = :lastError, " +
+                "o.status = :status, o.version = o.version + 1 WHERE o.id = :id AND o.version = :version").
+                setParameter("nextAttempt", nextAttempt).
+                setParameter("lastError", lastError).
+                setParameter("status", status).
+                setParameter("id", entry.getId()).
+                setParameter("version", entry.getVersion()).
+                executeUpdate() > 0;
+    }
+
+    /**
+     * Count the entries waiting to be delivered
+     * @return number of pending entries
+     */
+    public long getPendingCount() {
+        return count(Status.PENDING);
+    }
+
+    /**
+     * Count the entries that exhausted their delivery attempts
+     * @return number of dead letters
+     */
+    public long getDeadLetterCount() {
+        return count(Status.DEAD_LETTER);
+    }
+
+    /**
+     * Count the entries on a given delivery state
+     * @param status delivery state
+     * @return number of entries
+     */
+    private long count(Status status) {
+        return entityManager.createQuery("SELECT COUNT(o) FROM ActiveTenantOutboxEntity o WHERE o.status = :status",
+                Long.class).setParameter("status", status).getSingleResult();
+    }
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.services;
+
+import io.radien.api.Model;
+import io.radien.api.model.permission.SystemPermission;
+import io.radien.api.model.tenant.SystemTenant;
+import io.radien.api.util.BoundedCache;
+import io.radien.api.util.CacheStatistics;
+import io.radien.api.util.NearCache;
+import io.radien.exception.SystemException;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near cache for the reference entities (tenants and permissions) owned by other services,
+ * used to hydrate the identifiers stored on the tenant role associations.
+ * Each kind of entity is kept on its own bounded region (least recently used entries are removed first)
+ * with its own time to live. Once an entry expires, the version stamp of the owner service is checked:
+ * if it did not change, the expired entries are simply renewed, otherwise the region is cleared.
+ * Missing entries are always loaded together, with a single request.
+ * Configured by the {@code reference.cache.enabled}, {@code reference.cache.maxSize} (per region),
+ * {@code reference.cache.tenant.ttl} and {@code reference.cache.permission.ttl} properties.
+ * The gauges sum the counters of both regions.
+ *
+ * @author Newton Carvalho
+ */
+@ApplicationScoped
+public class ReferenceDataCache extends NearCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private static final String PREFIX = "reference.cache";
+
+    private static final long DEFAULT_TTL_IN_SECONDS = 300;
+    private static final int DEFAULT_MAX_SIZE = 10000;
+
+    private boolean enabled = true;
+
+    private final Region<SystemTenant> tenants;
+    private final Region<SystemPermission> permissions;
+
+    private final CacheStatistics statistics;
+
+    private final AtomicLong revalidations = new AtomicLong();
+
+    /**
+     * Creates the cache keeping up to {@value #DEFAULT_MAX_SIZE} entities per region
+     * for {@value #DEFAULT_TTL_IN_SECONDS} seconds, unless configured otherwise
+     */
+    public ReferenceDataCache() {
+        this(TimeUnit.SECONDS.toMillis(DEFAULT_TTL_IN_SECONDS), TimeUnit.SECONDS.toMillis(DEFAULT_TTL_IN_SECONDS),
+                DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor that allows to define the cache settings directly
+     * @param tenantTtlInMillis time (in milliseconds) that a tenant remains valid without revalidation
+     * @param permissionTtlInMillis time (in milliseconds) that a permission remains valid without revalidation
+     * @param maxSize maximum number of entries kept by each region
+     */
+    public ReferenceDataCache(long tenantTtlInMillis, long permissionTtlInMillis, int maxSize) {
+        super(PREFIX, PREFIX);
+        this.tenants = new Region<>("tenant", tenantTtlInMillis, maxSize);
+        this.permissions = new Region<>("permission", permissionTtlInMillis, maxSize);
+        this.statistics = CacheStatistics.sum(tenants.entries, permissions.entries);
+    }
+
+    @Override
+    protected void configure(Config config) {
+        this.enabled = config.getOptionalValue(getConfigName(ENABLED), Boolean.class).orElse(Boolean.TRUE);
+        int maxSize = config.getOptionalValue(getConfigName(MAX_SIZE), Integer.class).orElse(DEFAULT_MAX_SIZE);
+        tenants.configure(getTtlInMillis(config, getConfigName("tenant.ttl"), tenants.entries.getTtlInMillis()),
+                maxSize);
+        permissions.configure(getTtlInMillis(config, getConfigName("permission.ttl"),
+                permissions.entries.getTtlInMillis()), maxSize);
+        log.info("Reference data cache enabled: {}, tenant ttl: {} ms, permission ttl: {} ms, max size: {}",
+                enabled, tenants.entries.getTtlInMillis(), permissions.entries.getTtlInMillis(), maxSize);
+    }
+
+    @Override
+    protected CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Retrieves the tenants for the informed identifiers, loading the missing ones with a single request
+     * @param ids tenant identifiers
+     * @param loader retrieves (remotely) the tenants for a list of identifiers
+     * @param stampReader retrieves (remotely) the current tenant version stamp
+     * @return the tenants found, following the order of the informed identifiers
+     * @throws SystemException in case of any issue while loading the missing tenants
+     */
+    public List<SystemTenant> getTenants(List<Long> ids, Loader<SystemTenant> loader,
+                                         StampReader stampReader) throws SystemException {
+        return get(tenants, ids, loader, stampReader);
+    }
+
+    /**
+     * Retrieves the permissions for the informed identifiers, loading the missing ones with a single request
+     * @param ids permission identifiers
+     * @param loader retrieves (remotely) the permissions for a list of identifiers
+     * @param stampReader retrieves (remotely) the current permission version stamp
+     * @return the permissions found, following the order of the informed identifiers
+     * @throws SystemException in case of any issue while loading the missing permissions
+     */
+    public List<SystemPermission> getPermissions(List<Long> ids, Loader<SystemPermission> loader,
+                                                 StampReader stampReader) throws SystemException {
+        return get(permissions, ids, loader, stampReader);
+    }
+
+    /**
+     * Removes all the stored entries
+     */
+    public void invalidateAll() {
+        tenants.clear();
+        permissions.clear();
+    }
+
+    /**
+     * Gets the number of times that expired entries were renewed since the version stamp did not change
+     * @return number of successful revalidations
+     */
+    @Gauge(name = "reference.cache.revalidations", unit = MetricUnits.NONE, absolute = true)
+    public long getRevalidationCount() {
+        return revalidations.get();
+    }
+
+    /**
+     * Check if the cache is enabled
+     * @return true if reference entities are being cached
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the cache
+     * @param enabled flag that indicates if reference entities must be cached
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Retrieves the entities of a region. Valid entries are answered directly, expired ones are renewed
+     * if the version stamp did not change and everything else is loaded with a single request
+     * @param region where the entities are kept
+     * @param ids entity identifiers
+     * @param loader retrieves the entities for a list of identifiers
+     * @param stampReader retrieves the current version stamp
+     * @param <T> entity type
+     * @return the entities found, following the order of the informed identifiers
+     * @throws SystemException in case of any issue while loading the missing entities
+     */
+    private <T extends Model> List<T> get(Region<T> region, List<Long> ids, Loader<T> loader,
+                                          StampReader stampReader) throws SystemException {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (!enabled) {
+            return new ArrayList<>(loader.load(ids));
+        }
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        long generation = region.entries.getGeneration();
+        List<Long> expired = new ArrayList<>();
+        Map<Long, T> found = region.entries.getAll(requested, expired);
+        if (!expired.isEmpty()) {
+            Map<Long, T> renewed = region.revalidate(readStamp(region, stampReader), expired);
+            if (renewed != null) {
+                revalidations.incrementAndGet();
+                found.putAll(renewed);
+            } else {
+                generation = region.entries.getGeneration();
+            }
+        }
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            if (!found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<? extends T> loaded = loader.load(missing);
+            Map<Long, T> byId = new LinkedHashMap<>();
+            for (T entity : loaded) {
+                if (entity != null && entity.getId() != null) {
+                    byId.put(entity.getId(), entity);
+                }
+            }
+            region.entries.putAllIfCurrent(byId, generation);
+            found.putAll(byId);
+        }
+        List<T> result = new ArrayList<>(found.size());
+        for (Long id : requested) {
+            T entity = found.get(id);
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the current version stamp of a region
+     * @param region whose stamp is requested
+     * @param stampReader retrieves the current version stamp
+     * @return the stamp, or null if it could not be retrieved (meaning that nothing can be renewed)
+     */
+    private Long readStamp(Region<?> region, StampReader stampReader) {
+        try {
+            return stampReader.read();
+        } catch (SystemException e) {
+            log.warn("Not possible to retrieve the {} version stamp, expired entries will be reloaded",
+                    region.name, e);
+            return null;
+        }
+    }
+
+    /**
+     * Loads entities for a list of identifiers
+     * @param <T> entity type
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        /**
+         * Loads the entities for the informed identifiers
+         * @param ids entity identifiers
+         * @return the entities found
+         * @throws SystemException in case of any communication issue
+         */
+        List<? extends T> load(List<Long> ids) throws SystemException;
+    }
+
+    /**
+     * Reads the version stamp of the entities owner
+     */
+    @FunctionalInterface
+    public interface StampReader {
+        /**
+         * Reads the current version stamp
+         * @return the version stamp
+         * @throws SystemException in case of any communication issue
+         */
+        long read() throws SystemException;
+    }
+
+    /**
+     * Bounded, time based storage for one kind of entity, associated with the version stamp
+     * that was observed the last time its entries were validated.
+     * Every time the region is cleared a new generation starts, and entities loaded for a previous
+     * generation are no longer accepted, since they may be older than the observed stamp
+     * @param <T> entity type
+     */
+    private static class Region<T extends Model> {
+        private final String name;
+        private final BoundedCache<Long, T> entries;
+        private Long stamp;
+
+        Region(String name, long ttlInMillis, int maxSize) {
+            this.name = name;
+            this.entries = new BoundedCache<>(ttlInMillis, maxSize);
+        }
+
+        void configure(long ttlInMillis, int maxSize) {
+            entries.configure(ttlInMillis, maxSize);
+        }
+
+        /**
+         * Renews the expired entries when the version stamp did not change, otherwise (or when the stamp is unknown)
+         * removes all the entries, since any of them may be outdated
+         * @param currentStamp current version stamp (null if unknown)
+         * @param expired identifiers of the expired entries
+         * @return the renewed entries (identifier, entity), or null if the region was cleared
+         */
+        synchronized Map<Long, T> revalidate(Long currentStamp, List<Long> expired) {
+            if (currentStamp == null || !currentStamp.equals(stamp)) {
+                clear();
+                stamp = currentStamp;
+                return null;
+            }
+            return entries.renew(expired);
+        }
+
+        synchronized void clear() {
+            entries.invalidateAll();
+            stamp = null;
+        }
+    }
+}
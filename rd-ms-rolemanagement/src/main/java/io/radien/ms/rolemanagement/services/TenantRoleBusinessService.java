@@ -15,6 +15,7 @@
  */
 package io.radien.ms.rolemanagement.services;
 
+import io.radien.api.entity.EffectiveAuthorization;
 import io.radien.api.entity.Page;
 import io.radien.api.model.permission.SystemPermission;
 import io.radien.api.model.role.SystemRole;
@@ -47,6 +48,9 @@ public class TenantRoleBusinessService extends AbstractTenantRoleDomainBusinessS
     @Inject
     private TenantRoleUserServiceAccess tenantRoleUserServiceAccess;
 
+    @Inject
+    private ReferenceDataCache referenceDataCache;
+
     /**
      * Retrieves TenantRole association using pagination approach
      * @param pageNumber page number
@@ -99,7 +103,9 @@ public class TenantRoleBusinessService extends AbstractTenantRoleDomainBusinessS
         if (systemTenantRole == null) {
             throw new TenantRoleNotFoundException(GenericErrorCodeMessage.TENANT_ROLE_NO_TENANT_ROLE_FOUND.toString(id.toString()));
         }
-        return this.getTenantRoleServiceAccess().delete(id);
+        boolean status = this.getTenantRoleServiceAccess().delete(id);
+        notifyAuthorizationChange(systemTenantRole.getTenantId(), null);
+        return status;
     }
 
     /**
@@ -127,7 +133,8 @@ public class TenantRoleBusinessService extends AbstractTenantRoleDomainBusinessS
     }
 
     /**
-     * Retrieves the Permissions that exists for a Tenant Role Association (Optionally taking in account user)
+     * Retrieves the Permissions that exists for a Tenant Role Association (Optionally taking in account user).
+     * Permissions are hydrated through the {@link ReferenceDataCache}, only the missing ones are requested
      * @param tenantId Tenant identifier (Mandatory)
      * @param roleId Role identifier (Mandatory)
      * @param userId User identifier (Optional)
@@ -138,13 +145,16 @@ public class TenantRoleBusinessService extends AbstractTenantRoleDomainBusinessS
         List<SystemPermission> list = new ArrayList<>();
         List<Long> ids = this.getTenantRoleServiceAccess().getPermissions(tenantId, roleId, userId);
         if (!ids.isEmpty()) {
-            list.addAll(this.getPermissionRESTServiceAccess().getPermissionsByIds(ids));
+            list.addAll(referenceDataCache.getPermissions(ids,
+                    missing -> getPermissionRESTServiceAccess().getPermissionsByIds(missing),
+                    () -> getPermissionRESTServiceAccess().getVersionStamp()));
         }
         return list;
     }
 
     /**
-     * Retrieves the existent Tenants for a User (Optionally for a specific role)
+     * Retrieves the existent Tenants for a User (Optionally for a specific role).
+     * Tenants are hydrated through the {@link ReferenceDataCache}, only the missing ones are requested
      * @param userId User identifier
      * @param roleId Role identifier (Optional)
      * @return List containing tenants
@@ -154,7 +164,9 @@ public class TenantRoleBusinessService extends AbstractTenantRoleDomainBusinessS
         List<SystemTenant> list = new ArrayList<>();
         List<Long> ids = this.getTenantRoleServiceAccess().getTenants(userId, roleId);
         if (!ids.isEmpty()) {
-            list.addAll(getTenantRESTServiceAccess().getTenantsByIds(ids));
+            list.addAll(referenceDataCache.getTenants(ids,
+                    missing -> getTenantRESTServiceAccess().getTenantsByIds(missing),
+                    () -> getTenantRESTServiceAccess().getVersionStamp()));
         }
         return list;
     }
@@ -212,6 +224,17 @@ public class TenantRoleBusinessService extends AbstractTenantRoleDomainBusinessS
         return this.getTenantRoleServiceAccess().hasPermission(userId, permissionId, tenantId);
     }
 
+    /**
+     * Retrieves all the Roles and Permissions granted to a User (Optionally for a Tenant)
+     * @param userId User identifier
+     * @param tenantId Tenant identifier (Optional)
+     * @return effective authorization containing role ids, role names and permission ids
+     */
+    public EffectiveAuthorization getEffectiveAuthorization(Long userId, Long tenantId) {
+        checkIfMandatoryParametersWereInformed(userId);
+        return this.getTenantRoleServiceAccess().getEffectiveAuthorization(userId, tenantId);
+    }
+
     public TenantRoleUserServiceAccess getTenantRoleUserServiceAccess() {
         return tenantRoleUserServiceAccess;
     }
@@ -219,4 +242,20 @@ public class TenantRoleBusinessService extends AbstractTenantRoleDomainBusinessS
     public void setTenantRoleUserServiceAccess(TenantRoleUserServiceAccess tenantRoleUserServiceAccess) {
         this.tenantRoleUserServiceAccess = tenantRoleUserServiceAccess;
     }
+
+    /**
+     * Getter for the property {@link TenantRoleBusinessService#referenceDataCache}
+     * @return instance of ReferenceDataCache
+     */
+    public ReferenceDataCache getReferenceDataCache() {
+        return referenceDataCache;
+    }
+
+    /**
+     * Setter for the property {@link TenantRoleBusinessService#referenceDataCache}
+     * @param referenceDataCache instance of ReferenceDataCache to be set
+     */
+    public void setReferenceDataCache(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
 }
@@ -72,6 +72,7 @@ public class TenantRolePermissionBusinessService extends AbstractTenantRoleDomai
                     toString(String.valueOf(tenantRole.getTenantId()), String.valueOf(tenantRole.getRoleId())));
         }
         this.tenantRolePermissionService.create(tenantRolePermission);
+        notifyAuthorizationChange(tenantRole.getTenantId(), null);
     }
 
     /**
@@ -98,7 +99,9 @@ public class TenantRolePermissionBusinessService extends AbstractTenantRoleDomai
         if (systemTenantRolePermission == null) {
             throw new TenantRoleNotFoundException(GenericErrorCodeMessage.TENANT_ROLE_NO_TENANT_ROLE_PERMISSION_FOUND.toString(id.toString()));
         }
-        return this.getTenantRolePermissionService().delete(id);
+        boolean status = this.getTenantRolePermissionService().delete(id);
+        notifyAuthorizationChange(null, null);
+        return status;
     }
 
     /**
@@ -126,6 +129,7 @@ public class TenantRolePermissionBusinessService extends AbstractTenantRoleDomai
                 getTenantRolePermissionId(tenantRoleId, permission).orElseThrow(() -> new TenantRoleException(
                         TENANT_ROLE_NO_ASSOCIATION_FOR_PERMISSION.toString(permission.toString())));
         this.tenantRolePermissionService.delete(tenantRolePermissionId);
+        notifyAuthorizationChange(tenant, null);
     }
 
     /**
@@ -251,17 +251,10 @@ public class TenantRolePermissionService extends AbstractTenantRoleDomainService
         if (tenantRoleId == null) {
             throw new IllegalArgumentException(GenericErrorCodeMessage.TENANT_ROLE_FIELD_MANDATORY.toString(SystemVariables.ID.getLabel()));
         }
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Long> sc = cb.createQuery(Long.class);
-        Root<TenantRolePermissionEntity> root = sc.from(TenantRolePermissionEntity.class);
-
-        sc.select(cb.count(root)).
-                where(
-                        cb.equal(root.get(SystemVariables.PERMISSION_ID.getFieldName()),permissionId),
-                        cb.equal(root.get(SystemVariables.TENANT_ROLE_ID.getFieldName()),tenantRoleId)
-                );
-        List<Long> count = em.createQuery(sc).getResultList();
-        return !count.isEmpty() && count.get(0) > 0;
+        return em.createNamedQuery(TenantRolePermissionEntity.COUNT_BY_PERMISSION_AND_TENANT_ROLE, Long.class).
+                setParameter(SystemVariables.PERMISSION_ID.getFieldName(), permissionId).
+                setParameter(SystemVariables.TENANT_ROLE_ID.getFieldName(), tenantRoleId).
+                getSingleResult() > 0;
     }
 
     /**
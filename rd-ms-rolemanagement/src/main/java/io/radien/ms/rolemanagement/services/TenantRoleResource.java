@@ -16,6 +16,7 @@
 package io.radien.ms.rolemanagement.services;
 
 import io.radien.api.model.tenantrole.SystemTenantRole;
+import io.radien.api.util.EffectiveAuthorizationFactory;
 import io.radien.exception.GenericErrorMessagesToResponseMapper;
 import io.radien.exception.RoleNotFoundException;
 import io.radien.exception.TenantRoleException;
@@ -302,4 +303,26 @@ public class TenantRoleResource implements TenantRoleResourceClient {
             return GenericErrorMessagesToResponseMapper.getGenericError(e);
         }
     }
+
+    /**
+     * Retrieves, in one call, all the Roles and Permissions granted to a User (Optionally under a Tenant)
+     * @param userId User identifier
+     * @param tenantId Tenant identifier (Optional)
+     * @return Response OK containing the effective authorization (sorted role ids, role names and permission ids).
+     * Response 404 in case of absence of user identifier.
+     * Response 500 in case of any error
+     */
+    @Override
+    public Response getEffectiveAuthorization(Long userId, Long tenantId) {
+        log.info("Retrieving effective authorization for user {} under tenant {}", userId, tenantId);
+        if (userId == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        try {
+            return Response.ok().entity(EffectiveAuthorizationFactory.convertToJsonObject(
+                    tenantRoleBusinessService.getEffectiveAuthorization(userId, tenantId))).build();
+        } catch (Exception e) {
+            return GenericErrorMessagesToResponseMapper.getGenericError(e);
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package io.radien.ms.rolemanagement.services;
 
 import io.radien.api.SystemVariables;
+import io.radien.api.entity.EffectiveAuthorization;
 import io.radien.api.entity.Page;
 import io.radien.api.model.tenantrole.SystemTenantRole;
 import io.radien.api.model.tenantrole.SystemTenantRoleSearchFilter;
@@ -35,6 +36,7 @@ import org.slf4j.LoggerFactory;
 import javax.ejb.Stateful;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
@@ -42,7 +44,9 @@ import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.CriteriaDelete;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -210,6 +214,17 @@ public class TenantRoleService implements TenantRoleServiceAccess {
         }
     }
 
+    /**
+     * Creates a set of Tenant Role associations at once (no duplication check is performed,
+     * it relies on the caller and on the unique constraint)
+     * @param tenantRoles tenant role associations to be created
+     */
+    @Override
+    public void saveAll(Collection<? extends SystemTenantRole> tenantRoles) {
+        EntityManager em = getEntityManager();
+        tenantRoles.forEach(em::persist);
+    }
+
     /**
      * Check if a role is already assigned/associated with a tenant
      * @param roleId Role identifier
@@ -240,28 +255,17 @@ public class TenantRoleService implements TenantRoleServiceAccess {
             throw new IllegalArgumentException(GenericErrorCodeMessage.TENANT_ROLE_FIELD_MANDATORY.toString(SystemVariables.TENANT_ID.getLabel()));
         }
 
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Long> sc = cb.createQuery(Long.class);
-        Root<TenantRoleEntity> root = sc.from(TenantRoleEntity.class);
-
-        sc.select(cb.count(root));
-
+        TypedQuery<Long> query;
         if (currentTenantRoleId != null) {
-            sc.where(
-                    cb.equal(root.get(SystemVariables.TENANT_ID.getFieldName()), tenantId),
-                    cb.equal(root.get(SystemVariables.ROLE_ID.getFieldName()), roleId),
-                    cb.notEqual(root.get(SystemVariables.ID.getFieldName()), currentTenantRoleId)
-            );
+            query = em.createNamedQuery(TenantRoleEntity.COUNT_BY_TENANT_AND_ROLE_EXCLUDING_ID, Long.class).
+                    setParameter(SystemVariables.ID.getFieldName(), currentTenantRoleId);
         }
         else {
-            sc.where(
-                    cb.equal(root.get(SystemVariables.TENANT_ID.getFieldName()), tenantId),
-                    cb.equal(root.get(SystemVariables.ROLE_ID.getFieldName()), roleId)
-            );
+            query = em.createNamedQuery(TenantRoleEntity.COUNT_BY_TENANT_AND_ROLE, Long.class);
         }
-
-        List<Long> count = em.createQuery(sc).getResultList();
-        return !count.isEmpty() && count.get(0) > 0;
+        query.setParameter(SystemVariables.TENANT_ID.getFieldName(), tenantId).
+                setParameter(SystemVariables.ROLE_ID.getFieldName(), roleId);
+        return query.getSingleResult() > 0;
     }
 
     /**
@@ -347,29 +351,17 @@ public class TenantRoleService implements TenantRoleServiceAccess {
         if (roleId == null) {
             throw new IllegalArgumentException(GenericErrorCodeMessage.TENANT_ROLE_FIELD_MANDATORY.toString(SystemVariables.ROLE_ID.getLabel()));
         }
-        EntityManager em = getEntityManager();
-
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
-        Root<TenantRoleEntity> tenantRoleRoot = cq.from(TenantRoleEntity.class);
-        Root<TenantRolePermissionEntity> tenantRolePermissionRoot = cq.from(TenantRolePermissionEntity.class);
-
-        cq.select(tenantRolePermissionRoot.get(SystemVariables.PERMISSION_ID.getFieldName()));
-
-        List<Predicate> predicates = new ArrayList<>();
-        predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.TENANT_ID.getFieldName()), tenantId));
-        predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.ROLE_ID.getFieldName()), roleId));
-        predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.ID.getFieldName()), tenantRolePermissionRoot.get(SystemVariables.TENANT_ROLE_ID.getFieldName())));
+        TypedQuery<Long> query;
         if (userId != null) {
-            Root<TenantRoleUserEntity> tenantRoleUserRoot = cq.from(TenantRoleUserEntity.class);
-            predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.ID.getFieldName()), tenantRoleUserRoot.get(SystemVariables.TENANT_ROLE_ID.getFieldName())));
-            predicates.add(cb.equal(tenantRoleUserRoot.get(SystemVariables.USER_ID.getFieldName()), userId));
+            query = getEntityManager().createNamedQuery(TenantRoleEntity.GET_PERMISSION_IDS_FOR_USER, Long.class).
+                    setParameter(SystemVariables.USER_ID.getFieldName(), userId);
         }
-
-        cq.where(cb.and(predicates.toArray(new Predicate[0])));
-
-        TypedQuery<Long> query = em.createQuery(cq);
-        return query.getResultList();
+        else {
+            query = getEntityManager().createNamedQuery(TenantRoleEntity.GET_PERMISSION_IDS, Long.class);
+        }
+        return query.setParameter(SystemVariables.TENANT_ID.getFieldName(), tenantId).
+                setParameter(SystemVariables.ROLE_ID.getFieldName(), roleId).
+                getResultList();
     }
 
     /**
@@ -384,27 +376,15 @@ public class TenantRoleService implements TenantRoleServiceAccess {
             throw new IllegalArgumentException(GenericErrorCodeMessage.TENANT_ROLE_FIELD_MANDATORY.toString(SystemVariables.USER_ID.getLabel()));
         }
 
-        EntityManager em = getEntityManager();
-
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
-        Root<TenantRoleEntity> tenantRoleRoot = cq.from(TenantRoleEntity.class);
-        Root<TenantRoleUserEntity> tenantRoleUserRoot = cq.from(TenantRoleUserEntity.class);
-
-        cq.select(tenantRoleRoot.get(SystemVariables.TENANT_ID.getFieldName()));
-        cq.distinct(true);
-        List<Predicate> predicates = new ArrayList<>();
-        predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.ID.getFieldName()), tenantRoleUserRoot.get(SystemVariables.TENANT_ROLE_ID.getFieldName())));
+        TypedQuery<Long> query;
         if (roleId != null) {
-            predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.ROLE_ID.getFieldName()), roleId));
+            query = getEntityManager().createNamedQuery(TenantRoleEntity.GET_TENANT_IDS_FOR_USER_AND_ROLE, Long.class).
+                    setParameter(SystemVariables.ROLE_ID.getFieldName(), roleId);
         }
-        predicates.add(cb.equal(tenantRoleUserRoot.get(SystemVariables.USER_ID.getFieldName()), userId));
-
-        cq.where(cb.and(predicates.toArray(new Predicate[0])));
-
-        TypedQuery<Long> query = em.createQuery(cq);
-
-        return query.getResultList();
+        else {
+            query = getEntityManager().createNamedQuery(TenantRoleEntity.GET_TENANT_IDS_FOR_USER, Long.class);
+        }
+        return query.setParameter(SystemVariables.USER_ID.getFieldName(), userId).getResultList();
     }
 
     /**
@@ -419,25 +399,10 @@ public class TenantRoleService implements TenantRoleServiceAccess {
             throw new IllegalArgumentException(GenericErrorCodeMessage.INFO_TENANT_AND_USER_ID.toString());
         }
 
-        EntityManager em = getEntityManager();
-
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
-        Root<TenantRoleEntity> tenantRoleRoot = cq.from(TenantRoleEntity.class);
-        Root<TenantRoleUserEntity> tenantRoleUserRoot = cq.from(TenantRoleUserEntity.class);
-
-        cq.select(tenantRoleRoot.get(SystemVariables.ROLE_ID.getFieldName()));
-        cq.distinct(true);
-        List<Predicate> predicates = new ArrayList<>();
-        predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.ID.getFieldName()),
-                tenantRoleUserRoot.get(SystemVariables.TENANT_ROLE_ID.getFieldName())));
-        predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.TENANT_ID.getFieldName()), tenantId));
-        predicates.add(cb.equal(tenantRoleUserRoot.get(SystemVariables.USER_ID.getFieldName()), userId));
-
-        cq.where(cb.and(predicates.toArray(new Predicate[0])));
-
-        TypedQuery<Long> query = em.createQuery(cq);
-        return query.getResultList();
+        return getEntityManager().createNamedQuery(TenantRoleEntity.GET_ROLE_IDS_FOR_USER_AND_TENANT, Long.class).
+                setParameter(SystemVariables.TENANT_ID.getFieldName(), tenantId).
+                setParameter(SystemVariables.USER_ID.getFieldName(), userId).
+                getResultList();
     }
 
     /**
@@ -457,29 +422,17 @@ public class TenantRoleService implements TenantRoleServiceAccess {
             throw new IllegalArgumentException(GenericErrorCodeMessage.TENANT_ROLE_FIELD_MANDATORY.toString(SystemVariables.ROLE_NAME.getLabel()));
         }
 
-        EntityManager em = getEntityManager();
-
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
-        Root<RoleEntity> roleRoot = cq.from(RoleEntity.class);
-        Root<TenantRoleEntity> tenantRoleRoot = cq.from(TenantRoleEntity.class);
-        Root<TenantRoleUserEntity> tenantRoleUserRoot = cq.from(TenantRoleUserEntity.class);
-
-        cq.select(cb.count(tenantRoleRoot));
-
-        List<Predicate> predicates = new ArrayList<>();
-        predicates.add(roleRoot.get(SystemVariables.NAME.getFieldName()).in(roleNames));
-        predicates.add(cb.equal(roleRoot.get(SystemVariables.ID.getFieldName()), tenantRoleRoot.get(SystemVariables.ROLE_ID.getFieldName())));
-        predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.ID.getFieldName()), tenantRoleUserRoot.get(SystemVariables.TENANT_ROLE_ID.getFieldName())));
+        TypedQuery<Long> query;
         if (tenantId != null) {
-            predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.TENANT_ID.getFieldName()), tenantId));
+            query = getEntityManager().createNamedQuery(TenantRoleEntity.COUNT_ROLES_FOR_USER_AND_TENANT, Long.class).
+                    setParameter(SystemVariables.TENANT_ID.getFieldName(), tenantId);
         }
-        predicates.add(cb.equal(tenantRoleUserRoot.get(SystemVariables.USER_ID.getFieldName()), userId));
-
-        cq.where(cb.and(predicates.toArray(new Predicate[0])));
-
-        List<Long> count = em.createQuery(cq).getResultList();
-        return !count.isEmpty() && count.get(0) > 0;
+        else {
+            query = getEntityManager().createNamedQuery(TenantRoleEntity.COUNT_ROLES_FOR_USER, Long.class);
+        }
+        return query.setParameter(SystemVariables.ROLE_NAMES.getFieldName(), roleNames).
+                setParameter(SystemVariables.USER_ID.getFieldName(), userId).
+                getSingleResult() > 0;
     }
 
     /**
@@ -491,29 +444,74 @@ public class TenantRoleService implements TenantRoleServiceAccess {
      */
     @Override
     public boolean hasPermission(Long userId, Long permissionId, Long tenantId) {
-        EntityManager em = getEntityManager();
+        TypedQuery<Long> query;
+        if (tenantId != null) {
+            query = getEntityManager().createNamedQuery(TenantRoleEntity.COUNT_PERMISSION_FOR_USER_AND_TENANT, Long.class).
+                    setParameter(SystemVariables.TENANT_ID.getFieldName(), tenantId);
+        }
+        else {
+            query = getEntityManager().createNamedQuery(TenantRoleEntity.COUNT_PERMISSION_FOR_USER, Long.class);
+        }
+        return query.setParameter(SystemVariables.PERMISSION_ID.getFieldName(), permissionId).
+                setParameter(SystemVariables.USER_ID.getFieldName(), userId).
+                getSingleResult() > 0;
+    }
 
+    /**
+     * Retrieves all the Roles and Permissions granted to a User (Optionally for a specific Tenant).
+     * Uses one query for the roles and another one for the permissions, instead of
+     * one query per checked role/permission
+     * @param userId User identifier
+     * @param tenantId Tenant identifier (Optional)
+     * @return effective authorization containing role ids, role names and permission ids
+     */
+    @Override
+    public EffectiveAuthorization getEffectiveAuthorization(Long userId, Long tenantId) {
+        if (userId == null) {
+            throw new IllegalArgumentException(GenericErrorCodeMessage.TENANT_ROLE_FIELD_MANDATORY.toString(SystemVariables.USER_ID.getLabel()));
+        }
+        EntityManager em = getEntityManager();
         CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
-        Root<TenantRoleEntity> tenantRoleRoot = cq.from(TenantRoleEntity.class);
-        Root<TenantRolePermissionEntity> tenantRolePermissionRoot = cq.from(TenantRolePermissionEntity.class);
-        Root<TenantRoleUserEntity> tenantRoleUserRoot = cq.from(TenantRoleUserEntity.class);
 
-        cq.select(cb.count(tenantRoleRoot));
+        CriteriaQuery<Tuple> rolesQuery = cb.createTupleQuery();
+        Root<RoleEntity> roleRoot = rolesQuery.from(RoleEntity.class);
+        Root<TenantRoleEntity> tenantRoleRoot = rolesQuery.from(TenantRoleEntity.class);
+        Root<TenantRoleUserEntity> tenantRoleUserRoot = rolesQuery.from(TenantRoleUserEntity.class);
 
+        rolesQuery.multiselect(roleRoot.get(SystemVariables.ID.getFieldName()),
+                roleRoot.get(SystemVariables.NAME.getFieldName()));
+        rolesQuery.distinct(true);
         List<Predicate> predicates = new ArrayList<>();
-        predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.ID.getFieldName()), tenantRolePermissionRoot.get(SystemVariables.TENANT_ROLE_ID.getFieldName())));
+        predicates.add(cb.equal(roleRoot.get(SystemVariables.ID.getFieldName()), tenantRoleRoot.get(SystemVariables.ROLE_ID.getFieldName())));
         predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.ID.getFieldName()), tenantRoleUserRoot.get(SystemVariables.TENANT_ROLE_ID.getFieldName())));
-        predicates.add(cb.equal(tenantRolePermissionRoot.get(SystemVariables.PERMISSION_ID.getFieldName()), permissionId));
         predicates.add(cb.equal(tenantRoleUserRoot.get(SystemVariables.USER_ID.getFieldName()), userId));
         if (tenantId != null) {
             predicates.add(cb.equal(tenantRoleRoot.get(SystemVariables.TENANT_ID.getFieldName()), tenantId));
         }
+        rolesQuery.where(cb.and(predicates.toArray(new Predicate[0])));
+        List<Tuple> roles = em.createQuery(rolesQuery).getResultList();
+
+        CriteriaQuery<Long> permissionsQuery = cb.createQuery(Long.class);
+        Root<TenantRoleEntity> permissionTenantRoleRoot = permissionsQuery.from(TenantRoleEntity.class);
+        Root<TenantRolePermissionEntity> tenantRolePermissionRoot = permissionsQuery.from(TenantRolePermissionEntity.class);
+        Root<TenantRoleUserEntity> permissionTenantRoleUserRoot = permissionsQuery.from(TenantRoleUserEntity.class);
+
+        permissionsQuery.select(tenantRolePermissionRoot.get(SystemVariables.PERMISSION_ID.getFieldName()));
+        permissionsQuery.distinct(true);
+        predicates = new ArrayList<>();
+        predicates.add(cb.equal(permissionTenantRoleRoot.get(SystemVariables.ID.getFieldName()), tenantRolePermissionRoot.get(SystemVariables.TENANT_ROLE_ID.getFieldName())));
+        predicates.add(cb.equal(permissionTenantRoleRoot.get(SystemVariables.ID.getFieldName()), permissionTenantRoleUserRoot.get(SystemVariables.TENANT_ROLE_ID.getFieldName())));
+        predicates.add(cb.equal(permissionTenantRoleUserRoot.get(SystemVariables.USER_ID.getFieldName()), userId));
+        if (tenantId != null) {
+            predicates.add(cb.equal(permissionTenantRoleRoot.get(SystemVariables.TENANT_ID.getFieldName()), tenantId));
+        }
+        permissionsQuery.where(cb.and(predicates.toArray(new Predicate[0])));
+        List<Long> permissionIds = em.createQuery(permissionsQuery).getResultList();
 
-        cq.where(cb.and(predicates.toArray(new Predicate[0])));
-
-        List<Long> count = em.createQuery(cq).getResultList();
-        return !count.isEmpty() && count.get(0) > 0;
+        return new EffectiveAuthorization(userId, tenantId,
+                roles.stream().mapToLong(t -> t.get(0, Long.class)).toArray(),
+                roles.stream().map(t -> t.get(1, String.class)).toArray(String[]::new),
+                permissionIds.stream().mapToLong(Long::longValue).toArray());
     }
 
     /**
@@ -569,6 +567,33 @@ public class TenantRoleService implements TenantRoleServiceAccess {
         return typedQuery.getResultList();
     }
 
+    /**
+     * Retrieves the existent TenantRole ids for a tenant and a set of roles using a single query
+     * @param tenantId Tenant id
+     * @param roleIds Collection Role ids
+     * @return map that relates each role id (that has an association with the tenant) to its TenantRole id
+     */
+    @Override
+    public Map<Long, Long> getTenantRoleIdsByRole(Long tenantId, Collection<Long> roleIds) {
+        EntityManager em = getEntityManager();
+        CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<TenantRoleEntity> tenantRoleRoot = criteriaQuery.from(TenantRoleEntity.class);
+
+        criteriaQuery.multiselect(tenantRoleRoot.get(SystemVariables.ROLE_ID.getFieldName()),
+                tenantRoleRoot.get(SystemVariables.ID.getFieldName())).
+                where(
+                        criteriaBuilder.equal(tenantRoleRoot.get(SystemVariables.TENANT_ID.getFieldName()), tenantId),
+                        tenantRoleRoot.get(SystemVariables.ROLE_ID.getFieldName()).in(roleIds)
+                );
+
+        Map<Long, Long> tenantRoleIds = new HashMap<>();
+        for (Tuple tuple : em.createQuery(criteriaQuery).getResultList()) {
+            tenantRoleIds.put(tuple.get(0, Long.class), tuple.get(1, Long.class));
+        }
+        return tenantRoleIds;
+    }
+
     public EntityManager getEntityManager() {
         return entityManager;
     }
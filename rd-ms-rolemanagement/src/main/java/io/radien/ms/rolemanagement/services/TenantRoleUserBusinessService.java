@@ -16,10 +16,10 @@
 package io.radien.ms.rolemanagement.services;
 
 import io.radien.api.SystemVariables;
-import io.radien.api.model.tenant.SystemTenant;
+import io.radien.api.model.role.SystemRole;
 import io.radien.api.model.tenantrole.SystemTenantRole;
 import io.radien.api.model.tenantrole.SystemTenantRoleUser;
-import io.radien.api.service.tenant.ActiveTenantRESTServiceAccess;
+import io.radien.api.model.tenantrole.TenantRoleUserAssignmentOutcome;
 import io.radien.api.service.tenantrole.TenantRoleUserServiceAccess;
 import io.radien.exception.GenericErrorCodeMessage;
 import io.radien.exception.SystemException;
@@ -28,11 +28,21 @@ import io.radien.exception.TenantRoleIllegalArgumentException;
 import io.radien.exception.TenantRoleNotFoundException;
 import io.radien.exception.TenantRoleUserDuplicationException;
 import io.radien.exception.UniquenessConstraintException;
+import io.radien.ms.rolemanagement.client.entities.RoleSearchFilter;
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity;
+import io.radien.ms.rolemanagement.entities.TenantRoleEntity;
 import io.radien.ms.rolemanagement.entities.TenantRoleUserEntity;
-import io.radien.ms.tenantmanagement.client.entities.ActiveTenant;
-import io.radien.ms.tenantmanagement.client.services.ActiveTenantFactory;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.ejb.Stateless;
 import javax.inject.Inject;
 
@@ -53,7 +63,7 @@ public class TenantRoleUserBusinessService extends AbstractTenantRoleDomainBusin
     private TenantRoleUserServiceAccess tenantRoleUserServiceAccess;
 
     @Inject
-    private ActiveTenantRESTServiceAccess activeTenantRESTServiceAccess;
+    private ActiveTenantOutboxService activeTenantOutboxService;
 
     /**
      * Assign/associate/add user to a Tenant (TenantRole domain)
@@ -82,14 +92,84 @@ public class TenantRoleUserBusinessService extends AbstractTenantRoleDomainBusin
         }
 
         this.tenantRoleUserServiceAccess.create(tru);
-        if(!activeTenantRESTServiceAccess.isActiveTenantExistent(tru.getUserId(), tenantRole.getTenantId())) {
-            SystemTenant retrievedTenant = retrieveTenant(tenantRole.getTenantId());
-            ActiveTenant activeTenant = ActiveTenantFactory.create(tru.getUserId(),
-                    retrievedTenant.getId(), retrievedTenant.getName(), false);
-            activeTenantRESTServiceAccess.create(activeTenant);
-        }
+        notifyAuthorizationChange(tenantRole.getTenantId(), tru.getUserId());
+        activeTenantOutboxService.enqueue(ActiveTenantOutboxEntity.Operation.CREATE,
+                tenantRole.getTenantId(), tru.getUserId());
     }
 
+    /**
+     * Assign/associate/add user to a set of roles under a Tenant (TenantRole domain), in a single transaction.
+     * Existent roles, Tenant Role associations and Tenant Role User associations are resolved with
+     * one query each, the missing Tenant Role and Tenant Role User associations are created at once,
+     * and the Active Tenant is handled only once for the whole set
+     * @param tenant Tenant identifier (Mandatory)
+     * @param roles Roles identifiers
+     * @param user User identifier (Mandatory)
+     * @return the outcome for each informed role
+     * @throws TenantRoleException for the case of any inconsistency found (i.e. tenant not found)
+     * @throws SystemException in case of any communication issue with the endpoint
+     */
+    public Map<Long, TenantRoleUserAssignmentOutcome> assignUser(Long tenant, Collection<Long> roles, Long user)
+            throws TenantRoleException, SystemException {
+        if (user == null) {
+            throw new TenantRoleIllegalArgumentException(GenericErrorCodeMessage.
+                    TENANT_ROLE_FIELD_MANDATORY.toString(SystemVariables.USER_ID.getLabel()));
+        }
+        if (tenant == null) {
+            throw new TenantRoleIllegalArgumentException(GenericErrorCodeMessage.
+                    TENANT_ROLE_FIELD_MANDATORY.toString(SystemVariables.TENANT_ID.getLabel()));
+        }
+        Map<Long, TenantRoleUserAssignmentOutcome> outcomes = new LinkedHashMap<>();
+        if (roles == null || roles.isEmpty()) {
+            return outcomes;
+        }
+        retrieveTenant(tenant);
+
+        Set<Long> roleIds = new LinkedHashSet<>(roles);
+        Set<Long> existentRoles = getRoleServiceAccess().getSpecificRoles(new RoleSearchFilter(null, null,
+                roleIds, true, true)).stream().map(SystemRole::getId).collect(Collectors.toSet());
+
+        Map<Long, Long> tenantRoleIds = existentRoles.isEmpty() ? new HashMap<>() :
+                new HashMap<>(getTenantRoleServiceAccess().getTenantRoleIdsByRole(tenant, existentRoles));
+        List<TenantRoleEntity> newTenantRoles = new ArrayList<>();
+        for (Long roleId : existentRoles) {
+            if (!tenantRoleIds.containsKey(roleId)) {
+                TenantRoleEntity tenantRole = new TenantRoleEntity();
+                tenantRole.setTenantId(tenant);
+                tenantRole.setRoleId(roleId);
+                newTenantRoles.add(tenantRole);
+            }
+        }
+        if (!newTenantRoles.isEmpty()) {
+            getTenantRoleServiceAccess().saveAll(newTenantRoles);
+            newTenantRoles.forEach(tenantRole -> tenantRoleIds.put(tenantRole.getRoleId(), tenantRole.getId()));
+        }
+
+        Set<Long> assignedTenantRoles = tenantRoleIds.isEmpty() ? new HashSet<>() :
+                new HashSet<>(tenantRoleUserServiceAccess.getAssignedTenantRoleIds(tenantRoleIds.values(), user));
+        List<TenantRoleUserEntity> newTenantRoleUsers = new ArrayList<>();
+        for (Long roleId : roleIds) {
+            Long tenantRoleId = tenantRoleIds.get(roleId);
+            if (tenantRoleId == null) {
+                outcomes.put(roleId, TenantRoleUserAssignmentOutcome.ROLE_NOT_FOUND);
+            } else if (assignedTenantRoles.contains(tenantRoleId)) {
+                outcomes.put(roleId, TenantRoleUserAssignmentOutcome.ALREADY_ASSIGNED);
+            } else {
+                TenantRoleUserEntity tenantRoleUser = new TenantRoleUserEntity();
+                tenantRoleUser.setTenantRoleId(tenantRoleId);
+                tenantRoleUser.setUserId(user);
+                newTenantRoleUsers.add(tenantRoleUser);
+                outcomes.put(roleId, TenantRoleUserAssignmentOutcome.ASSIGNED);
+            }
+        }
+
+        if (!newTenantRoleUsers.isEmpty()) {
+            tenantRoleUserServiceAccess.createAll(newTenantRoleUsers);
+            notifyAuthorizationChange(tenant, user);
+            activeTenantOutboxService.enqueue(ActiveTenantOutboxEntity.Operation.CREATE, tenant, user);
+        }
+        return outcomes;
+    }
 
     /**
      * Deletes a Tenant Role Permission association
@@ -111,6 +191,7 @@ public class TenantRoleUserBusinessService extends AbstractTenantRoleDomainBusin
         }
         // First, remove TenantRoleUser
         boolean status = this.getTenantRoleUserServiceAccess().delete(id);
+        notifyAuthorizationChange(tenantRole.getTenantId(), systemTenantRoleUser.getUserId());
         // And then remove ActiveTenant
         deleteActiveTenant(systemTenantRoleUser.getUserId(), tenantRole.getTenantId());
         return status;
@@ -140,36 +221,38 @@ public class TenantRoleUserBusinessService extends AbstractTenantRoleDomainBusin
                     toString(String.valueOf(tenant), String.valueOf(roles), String.valueOf(user)));
         }
         tenantRoleUserServiceAccess.delete(ids);
+        notifyAuthorizationChange(tenant, user);
         deleteActiveTenant(user, tenant);
     }
 
     /**
      * After remove/delete/dissociate a user (TenantRoleUser) is necessary to handle
-     * the Active Tenant (remove them as well)
+     * the Active Tenant (remove them as well). The removal is registered on the outbox,
+     * on the current transaction, and delivered later by {@link ActiveTenantOutboxDispatcher}
      * @param user user identifier
      * @param tenant tenant identifier
      */
-    protected void deleteActiveTenant(Long user, Long tenant) throws SystemException {
+    protected void deleteActiveTenant(Long user, Long tenant) {
         if (!tenantRoleUserServiceAccess.isAssociatedWithTenant(user, tenant)) {
             // If user is no longer associated with the informed tenant, lets remove active tenant as well
-            activeTenantRESTServiceAccess.deleteByTenantAndUser(tenant, user);
+            activeTenantOutboxService.enqueue(ActiveTenantOutboxEntity.Operation.DELETE, tenant, user);
         }
     }
 
     /**
-     * Getter for the property {@link TenantRoleUserBusinessService#activeTenantRESTServiceAccess}
-     * @return instance of ActiveTenantRESTServiceAccess
+     * Getter for the property {@link TenantRoleUserBusinessService#activeTenantOutboxService}
+     * @return instance of ActiveTenantOutboxService
      */
-    public ActiveTenantRESTServiceAccess getActiveTenantRESTServiceAccess() {
-        return activeTenantRESTServiceAccess;
+    public ActiveTenantOutboxService getActiveTenantOutboxService() {
+        return activeTenantOutboxService;
     }
 
     /**
-     * Setter for the property {@link TenantRoleUserBusinessService#activeTenantRESTServiceAccess}
-     * @param activeTenantRESTServiceAccess instance of ActiveTenantRESTServiceAccess to be set
+     * Setter for the property {@link TenantRoleUserBusinessService#activeTenantOutboxService}
+     * @param activeTenantOutboxService instance of ActiveTenantOutboxService to be set
      */
-    public void setActiveTenantRESTServiceAccess(ActiveTenantRESTServiceAccess activeTenantRESTServiceAccess) {
-        this.activeTenantRESTServiceAccess = activeTenantRESTServiceAccess;
+    public void setActiveTenantOutboxService(ActiveTenantOutboxService activeTenantOutboxService) {
+        this.activeTenantOutboxService = activeTenantOutboxService;
     }
 
     /**
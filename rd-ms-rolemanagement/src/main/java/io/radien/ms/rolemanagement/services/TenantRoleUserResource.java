@@ -15,6 +15,7 @@
  */
 package io.radien.ms.rolemanagement.services;
 
+import io.radien.api.model.tenantrole.TenantRoleUserAssignmentOutcome;
 import io.radien.api.service.tenantrole.TenantRoleUserServiceAccess;
 import io.radien.exception.GenericErrorMessagesToResponseMapper;
 import io.radien.exception.TenantRoleException;
@@ -22,8 +23,11 @@ import io.radien.exception.UniquenessConstraintException;
 import io.radien.ms.rolemanagement.client.entities.TenantRoleUser;
 import io.radien.ms.rolemanagement.client.services.TenantRoleUserResourceClient;
 import java.util.Collection;
+import java.util.Map;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
+import javax.json.Json;
+import javax.json.JsonObjectBuilder;
 import javax.ws.rs.core.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -133,6 +137,31 @@ public class TenantRoleUserResource implements TenantRoleUserResourceClient {
         }
     }
 
+    /**
+     * Assign/associate/add user to a set of roles under a Tenant (TenantRole domain), in a single transaction
+     * @param tenantId Tenant identifier (Mandatory)
+     * @param roleIds Roles identifiers
+     * @param userId User identifier (Mandatory)
+     * @return Response OK containing a json object that relates each role id to its outcome.
+     * Response status 400 in case of violations regarding business rules (i.e. tenant not found)
+     * Response 500 in case of any other error (i.e communication issue with REST client services)
+     */
+    @Override
+    public Response assignUser(Long tenantId, Collection<Long> roleIds, Long userId) {
+        try {
+            log.info("Associating/adding user {} to tenant {} roles {}", userId, tenantId, roleIds);
+            Map<Long, TenantRoleUserAssignmentOutcome> outcomes =
+                    tenantRoleUserBusinessService.assignUser(tenantId, roleIds, userId);
+            JsonObjectBuilder builder = Json.createObjectBuilder();
+            outcomes.forEach((roleId, outcome) -> builder.add(String.valueOf(roleId), outcome.name()));
+            return Response.ok().entity(builder.build()).build();
+        } catch (TenantRoleException e) {
+            return GenericErrorMessagesToResponseMapper.getInvalidRequestResponse(e.getMessage());
+        } catch (Exception e) {
+            return GenericErrorMessagesToResponseMapper.getGenericError(e);
+        }
+    }
+
     /**
      * (Un)Assign/Dissociate/remove user from TenantRole domain
      * @param tenantId Tenant identifier (Mandatory)
@@ -293,6 +293,17 @@ public class TenantRoleUserService extends AbstractTenantRoleDomainService imple
         em.persist(tenantRoleUser);
     }
 
+    /**
+     * Creates a set of Tenant Role User associations at once (no duplication check is performed,
+     * it relies on the caller and on the unique constraint)
+     * @param tenantRoleUsers tenant role user associations to be created
+     */
+    @Override
+    public void createAll(Collection<? extends SystemTenantRoleUser> tenantRoleUsers) {
+        EntityManager em = getEntityManager();
+        tenantRoleUsers.forEach(em::persist);
+    }
+
     /**
      * Check if a user is associated with a tenant
      * @param userId User identifier
@@ -350,18 +361,10 @@ public class TenantRoleUserService extends AbstractTenantRoleDomainService imple
             throw new IllegalArgumentException(GenericErrorCodeMessage.TENANT_ROLE_FIELD_MANDATORY.toString(SystemVariables.ID.getFieldName()));
         }
 
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Long> sc = cb.createQuery(Long.class);
-        Root<TenantRoleUserEntity> root = sc.from(TenantRoleUserEntity.class);
-
-        sc.select(cb.count(root)).
-                where(
-                        cb.equal(root.get(SystemVariables.USER_ID.getFieldName()),userId),
-                        cb.equal(root.get(SystemVariables.TENANT_ROLE_ID.getFieldName()),tenantRoleId)
-                );
-
-        List<Long> count = em.createQuery(sc).getResultList();
-        return !count.isEmpty() && count.get(0) > 0;
+        return em.createNamedQuery(TenantRoleUserEntity.COUNT_BY_USER_AND_TENANT_ROLE, Long.class).
+                setParameter(SystemVariables.USER_ID.getFieldName(), userId).
+                setParameter(SystemVariables.TENANT_ROLE_ID.getFieldName(), tenantRoleId).
+                getSingleResult() > 0;
     }
 
     /**
@@ -490,6 +493,28 @@ public class TenantRoleUserService extends AbstractTenantRoleDomainService imple
         return typedQuery.getResultList();
     }
 
+    /**
+     * Retrieves, among the informed TenantRole ids, the ones that are already associated with the user
+     * @param tenantRoleIds TenantRole identifiers
+     * @param userId User identifier
+     * @return TenantRole ids already associated with the user
+     */
+    @Override
+    public Collection<Long> getAssignedTenantRoleIds(Collection<Long> tenantRoleIds, Long userId) {
+        EntityManager em = getEntityManager();
+        CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder();
+        CriteriaQuery<Long> criteriaQuery = criteriaBuilder.createQuery(Long.class);
+        Root<TenantRoleUserEntity> tenantRoleUserRoot = criteriaQuery.from(TenantRoleUserEntity.class);
+
+        criteriaQuery.select(tenantRoleUserRoot.get(SystemVariables.TENANT_ROLE_ID.getFieldName())).
+                where(
+                        criteriaBuilder.equal(tenantRoleUserRoot.get(SystemVariables.USER_ID.getFieldName()), userId),
+                        tenantRoleUserRoot.get(SystemVariables.TENANT_ROLE_ID.getFieldName()).in(tenantRoleIds)
+                );
+
+        return em.createQuery(criteriaQuery).getResultList();
+    }
+
     /**
      * Returns the active entity manager being used by the tenant role user service
      * @return the active entity manager
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.security;
+
+import com.sun.net.httpserver.HttpServer;
+import io.radien.ms.tenantmanagement.client.TenantResponseExceptionMapper;
+import io.radien.ms.tenantmanagement.client.providers.ActiveTenantMessageBodyWriter;
+import io.radien.ms.tenantmanagement.client.services.ActiveTenantResourceClient;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class that aggregates UnitTest cases for {@link ServiceAccountRestClientRegistry}
+ *
+ * @author Newton Carvalho
+ */
+public class ServiceAccountRestClientRegistryTest {
+
+    @InjectMocks
+    private ServiceAccountRestClientRegistry serviceAccountRestClientRegistry;
+
+    @Mock
+    private ServiceAccountTokenProvider serviceAccountTokenProvider;
+
+    private HttpServer server;
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+
+    /**
+     * Prepares the mocks and starts a local tenant management stub that registers the received authorizations
+     * @throws IOException in case the stub could not be started
+     */
+    @BeforeEach
+    public void before() throws IOException {
+        MockitoAnnotations.initMocks(this);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/activeTenant/exists", exchange -> {
+            authorizations.add(exchange.getRequestHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+            byte[] body = "true".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * Stops the local tenant management stub
+     */
+    @AfterEach
+    public void after() {
+        server.stop(0);
+    }
+
+    /**
+     * Test for method {@link ServiceAccountRestClientRegistry#getClient(String, Class, Class[])}
+     * Scenario: request sent from a background thread, without any request or user session
+     * Expected outcome: request authenticated with the service account token, client built only once
+     */
+    @Test
+    public void testGetClientWithoutRequestContext() throws Exception {
+        when(serviceAccountTokenProvider.getAccessToken()).thenReturn("service-token");
+        String url = "http://localhost:" + server.getAddress().getPort();
+        ActiveTenantResourceClient client = serviceAccountRestClientRegistry.getClient(url,
+                ActiveTenantResourceClient.class, TenantResponseExceptionMapper.class,
+                ActiveTenantMessageBodyWriter.class);
+        assertSame(client, serviceAccountRestClientRegistry.getClient(url, ActiveTenantResourceClient.class,
+                TenantResponseExceptionMapper.class, ActiveTenantMessageBodyWriter.class));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> exists = executor.submit(() -> {
+                try (Response response = client.exists(2L, 1L)) {
+                    return response.readEntity(Boolean.class);
+                }
+            });
+            assertTrue(exists.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, authorizations.size());
+        assertEquals("Bearer service-token", authorizations.get(0));
+    }
+
+    /**
+     * Test for method {@link ServiceAccountRestClientRegistry#invalidateToken()}
+     * Expected outcome: service account token is discarded
+     */
+    @Test
+    public void testInvalidateToken() {
+        serviceAccountRestClientRegistry.invalidateToken();
+        verify(serviceAccountTokenProvider).invalidate();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.security;
+
+import io.radien.exception.SystemException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Class that aggregates UnitTest cases for {@link ServiceAccountTokenProvider}
+ *
+ * @author Newton Carvalho
+ */
+public class ServiceAccountTokenProviderTest {
+
+    /**
+     * Test for method {@link ServiceAccountTokenProvider#getAccessToken()}
+     * Scenario: token requested more than once, before and after being invalidated
+     * Expected outcome: token is requested only once and again after the invalidation
+     */
+    @Test
+    public void testGetAccessTokenCached() throws SystemException {
+        StubTokenProvider provider = new StubTokenProvider(token("first", 300), token("second", 300));
+
+        assertEquals("first", provider.getAccessToken());
+        assertEquals("first", provider.getAccessToken());
+        assertEquals(1, provider.requests);
+
+        provider.invalidate();
+        assertEquals("second", provider.getAccessToken());
+        assertEquals(2, provider.requests);
+    }
+
+    /**
+     * Test for method {@link ServiceAccountTokenProvider#getAccessToken()}
+     * Scenario: token about to expire
+     * Expected outcome: a new token is requested on the next access
+     */
+    @Test
+    public void testGetAccessTokenAboutToExpire() throws SystemException {
+        StubTokenProvider provider = new StubTokenProvider(token("first", 10), token("second", 300));
+
+        assertEquals("first", provider.getAccessToken());
+        assertEquals("second", provider.getAccessToken());
+        assertEquals(2, provider.requests);
+    }
+
+    /**
+     * Test for method {@link ServiceAccountTokenProvider#getAccessToken()}
+     * Scenario: token not granted, and service account not configured
+     * Expected outcome: SystemException
+     */
+    @Test
+    public void testGetAccessTokenNotGranted() {
+        StubTokenProvider provider = new StubTokenProvider(Json.createObjectBuilder().
+                add("error", "unauthorized_client").build());
+
+        assertThrows(SystemException.class, provider::getAccessToken);
+        assertThrows(SystemException.class, () -> new ServiceAccountTokenProvider().getAccessToken());
+    }
+
+    /**
+     * Creates a token response
+     * @param accessToken access token
+     * @param expiresIn validity of the token in seconds
+     * @return token response
+     */
+    private static JsonObject token(String accessToken, int expiresIn) {
+        return Json.createObjectBuilder().add("access_token", accessToken).add("expires_in", expiresIn).build();
+    }
+
+    /**
+     * Token provider answering with predefined token responses
+     */
+    private static class StubTokenProvider extends ServiceAccountTokenProvider {
+
+        private final Deque<JsonObject> responses;
+        private int requests;
+
+        StubTokenProvider(JsonObject... responses) {
+            this.responses = new ArrayDeque<>(Arrays.asList(responses));
+        }
+
+        @Override
+        protected JsonObject requestToken() {
+            requests++;
+            return responses.poll();
+        }
+    }
+}
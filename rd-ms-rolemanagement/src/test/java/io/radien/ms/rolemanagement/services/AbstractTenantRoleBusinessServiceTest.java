@@ -65,6 +65,7 @@ public abstract class AbstractTenantRoleBusinessServiceTest {
     protected static TenantRolePermissionServiceAccess tenantRolePermissionServiceAccess;
     protected static TenantRoleUserServiceAccess tenantRoleUserServiceAccess;
     protected static RoleServiceAccess roleServiceAccess;
+    protected static ActiveTenantOutboxService activeTenantOutboxService;
     protected static EJBContainer container;
 
     protected static String lookupString;
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.services;
+
+import io.radien.exception.NotFoundException;
+import io.radien.exception.SystemException;
+import io.radien.exception.TokenExpiredException;
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity;
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity.Operation;
+import io.radien.ms.rolemanagement.security.ServiceAccountRestClientRegistry;
+import io.radien.ms.tenantmanagement.client.entities.ActiveTenant;
+import io.radien.ms.tenantmanagement.client.services.ActiveTenantResourceClient;
+import io.radien.ms.tenantmanagement.client.services.TenantResourceClient;
+import java.io.ByteArrayInputStream;
+import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class that aggregates UnitTest cases for {@link ActiveTenantDeliveryService}
+ *
+ * @author Newton Carvalho
+ */
+public class ActiveTenantDeliveryServiceTest {
+
+    @InjectMocks
+    private ActiveTenantDeliveryService activeTenantDeliveryService;
+
+    @Mock
+    private ServiceAccountRestClientRegistry serviceAccountRestClientRegistry;
+
+    @Mock
+    private ActiveTenantResourceClient activeTenantResourceClient;
+
+    @Mock
+    private TenantResourceClient tenantResourceClient;
+
+    private final Long tenantId = 1L;
+    private final Long userId = 2L;
+
+    /**
+     * Prepares the mocks
+     * @throws MalformedURLException never, the clients are mocked
+     */
+    @BeforeEach
+    public void before() throws MalformedURLException {
+        MockitoAnnotations.initMocks(this);
+        when(serviceAccountRestClientRegistry.getClient(anyString(), eq(ActiveTenantResourceClient.class), any(), any())).
+                thenReturn(activeTenantResourceClient);
+        when(serviceAccountRestClientRegistry.getClient(anyString(), eq(TenantResourceClient.class), any(), any())).
+                thenReturn(tenantResourceClient);
+    }
+
+    /**
+     * Test for method {@link ActiveTenantDeliveryService#deliver(ActiveTenantOutboxEntity)}
+     * Scenario: creation of a not existent active tenant
+     * Expected outcome: active tenant created using the tenant name
+     */
+    @Test
+    public void testDeliverCreate() throws SystemException {
+        when(tenantResourceClient.getById(tenantId)).thenAnswer(i -> tenantResponse());
+        when(activeTenantResourceClient.exists(userId, tenantId)).thenAnswer(i -> Response.ok(Boolean.FALSE).build());
+        when(activeTenantResourceClient.create(any())).thenReturn(Response.ok().build(),
+                Response.notModified().build());
+
+        assertTrue(activeTenantDeliveryService.deliver(entry(Operation.CREATE)));
+        assertFalse(activeTenantDeliveryService.deliver(entry(Operation.CREATE)));
+        ArgumentCaptor<ActiveTenant> created = ArgumentCaptor.forClass(ActiveTenant.class);
+        verify(activeTenantResourceClient, times(2)).create(created.capture());
+        assertEquals("tenant", created.getValue().getTenantName());
+        assertEquals(userId, created.getValue().getUserId());
+        assertEquals(tenantId, created.getValue().getTenantId());
+    }
+
+    /**
+     * Test for method {@link ActiveTenantDeliveryService#deliver(ActiveTenantOutboxEntity)}
+     * Scenario: active tenant already existent, or tenant not found
+     * Expected outcome: nothing is created and the change is considered delivered
+     */
+    @Test
+    public void testDeliverCreateNotNecessary() throws SystemException {
+        when(activeTenantResourceClient.exists(userId, tenantId)).thenReturn(Response.ok(Boolean.TRUE).build(),
+                Response.ok(Boolean.FALSE).build());
+        when(tenantResourceClient.getById(tenantId)).thenThrow(new NotFoundException("not found"));
+
+        assertTrue(activeTenantDeliveryService.deliver(entry(Operation.CREATE)));
+        assertTrue(activeTenantDeliveryService.deliver(entry(Operation.CREATE)));
+        verify(activeTenantResourceClient, never()).create(any());
+    }
+
+    /**
+     * Test for method {@link ActiveTenantDeliveryService#deliver(ActiveTenantOutboxEntity)}
+     * Scenario: removal of an active tenant, existent or not, and communication issue
+     * Expected outcome: removal is considered delivered unless the service is unavailable
+     */
+    @Test
+    public void testDeliverDelete() throws SystemException {
+        when(activeTenantResourceClient.delete(tenantId.longValue(), userId.longValue())).
+                thenReturn(Response.ok(Boolean.TRUE).build(), Response.ok(Boolean.FALSE).build()).
+                thenThrow(new NotFoundException("not found")).
+                thenThrow(new ProcessingException("unavailable"));
+
+        assertTrue(activeTenantDeliveryService.deliver(entry(Operation.DELETE)));
+        assertTrue(activeTenantDeliveryService.deliver(entry(Operation.DELETE)));
+        assertTrue(activeTenantDeliveryService.deliver(entry(Operation.DELETE)));
+        assertThrows(SystemException.class, () -> activeTenantDeliveryService.deliver(entry(Operation.DELETE)));
+    }
+
+    /**
+     * Test for method {@link ActiveTenantDeliveryService#deliver(ActiveTenantOutboxEntity)}
+     * Scenario: removal answered with a non successful status that is not mapped to an exception
+     * Expected outcome: removal is not considered delivered, so it is retried
+     */
+    @Test
+    public void testDeliverDeleteUnavailable() throws SystemException {
+        when(activeTenantResourceClient.delete(tenantId.longValue(), userId.longValue())).
+                thenReturn(Response.status(Response.Status.SERVICE_UNAVAILABLE).build(),
+                        Response.status(Response.Status.FORBIDDEN).build());
+
+        assertFalse(activeTenantDeliveryService.deliver(entry(Operation.DELETE)));
+        assertFalse(activeTenantDeliveryService.deliver(entry(Operation.DELETE)));
+    }
+
+    /**
+     * Test for method {@link ActiveTenantDeliveryService#deliver(ActiveTenantOutboxEntity)}
+     * Scenario: service account token rejected once, and then rejected again
+     * Expected outcome: a new token is requested and the delivery retried once, failing afterwards
+     */
+    @Test
+    public void testDeliverTokenRejected() throws SystemException {
+        when(activeTenantResourceClient.delete(tenantId.longValue(), userId.longValue())).
+                thenThrow(new TokenExpiredException("expired")).
+                thenReturn(Response.ok(Boolean.TRUE).build()).
+                thenThrow(new TokenExpiredException("expired"));
+
+        assertTrue(activeTenantDeliveryService.deliver(entry(Operation.DELETE)));
+        verify(serviceAccountRestClientRegistry).invalidateToken();
+        assertThrows(SystemException.class, () -> activeTenantDeliveryService.deliver(entry(Operation.DELETE)));
+        verify(serviceAccountRestClientRegistry, times(2)).invalidateToken();
+    }
+
+    /**
+     * Creates the tenant management response for the test tenant
+     * @return response holding the tenant
+     */
+    private Response tenantResponse() {
+        String json = "{\"id\":" + tenantId + ",\"name\":\"tenant\",\"tenantKey\":\"tenant\"," +
+                "\"tenantType\":\"ROOT\"}";
+        return Response.ok(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))).build();
+    }
+
+    /**
+     * Creates an outbox entry for the test tenant and user
+     * @param operation change to be delivered
+     * @return outbox entry
+     */
+    private ActiveTenantOutboxEntity entry(Operation operation) {
+        ActiveTenantOutboxEntity entry = new ActiveTenantOutboxEntity();
+        entry.setOperation(operation);
+        entry.setTenantId(tenantId);
+        entry.setUserId(userId);
+        return entry;
+    }
+}
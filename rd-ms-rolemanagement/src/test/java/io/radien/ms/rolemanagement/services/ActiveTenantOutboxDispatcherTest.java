@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.services;
+
+import io.radien.exception.SystemException;
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity;
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity.Operation;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class that aggregates UnitTest cases for {@link ActiveTenantOutboxDispatcher}
+ *
+ * @author Newton Carvalho
+ */
+public class ActiveTenantOutboxDispatcherTest {
+
+    @InjectMocks
+    private ActiveTenantOutboxDispatcher dispatcher;
+
+    @Mock
+    private ActiveTenantOutboxService activeTenantOutboxService;
+
+    @Mock
+    private ActiveTenantDeliveryService activeTenantDeliveryService;
+
+    /**
+     * Prepares the mocks
+     */
+    @BeforeEach
+    public void before() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    /**
+     * Test for method {@link ActiveTenantOutboxDispatcher#dispatch()}
+     * Scenario: batch with a change that is delivered and a change that is not accepted
+     * Expected outcome: delivered change is removed from the outbox, the other one is postponed
+     */
+    @Test
+    public void testDispatch() throws SystemException {
+        ActiveTenantOutboxEntity create = entry(1L, Operation.CREATE);
+        ActiveTenantOutboxEntity delete = entry(2L, Operation.DELETE);
+        when(activeTenantOutboxService.getDue(100)).thenReturn(Arrays.asList(create, delete));
+        when(activeTenantDeliveryService.deliver(create)).thenReturn(true);
+        when(activeTenantDeliveryService.deliver(delete)).thenReturn(false);
+
+        assertEquals(1, dispatcher.dispatch());
+        verify(activeTenantOutboxService).remove(create);
+        verify(activeTenantOutboxService, never()).remove(delete);
+        verify(activeTenantOutboxService).reschedule(eq(delete), anyLong(), anyString());
+        verify(activeTenantOutboxService, never()).reschedule(eq(create), anyLong(), any());
+    }
+
+    /**
+     * Test for method {@link ActiveTenantOutboxDispatcher#dispatch(ActiveTenantOutboxEntity)}
+     * Scenario: tenant management service unavailable
+     * Expected outcome: entry is kept and postponed with exponential backoff
+     */
+    @Test
+    public void testDispatchFailure() throws SystemException {
+        ActiveTenantOutboxEntity delete = entry(1L, Operation.DELETE);
+        delete.setAttempts(3);
+        when(activeTenantDeliveryService.deliver(delete)).thenThrow(new SystemException("unavailable"));
+        long before = System.currentTimeMillis();
+
+        assertFalse(dispatcher.dispatch(delete));
+        verify(activeTenantOutboxService, never()).remove(any());
+        verify(activeTenantOutboxService).reschedule(eq(delete), longThat(next -> next >= before + 8 * 5000),
+                anyString());
+    }
+
+    /**
+     * Test for method {@link ActiveTenantOutboxDispatcher#dispatch(ActiveTenantOutboxEntity)}
+     * Scenario: last allowed delivery attempt fails
+     * Expected outcome: entry is moved to the dead letters instead of being postponed
+     */
+    @Test
+    public void testDispatchDeadLetter() throws SystemException {
+        ActiveTenantOutboxEntity create = entry(1L, Operation.CREATE);
+        create.setAttempts(9);
+        when(activeTenantDeliveryService.deliver(create)).thenThrow(new SystemException("unavailable"));
+
+        assertFalse(dispatcher.dispatch(create));
+        verify(activeTenantOutboxService).deadLetter(eq(create), anyString());
+        verify(activeTenantOutboxService, never()).reschedule(any(), anyLong(), any());
+        verify(activeTenantOutboxService, never()).remove(any());
+    }
+
+    /**
+     * Creates an outbox entry
+     * @param id entry identifier
+     * @param operation change to be delivered
+     * @return outbox entry
+     */
+    private ActiveTenantOutboxEntity entry(Long id, Operation operation) {
+        ActiveTenantOutboxEntity entry = new ActiveTenantOutboxEntity();
+        entry.setId(id);
+        entry.setVersion(1L);
+        entry.setOperation(operation);
+        entry.setTenantId(10L + id);
+        entry.setUserId(20L);
+        entry.setIdempotencyKey(ActiveTenantOutboxEntity.idempotencyKey(entry.getTenantId(), entry.getUserId()));
+        return entry;
+    }
+}
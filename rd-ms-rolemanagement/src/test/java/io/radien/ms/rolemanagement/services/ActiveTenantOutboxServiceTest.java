@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.services;
+
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity;
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity.Operation;
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity.Status;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import javax.ejb.embeddable.EJBContainer;
+import javax.naming.NamingException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Active Tenant outbox repository requests and responses with access into the db
+ * {@link io.radien.ms.rolemanagement.services.ActiveTenantOutboxService}
+ *
+ * @author Newton Carvalho
+ */
+public class ActiveTenantOutboxServiceTest {
+
+    static EJBContainer container;
+    static ActiveTenantOutboxService activeTenantOutboxService;
+
+    /**
+     * Method before test preparation
+     * @throws NamingException in case of naming injection value exception
+     */
+    @BeforeAll
+    public static void start() throws NamingException {
+        System.setProperty(ActiveTenantOutboxDispatcher.DISPATCH_INTERVAL, "0");
+        Properties p = new Properties();
+        p.put("appframeDatabase", "new://Resource?type=DataSource");
+        p.put("appframeDatabase.JdbcDriver", "org.hsqldb.jdbcDriver");
+        p.put("appframeDatabase.JdbcUrl", "jdbc:hsqldb:mem:radienTest");
+        p.put("appframeDatabase.userName", "sa");
+        p.put("appframeDatabase.password", "");
+        p.put("openejb.deployments.classpath.include",".*role.*");
+        p.put("openejb.deployments.classpath.exclude",".*client.*");
+        p.put("openejb.cdi.activated-on-ejb", "false");
+        container = EJBContainer.createEJBContainer(p);
+        String lookupString = "java:global/rd-ms-rolemanagement//ActiveTenantOutboxService";
+        activeTenantOutboxService = (ActiveTenantOutboxService) container.getContext().lookup(lookupString);
+    }
+
+    /**
+     * Method to stop the container after the testing classes have perform
+     */
+    @AfterAll
+    public static void stop() {
+        System.clearProperty(ActiveTenantOutboxDispatcher.DISPATCH_INTERVAL);
+        if (container != null) {
+            container.close();
+        }
+    }
+
+    /**
+     * Test for method {@link ActiveTenantOutboxService#enqueue(Operation, Long, Long)}
+     * Scenario: more than one change for the same tenant and user
+     * Expected outcome: a single pending entry, holding the last change
+     */
+    @Test
+    public void testEnqueueCollapsesChanges() {
+        activeTenantOutboxService.enqueue(Operation.CREATE, 7001L, 8001L);
+        activeTenantOutboxService.enqueue(Operation.DELETE, 7001L, 8001L);
+
+        List<ActiveTenantOutboxEntity> entries = find(7001L, 8001L);
+        assertEquals(1, entries.size());
+        assertEquals(Operation.DELETE, entries.get(0).getOperation());
+        assertEquals(ActiveTenantOutboxEntity.idempotencyKey(7001L, 8001L), entries.get(0).getIdempotencyKey());
+        assertTrue(activeTenantOutboxService.remove(entries.get(0)));
+        assertTrue(find(7001L, 8001L).isEmpty());
+    }
+
+    /**
+     * Test for methods {@link ActiveTenantOutboxService#remove(ActiveTenantOutboxEntity)} and
+     * {@link ActiveTenantOutboxService#reschedule(ActiveTenantOutboxEntity, long, String)}
+     * Scenario: entry changed after being retrieved
+     * Expected outcome: the changed entry is neither removed nor rescheduled
+     */
+    @Test
+    public void testRemoveAndRescheduleChangedEntry() {
+        activeTenantOutboxService.enqueue(Operation.CREATE, 7002L, 8002L);
+        ActiveTenantOutboxEntity retrieved = find(7002L, 8002L).get(0);
+        activeTenantOutboxService.enqueue(Operation.DELETE, 7002L, 8002L);
+
+        assertFalse(activeTenantOutboxService.remove(retrieved));
+        assertFalse(activeTenantOutboxService.reschedule(retrieved, System.currentTimeMillis(), "error"));
+
+        ActiveTenantOutboxEntity current = find(7002L, 8002L).get(0);
+        assertEquals(Operation.DELETE, current.getOperation());
+        assertTrue(activeTenantOutboxService.remove(current));
+    }
+
+    /**
+     * Test for method {@link ActiveTenantOutboxService#reschedule(ActiveTenantOutboxEntity, long, String)}
+     * Expected outcome: entry is postponed (not due anymore) and the attempt is registered
+     */
+    @Test
+    public void testReschedule() {
+        activeTenantOutboxService.enqueue(Operation.CREATE, 7003L, 8003L);
+        ActiveTenantOutboxEntity retrieved = find(7003L, 8003L).get(0);
+        long pending = activeTenantOutboxService.getPendingCount();
+
+        assertTrue(activeTenantOutboxService.reschedule(retrieved, System.currentTimeMillis() + 60000, "error"));
+        assertTrue(find(7003L, 8003L).isEmpty());
+        assertEquals(pending, activeTenantOutboxService.getPendingCount());
+
+        activeTenantOutboxService.enqueue(Operation.CREATE, 7003L, 8003L);
+        ActiveTenantOutboxEntity current = find(7003L, 8003L).get(0);
+        assertEquals(0, current.getAttempts());
+        assertTrue(activeTenantOutboxService.remove(current));
+    }
+
+    /**
+     * Test for method {@link ActiveTenantOutboxService#deadLetter(ActiveTenantOutboxEntity, String)}
+     * Expected outcome: entry is not delivered anymore, until a new change for the same pair is registered
+     */
+    @Test
+    public void testDeadLetter() {
+        activeTenantOutboxService.enqueue(Operation.CREATE, 7004L, 8004L);
+        ActiveTenantOutboxEntity retrieved = find(7004L, 8004L).get(0);
+        long pending = activeTenantOutboxService.getPendingCount();
+        long deadLetters = activeTenantOutboxService.getDeadLetterCount();
+
+        assertTrue(activeTenantOutboxService.deadLetter(retrieved, "error"));
+        assertFalse(activeTenantOutboxService.deadLetter(retrieved, "error"));
+        assertTrue(find(7004L, 8004L).isEmpty());
+        assertEquals(pending - 1, activeTenantOutboxService.getPendingCount());
+        assertEquals(deadLetters + 1, activeTenantOutboxService.getDeadLetterCount());
+
+        activeTenantOutboxService.enqueue(Operation.DELETE, 7004L, 8004L);
+        ActiveTenantOutboxEntity current = find(7004L, 8004L).get(0);
+        assertEquals(Status.PENDING, current.getStatus());
+        assertEquals(Operation.DELETE, current.getOperation());
+        assertEquals(0, current.getAttempts());
+        assertEquals(deadLetters, activeTenantOutboxService.getDeadLetterCount());
+        assertTrue(activeTenantOutboxService.remove(current));
+    }
+
+    /**
+     * Retrieves the due entry (if any) for a tenant and user
+     * @param tenantId tenant identifier
+     * @param userId user identifier
+     * @return list containing the due entries for the tenant and user
+     */
+    private List<ActiveTenantOutboxEntity> find(Long tenantId, Long userId) {
+        Optional<ActiveTenantOutboxEntity> entry = activeTenantOutboxService.getDue(Integer.MAX_VALUE).stream().
+                filter(o -> o.getTenantId().equals(tenantId) && o.getUserId().equals(userId)).findFirst();
+        return entry.map(Collections::singletonList).orElse(Collections.emptyList());
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.services;
+
+import io.radien.api.Model;
+import io.radien.api.model.permission.SystemPermission;
+import io.radien.api.model.tenant.SystemTenant;
+import io.radien.exception.SystemException;
+import io.radien.ms.permissionmanagement.client.entities.Permission;
+import io.radien.ms.tenantmanagement.client.entities.Tenant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Class that aggregates UnitTest cases for {@link ReferenceDataCache}
+ *
+ * @author Newton Carvalho
+ */
+public class ReferenceDataCacheTest {
+
+    private List<List<Long>> requests;
+    private AtomicLong stamp;
+    private int stampReads;
+
+    /**
+     * Resets the recorded requests and the version stamp
+     */
+    @BeforeEach
+    public void before() {
+        requests = new ArrayList<>();
+        stamp = new AtomicLong(1);
+        stampReads = 0;
+    }
+
+    /**
+     * Test for method {@link ReferenceDataCache#getTenants(List, ReferenceDataCache.Loader, ReferenceDataCache.StampReader)}
+     * Expected outcome: only the missing tenants are requested (all together) and the result
+     * follows the order of the informed identifiers
+     * @throws SystemException in case of any issue while loading
+     */
+    @Test
+    public void testBatchFillOnMiss() throws SystemException {
+        ReferenceDataCache cache = new ReferenceDataCache(60000, 60000, 10);
+        assertEquals(Arrays.asList(1L, 2L), ids(cache.getTenants(Arrays.asList(1L, 2L), this::loadTenants, this::readStamp)));
+        assertEquals(Arrays.asList(3L, 2L, 1L, 4L),
+                ids(cache.getTenants(Arrays.asList(3L, 2L, 1L, 4L, 3L), this::loadTenants, this::readStamp)));
+
+        assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Arrays.asList(3L, 4L)), requests);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+        assertEquals(2 / 6.0, cache.getHitRate(), 0.0001);
+        assertEquals(4, cache.getSize());
+        assertEquals(0, stampReads);
+        assertTrue(cache.getTenants(Collections.emptyList(), this::loadTenants, this::readStamp).isEmpty());
+    }
+
+    /**
+     * Test for method {@link ReferenceDataCache#getPermissions(List, ReferenceDataCache.Loader, ReferenceDataCache.StampReader)}
+     * Scenario: identifiers without entity on the owner service
+     * Expected outcome: only the existent permissions are retrieved and the missing ones are requested again
+     * @throws SystemException in case of any issue while loading
+     */
+    @Test
+    public void testNotFoundEntities() throws SystemException {
+        ReferenceDataCache cache = new ReferenceDataCache(60000, 60000, 10);
+        ReferenceDataCache.Loader<SystemPermission> loader = ids -> {
+            requests.add(ids);
+            return Collections.singletonList(permission(1L));
+        };
+        assertEquals(Collections.singletonList(1L), ids(cache.getPermissions(Arrays.asList(1L, 2L), loader, this::readStamp)));
+        assertEquals(Collections.singletonList(1L), ids(cache.getPermissions(Arrays.asList(1L, 2L), loader, this::readStamp)));
+        assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Collections.singletonList(2L)), requests);
+    }
+
+    /**
+     * Test for method {@link ReferenceDataCache#getTenants(List, ReferenceDataCache.Loader, ReferenceDataCache.StampReader)}
+     * Scenario: expired entries
+     * Expected outcome: expired entries are renewed while the version stamp remains the same,
+     * and everything is loaded again once the stamp is unknown or changes
+     * @throws SystemException in case of any issue while loading
+     */
+    @Test
+    public void testRevalidation() throws SystemException {
+        ReferenceDataCache cache = new ReferenceDataCache(0, 0, 10);
+        List<Long> ids = Arrays.asList(1L, 2L);
+        cache.getTenants(ids, this::loadTenants, this::readStamp);
+        assertEquals(0, stampReads);
+
+        cache.getTenants(ids, this::loadTenants, this::readStamp);
+        assertEquals(2, requests.size());
+        cache.getTenants(ids, this::loadTenants, this::readStamp);
+        cache.getTenants(ids, this::loadTenants, this::readStamp);
+        assertEquals(2, requests.size());
+        assertEquals(2, cache.getRevalidationCount());
+        assertEquals(3, stampReads);
+
+        stamp.incrementAndGet();
+        assertEquals(ids, ids(cache.getTenants(ids, this::loadTenants, this::readStamp)));
+        assertEquals(3, requests.size());
+
+        cache.getTenants(ids, this::loadTenants, () -> {
+            throw new SystemException("unavailable");
+        });
+        assertEquals(4, requests.size());
+    }
+
+    /**
+     * Test for method {@link ReferenceDataCache#getTenants(List, ReferenceDataCache.Loader, ReferenceDataCache.StampReader)}
+     * Scenario: Max size reached
+     * Expected outcome: least recently used entries are evicted
+     * @throws SystemException in case of any issue while loading
+     */
+    @Test
+    public void testMaxSize() throws SystemException {
+        ReferenceDataCache cache = new ReferenceDataCache(60000, 60000, 2);
+        cache.getTenants(Arrays.asList(1L, 2L), this::loadTenants, this::readStamp);
+        cache.getTenants(Collections.singletonList(1L), this::loadTenants, this::readStamp);
+        cache.getTenants(Collections.singletonList(3L), this::loadTenants, this::readStamp);
+        assertEquals(2, cache.getSize());
+
+        cache.getTenants(Arrays.asList(1L, 2L), this::loadTenants, this::readStamp);
+        assertEquals(Collections.singletonList(2L), requests.get(requests.size() - 1));
+    }
+
+    /**
+     * Test for methods {@link ReferenceDataCache#setEnabled(boolean)} and {@link ReferenceDataCache#invalidateAll()}
+     * Expected outcome: everything is requested when the cache is disabled or invalidated, and loading issues
+     * are propagated
+     * @throws SystemException in case of any issue while loading
+     */
+    @Test
+    public void testDisabledAndInvalidation() throws SystemException {
+        ReferenceDataCache cache = new ReferenceDataCache(60000, 60000, 10);
+        List<Long> ids = Arrays.asList(1L, 2L);
+        cache.getTenants(ids, this::loadTenants, this::readStamp);
+        cache.invalidateAll();
+        assertEquals(0, cache.getSize());
+        assertEquals(2, cache.getEvictionCount());
+        cache.getTenants(ids, this::loadTenants, this::readStamp);
+        assertEquals(2, requests.size());
+
+        cache.setEnabled(false);
+        cache.getTenants(ids, this::loadTenants, this::readStamp);
+        assertEquals(3, requests.size());
+
+        assertThrows(SystemException.class, () -> cache.getPermissions(ids, missing -> {
+            throw new SystemException("unavailable");
+        }, this::readStamp));
+    }
+
+    private List<SystemTenant> loadTenants(List<Long> ids) {
+        requests.add(ids);
+        return ids.stream().map(id -> {
+            Tenant tenant = new Tenant();
+            tenant.setId(id);
+            return tenant;
+        }).collect(Collectors.toList());
+    }
+
+    private long readStamp() {
+        stampReads++;
+        return stamp.get();
+    }
+
+    private static SystemPermission permission(Long id) {
+        Permission permission = new Permission();
+        permission.setId(id);
+        return permission;
+    }
+
+    private static List<Long> ids(List<? extends Model> entities) {
+        return entities.stream().map(Model::getId).collect(Collectors.toList());
+    }
+}
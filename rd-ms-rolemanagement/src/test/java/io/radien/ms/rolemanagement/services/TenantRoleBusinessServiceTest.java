@@ -26,7 +26,6 @@ import io.radien.api.model.tenantrole.SystemTenantRoleUser;
 import io.radien.api.model.tenantrole.SystemTenantRoleUserSearchFilter;
 import io.radien.api.service.permission.PermissionRESTServiceAccess;
 import io.radien.api.service.role.RoleServiceAccess;
-import io.radien.api.service.tenant.ActiveTenantRESTServiceAccess;
 import io.radien.api.service.tenant.TenantRESTServiceAccess;
 import io.radien.api.service.tenantrole.TenantRolePermissionServiceAccess;
 import io.radien.api.service.tenantrole.TenantRoleServiceAccess;
@@ -52,7 +51,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.stream.Collectors;
 import javax.ejb.embeddable.EJBContainer;
+import javax.enterprise.event.Event;
 import javax.naming.Context;
 import javax.naming.NamingException;
 import org.junit.jupiter.api.AfterAll;
@@ -79,6 +80,9 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -121,22 +125,29 @@ public class TenantRoleBusinessServiceTest extends AbstractTenantRoleBusinessSer
         lookupString = "java:global/rd-ms-rolemanagement//RoleService";
         roleServiceAccess = (RoleServiceAccess) context.lookup(lookupString);
 
+        lookupString = "java:global/rd-ms-rolemanagement//ActiveTenantOutboxService";
+        activeTenantOutboxService = (ActiveTenantOutboxService) context.lookup(lookupString);
+
         tenantRoleBusinessService = new TenantRoleBusinessService();
         tenantRoleBusinessService.setRoleServiceAccess(roleServiceAccess);
         tenantRoleBusinessService.setTenantRoleServiceAccess(tenantRoleServiceAccess);
         tenantRoleBusinessService.setTenantRoleUserServiceAccess(tenantRoleUserServiceAccess);
         tenantRoleBusinessService.setTenantRESTServiceAccess(mock(TenantRESTServiceAccess.class));
+        tenantRoleBusinessService.setReferenceDataCache(new ReferenceDataCache());
+        tenantRoleBusinessService.setAuthorizationChangeEvent(mock(Event.class));
 
         tenantRolePermissionBusinessService = new TenantRolePermissionBusinessService();
         tenantRolePermissionBusinessService.setTenantRoleServiceAccess(tenantRoleServiceAccess);
         tenantRolePermissionBusinessService.setRoleServiceAccess(roleServiceAccess);
         tenantRolePermissionBusinessService.setTenantRolePermissionService(tenantRolePermissionServiceAccess);
+        tenantRolePermissionBusinessService.setAuthorizationChangeEvent(mock(Event.class));
 
         tenantRoleUserBusinessService = new TenantRoleUserBusinessService();
         tenantRoleUserBusinessService.setTenantRoleServiceAccess(tenantRoleServiceAccess);
         tenantRoleUserBusinessService.setTenantRoleUserServiceAccess(tenantRoleUserServiceAccess);
         tenantRoleUserBusinessService.setTenantRESTServiceAccess(mock(TenantRESTServiceAccess.class));
-        tenantRoleUserBusinessService.setActiveTenantRESTServiceAccess(mock(ActiveTenantRESTServiceAccess.class));
+        tenantRoleUserBusinessService.setActiveTenantOutboxService(activeTenantOutboxService);
+        tenantRoleUserBusinessService.setAuthorizationChangeEvent(mock(Event.class));
     }
 
     /**
@@ -285,14 +296,11 @@ public class TenantRoleBusinessServiceTest extends AbstractTenantRoleBusinessSer
         when(tenantRoleUserBusinessService.getTenantRESTServiceAccess().getTenantById(tenantId)).
                 thenReturn(Optional.of(tenantForId1));
 
-        ActiveTenantRESTServiceAccess activeTenantRESTServiceAccess = mock(ActiveTenantRESTServiceAccess.class);
-        when(activeTenantRESTServiceAccess.isActiveTenantExistent(user1Id, tenantId)).thenReturn(Boolean.FALSE);
-        when(activeTenantRESTServiceAccess.create(any())).thenReturn(Boolean.TRUE);
-        tenantRoleUserBusinessService.setActiveTenantRESTServiceAccess(activeTenantRESTServiceAccess);
-
         TenantRoleUserEntity tru = assemblyTenantRoleUser(tenantId, roleAdmin.getId(), user1Id);
 
         assertDoesNotThrow(() -> tenantRoleUserBusinessService.assignUser(tru));
+        // Active tenant creation is registered to be delivered asynchronously
+        assertTrue(activeTenantOutboxService.getPendingCount() > 0);
     }
 
     /**
@@ -361,7 +369,6 @@ public class TenantRoleBusinessServiceTest extends AbstractTenantRoleBusinessSer
         Long tenant5 = 5L;
 
         tenantRoleUserBusinessService.setTenantRESTServiceAccess(mock(TenantRESTServiceAccess.class));
-        tenantRoleUserBusinessService.setActiveTenantRESTServiceAccess(mock(ActiveTenantRESTServiceAccess.class));
 
         // Create mocked Tenants
         Tenant tenantForId1 = new Tenant(); tenantForId1.setId(tenantId);
@@ -939,6 +946,8 @@ public class TenantRoleBusinessServiceTest extends AbstractTenantRoleBusinessSer
                     unAssignPermission(tenantId3, publisher.getId(), permissionId));
         }
         assertDoesNotThrow(() -> tenantRoleBusinessService.delete(tenantRole.getId()));
+        verify(tenantRoleBusinessService.getAuthorizationChangeEvent()).fire(argThat(event ->
+                tenantId3.equals(event.getTenantId()) && event.getUserId() == null));
     }
 
     /**
@@ -1069,14 +1078,12 @@ public class TenantRoleBusinessServiceTest extends AbstractTenantRoleBusinessSer
     }
 
     /**
-     * Test to validate if we can retrieve the correct active tenant rest service access
+     * Test to validate if we can retrieve the correct active tenant outbox service
      */
     @Test
     @Order(36)
-    public void getActiveTenantRESTServiceAccess() {
-        ActiveTenantRESTServiceAccess mockActiveTenantRESTServiceAccess = mock(ActiveTenantRESTServiceAccess.class);
-        tenantRoleUserBusinessService.setActiveTenantRESTServiceAccess(mockActiveTenantRESTServiceAccess);
-        assertEquals(mockActiveTenantRESTServiceAccess, tenantRoleUserBusinessService.getActiveTenantRESTServiceAccess());
+    public void getActiveTenantOutboxService() {
+        assertEquals(activeTenantOutboxService, tenantRoleUserBusinessService.getActiveTenantOutboxService());
     }
 
     /**
@@ -1177,6 +1184,7 @@ public class TenantRoleBusinessServiceTest extends AbstractTenantRoleBusinessSer
         tenantRoleBusinessService.setRoleServiceAccess(roleServiceAccess);
         tenantRoleBusinessService.setTenantRoleServiceAccess(tenantRoleServiceAccess);
         tenantRolePermissionBusinessService.setTenantRolePermissionService(tenantRolePermissionServiceAccess);
+        tenantRolePermissionBusinessService.setAuthorizationChangeEvent(mock(Event.class));
         Long tenant = 1000000L;
         SystemRole role = createRole("a test role");
 
@@ -1269,4 +1277,47 @@ public class TenantRoleBusinessServiceTest extends AbstractTenantRoleBusinessSer
         assertThrows(TenantRoleException.class, () ->
                 tenantRoleUserBusinessService.delete(1111111111L));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test for {@link TenantRoleBusinessService#getTenants(Long, Long)} regarding the reference data cache.
+     * Expected outcome: tenants are requested only once while valid, expired tenants are renewed while the
+     * version stamp does not change and requested again when it changes
+     * @throws SystemException in case of any communication issue regarding Tenant Rest Client
+     */
+    @Test
+    @Order(45)
+    void testGetTenantsThroughReferenceDataCache() throws SystemException {
+        TenantRESTServiceAccess tenantRESTServiceAccess = mock(TenantRESTServiceAccess.class);
+        when(tenantRESTServiceAccess.getTenantsByIds(any())).then(i -> {
+            List<Long> ids = i.getArgument(0);
+            return ids.stream().map(id -> {
+                Tenant tenant = new Tenant();
+                tenant.setId(id);
+                return tenant;
+            }).collect(Collectors.toList());
+        });
+        when(tenantRESTServiceAccess.getVersionStamp()).thenReturn(1L);
+        tenantRoleBusinessService.setTenantRESTServiceAccess(tenantRESTServiceAccess);
+
+        tenantRoleBusinessService.setReferenceDataCache(new ReferenceDataCache(60000, 60000, 100));
+        List<SystemTenant> tenants = tenantRoleBusinessService.getTenants(user1Id, null);
+        assertTrue(tenants.size() >= 3);
+        assertEquals(tenants, tenantRoleBusinessService.getTenants(user1Id, null));
+        verify(tenantRESTServiceAccess, times(1)).getTenantsByIds(any());
+        verify(tenantRESTServiceAccess, never()).getVersionStamp();
+
+        ReferenceDataCache alwaysExpired = new ReferenceDataCache(0, 0, 100);
+        tenantRoleBusinessService.setReferenceDataCache(alwaysExpired);
+        tenantRoleBusinessService.getTenants(user1Id, null);
+        tenantRoleBusinessService.getTenants(user1Id, null);
+        assertEquals(tenants.size(), tenantRoleBusinessService.getTenants(user1Id, null).size());
+        verify(tenantRESTServiceAccess, times(3)).getTenantsByIds(any());
+        assertEquals(1, alwaysExpired.getRevalidationCount());
+
+        when(tenantRESTServiceAccess.getVersionStamp()).thenReturn(2L);
+        assertEquals(tenants.size(), tenantRoleBusinessService.getTenants(user1Id, null).size());
+        verify(tenantRESTServiceAccess, times(4)).getTenantsByIds(any());
+
+        tenantRoleBusinessService.setReferenceDataCache(new ReferenceDataCache());
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.rolemanagement.services;
+
+import io.radien.api.service.role.RoleServiceAccess;
+import io.radien.api.service.tenantrole.TenantRolePermissionServiceAccess;
+import io.radien.api.service.tenantrole.TenantRoleServiceAccess;
+import io.radien.api.service.tenantrole.TenantRoleUserServiceAccess;
+import io.radien.ms.rolemanagement.entities.RoleEntity;
+import io.radien.ms.rolemanagement.entities.TenantRoleEntity;
+import io.radien.ms.rolemanagement.entities.TenantRolePermissionEntity;
+import io.radien.ms.rolemanagement.entities.TenantRoleUserEntity;
+import io.radien.ms.rolemanagement.factory.RoleFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.ejb.embeddable.EJBContainer;
+import javax.naming.Context;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the hot (authorization related) queries of {@link TenantRoleService},
+ * {@link TenantRoleUserService} and {@link TenantRolePermissionService} against an in memory database.
+ * Every invocation uses the next user, tenant, role and permission, so the queries do not always hit the same rows.
+ * {@link #main(String[])} adds the GC profiler, which reports the bytes allocated per call (gc.alloc.rate.norm).
+ * Not executed by surefire, run {@link #main(String[])} from the test classpath.
+ *
+ * @author Newton Carvalho
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class TenantRoleQueryBenchmark {
+
+    private static final int TENANTS = 50;
+    private static final int ROLES = 20;
+    private static final int USERS = 200;
+    private static final int TENANT_ROLES_PER_USER = 10;
+    private static final int PERMISSIONS_PER_TENANT_ROLE = 2;
+
+    private static final List<String> ROLE_NAMES = Arrays.asList("benchmark-role-1", "benchmark-role-5",
+            "benchmark-role-9");
+
+    private EJBContainer container;
+    private TenantRoleServiceAccess tenantRoleService;
+    private TenantRoleUserServiceAccess tenantRoleUserService;
+    private TenantRolePermissionServiceAccess tenantRolePermissionService;
+    private final List<RoleEntity> roles = new ArrayList<>();
+    private final List<TenantRoleEntity> tenantRoles = new ArrayList<>();
+    private int iteration;
+
+    /**
+     * Starts the container and prepares the roles, tenant roles, users and permissions (outside the measurement)
+     * @throws Exception in case of the services lookup or the data preparation fails
+     */
+    @Setup
+    public void setUp() throws Exception {
+        Properties p = new Properties();
+        p.put("appframeDatabase", "new://Resource?type=DataSource");
+        p.put("appframeDatabase.JdbcDriver", "org.hsqldb.jdbcDriver");
+        p.put("appframeDatabase.JdbcUrl", "jdbc:hsqldb:mem:radienbenchmark");
+        p.put("appframeDatabase.userName", "sa");
+        p.put("appframeDatabase.password", "");
+        p.put("openejb.deployments.classpath.include", ".*role.*");
+        p.put("openejb.deployments.classpath.exclude", ".*client.*");
+        p.put("openejb.cdi.activated-on-ejb", "false");
+
+        container = EJBContainer.createEJBContainer(p);
+        Context context = container.getContext();
+        RoleServiceAccess roleService = (RoleServiceAccess)
+                context.lookup("java:global/rd-ms-rolemanagement//RoleService");
+        tenantRoleService = (TenantRoleServiceAccess)
+                context.lookup("java:global/rd-ms-rolemanagement//TenantRoleService");
+        tenantRoleUserService = (TenantRoleUserServiceAccess)
+                context.lookup("java:global/rd-ms-rolemanagement//TenantRoleUserService");
+        tenantRolePermissionService = (TenantRolePermissionServiceAccess)
+                context.lookup("java:global/rd-ms-rolemanagement//TenantRolePermissionService");
+
+        for (int r = 0; r < ROLES; r++) {
+            RoleEntity role = RoleFactory.create("benchmark-role-" + r, "benchmark", 1L);
+            roleService.save(role);
+            roles.add(role);
+        }
+        for (long tenantId = 1; tenantId <= TENANTS; tenantId++) {
+            for (RoleEntity role : roles) {
+                TenantRoleEntity tenantRole = new TenantRoleEntity();
+                tenantRole.setTenantId(tenantId);
+                tenantRole.setRoleId(role.getId());
+                tenantRoles.add(tenantRole);
+            }
+        }
+        tenantRoleService.saveAll(tenantRoles);
+        List<TenantRoleUserEntity> tenantRoleUsers = new ArrayList<>();
+        for (long userId = 1; userId <= USERS; userId++) {
+            for (int i = 0; i < TENANT_ROLES_PER_USER; i++) {
+                TenantRoleUserEntity tenantRoleUser = new TenantRoleUserEntity();
+                tenantRoleUser.setUserId(userId);
+                tenantRoleUser.setTenantRoleId(tenantRoles.get((int) ((userId * 7 + i * 31) % tenantRoles.size())).getId());
+                tenantRoleUsers.add(tenantRoleUser);
+            }
+        }
+        tenantRoleUserService.createAll(tenantRoleUsers);
+        for (int i = 0; i < tenantRoles.size(); i++) {
+            for (long permission = 1; permission <= PERMISSIONS_PER_TENANT_ROLE; permission++) {
+                TenantRolePermissionEntity tenantRolePermission = new TenantRolePermissionEntity();
+                tenantRolePermission.setTenantRoleId(tenantRoles.get(i).getId());
+                tenantRolePermission.setPermissionId(i % 100 + permission);
+                tenantRolePermissionService.create(tenantRolePermission);
+            }
+        }
+    }
+
+    /**
+     * Closes the container
+     */
+    @TearDown
+    public void tearDown() {
+        container.close();
+    }
+
+    /**
+     * Checks a user permission on a tenant
+     * @return true if the user has the permission
+     */
+    @Benchmark
+    public boolean hasPermissionOnTenant() {
+        int i = iteration++;
+        return tenantRoleService.hasPermission(user(i), permission(i), tenant(i));
+    }
+
+    /**
+     * Checks a user permission on any tenant
+     * @return true if the user has the permission
+     */
+    @Benchmark
+    public boolean hasPermission() {
+        int i = iteration++;
+        return tenantRoleService.hasPermission(user(i), permission(i), null);
+    }
+
+    /**
+     * Checks if a user has any of the roles on a tenant
+     * @return true if the user has one of the roles
+     */
+    @Benchmark
+    public boolean hasAnyRoleOnTenant() {
+        int i = iteration++;
+        return tenantRoleService.hasAnyRole(user(i), ROLE_NAMES, tenant(i));
+    }
+
+    /**
+     * Checks if a user has any of the roles on any tenant
+     * @return true if the user has one of the roles
+     */
+    @Benchmark
+    public boolean hasAnyRole() {
+        int i = iteration++;
+        return tenantRoleService.hasAnyRole(user(i), ROLE_NAMES, null);
+    }
+
+    /**
+     * Retrieves the roles of a user on a tenant
+     * @return the role ids
+     */
+    @Benchmark
+    public List<Long> getRoleIdsForUserTenant() {
+        int i = iteration++;
+        return tenantRoleService.getRoleIdsForUserTenant(user(i), tenant(i));
+    }
+
+    /**
+     * Retrieves the tenants of a user
+     * @return the tenant ids
+     */
+    @Benchmark
+    public List<Long> getTenants() {
+        int i = iteration++;
+        return tenantRoleService.getTenants(user(i), null);
+    }
+
+    /**
+     * Retrieves the permissions of a user for a role on a tenant
+     * @return the permission ids
+     */
+    @Benchmark
+    public List<Long> getPermissionsOfUser() {
+        int i = iteration++;
+        return tenantRoleService.getPermissions(tenant(i), roles.get(i % ROLES).getId(), user(i));
+    }
+
+    /**
+     * Checks if a role is associated with a tenant
+     * @return true if the association exists
+     */
+    @Benchmark
+    public boolean isTenantRoleExistent() {
+        int i = iteration++;
+        return tenantRoleService.isAssociationAlreadyExistent(roles.get(i % ROLES).getId(), tenant(i));
+    }
+
+    /**
+     * Checks if a user is associated with a tenant role
+     * @return true if the association exists
+     */
+    @Benchmark
+    public boolean isTenantRoleUserExistent() {
+        int i = iteration++;
+        return tenantRoleUserService.isAssociationAlreadyExistent(user(i), tenantRole(i));
+    }
+
+    /**
+     * Checks if a permission is associated with a tenant role
+     * @return true if the association exists
+     */
+    @Benchmark
+    public boolean isTenantRolePermissionExistent() {
+        int i = iteration++;
+        return tenantRolePermissionService.isAssociationAlreadyExistent(permission(i), tenantRole(i));
+    }
+
+    /**
+     * Runs the benchmark, reporting the allocations per call as well
+     * @param args not used
+     * @throws RunnerException in case of benchmark failure
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TenantRoleQueryBenchmark.class.getSimpleName()).
+                addProfiler(GCProfiler.class).build()).run();
+    }
+
+    /**
+     * Gets the user identifier used on a given iteration
+     * @param iteration iteration number
+     * @return the user identifier
+     */
+    private static Long user(int iteration) {
+        return (long) (Math.floorMod(iteration, USERS) + 1);
+    }
+
+    /**
+     * Gets the tenant identifier used on a given iteration
+     * @param iteration iteration number
+     * @return the tenant identifier
+     */
+    private static Long tenant(int iteration) {
+        return (long) (Math.floorMod(iteration, TENANTS) + 1);
+    }
+
+    /**
+     * Gets the permission identifier used on a given iteration
+     * @param iteration iteration number
+     * @return the permission identifier
+     */
+    private static Long permission(int iteration) {
+        return (long) (Math.floorMod(iteration, 100) + 1);
+    }
+
+    /**
+     * Gets the tenant role identifier used on a given iteration
+     * @param iteration iteration number
+     * @return the tenant role identifier
+     */
+    private Long tenantRole(int iteration) {
+        return tenantRoles.get(Math.floorMod(iteration, tenantRoles.size())).getId();
+    }
+}
@@ -15,6 +15,7 @@
  */
 package io.radien.ms.rolemanagement.services;
 
+import io.radien.api.entity.EffectiveAuthorization;
 import io.radien.exception.RoleNotFoundException;
 import io.radien.exception.SystemException;
 import io.radien.exception.TenantRoleException;
@@ -432,4 +433,24 @@ public class TenantRoleResourceTest {
         assertEquals(400,response.getStatus());
     }
 
+    /**
+     * Tests response from getEffectiveAuthorization method, including the absence of user and
+     * exceptions occurring during the processing
+     */
+    @Test
+    void testGetEffectiveAuthorization() {
+        when(tenantRoleBusinessService.getEffectiveAuthorization(1L, 2L)).
+                thenReturn(new EffectiveAuthorization(1L, 2L, new long[]{3L}, new String[]{"admin"}, new long[]{4L}));
+        doThrow(new RuntimeException("error")).
+                when(tenantRoleBusinessService).getEffectiveAuthorization(2L, 2L);
+
+        Response response = tenantRoleResource.getEffectiveAuthorization(1L, 2L);
+        assertEquals(200, response.getStatus());
+
+        response = tenantRoleResource.getEffectiveAuthorization(null, 2L);
+        assertEquals(404, response.getStatus());
+
+        response = tenantRoleResource.getEffectiveAuthorization(2L, 2L);
+        assertEquals(500, response.getStatus());
+    }
 }
@@ -16,6 +16,7 @@
 package io.radien.ms.rolemanagement.services;
 
 import io.radien.api.SystemVariables;
+import io.radien.api.entity.EffectiveAuthorization;
 import io.radien.api.entity.Page;
 import io.radien.api.model.role.SystemRole;
 import io.radien.api.model.tenant.SystemTenant;
@@ -948,6 +949,59 @@ public class TenantRoleServiceTest {
         Assertions.assertTrue(e.getCausedByException() instanceof IllegalArgumentException);
     }
 
+    /**
+     * Test method getEffectiveAuthorization(Long userId, Long tenantId)
+     * asserts roles and permissions granted for one tenant and for all the tenants
+     */
+    @Test
+    public void testGetEffectiveAuthorization() {
+        SystemRole roleE = new RoleEntity();
+        roleObject(roleE, "role-e1");
+        SystemRole roleF = new RoleEntity();
+        roleObject(roleF, "role-f1");
+
+        Long tenant1 = 7771L;
+        Long tenant2 = 7772L;
+        Long user = 10003333L;
+
+        SystemTenantRole tenant1RoleE = new TenantRoleEntity();
+        tenantRoleObject(tenant1RoleE, tenant1, roleE);
+        SystemTenantRole tenant2RoleF = new TenantRoleEntity();
+        tenantRoleObject(tenant2RoleF, tenant2, roleF);
+
+        SystemTenantRolePermission tenant1RoleEPermission = new TenantRolePermissionEntity();
+        tenant1RoleEPermission.setTenantRoleId(tenant1RoleE.getId());
+        tenant1RoleEPermission.setPermissionId(200002L);
+        Assertions.assertDoesNotThrow(() -> tenantRolePermissionServiceAccess.create(tenant1RoleEPermission));
+
+        SystemTenantRolePermission tenant2RoleFPermission = new TenantRolePermissionEntity();
+        tenant2RoleFPermission.setTenantRoleId(tenant2RoleF.getId());
+        tenant2RoleFPermission.setPermissionId(200001L);
+        Assertions.assertDoesNotThrow(() -> tenantRolePermissionServiceAccess.create(tenant2RoleFPermission));
+
+        SystemTenantRoleUser tenant1RoleEUser = new TenantRoleUserEntity();
+        tenant1RoleEUser.setUserId(user); tenant1RoleEUser.setTenantRoleId(tenant1RoleE.getId());
+        Assertions.assertDoesNotThrow(() -> tenantRoleUserServiceAccess.create(tenant1RoleEUser));
+
+        SystemTenantRoleUser tenant2RoleFUser = new TenantRoleUserEntity();
+        tenant2RoleFUser.setUserId(user); tenant2RoleFUser.setTenantRoleId(tenant2RoleF.getId());
+        Assertions.assertDoesNotThrow(() -> tenantRoleUserServiceAccess.create(tenant2RoleFUser));
+
+        EffectiveAuthorization tenant1Authorization = tenantRoleServiceAccess.getEffectiveAuthorization(user, tenant1);
+        Assertions.assertArrayEquals(new long[]{roleE.getId()}, tenant1Authorization.getRoleIds());
+        Assertions.assertArrayEquals(new String[]{"role-e1"}, tenant1Authorization.getRoleNames());
+        Assertions.assertArrayEquals(new long[]{200002L}, tenant1Authorization.getPermissionIds());
+        Assertions.assertFalse(tenant1Authorization.hasPermission(200001L));
+
+        EffectiveAuthorization allTenantsAuthorization = tenantRoleServiceAccess.getEffectiveAuthorization(user, null);
+        Assertions.assertArrayEquals(new String[]{"role-e1", "role-f1"}, allTenantsAuthorization.getRoleNames());
+        Assertions.assertArrayEquals(new long[]{200001L, 200002L}, allTenantsAuthorization.getPermissionIds());
+
+        EJBException e = Assertions.assertThrows(EJBException.class, () ->
+                tenantRoleServiceAccess.getEffectiveAuthorization(null, tenant1));
+        Assertions.assertTrue(e.getCausedByException() instanceof IllegalArgumentException);
+    }
+
     /**
      * Test method getTenantRoleIds()
      * asserts List TenantRoleIds
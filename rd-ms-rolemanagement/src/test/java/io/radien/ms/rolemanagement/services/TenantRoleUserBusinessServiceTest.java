@@ -15,17 +15,29 @@
  */
 package io.radien.ms.rolemanagement.services;
 
-import io.radien.api.service.tenant.ActiveTenantRESTServiceAccess;
+import io.radien.api.model.role.SystemRole;
+import io.radien.api.model.tenant.SystemTenant;
+import io.radien.api.model.tenantrole.TenantRoleUserAssignmentOutcome;
+import io.radien.api.security.AuthorizationChangeEvent;
+import io.radien.api.service.role.RoleServiceAccess;
+import io.radien.api.service.tenant.TenantRESTServiceAccess;
 import io.radien.api.service.tenantrole.TenantRoleServiceAccess;
 import io.radien.api.service.tenantrole.TenantRoleUserServiceAccess;
 import io.radien.exception.SystemException;
 import io.radien.exception.TenantRoleException;
 import io.radien.exception.TenantRoleUserException;
+import io.radien.ms.rolemanagement.entities.ActiveTenantOutboxEntity;
+import io.radien.ms.rolemanagement.entities.TenantRoleEntity;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.enterprise.event.Event;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,11 +45,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 /**
  * Class that aggregates UnitTest cases for
@@ -56,6 +73,18 @@ public class TenantRoleUserBusinessServiceTest {
     @Mock
     private TenantRoleUserServiceAccess tenantRoleUserServiceAccess;
 
+    @Mock
+    private Event<AuthorizationChangeEvent> authorizationChangeEvent;
+
+    @Mock
+    private TenantRESTServiceAccess tenantRESTServiceAccess;
+
+    @Mock
+    private RoleServiceAccess roleServiceAccess;
+
+    @Mock
+    private ActiveTenantOutboxService activeTenantOutboxService;
+
     Long userId = 1L;
     Long tenantId = 2L;
     Collection<Long> roleIds;
@@ -82,10 +111,9 @@ public class TenantRoleUserBusinessServiceTest {
 
         Assertions.assertEquals(tenantRoleUserIds, tenantRoleUserServiceAccess.getTenantRoleUserIds(tenantRoleIds, userId));
 
-        ActiveTenantRESTServiceAccess activeTenantRESTServiceAccess = mock(ActiveTenantRESTServiceAccess.class);
-        when(activeTenantRESTServiceAccess.deleteByTenantAndUser(tenantId, userId)).thenReturn(Boolean.TRUE);
-        tenantRoleUserBusinessService.setActiveTenantRESTServiceAccess(activeTenantRESTServiceAccess);
         tenantRoleUserBusinessService.unAssignUser(tenantId, roleIds, userId);
+        verify(authorizationChangeEvent).fire(any(AuthorizationChangeEvent.class));
+        verify(activeTenantOutboxService).enqueue(ActiveTenantOutboxEntity.Operation.DELETE, tenantId, userId);
     }
 
     @Test
@@ -97,4 +125,87 @@ public class TenantRoleUserBusinessServiceTest {
         Assertions.assertThrows(TenantRoleUserException.class, () -> tenantRoleUserServiceAccess.getTenantRoleUserIds(tenantRoleIds, userId));
     }
 
-}
\ No newline at end of file
+    /**
+     * Test for method {@link TenantRoleUserBusinessService#assignUser(Long, Collection, Long)}
+     * Scenario: one role already assigned, one role without tenant role association and one unknown role
+     * Expected outcome: missing tenant role is created, user is assigned (in bulk) only to the roles
+     * not yet assigned and the active tenant creation is registered once
+     */
+    @Test
+    public void testAssignUserInBulk() throws TenantRoleException, SystemException {
+        doReturn(Optional.of(mock(SystemTenant.class))).when(tenantRESTServiceAccess).getTenantById(tenantId);
+
+        SystemRole role3 = mock(SystemRole.class);
+        when(role3.getId()).thenReturn(3L);
+        SystemRole role4 = mock(SystemRole.class);
+        when(role4.getId()).thenReturn(4L);
+        doReturn(Arrays.asList(role3, role4)).when(roleServiceAccess).getSpecificRoles(any());
+
+        Map<Long, Long> tenantRoleIdsByRole = new HashMap<>();
+        tenantRoleIdsByRole.put(3L, 30L);
+        doReturn(tenantRoleIdsByRole).when(tenantRoleServiceAccess).getTenantRoleIdsByRole(anyLong(), anyCollection());
+        doAnswer(invocation -> {
+            Collection<TenantRoleEntity> tenantRoles = invocation.getArgument(0);
+            tenantRoles.forEach(tenantRole -> tenantRole.setId(tenantRole.getRoleId() * 10));
+            return null;
+        }).when(tenantRoleServiceAccess).saveAll(anyCollection());
+        doReturn(Collections.singletonList(30L)).when(tenantRoleUserServiceAccess).
+                getAssignedTenantRoleIds(anyCollection(), anyLong());
+
+        Map<Long, TenantRoleUserAssignmentOutcome> outcomes = tenantRoleUserBusinessService.
+                assignUser(tenantId, Arrays.asList(3L, 4L, 5L), userId);
+
+        Assertions.assertEquals(Arrays.asList(3L, 4L, 5L), new ArrayList<>(outcomes.keySet()));
+        Assertions.assertEquals(TenantRoleUserAssignmentOutcome.ALREADY_ASSIGNED, outcomes.get(3L));
+        Assertions.assertEquals(TenantRoleUserAssignmentOutcome.ASSIGNED, outcomes.get(4L));
+        Assertions.assertEquals(TenantRoleUserAssignmentOutcome.ROLE_NOT_FOUND, outcomes.get(5L));
+        verify(tenantRoleServiceAccess).saveAll(anyCollection());
+        verify(tenantRoleUserServiceAccess).createAll(anyCollection());
+        verify(authorizationChangeEvent).fire(any(AuthorizationChangeEvent.class));
+        verify(activeTenantOutboxService).enqueue(ActiveTenantOutboxEntity.Operation.CREATE, tenantId, userId);
+    }
+
+    /**
+     * Test for method {@link TenantRoleUserBusinessService#assignUser(Long, Collection, Long)}
+     * Scenario: every role already assigned
+     * Expected outcome: nothing is created and no notification is fired
+     */
+    @Test
+    public void testAssignUserInBulkAlreadyAssigned() throws TenantRoleException, SystemException {
+        doReturn(Optional.of(mock(SystemTenant.class))).when(tenantRESTServiceAccess).getTenantById(tenantId);
+        SystemRole role3 = mock(SystemRole.class);
+        when(role3.getId()).thenReturn(3L);
+        doReturn(Collections.singletonList(role3)).when(roleServiceAccess).getSpecificRoles(any());
+        doReturn(Collections.singletonMap(3L, 30L)).when(tenantRoleServiceAccess).
+                getTenantRoleIdsByRole(anyLong(), anyCollection());
+        doReturn(Collections.singletonList(30L)).when(tenantRoleUserServiceAccess).
+                getAssignedTenantRoleIds(anyCollection(), anyLong());
+
+        Map<Long, TenantRoleUserAssignmentOutcome> outcomes = tenantRoleUserBusinessService.
+                assignUser(tenantId, Collections.singletonList(3L), userId);
+
+        Assertions.assertEquals(TenantRoleUserAssignmentOutcome.ALREADY_ASSIGNED, outcomes.get(3L));
+        verify(tenantRoleServiceAccess, never()).saveAll(anyCollection());
+        verify(tenantRoleUserServiceAccess, never()).createAll(anyCollection());
+        verifyZeroInteractions(authorizationChangeEvent, activeTenantOutboxService);
+    }
+
+    /**
+     * Test for method {@link TenantRoleUserBusinessService#assignUser(Long, Collection, Long)}
+     * Scenario: mandatory parameters not informed, tenant not found
+     * Expected outcome: TenantRoleException
+     */
+    @Test
+    public void testAssignUserInBulkInvalidParameters() throws SystemException {
+        List<Long> roles = Collections.singletonList(3L);
+        Assertions.assertThrows(TenantRoleException.class, () ->
+                tenantRoleUserBusinessService.assignUser(tenantId, roles, null));
+        Assertions.assertThrows(TenantRoleException.class, () ->
+                tenantRoleUserBusinessService.assignUser(null, roles, userId));
+
+        doReturn(Optional.empty()).when(tenantRESTServiceAccess).getTenantById(tenantId);
+        Assertions.assertThrows(TenantRoleException.class, () ->
+                tenantRoleUserBusinessService.assignUser(tenantId, roles, userId));
+    }
+
+}
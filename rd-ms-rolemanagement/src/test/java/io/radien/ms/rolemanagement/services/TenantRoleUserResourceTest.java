@@ -15,6 +15,7 @@
  */
 package io.radien.ms.rolemanagement.services;
 
+import io.radien.api.model.tenantrole.TenantRoleUserAssignmentOutcome;
 import io.radien.api.service.tenantrole.TenantRoleUserServiceAccess;
 import io.radien.exception.SystemException;
 import io.radien.exception.TenantRoleException;
@@ -24,6 +25,9 @@ import io.radien.ms.rolemanagement.client.entities.TenantRoleUser;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.json.JsonObject;
 import javax.ws.rs.core.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -109,6 +113,41 @@ public class TenantRoleUserResourceTest {
         assertEquals(500, response.getStatus());
     }
 
+    /**
+     * Test asserts Response (and the outcome per role) from
+     * the bulk assignment of user to roles under a tenant
+     */
+    @Test
+    public void testAssignUserToRoles() throws SystemException, TenantRoleException {
+        Map<Long, TenantRoleUserAssignmentOutcome> outcomes = new LinkedHashMap<>();
+        outcomes.put(1L, TenantRoleUserAssignmentOutcome.ASSIGNED);
+        outcomes.put(2L, TenantRoleUserAssignmentOutcome.ROLE_NOT_FOUND);
+        when(tenantRoleUserBusinessService.assignUser(1L, Arrays.asList(1L, 2L), 1L)).thenReturn(outcomes);
+
+        Response response = tenantRoleUserResource.assignUser(1L, Arrays.asList(1L, 2L), 1L);
+        assertEquals(200, response.getStatus());
+        JsonObject entity = (JsonObject) response.getEntity();
+        assertEquals(TenantRoleUserAssignmentOutcome.ASSIGNED.name(), entity.getString("1"));
+        assertEquals(TenantRoleUserAssignmentOutcome.ROLE_NOT_FOUND.name(), entity.getString("2"));
+    }
+
+    /**
+     * Test asserts Response from the bulk assignment
+     * of user to roles when exceptions occur during the processing
+     */
+    @Test
+    public void testAssignUserToRolesWithException() throws SystemException, TenantRoleException {
+        when(tenantRoleUserBusinessService.assignUser(anyLong(), anyCollection(), anyLong())).
+                thenThrow(new TenantRoleException("error"));
+        Response response = tenantRoleUserResource.assignUser(1L, Arrays.asList(1L, 2L), 1L);
+        assertEquals(400, response.getStatus());
+
+        doThrow(new RuntimeException("error")).when(tenantRoleUserBusinessService).
+                assignUser(anyLong(), anyCollection(), anyLong());
+        response = tenantRoleUserResource.assignUser(1L, Arrays.asList(1L, 2L), 1L);
+        assertEquals(500, response.getStatus());
+    }
+
     /**
      * Test asserts Response from
      * UnAssignedUserTenantRoles
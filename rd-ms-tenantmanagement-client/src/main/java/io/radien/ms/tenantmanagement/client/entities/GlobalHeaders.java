@@ -18,6 +18,7 @@ package io.radien.ms.tenantmanagement.client.entities;
 import io.radien.api.security.TokensPlaceHolder;
 import org.eclipse.microprofile.rest.client.ext.ClientHeadersFactory;
 
+import javax.enterprise.context.ContextNotActiveException;
 import javax.enterprise.inject.Default;
 import javax.enterprise.inject.spi.CDI;
 import javax.inject.Inject;
@@ -63,12 +64,27 @@ public class GlobalHeaders implements ClientHeadersFactory {
         }
         MultivaluedMap<String, String> result = new MultivaluedHashMap<>();
 
-        if(tokensPlaceHolder.getAccessToken() != null) {
-            result.add(HttpHeaders.AUTHORIZATION, "Bearer " + tokensPlaceHolder.getAccessToken());
+        String accessToken = getAccessToken();
+        if(accessToken != null) {
+            result.add(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
         }
         result.putAll(incomingHeaders);
         result.putAll(outgoingHeaders);
 
         return result;
     }
+
+    /**
+     * Retrieves the access token of the current session. Background invocations (timers, for instance)
+     * have no session, in that case no token is returned and the caller is expected to authenticate
+     * the request by itself
+     * @return the session access token or null if there is none
+     */
+    private String getAccessToken() {
+        try {
+            return tokensPlaceHolder.getAccessToken();
+        } catch (ContextNotActiveException e) {
+            return null;
+        }
+    }
 }
@@ -33,8 +33,12 @@ import java.net.MalformedURLException;
 import java.text.ParseException;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
+import javax.json.Json;
+import javax.json.JsonNumber;
+import javax.json.JsonReader;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.core.Response;
 import org.apache.cxf.bus.extension.ExtensionException;
@@ -358,6 +362,52 @@ public class TenantRESTServiceClient extends AuthorizationChecker implements Ten
         }
     }
 
+    /**
+     * Asks the requester to get the ids of all the tenants below the given tenant
+     * @param tenantId id of the top tenant
+     * @return the ids of all descendant tenants
+     * @throws SystemException in case it founds multiple actions or if URL is malformed
+     */
+    @Override
+    public List<Long> getDescendants(long tenantId) throws SystemException {
+        try {
+            return getDescendantsRequester(tenantId);
+        } catch (TokenExpiredException expiredException) {
+            refreshToken();
+            try{
+                return getDescendantsRequester(tenantId);
+            } catch (TokenExpiredException expiredException1){
+                throw new SystemException(GenericErrorCodeMessage.EXPIRED_ACCESS_TOKEN.toString());
+            }
+        }
+    }
+
+    /**
+     * Gets the ids of all the tenants below the given tenant
+     * @param tenantId id of the top tenant
+     * @return the ids of all descendant tenants
+     * @throws SystemException in case it founds multiple actions or if URL is malformed
+     */
+    private List<Long> getDescendantsRequester(long tenantId) throws SystemException {
+        TenantResourceClient client;
+        try {
+            client = clientServiceUtil.getTenantResourceClient(oafAccess.getProperty(OAFProperties.SYSTEM_MS_ENDPOINT_TENANTMANAGEMENT));
+        } catch (MalformedURLException malformedURLException){
+            throw new SystemException(malformedURLException.getMessage());
+        }
+        try (Response response = client.getDescendants(tenantId)) {
+            if(response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                throw new SystemException(response.readEntity(String.class));
+            }
+            try (JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                return jsonReader.readArray().getValuesAs(JsonNumber.class).stream().
+                        map(JsonNumber::longValue).collect(Collectors.toList());
+            }
+        } catch (ProcessingException pe) {
+            throw new SystemException(pe.getMessage());
+        }
+    }
+
     /**
      * Asks the requester update a given tenant
      * @param tenant to be updated
@@ -450,4 +500,45 @@ public class TenantRESTServiceClient extends AuthorizationChecker implements Ten
         return false;
     }
 
+    /**
+     * Asks the requester to get the tenant version stamp
+     * @return the current version stamp
+     * @throws SystemException in case of communication error or if URL is malformed
+     */
+    @Override
+    public long getVersionStamp() throws SystemException {
+        try {
+            return getVersionStampRequester();
+        } catch (TokenExpiredException expiredException) {
+            refreshToken();
+            try{
+                return getVersionStampRequester();
+            } catch (TokenExpiredException expiredException1){
+                throw new SystemException(GenericErrorCodeMessage.EXPIRED_ACCESS_TOKEN.toString());
+            }
+        }
+    }
+
+    /**
+     * Gets the tenant version stamp
+     * @return the current version stamp
+     * @throws SystemException in case of communication error or if URL is malformed
+     */
+    private long getVersionStampRequester() throws SystemException {
+        TenantResourceClient client;
+        try {
+            client = clientServiceUtil.getTenantResourceClient(oafAccess.getProperty(OAFProperties.SYSTEM_MS_ENDPOINT_TENANTMANAGEMENT));
+        } catch (MalformedURLException malformedURLException){
+            throw new SystemException(malformedURLException.getMessage());
+        }
+        try (Response response = client.getVersionStamp()) {
+            if(response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                throw new SystemException(response.readEntity(String.class));
+            }
+            return Long.parseLong(response.readEntity(String.class));
+        } catch (ProcessingException pe) {
+            throw new SystemException(pe.getMessage());
+        }
+    }
+
 }
@@ -105,6 +105,15 @@ public interface TenantResourceClient {
     @Path("/deleteTenantHierarchy/{id}")
     public Response deleteTenantHierarchy(@NotNull @PathParam("id") long id);
 
+    /**
+     * Gets the ids of all the tenants below the requested one (children, grandchildren and so on)
+     * @param id of the top tenant
+     * @return 200 code message with the list of ids in case of success or 500 in case of any error
+     */
+    @GET
+    @Path("/descendants/{id}")
+    public Response getDescendants(@NotNull @PathParam("id") long id);
+
     /**
      * Method to request a creation of a tenant
      * @param tenant information to be created
@@ -132,4 +141,12 @@ public interface TenantResourceClient {
     @Path("/exists/{id}")
     public Response exists(@NotNull @PathParam("id") Long id);
 
+    /**
+     * Gets the tenant version stamp, that changes whenever any tenant is created, updated or deleted
+     * @return the current version stamp
+     */
+    @GET
+    @Path("/version")
+    public Response getVersionStamp();
+
 }
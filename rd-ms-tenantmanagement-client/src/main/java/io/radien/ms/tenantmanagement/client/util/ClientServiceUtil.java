@@ -15,6 +15,7 @@
  */
 package io.radien.ms.tenantmanagement.client.util;
 
+import io.radien.ms.authz.client.RestClientRegistry;
 import io.radien.ms.tenantmanagement.client.TenantResponseExceptionMapper;
 import io.radien.ms.tenantmanagement.client.providers.ActiveTenantMessageBodyWriter;
 import io.radien.ms.tenantmanagement.client.providers.ContractMessageBodyWriter;
@@ -22,12 +23,11 @@ import io.radien.ms.tenantmanagement.client.providers.TenantMessageBodyWriter;
 import io.radien.ms.tenantmanagement.client.services.ActiveTenantResourceClient;
 import io.radien.ms.tenantmanagement.client.services.ContractResourceClient;
 import io.radien.ms.tenantmanagement.client.services.TenantResourceClient;
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 
 import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
 import javax.inject.Named;
 import java.net.MalformedURLException;
-import java.net.URL;
 
 /**
  * Client Service utility to retrieve and create the client builders
@@ -38,6 +38,9 @@ import java.net.URL;
 @Named("ContractClientServiceUtil")
 public class ClientServiceUtil {
 
+    @Inject
+    private RestClientRegistry restClientRegistry;
+
     /**
      * Gets a Rest Client for Contracts
      * @param urlStr url of rest endpoint
@@ -45,13 +48,8 @@ public class ClientServiceUtil {
      * @throws MalformedURLException in case of any url issue
      */
     public ContractResourceClient getContractResourceClient(String urlStr) throws MalformedURLException {
-        URL url = new URL(urlStr);
-        return RestClientBuilder.
-                newBuilder()
-                .baseUrl(url)
-                .register(TenantResponseExceptionMapper.class)
-                .register(ContractMessageBodyWriter.class)
-                .build(ContractResourceClient.class);
+        return restClientRegistry.getClient(urlStr, ContractResourceClient.class,
+                TenantResponseExceptionMapper.class, ContractMessageBodyWriter.class);
     }
 
     /**
@@ -61,13 +59,8 @@ public class ClientServiceUtil {
      * @throws MalformedURLException in case of any url issue
      */
     public TenantResourceClient getTenantResourceClient(String urlStr) throws MalformedURLException {
-        URL url = new URL(urlStr);
-        return RestClientBuilder.
-                newBuilder()
-                .baseUrl(url)
-                .register(TenantResponseExceptionMapper.class)
-                .register(TenantMessageBodyWriter.class)
-                .build(TenantResourceClient.class);
+        return restClientRegistry.getClient(urlStr, TenantResourceClient.class,
+                TenantResponseExceptionMapper.class, TenantMessageBodyWriter.class);
     }
 
     /**
@@ -77,12 +70,7 @@ public class ClientServiceUtil {
      * @throws MalformedURLException in case of any url issue
      */
     public ActiveTenantResourceClient getActiveTenantResourceClient(String urlStr) throws MalformedURLException {
-        URL url = new URL(urlStr);
-        return RestClientBuilder.
-                newBuilder()
-                .baseUrl(url)
-                .register(TenantResponseExceptionMapper.class)
-                .register(ActiveTenantMessageBodyWriter.class)
-                .build(ActiveTenantResourceClient.class);
+        return restClientRegistry.getClient(urlStr, ActiveTenantResourceClient.class,
+                TenantResponseExceptionMapper.class, ActiveTenantMessageBodyWriter.class);
     }
 }
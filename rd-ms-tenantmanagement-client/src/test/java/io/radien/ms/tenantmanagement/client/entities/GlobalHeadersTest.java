@@ -23,6 +23,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import javax.enterprise.context.ContextNotActiveException;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -52,4 +53,13 @@ public class GlobalHeadersTest extends TestCase {
         MultivaluedMap<String, String> result = target.update(incomingHeaders,outgoingHeaders);
         assertEquals("Bearer Batata",result.getFirst("Authorization"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUpdateWithoutSession() {
+        when(tokensPlaceHolder.getAccessToken()).thenThrow(new ContextNotActiveException("no session"));
+        MultivaluedMap<String, String> incomingHeaders = new MultivaluedHashMap<>();
+        MultivaluedMap<String, String> outgoingHeaders = new MultivaluedHashMap<>();
+        MultivaluedMap<String, String> result = target.update(incomingHeaders,outgoingHeaders);
+        assertNull(result.getFirst("Authorization"));
+    }
+}
@@ -501,6 +501,38 @@ public class TenantRESTServiceClientTest {
         assertTrue(success);
     }
 
+    /**
+     * Test for method getDescendants(tenantId)
+     * Expected result: the ids returned by the resource
+     * @throws MalformedURLException for url informed incorrectly
+     * @throws SystemException in case of any communication issue
+     */
+    @Test
+    public void testGetDescendants() throws MalformedURLException, SystemException {
+        TenantResourceClient tenantResourceClient = Mockito.mock(TenantResourceClient.class);
+        InputStream is = new ByteArrayInputStream("[3,4]".getBytes());
+        when(tenantResourceClient.getDescendants(2L)).thenReturn(Response.ok(is).build());
+        when(tenantServiceUtil.getTenantResourceClient(getTenantManagementUrl())).thenReturn(tenantResourceClient);
+
+        assertEquals(Arrays.asList(3L, 4L), target.getDescendants(2L));
+    }
+
+    /**
+     * Test for method getDescendants(tenantId)
+     * Scenario: resource answers with an error
+     * Expected result (FAIL): SystemException thrown
+     * @throws MalformedURLException for url informed incorrectly
+     * @throws SystemException in case of any communication issue
+     */
+    @Test(expected = SystemException.class)
+    public void testGetDescendantsError() throws MalformedURLException, SystemException {
+        TenantResourceClient tenantResourceClient = Mockito.mock(TenantResourceClient.class);
+        when(tenantResourceClient.getDescendants(2L)).thenReturn(Response.serverError().entity("error").build());
+        when(tenantServiceUtil.getTenantResourceClient(getTenantManagementUrl())).thenReturn(tenantResourceClient);
+
+        target.getDescendants(2L);
+    }
+
     /**
      * Test for method deleteTenantHierarchy(tenantId)
      * It corresponds to the unsuccessful situation where JWT expiration occurs and
@@ -762,4 +794,56 @@ public class TenantRESTServiceClientTest {
 
         target.isTenantExistent(2L);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test for method getVersionStamp()
+     * Expected result: the version stamp returned by the resource
+     * @throws MalformedURLException for url informed incorrectly
+     * @throws SystemException in case of any communication issue
+     */
+    @Test
+    public void testGetVersionStamp() throws MalformedURLException, SystemException {
+        TenantResourceClient tenantResourceClient = Mockito.mock(TenantResourceClient.class);
+        when(tenantResourceClient.getVersionStamp()).thenReturn(Response.ok("7").build());
+        when(tenantServiceUtil.getTenantResourceClient(getTenantManagementUrl())).thenReturn(tenantResourceClient);
+
+        assertEquals(7L, target.getVersionStamp());
+    }
+
+    /**
+     * Test for method getVersionStamp()
+     * Scenario: resource answers with an error
+     * Expected result (FAIL): SystemException thrown
+     * @throws MalformedURLException for url informed incorrectly
+     * @throws SystemException in case of any communication issue
+     */
+    @Test(expected = SystemException.class)
+    public void testGetVersionStampError() throws MalformedURLException, SystemException {
+        TenantResourceClient tenantResourceClient = Mockito.mock(TenantResourceClient.class);
+        when(tenantResourceClient.getVersionStamp()).thenReturn(Response.serverError().entity("error").build());
+        when(tenantServiceUtil.getTenantResourceClient(getTenantManagementUrl())).thenReturn(tenantResourceClient);
+
+        target.getVersionStamp();
+    }
+
+    /**
+     * Test for method getVersionStamp()
+     * It corresponds to the unsuccessful situation where JWT expiration occurs and
+     * is not possible to recover from that
+     * Expected result (FAIL): SystemException thrown
+     * @throws MalformedURLException for url informed incorrectly
+     * @throws SystemException in case of any communication issue
+     */
+    @Test(expected = SystemException.class)
+    public void testGetVersionStampTokenExpiration() throws MalformedURLException, SystemException {
+        TenantResourceClient tenantResourceClient = Mockito.mock(TenantResourceClient.class);
+        when(tenantResourceClient.getVersionStamp()).thenThrow(new TokenExpiredException("test"));
+        when(tenantServiceUtil.getTenantResourceClient(getTenantManagementUrl())).thenReturn(tenantResourceClient);
+
+        when(authorizationChecker.getUserClient()).thenReturn(userClient);
+        when(tokensPlaceHolder.getRefreshToken()).thenReturn("test");
+        when(userClient.refreshToken(anyString())).thenReturn(Response.ok().entity("test").build());
+
+        target.getVersionStamp();
+    }
+}
@@ -15,10 +15,12 @@
  */
 package io.radien.ms.tenantmanagement.client.util;
 
+import io.radien.ms.authz.client.RestClientRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.net.MalformedURLException;
 
@@ -29,6 +31,9 @@ import static org.junit.Assert.*;
  */
 public class ClientServiceUtilTest {
 
+    @Spy
+    private RestClientRegistry restClientRegistry = new RestClientRegistry();
+
     @InjectMocks
     private ClientServiceUtil clientServiceUtil;
 
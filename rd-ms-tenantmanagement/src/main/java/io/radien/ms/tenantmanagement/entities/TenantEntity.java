@@ -21,22 +21,28 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import javax.persistence.TableGenerator;
 import javax.persistence.Convert;
 import java.time.LocalDate;
 
 /**
- * JPA entity representing a Tenant
+ * JPA entity representing a Tenant.
+ * Besides the tenant information it keeps the materialized path of the tenant on the hierarchy
+ * (identifiers from the root until the tenant itself, e.g. /1/5/9/) so a complete subtree
+ * can be read or deleted with a single statement.
  *
  * @author Santana
  */
 @Entity
-@Table(name = "TNT01")
+@Table(name = "TNT01", indexes = @Index(name = "IDX_TNT01_PATH", columnList = "tenantPath"))
 public class TenantEntity extends io.radien.ms.tenantmanagement.client.entities.Tenant {
 
 	private static final long serialVersionUID = 307978393054123750L;
 
+	private String tenantPath;
+
 	/**
 	 * Tenant entity empty constructor
 	 */
@@ -192,4 +198,21 @@ public class TenantEntity extends io.radien.ms.tenantmanagement.client.entities.
 	public Long getClientId() {
 		return super.getClientId();
 	}
+
+	/**
+	 * Tenant hierarchy path table field getter
+	 * @return the materialized path of the tenant (e.g. /1/5/9/)
+	 */
+	@Column(length = 512)
+	public String getTenantPath() {
+		return tenantPath;
+	}
+
+	/**
+	 * Tenant hierarchy path setter
+	 * @param tenantPath materialized path of the tenant
+	 */
+	public void setTenantPath(String tenantPath) {
+		this.tenantPath = tenantPath;
+	}
 }
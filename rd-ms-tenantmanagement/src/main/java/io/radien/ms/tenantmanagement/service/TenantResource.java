@@ -133,6 +133,20 @@ public class TenantResource implements TenantResourceClient {
 		}
 	}
 
+	/**
+	 * Gets the ids of all the tenants below the requested one (children, grandchildren and so on)
+	 * @param id of the top tenant
+	 * @return 200 code message with the list of ids in case of success or 500 in case of any error
+	 */
+	@Override
+	public Response getDescendants(long id) {
+		try {
+			return Response.ok(tenantService.getDescendants(id)).build();
+		}catch (Exception e){
+			return GenericErrorMessagesToResponseMapper.getGenericError(e);
+		}
+	}
+
 	/**
 	 * Method to request a creation of a tenant
 	 * @param tenant information to be created
@@ -182,4 +196,17 @@ public class TenantResource implements TenantResourceClient {
 			return GenericErrorMessagesToResponseMapper.getResourceNotFoundException();
 		}
 	}
+
+	/**
+	 * Gets the tenant version stamp, that changes whenever any tenant is created, updated or deleted
+	 * @return 200 code message with the version stamp in case of success or 500 in case of any error
+	 */
+	@Override
+	public Response getVersionStamp() {
+		try {
+			return Response.ok(tenantService.getVersionStamp()).build();
+		}catch (Exception e){
+			return GenericErrorMessagesToResponseMapper.getGenericError(e);
+		}
+	}
 }
@@ -25,6 +25,7 @@ import io.radien.exception.UniquenessConstraintException;
 import io.radien.ms.tenantmanagement.client.entities.TenantSearchFilter;
 import io.radien.ms.tenantmanagement.client.entities.TenantType;
 import io.radien.ms.tenantmanagement.entities.TenantEntity;
+import io.radien.ms.tenantmanagement.entities.TenantVersionEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,13 +38,22 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaUpdate;
 import javax.persistence.criteria.Order;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
- * Tenant requests to be performed into the DB and actions to take place
+ * Tenant requests to be performed into the DB and actions to take place.
+ * The tenant hierarchy is kept as a materialized path (see {@link TenantEntity#getTenantPath()}),
+ * maintained on creation and update, so subtree reads and deletions are single set based statements.
+ * Every change also increases the tenant version stamp (see {@link TenantVersionEntity}).
  * @author Nuno Santana
  */
 @Stateful
@@ -56,6 +66,9 @@ public class TenantService implements TenantServiceAccess {
 
     private static final Logger log = LoggerFactory.getLogger(TenantService.class);
 
+    private static final char PATH_SEPARATOR = '/';
+    private static final String TENANT_PATH = "tenantPath";
+
     /**
      * Gets the System Contract searching by the PK (id).
      *
@@ -214,7 +227,11 @@ public class TenantService implements TenantServiceAccess {
         validateTenant(tenant);
         List<TenantEntity> alreadyExistentRecords = searchDuplicatedFields(tenant);
         if (alreadyExistentRecords.isEmpty()) {
-            emh.getEm().persist(tenant);
+            EntityManager em = emh.getEm();
+            String parentPath = getParentPath(tenant, em);
+            em.persist(tenant);
+            ((TenantEntity) tenant).setTenantPath(parentPath + tenant.getId() + PATH_SEPARATOR);
+            increaseVersionStamp(em);
         } else {
             throw new UniquenessConstraintException(GenericErrorCodeMessage.DUPLICATED_FIELD.toString("Name"));
         }
@@ -222,16 +239,31 @@ public class TenantService implements TenantServiceAccess {
 
     /**
      * Updates the requested and given Contract information into the DB.
+     * When the parent changes, the path of the complete subtree is rewritten with a single statement.
      *
      * @param tenant to be updated
      * @throws UniquenessConstraintException in case of duplicated name
+     * @throws TenantException in case of any data issue, including a parent that belongs to the tenant subtree
      */
     @Override
     public void update(SystemTenant tenant) throws UniquenessConstraintException, TenantException {
         validateTenant(tenant);
         List<TenantEntity> alreadyExistentRecords = searchDuplicatedFields(tenant);
         if (alreadyExistentRecords.isEmpty()) {
-            emh.getEm().merge(tenant);
+            EntityManager em = emh.getEm();
+            String currentPath = getTenantPath(tenant.getId(), em);
+            String newPath = getParentPath(tenant, em) + tenant.getId() + PATH_SEPARATOR;
+            boolean moved = currentPath != null && !currentPath.equals(newPath);
+            if (moved && newPath.startsWith(currentPath)) {
+                throw new TenantException(GenericErrorCodeMessage.TENANT_PARENT_IS_DESCENDANT.toString());
+            }
+            ((TenantEntity) tenant).setTenantPath(newPath);
+            em.merge(tenant);
+            if (moved) {
+                em.flush();
+                moveSubtree(currentPath, newPath, em);
+            }
+            increaseVersionStamp(em);
         } else {
             throw new UniquenessConstraintException(GenericErrorCodeMessage.DUPLICATED_FIELD.toString("Name"));
         }
@@ -392,7 +424,9 @@ public class TenantService implements TenantServiceAccess {
         Root<TenantEntity> userRoot = criteriaDelete.from(TenantEntity.class);
 
         criteriaDelete.where(userRoot.get("id").in(contractIds));
-        em.createQuery(criteriaDelete).executeUpdate();
+        if (em.createQuery(criteriaDelete).executeUpdate() > 0) {
+            increaseVersionStamp(em);
+        }
     }
 
     /**
@@ -434,40 +468,6 @@ public class TenantService implements TenantServiceAccess {
         return q.getSingleResult();
     }
 
-    /**
-     * Method to get all the requested tenant children tenants
-     * @param tenantId of the parent tenant
-     * @param em already created entity manager
-     * @return a list of all the tenant children ids
-     */
-    protected List<Long> getChildren(Long tenantId, EntityManager em) {
-        CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder();
-        CriteriaQuery<Long> criteriaQuery = criteriaBuilder.createQuery(Long.class);
-        Root<TenantEntity> tenantRoot = criteriaQuery.from(TenantEntity.class);
-        Predicate predicate = criteriaBuilder.equal(tenantRoot.get("parentId"), tenantId);
-        criteriaQuery.select(tenantRoot.get("id")).where(predicate);
-        TypedQuery<Long> q= em.createQuery(criteriaQuery);
-        return q.getResultList();
-    }
-
-    /**
-     * Requests the DB to delete all the children tenants of the requested tenant
-     * @param tenantId to be deleted and all his children
-     * @param entityManager already created entity manager
-     * @return true if deletion has been a success or false if there was an issue
-     */
-    protected boolean deleteChildren(Long tenantId, EntityManager entityManager) {
-        List<Long> children = getChildren(tenantId, entityManager);
-
-        if (!children.isEmpty()) {
-            for (Long child: children) {
-                deleteChildren(child, entityManager);
-            }
-        }
-
-        return delete(tenantId, entityManager);
-    }
-
     /**
      * Method to delete from the db a specific tenant
      * @param tenantId to be deleted
@@ -480,16 +480,210 @@ public class TenantService implements TenantServiceAccess {
         Root<TenantEntity> userRoot = criteriaDelete.from(TenantEntity.class);
         criteriaDelete.where(cb.equal(userRoot.get("id"), tenantId));
         int ret = entityManager.createQuery(criteriaDelete).executeUpdate();
+        if (ret > 0) {
+            increaseVersionStamp(entityManager);
+        }
         return ret > 0;
     }
 
     /**
-     * Requests the DB to delete all the children tenants of the requested tenant
+     * Requests the DB to delete the requested tenant and all the tenants below him,
+     * using a single statement over the tenant hierarchy path
      * @param id to be deleted and all his children
      * @return true if deletion has been a success or false if there was an issue
      */
+    @Override
     public boolean deleteTenantHierarchy(Long id) {
         EntityManager em = emh.getEm();
-        return deleteChildren(id, em);
+        String path = getTenantPath(id, em);
+        if (path == null) {
+            return false;
+        }
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaDelete<TenantEntity> criteriaDelete = cb.createCriteriaDelete(TenantEntity.class);
+        Root<TenantEntity> tenantRoot = criteriaDelete.from(TenantEntity.class);
+        criteriaDelete.where(cb.like(tenantRoot.get(TENANT_PATH), path + "%"));
+        if (em.createQuery(criteriaDelete).executeUpdate() > 0) {
+            increaseVersionStamp(em);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the tenant version stamp, a counter increased on every tenant creation, update or deletion
+     * @return the current version stamp (zero if no tenant was ever changed)
+     */
+    @Override
+    public long getVersionStamp() {
+        List<Long> stamps = emh.getEm().createQuery("SELECT v.stamp FROM TenantVersionEntity v WHERE v.id = :id",
+                Long.class).setParameter("id", TenantVersionEntity.STAMP_ID).getResultList();
+        return stamps.isEmpty() ? 0L : stamps.get(0);
+    }
+
+    /**
+     * Increases the tenant version stamp on the current transaction, creating the record on the first change
+     * @param em already created entity manager
+     */
+    private void increaseVersionStamp(EntityManager em) {
+        int updated = em.createQuery("UPDATE TenantVersionEntity v SET v.stamp = v.stamp + 1 WHERE v.id = :id").
+                setParameter("id", TenantVersionEntity.STAMP_ID).executeUpdate();
+        if (updated == 0) {
+            em.persist(new TenantVersionEntity(TenantVersionEntity.STAMP_ID, 1L));
+        }
+    }
+
+    /**
+     * Gets the ids of all the tenants below the requested one (children, grandchildren and so on),
+     * using a single query over the tenant hierarchy path
+     * @param tenantId of the top tenant
+     * @return the ids of all descendant tenants (not including the requested one),
+     * or an empty list if the tenant does not exist
+     */
+    @Override
+    public List<Long> getDescendants(Long tenantId) {
+        EntityManager em = emh.getEm();
+        String path = getTenantPath(tenantId, em);
+        if (path == null) {
+            return Collections.emptyList();
+        }
+        CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder();
+        CriteriaQuery<Long> criteriaQuery = criteriaBuilder.createQuery(Long.class);
+        Root<TenantEntity> tenantRoot = criteriaQuery.from(TenantEntity.class);
+        criteriaQuery.select(tenantRoot.get("id")).where(
+                criteriaBuilder.like(tenantRoot.get(TENANT_PATH), path + "%"),
+                criteriaBuilder.notEqual(tenantRoot.get("id"), tenantId));
+        return em.createQuery(criteriaQuery).getResultList();
+    }
+
+    /**
+     * Gets the path of the parent of the given tenant, or the separator alone for tenants without parent
+     * @param tenant whose parent path is requested
+     * @param em already created entity manager
+     * @return the parent path
+     * @throws TenantException in case the parent does not exist
+     */
+    private String getParentPath(SystemTenant tenant, EntityManager em) throws TenantException {
+        if (tenant.getParentId() == null) {
+            return String.valueOf(PATH_SEPARATOR);
+        }
+        String parentPath = getTenantPath(tenant.getParentId(), em);
+        if (parentPath == null) {
+            throw new TenantException(GenericErrorCodeMessage.TENANT_PARENT_NOT_FOUND.toString());
+        }
+        return parentPath;
+    }
+
+    /**
+     * Gets the stored hierarchy path of a tenant. Tenants stored before the path existed
+     * do not have one, in that case the paths of all the tenants are rebuilt first
+     * @param tenantId to be searched
+     * @param em already created entity manager
+     * @return the tenant path or null if the tenant does not exist
+     */
+    protected String getTenantPath(Long tenantId, EntityManager em) {
+        if (tenantId == null) {
+            return null;
+        }
+        String path = findTenantPath(tenantId, em);
+        if (path == null && exists(tenantId)) {
+            rebuildTenantPaths(em);
+            path = findTenantPath(tenantId, em);
+        }
+        return path;
+    }
+
+    /**
+     * Reads the stored hierarchy path of a tenant
+     * @param tenantId to be searched
+     * @param em already created entity manager
+     * @return the stored path or null if there is none
+     */
+    private String findTenantPath(Long tenantId, EntityManager em) {
+        CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder();
+        CriteriaQuery<String> criteriaQuery = criteriaBuilder.createQuery(String.class);
+        Root<TenantEntity> tenantRoot = criteriaQuery.from(TenantEntity.class);
+        criteriaQuery.select(tenantRoot.get(TENANT_PATH)).where(criteriaBuilder.equal(tenantRoot.get("id"), tenantId));
+        List<String> paths = em.createQuery(criteriaQuery).getResultList();
+        return paths.isEmpty() ? null : paths.get(0);
+    }
+
+    /**
+     * Replaces the path prefix of every tenant of a subtree (the subtree top included)
+     * @param currentPath current path of the subtree top tenant
+     * @param newPath new path of the subtree top tenant
+     * @param em already created entity manager
+     * @return number of updated tenants
+     */
+    private int moveSubtree(String currentPath, String newPath, EntityManager em) {
+        // Criteria update does not support expressions over the updated attribute in EclipseLink, hence JPQL
+        int updated = em.createQuery("UPDATE TenantEntity t SET t.tenantPath = " +
+                "CONCAT(:newPath, SUBSTRING(t.tenantPath, :start)) WHERE t.tenantPath LIKE :currentPath").
+                setParameter("newPath", newPath).
+                setParameter("start", currentPath.length() + 1).
+                setParameter("currentPath", currentPath + "%").
+                executeUpdate();
+        log.info("Hierarchy path of {} tenants moved from {} to {}", updated, currentPath, newPath);
+        return updated;
+    }
+
+    /**
+     * Recalculates the hierarchy path of all the tenants based on the parent ids,
+     * storing only the ones that are missing or different
+     * @param em already created entity manager
+     * @return number of updated tenants
+     */
+    protected int rebuildTenantPaths(EntityManager em) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Object[]> criteriaQuery = cb.createQuery(Object[].class);
+        Root<TenantEntity> tenantRoot = criteriaQuery.from(TenantEntity.class);
+        criteriaQuery.multiselect(tenantRoot.get("id"), tenantRoot.get("parentId"), tenantRoot.get(TENANT_PATH));
+
+        Map<Long, Long> parents = new HashMap<>();
+        Map<Long, String> storedPaths = new HashMap<>();
+        for (Object[] row : em.createQuery(criteriaQuery).getResultList()) {
+            parents.put((Long) row[0], (Long) row[1]);
+            storedPaths.put((Long) row[0], (String) row[2]);
+        }
+
+        Map<Long, String> paths = new HashMap<>();
+        int updated = 0;
+        for (Long tenantId : parents.keySet()) {
+            String path = resolvePath(tenantId, parents, paths);
+            if (!path.equals(storedPaths.get(tenantId))) {
+                CriteriaUpdate<TenantEntity> criteriaUpdate = cb.createCriteriaUpdate(TenantEntity.class);
+                Root<TenantEntity> updateRoot = criteriaUpdate.from(TenantEntity.class);
+                criteriaUpdate.set(updateRoot.<String>get(TENANT_PATH), path);
+                criteriaUpdate.where(cb.equal(updateRoot.get("id"), tenantId));
+                updated += em.createQuery(criteriaUpdate).executeUpdate();
+            }
+        }
+        log.info("Hierarchy path rebuilt for {} tenants", updated);
+        return updated;
+    }
+
+    /**
+     * Calculates the path of a tenant walking up through his ancestors until one with an already known path.
+     * Tenants whose parent does not exist (or that are part of a cycle) are considered top tenants
+     * @param tenantId whose path is requested
+     * @param parents parent id of every tenant
+     * @param paths already calculated paths, filled with the path of every visited tenant
+     * @return the tenant path
+     */
+    private static String resolvePath(Long tenantId, Map<Long, Long> parents, Map<Long, String> paths) {
+        Deque<Long> lineage = new ArrayDeque<>();
+        Long current = tenantId;
+        while (current != null && !paths.containsKey(current) && !lineage.contains(current)) {
+            lineage.push(current);
+            Long parentId = parents.get(current);
+            current = parents.containsKey(parentId) ? parentId : null;
+        }
+        String path = current != null && paths.containsKey(current) ? paths.get(current) : String.valueOf(PATH_SEPARATOR);
+        while (!lineage.isEmpty()) {
+            Long descendant = lineage.pop();
+            path = path + descendant + PATH_SEPARATOR;
+            paths.put(descendant, path);
+        }
+        return paths.get(tenantId);
     }
 }
@@ -173,6 +173,25 @@ public class TenantResourceTest {
         assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(),response.getStatus());
     }
 
+    /**
+     * Retrieval of the descendant tenants with success, should return a 200 code message
+     */
+    @Test
+    public void testGetDescendants() {
+        Response response = tenantResource.getDescendants(1L);
+        assertEquals(Response.Status.OK.getStatusCode(),response.getStatus());
+    }
+
+    /**
+     * Retrieval of the descendant tenants with error, should return a generic 500 error code message
+     */
+    @Test
+    public void testGetDescendantsGenericError() {
+        doThrow(new RuntimeException()).when(tenantServiceAccess).getDescendants(1L);
+        Response response = tenantResource.getDescendants(1L);
+        assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(),response.getStatus());
+    }
+
     /**
      * Creation with success of a record. Should return a 200 code message
      */
@@ -259,4 +278,25 @@ public class TenantResourceTest {
         Response response = tenantResource.exists(100L);
         assertEquals(404,response.getStatus());
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieval of the version stamp with success, should return a 200 code message
+     */
+    @Test
+    public void testGetVersionStamp() {
+        when(tenantServiceAccess.getVersionStamp()).thenReturn(5L);
+        Response response = tenantResource.getVersionStamp();
+        assertEquals(Response.Status.OK.getStatusCode(),response.getStatus());
+        assertEquals(5L,response.getEntity());
+    }
+
+    /**
+     * Retrieval of the version stamp with error, should return a generic 500 error code message
+     */
+    @Test
+    public void testGetVersionStampGenericError() {
+        doThrow(new RuntimeException()).when(tenantServiceAccess).getVersionStamp();
+        Response response = tenantResource.getVersionStamp();
+        assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(),response.getStatus());
+    }
+}
@@ -231,6 +231,112 @@ public class TenantServiceTest {
         assertNull(result);
     }
 
+    /**
+     * Retrieves and deletes a complete tenant subtree.
+     * Expected result: all the tenants below the requested one are retrieved and deleted together with him.
+     * Tested methods: List<Long> getDescendants(Long tenantId), void deleteTenantHierarchy(Long tenantId)
+     *
+     * @throws UniquenessConstraintException in case of requested action is not well constructed
+     * @throws TenantException in case of any issue in the data
+     */
+    @Test
+    public void testGetDescendantsAndDeleteHierarchy() throws UniquenessConstraintException, TenantException {
+        SystemTenant client = createTenant("testGetDescendantsClient");
+        SystemTenant sub = createSubTenant("testGetDescendantsSub", client.getId(), client.getId());
+        SystemTenant subOfSub = createSubTenant("testGetDescendantsSubOfSub", sub.getId(), client.getId());
+        SystemTenant sibling = createTenant("testGetDescendantsSibling");
+
+        List<Long> descendants = tenantServiceAccess.getDescendants(client.getId());
+        assertEquals(2, descendants.size());
+        assertTrue(descendants.containsAll(Arrays.asList(sub.getId(), subOfSub.getId())));
+        assertEquals(Collections.singletonList(subOfSub.getId()), tenantServiceAccess.getDescendants(sub.getId()));
+        assertTrue(tenantServiceAccess.getDescendants(subOfSub.getId()).isEmpty());
+        assertTrue(tenantServiceAccess.getDescendants(-1L).isEmpty());
+        assertTrue(tenantServiceAccess.getDescendants(rootTenant.getId()).containsAll(
+                Arrays.asList(client.getId(), sub.getId(), subOfSub.getId(), sibling.getId())));
+
+        assertTrue(tenantServiceAccess.deleteTenantHierarchy(client.getId()));
+        assertNull(tenantServiceAccess.get(client.getId()));
+        assertNull(tenantServiceAccess.get(sub.getId()));
+        assertNull(tenantServiceAccess.get(subOfSub.getId()));
+        assertNotNull(tenantServiceAccess.get(sibling.getId()));
+        assertFalse(tenantServiceAccess.deleteTenantHierarchy(client.getId()));
+    }
+
+    /**
+     * Changes a tenant several times checking the version stamp.
+     * Expected result: the stamp increases on creation, update and deletion, and remains the same
+     * when nothing is deleted.
+     * Tested methods: long getVersionStamp()
+     *
+     * @throws UniquenessConstraintException in case of requested action is not well constructed
+     * @throws TenantException in case of any issue in the data
+     */
+    @Test
+    public void testVersionStamp() throws UniquenessConstraintException, TenantException {
+        long stamp = tenantServiceAccess.getVersionStamp();
+
+        SystemTenant tenant = createTenant("testVersionStamp");
+        long afterCreation = tenantServiceAccess.getVersionStamp();
+        assertTrue(afterCreation > stamp);
+
+        tenant.setName("testVersionStampUpdated");
+        tenantServiceAccess.update(tenant);
+        long afterUpdate = tenantServiceAccess.getVersionStamp();
+        assertTrue(afterUpdate > afterCreation);
+
+        assertTrue(tenantServiceAccess.delete(tenant.getId()));
+        long afterDeletion = tenantServiceAccess.getVersionStamp();
+        assertTrue(afterDeletion > afterUpdate);
+
+        assertFalse(tenantServiceAccess.delete(tenant.getId()));
+        assertFalse(tenantServiceAccess.deleteTenantHierarchy(tenant.getId()));
+        assertEquals(afterDeletion, tenantServiceAccess.getVersionStamp());
+    }
+
+    /**
+     * Moves a tenant (and his subtree) to another parent.
+     * Expected result: the complete subtree is found below the new parent and no longer below the old one.
+     * Tested methods: void update(Tenant tenant), List<Long> getDescendants(Long tenantId)
+     *
+     * @throws UniquenessConstraintException in case of requested action is not well constructed
+     * @throws TenantException in case of any issue in the data
+     */
+    @Test
+    public void testUpdateMovesSubtree() throws UniquenessConstraintException, TenantException {
+        SystemTenant oldParent = createTenant("testUpdateMovesSubtreeOld");
+        SystemTenant newParent = createTenant("testUpdateMovesSubtreeNew");
+        SystemTenant sub = createSubTenant("testUpdateMovesSubtreeSub", oldParent.getId(), oldParent.getId());
+        SystemTenant subOfSub = createSubTenant("testUpdateMovesSubtreeSubOfSub", sub.getId(), oldParent.getId());
+
+        sub.setParentId(newParent.getId());
+        tenantServiceAccess.update(sub);
+
+        assertTrue(tenantServiceAccess.getDescendants(oldParent.getId()).isEmpty());
+        List<Long> descendants = tenantServiceAccess.getDescendants(newParent.getId());
+        assertEquals(2, descendants.size());
+        assertTrue(descendants.containsAll(Arrays.asList(sub.getId(), subOfSub.getId())));
+        assertEquals(Collections.singletonList(subOfSub.getId()), tenantServiceAccess.getDescendants(sub.getId()));
+    }
+
+    /**
+     * Moves a tenant below one of his own descendants. Should throw exception.
+     *
+     * @throws UniquenessConstraintException in case of requested action is not well constructed
+     * @throws TenantException in case of any issue in the data
+     */
+    @Test
+    public void testUpdateParentIsDescendantException() throws UniquenessConstraintException, TenantException {
+        SystemTenant client = createTenant("testUpdateParentIsDescendant");
+        SystemTenant child = createTenant("testUpdateParentIsDescendantChild");
+        child.setParentId(client.getId());
+        tenantServiceAccess.update(child);
+
+        client.setParentId(child.getId());
+        Exception exception = assertThrows(TenantException.class, () -> tenantServiceAccess.update(client));
+        assertTrue(exception.getMessage().contains(GenericErrorCodeMessage.TENANT_PARENT_IS_DESCENDANT.toString()));
+    }
+
     /**
      * Test updates the tenant information.
      * @throws Exception in case of tenant to be updated not found
@@ -263,6 +369,26 @@ public class TenantServiceTest {
         return tenant;
     }
 
+    /**
+     * Creates a sub tenant
+     * @param name of the tenant to create
+     * @param parentId id of the parent tenant
+     * @param clientId id of the client tenant
+     * @return system tenant
+     * @throws UniquenessConstraintException in case of duplicates
+     * @throws TenantException in case of any issue in the data
+     */
+    private SystemTenant createSubTenant(String name, Long parentId, Long clientId) throws UniquenessConstraintException, TenantException {
+        SystemTenant tenant = new TenantEntity();
+        tenant.setName(name);
+        tenant.setTenantType(TenantType.SUB_TENANT);
+        tenant.setParentId(parentId);
+        tenant.setClientId(clientId);
+        tenant.setTenantKey(RandomStringUtils.randomAlphabetic(4));
+        tenantServiceAccess.create(tenant);
+        return tenant;
+    }
+
     /**
      * Test of get all the tenants
      * @throws UniquenessConstraintException in case of duplicates
@@ -291,6 +291,46 @@ public class UserRESTServiceClient extends AuthorizationChecker implements UserR
         }
     }
 
+    /**
+     * Retrieves the user with the same subject of the given one, creating it when there is none yet
+     * @param user information to be used in case the user needs to be created
+     * @return the existent (or just created) system user
+     * @throws SystemException in case of any issue on the request or if URL is malformed
+     */
+    @Override
+    public SystemUser getOrCreateBySub(SystemUser user) throws SystemException {
+        try {
+            return getOrCreateUserBySub(user);
+        } catch (TokenExpiredException e) {
+            refreshToken();
+            try {
+                return getOrCreateUserBySub(user);
+            } catch (TokenExpiredException tokenExpiredException) {
+                throw new SystemException(GenericErrorCodeMessage.EXPIRED_ACCESS_TOKEN.toString());
+            }
+        }
+    }
+
+    /**
+     * Method to request the user (identified by the subject) to be retrieved or, if not existent, created
+     * @param user information to be used in case the user needs to be created
+     * @return the existent (or just created) system user
+     * @throws SystemException in case of any issue on the request or if URL is malformed
+     * @throws TokenExpiredException in case of JWT token expiration
+     */
+    private SystemUser getOrCreateUserBySub(SystemUser user) throws TokenExpiredException, SystemException {
+        try {
+            UserResourceClient client = clientServiceUtil.getUserResourceClient(getOAF().getProperty(OAFProperties.SYSTEM_MS_ENDPOINT_USERMANAGEMENT));
+            Response response = client.getOrCreateBySub((User) user);
+            if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                throw new SystemException(response.readEntity(String.class));
+            }
+            return UserModelMapper.map((InputStream) response.getEntity());
+        } catch (ExtensionException | ProcessingException | MalformedURLException | WebApplicationException e) {
+            throw new SystemException(e);
+        }
+    }
+
     /**
      * Returns all the existent System Users into a pagination format
      * @param search in case there should only be returned a specific type of users
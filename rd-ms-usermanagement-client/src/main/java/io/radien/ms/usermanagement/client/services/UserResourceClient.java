@@ -23,6 +23,7 @@ import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
@@ -119,6 +120,18 @@ public interface UserResourceClient {
     @POST
     public Response save(User user);
 
+    /**
+     * Retrieves the user identified by the given user subject, creating it in case it does not exist yet.
+     * Idempotent, allows the login to be done with a single request.
+     *
+     * @param user information to be used in case the user needs to be created
+     * @return Ok message containing the user if it has success. Returns error 400 Code to the user in case of
+     * invalid request.
+     */
+    @PUT
+    @Path("/sub")
+    public Response getOrCreateBySub(User user);
+
     /**
      * Adds multiple users into the DB.
      *
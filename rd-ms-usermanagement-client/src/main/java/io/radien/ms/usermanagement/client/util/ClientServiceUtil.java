@@ -15,16 +15,16 @@
  */
 package io.radien.ms.usermanagement.client.util;
 
+import io.radien.ms.authz.client.RestClientRegistry;
 import io.radien.exception.TokenExpiredException;
 import io.radien.ms.usermanagement.client.UserResponseExceptionMapper;
 import io.radien.ms.usermanagement.client.providers.UserMessageBodyWriter;
 import io.radien.ms.usermanagement.client.services.UserResourceClient;
 import javax.enterprise.context.RequestScoped;
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 
 import javax.ejb.Stateless;
+import javax.inject.Inject;
 import java.net.MalformedURLException;
-import java.net.URL;
 
 /**
  * Utility class that produces Rest Clients for User management
@@ -34,6 +34,9 @@ import java.net.URL;
 @RequestScoped
 public class ClientServiceUtil {
 
+    @Inject
+    private RestClientRegistry restClientRegistry;
+
     /**
      * Gets a Rest Client for user
      * @param urlStr url of rest endpoint
@@ -42,12 +45,7 @@ public class ClientServiceUtil {
      * @throws TokenExpiredException  in case of JWT token expiration
      */
     public UserResourceClient getUserResourceClient(String urlStr) throws MalformedURLException , TokenExpiredException {
-        URL url = new URL(urlStr);
-        return RestClientBuilder.
-                 newBuilder()
-                .baseUrl(url)
-                .register(UserResponseExceptionMapper.class)
-                .register(UserMessageBodyWriter.class)
-                .build(UserResourceClient.class);
+        return restClientRegistry.getClient(urlStr, UserResourceClient.class,
+                UserResponseExceptionMapper.class, UserMessageBodyWriter.class);
     }
 }
@@ -718,6 +718,61 @@ public class UserRESTServiceClientTest {
         target.create(u,true);
     }
 
+    /**
+     * Test to retrieve (or create) a user by its subject
+     * @throws Exception to be thrown in multiple cases
+     */
+    @Test
+    public void testGetOrCreateBySub() throws Exception {
+        User u = new User();
+        u.setId(10L);
+        u.setFirstname("test");
+        u.setLastname("test");
+        u.setUserEmail("test");
+        u.setSub("sub");
+        u.setLogon("test");
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JsonWriter jsonWriter = Json.createWriter(baos);
+        jsonWriter.writeObject(UserModelMapper.map(u));
+        jsonWriter.close();
+
+        UserResourceClient resourceClient = Mockito.mock(UserResourceClient.class);
+        when(resourceClient.getOrCreateBySub(any())).
+                thenReturn(Response.ok(new ByteArrayInputStream(baos.toByteArray())).build());
+        when(clientServiceUtil.getUserResourceClient(getUserManagementUrl())).thenReturn(resourceClient);
+
+        SystemUser result = target.getOrCreateBySub(new User());
+        assertEquals(u.getId(), result.getId());
+        assertEquals(u.getSub(), result.getSub());
+    }
+
+    /**
+     * Test to retrieve (or create) a user by its subject but with an error response
+     * @throws Exception to be thrown in multiple cases
+     */
+    @Test(expected = SystemException.class)
+    public void testGetOrCreateBySubError() throws Exception {
+        UserResourceClient resourceClient = Mockito.mock(UserResourceClient.class);
+        when(resourceClient.getOrCreateBySub(any())).thenReturn(Response.status(Response.Status.BAD_REQUEST).
+                entity("duplicated logon").build());
+        when(clientServiceUtil.getUserResourceClient(getUserManagementUrl())).thenReturn(resourceClient);
+        target.getOrCreateBySub(new User());
+    }
+
+    /**
+     * Test to retrieve (or create) a user by its subject but with the token expired twice
+     * @throws Exception to be thrown in multiple cases
+     */
+    @Test(expected = SystemException.class)
+    public void testGetOrCreateBySubTokenExpiration() throws Exception {
+        UserResourceClient resourceClient = Mockito.mock(UserResourceClient.class);
+        when(resourceClient.getOrCreateBySub(any())).thenThrow(new TokenExpiredException("test"));
+        when(clientServiceUtil.getUserResourceClient(getUserManagementUrl())).thenReturn(resourceClient);
+        mockRefreshToken();
+        target.getOrCreateBySub(new User());
+    }
+
     /**
      * Test to validate the initiate resetting password
      * @throws MalformedURLException in case of endpoint url is wrong
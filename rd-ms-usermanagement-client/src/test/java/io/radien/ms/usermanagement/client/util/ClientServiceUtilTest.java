@@ -15,11 +15,13 @@
  */
 package io.radien.ms.usermanagement.client.util;
 
+import io.radien.ms.authz.client.RestClientRegistry;
 import io.radien.exception.TokenExpiredException;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.net.MalformedURLException;
 
@@ -27,6 +29,9 @@ import static org.junit.Assert.*;
 
 public class ClientServiceUtilTest {
 
+    @Spy
+    private RestClientRegistry restClientRegistry = new RestClientRegistry();
+
     @InjectMocks
     private ClientServiceUtil clientServiceUtil;
 
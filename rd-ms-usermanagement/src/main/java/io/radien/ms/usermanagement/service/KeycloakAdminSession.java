@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.usermanagement.service;
+
+import io.radien.api.KeycloakConfigs;
+import io.radien.api.SystemProperties;
+import io.radien.ms.usermanagement.client.exceptions.RemoteResourceException;
+import kong.unirest.Unirest;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps one logged in keycloak admin client, shared by all the requests.
+ * The admin access token is renewed before its expiration (using the refresh token while it is valid,
+ * logging in again otherwise) by a single thread at a time. Meanwhile, the other threads keep using
+ * the current token as long as it has not expired.
+ *
+ * @author Nuno Santana
+ */
+@ApplicationScoped
+public class KeycloakAdminSession {
+
+    private static final Logger log = LoggerFactory.getLogger(KeycloakAdminSession.class);
+
+    public static final String TOKEN_REFRESH_SKEW = "keycloak.admin.token.refreshSkew";
+    public static final String HTTP_MAX_CONNECTIONS = "keycloak.admin.http.maxConnections";
+    public static final String HTTP_MAX_CONNECTIONS_PER_ROUTE = "keycloak.admin.http.maxConnectionsPerRoute";
+
+    private static final long DEFAULT_REFRESH_SKEW_IN_SECONDS = 30;
+    private static final int DEFAULT_MAX_CONNECTIONS = 200;
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+
+    private long refreshSkewInMillis = TimeUnit.SECONDS.toMillis(DEFAULT_REFRESH_SKEW_IN_SECONDS);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private KeycloakClient newClient;
+    private volatile KeycloakClient client;
+    private volatile long accessTokenExpiresAt;
+    private volatile long refreshTokenExpiresAt;
+
+    private final AtomicLong logins = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    /**
+     * Default constructor, the refresh skew and connection pool sizes are read by {@link #init()}
+     * and the admin client is created on the first request
+     */
+    public KeycloakAdminSession() {
+    }
+
+    /**
+     * Constructor that allows to define the (not yet logged in) admin client and the settings directly
+     * @param client keycloak admin client
+     * @param refreshSkewInMillis time (in milliseconds) before the expiration in which the token gets renewed
+     */
+    public KeycloakAdminSession(KeycloakClient client, long refreshSkewInMillis) {
+        this.newClient = client;
+        this.refreshSkewInMillis = refreshSkewInMillis;
+    }
+
+    /**
+     * Loads the settings (refresh skew in seconds and http connection pool sizes) from the configuration.
+     * The pool sizes are applied to the shared Unirest instance only if it was not used yet.
+     */
+    @PostConstruct
+    public void init() {
+        Config config = ConfigProvider.getConfig();
+        this.refreshSkewInMillis = TimeUnit.SECONDS.toMillis(config.getOptionalValue(TOKEN_REFRESH_SKEW, Long.class).
+                orElse(DEFAULT_REFRESH_SKEW_IN_SECONDS));
+        int maxConnections = config.getOptionalValue(HTTP_MAX_CONNECTIONS, Integer.class).
+                orElse(DEFAULT_MAX_CONNECTIONS);
+        int maxConnectionsPerRoute = config.getOptionalValue(HTTP_MAX_CONNECTIONS_PER_ROUTE, Integer.class).
+                orElse(DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+        if (Unirest.config().isRunning()) {
+            log.warn("Http client already running, connection pool settings not applied");
+        } else {
+            Unirest.config().concurrency(maxConnections, maxConnectionsPerRoute);
+        }
+        log.info("Keycloak admin session refresh skew: {} ms, max connections: {}, max connections per route: {}",
+                refreshSkewInMillis, maxConnections, maxConnectionsPerRoute);
+    }
+
+    /**
+     * Retrieves the admin client holding a valid access token, renewing the token if needed
+     * @return the logged in keycloak admin client
+     * @throws RemoteResourceException in case of the token could not be obtained
+     */
+    public KeycloakClient getClient() throws RemoteResourceException {
+        KeycloakClient current = client;
+        if (current != null && System.currentTimeMillis() < accessTokenExpiresAt - refreshSkewInMillis) {
+            return current;
+        }
+        if (!lock.tryLock()) {
+            if (current != null && System.currentTimeMillis() < accessTokenExpiresAt) {
+                return current;
+            }
+            lock.lock();
+        }
+        try {
+            if (client == null || System.currentTimeMillis() >= accessTokenExpiresAt - refreshSkewInMillis) {
+                renew();
+            }
+            return client;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of logins performed
+     * @return number of logins
+     */
+    public long getLoginCount() {
+        return logins.get();
+    }
+
+    /**
+     * Gets the number of token refreshes performed
+     * @return number of refreshes
+     */
+    public long getRefreshCount() {
+        return refreshes.get();
+    }
+
+    /**
+     * Renews the admin access token, through the refresh token while it is valid or through a new login.
+     * Must be invoked holding the lock.
+     * @throws RemoteResourceException in case of the login fails
+     */
+    private void renew() throws RemoteResourceException {
+        long now = System.currentTimeMillis();
+        if (client != null && now < refreshTokenExpiresAt - refreshSkewInMillis) {
+            try {
+                client.refreshToken();
+                refreshes.incrementAndGet();
+                updateExpiration(client, now);
+                return;
+            } catch (RemoteResourceException e) {
+                log.warn("Unable to refresh keycloak admin token, login will be performed");
+            }
+        }
+        KeycloakClient target = client != null ? client : createClient();
+        target.login();
+        logins.incrementAndGet();
+        updateExpiration(target, now);
+        client = target;
+    }
+
+    /**
+     * Calculates the expiration instants of the tokens currently held by the client
+     * @param target keycloak admin client
+     * @param issuedAt instant (in milliseconds) in which the tokens were requested
+     */
+    private void updateExpiration(KeycloakClient target, long issuedAt) {
+        long refreshExpiresIn = target.getRefreshExpiresIn();
+        // A zero refresh lifetime means the refresh token does not expire (offline tokens)
+        this.refreshTokenExpiresAt = refreshExpiresIn > 0 ? issuedAt + TimeUnit.SECONDS.toMillis(refreshExpiresIn) :
+                Long.MAX_VALUE;
+        this.accessTokenExpiresAt = issuedAt + TimeUnit.SECONDS.toMillis(target.getExpiresIn());
+    }
+
+    /**
+     * Creates the keycloak admin client from the configuration
+     * @return the keycloak admin client (not yet logged in)
+     */
+    private KeycloakClient createClient() {
+        if (newClient != null) {
+            return newClient;
+        }
+        return new KeycloakClient()
+                .clientId(getProperty(KeycloakConfigs.ADMIN_CLIENT_ID))
+                .username(getProperty(KeycloakConfigs.ADMIN_USER))
+                .password(getProperty(KeycloakConfigs.ADMIN_PASSWORD))
+                .idpUrl(getProperty(KeycloakConfigs.IDP_URL))
+                .tokenPath(getProperty(KeycloakConfigs.TOKEN_PATH))
+                .userPath(getProperty(KeycloakConfigs.USER_PATH))
+                .radienClientId(getProperty(KeycloakConfigs.RADIEN_CLIENT_ID))
+                .radienSecret(getProperty(KeycloakConfigs.RADIEN_SECRET))
+                .radienTokenPath(getProperty(KeycloakConfigs.RADIEN_TOKEN_PATH));
+    }
+
+    /**
+     * Method to retrieve the keycloak client configuration
+     * @param cfg to be retrieved
+     * @return a string value of the keycloak property configuration
+     */
+    private String getProperty(SystemProperties cfg) {
+        Config config = ConfigProvider.getConfig();
+        return config.getValue(cfg.propKey(), String.class);
+    }
+}
@@ -44,8 +44,10 @@ public class KeycloakClient {
     private static final String CLIENT_ID="client_id";
     private static final String GRANT_TYPE="grant_type";
     private static final Logger log = LoggerFactory.getLogger(KeycloakClient.class);
+    /** Lifetime (in seconds) assumed for a token whose lifetime is not informed on the token response */
+    static final long DEFAULT_TOKEN_LIFETIME = 60;
 
-    private HashMap<String, String> result;
+    private volatile HashMap<String, String> result;
     private String idpUrl;
     private String clientId;
     private String username;
@@ -169,6 +171,24 @@ public class KeycloakClient {
         return result.get(REFRESH_TOKEN);
     }
 
+    /**
+     * Keycloak access token lifetime getter
+     * @return the number of seconds the current access token remains valid after being issued
+     * ({@link #DEFAULT_TOKEN_LIFETIME} when not informed)
+     */
+    public long getExpiresIn() {
+        return getLifetime("expires_in");
+    }
+
+    /**
+     * Keycloak refresh token lifetime getter
+     * @return the number of seconds the current refresh token remains valid after being issued
+     * (zero when without expiration, {@link #DEFAULT_TOKEN_LIFETIME} when not informed)
+     */
+    public long getRefreshExpiresIn() {
+        return getLifetime("refresh_expires_in");
+    }
+
     /**
      * Keycloak login process and field filler
      * @return http response hash map with all the login fields
@@ -293,8 +313,8 @@ public class KeycloakClient {
                 .field(REFRESH_TOKEN, refreshToken)
                 .asObject(HashMap.class);
         if (response.isSuccess()) {
-            result = (HashMap<String, String>) response.getBody();
-            return result.get("access_token");
+            HashMap<String, String> tokens = (HashMap<String, String>) response.getBody();
+            return tokens.get("access_token");
         } else {
             //TODO: improve Error handling
             //  error_description=Token is not active, error=invalid_grant
@@ -323,6 +343,25 @@ public class KeycloakClient {
         }
     }
 
+    /**
+     * Method to get a token lifetime from the last token response (numeric on the json response).
+     * A missing lifetime falls back to a short default instead of zero, otherwise the token would be
+     * considered expired (and renewed) on every request
+     * @param field token response field
+     * @return the lifetime in seconds, or {@link #DEFAULT_TOKEN_LIFETIME} if not available
+     */
+    private long getLifetime(String field) {
+        Object value = result == null ? null : ((Map<?, ?>) result).get(field);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value == null || value.toString().trim().isEmpty()) {
+            log.warn("Token response without {}, assuming {} seconds", field, DEFAULT_TOKEN_LIFETIME);
+            return DEFAULT_TOKEN_LIFETIME;
+        }
+        return Long.parseLong(value.toString().trim());
+    }
+
     /**
      * Method to get the access token/authorization token
      * @return the authorization token in use
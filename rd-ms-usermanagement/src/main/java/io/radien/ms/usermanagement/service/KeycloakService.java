@@ -15,15 +15,27 @@
  */
 package io.radien.ms.usermanagement.service;
 
-import io.radien.api.SystemProperties;
 import io.radien.api.model.user.SystemUser;
+import io.radien.api.service.batch.DataIssue;
 import io.radien.ms.usermanagement.client.exceptions.RemoteResourceException;
-import io.radien.api.KeycloakConfigs;
-import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.keycloak.representations.idm.UserRepresentation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
 import javax.ejb.Stateless;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 /**
  * Keycloak request services and actions
@@ -33,25 +45,36 @@ import javax.ejb.Stateless;
 @Stateless
 public class KeycloakService {
 
+    private static final Logger log = LoggerFactory.getLogger(KeycloakService.class);
+
+    public static final String BATCH_WORKERS = "keycloak.batch.workers";
+
+    private static final int DEFAULT_BATCH_WORKERS = 8;
+
+    private int batchWorkers = DEFAULT_BATCH_WORKERS;
+
+    @Inject
+    private KeycloakAdminSession keycloakAdminSession;
+
+    @Resource
+    private ManagedExecutorService executorService;
+
+    /**
+     * Loads the number of workers used on batch provisioning from the configuration
+     */
+    @PostConstruct
+    public void init() {
+        this.batchWorkers = ConfigProvider.getConfig().getOptionalValue(BATCH_WORKERS, Integer.class).
+                orElse(DEFAULT_BATCH_WORKERS);
+    }
+
     /**
      * Method to retrieve active keycloak client
      * @return the active keycloak client session
      * @throws RemoteResourceException exceptions that may occur during the execution of a remote method call.
      */
     private KeycloakClient getKeycloakClient() throws RemoteResourceException {
-        KeycloakClient client = new KeycloakClient()
-                .clientId(getProperty(KeycloakConfigs.ADMIN_CLIENT_ID))
-                .username(getProperty(KeycloakConfigs.ADMIN_USER))
-                .password(getProperty(KeycloakConfigs.ADMIN_PASSWORD))
-                //TODO : ADD missing configurations
-                .idpUrl(getProperty(KeycloakConfigs.IDP_URL))
-                .tokenPath(getProperty(KeycloakConfigs.TOKEN_PATH))
-                .userPath(getProperty(KeycloakConfigs.USER_PATH))
-                .radienClientId(getProperty(KeycloakConfigs.RADIEN_CLIENT_ID))
-                .radienSecret(getProperty(KeycloakConfigs.RADIEN_SECRET))
-                .radienTokenPath(getProperty(KeycloakConfigs.RADIEN_TOKEN_PATH));
-        client.login();
-        return client;
+        return keycloakAdminSession.getClient();
     }
 
     /**
@@ -65,7 +88,6 @@ public class KeycloakService {
         KeycloakClient client = getKeycloakClient();
         String sub= client.createUser(userRepresentation);
         try {
-            client.refreshToken();
             client.sendUpdatePasswordEmail(sub);
         } catch (RemoteResourceException e){
             deleteUser(sub);
@@ -75,6 +97,72 @@ public class KeycloakService {
         return sub;
     }
 
+    /**
+     * Batch creation of users on keycloak, performed by a bounded number of tasks (submitted to the container
+     * managed executor) that share the admin token. Each successfully created user gets his subject set,
+     * the remaining ones are reported as issues
+     * @param usersByRow users to be created, indexed by the batch row
+     * @return the issues found, one per row that could not be created
+     */
+    public List<DataIssue> createUsers(Map<Long, ? extends SystemUser> usersByRow) {
+        List<DataIssue> issues = new ArrayList<>();
+        if (usersByRow.isEmpty()) {
+            return issues;
+        }
+        List<Long> rows = new ArrayList<>(usersByRow.keySet());
+        int workers = Math.max(1, Math.min(batchWorkers, rows.size()));
+        List<Future<List<DataIssue>>> tasks = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++) {
+            List<Long> workerRows = new ArrayList<>();
+            for (int index = worker; index < rows.size(); index += workers) {
+                workerRows.add(rows.get(index));
+            }
+            tasks.add(executorService.submit(() -> createUsers(workerRows, usersByRow)));
+        }
+        for (Future<List<DataIssue>> task : tasks) {
+            try {
+                issues.addAll(task.get());
+            } catch (ExecutionException e) {
+                log.error("Keycloak batch creation task failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                tasks.forEach(t -> t.cancel(true));
+                break;
+            }
+        }
+        Set<Long> reportedRows = issues.stream().map(DataIssue::getRowId).collect(Collectors.toSet());
+        for (Long row : rows) {
+            if (usersByRow.get(row).getSub() == null && !reportedRows.contains(row)) {
+                issues.add(new DataIssue(row, "Keycloak user creation interrupted"));
+            }
+        }
+        issues.sort(Comparator.comparingLong(DataIssue::getRowId));
+        log.info("{} users created on keycloak, {} failed", usersByRow.size() - issues.size(), issues.size());
+        return issues;
+    }
+
+    /**
+     * Sequentially creates the users of the given rows on keycloak (work unit of a batch creation task)
+     * @param rows rows to be processed by this task
+     * @param usersByRow users to be created, indexed by the batch row
+     * @return the issues found, one per row that could not be created
+     */
+    private List<DataIssue> createUsers(List<Long> rows, Map<Long, ? extends SystemUser> usersByRow) {
+        List<DataIssue> issues = new ArrayList<>();
+        for (Long row : rows) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            SystemUser user = usersByRow.get(row);
+            try {
+                user.setSub(createUser(user));
+            } catch (Exception e) {
+                issues.add(new DataIssue(row, String.valueOf(e.getMessage())));
+            }
+        }
+        return issues;
+    }
+
     /**
      * Method to request keycloak to delete specific user
      * @param sub of the user to be deleted
@@ -117,14 +205,4 @@ public class KeycloakService {
         return client.refreshToken(refreshToken);
     }
 
-    /**
-     * Method to retrieve the keycloak client configuration
-     * @param cfg to be retrieved
-     * @return a string value of the keycloak property configuration
-     */
-    private String getProperty(SystemProperties cfg) {
-        Config config = ConfigProvider.getConfig();
-        return config.getValue(cfg.propKey(),String.class);
-    }
-
 }
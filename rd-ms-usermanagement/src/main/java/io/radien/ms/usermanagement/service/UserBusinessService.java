@@ -18,7 +18,9 @@ package io.radien.ms.usermanagement.service;
 import io.radien.api.entity.Page;
 import io.radien.api.model.user.SystemUser;
 import io.radien.api.model.user.SystemUserSearchFilter;
+import io.radien.api.security.UserIdentityCache;
 import io.radien.api.service.batch.BatchSummary;
+import io.radien.api.service.batch.DataIssue;
 import io.radien.api.service.user.UserServiceAccess;
 import io.radien.exception.UniquenessConstraintException;
 import io.radien.exception.UserNotFoundException;
@@ -26,9 +28,17 @@ import io.radien.ms.usermanagement.client.entities.User;
 import io.radien.ms.usermanagement.client.exceptions.RemoteResourceException;
 
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 import javax.inject.Inject;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * User service requests between the rest services and the db
@@ -44,14 +54,22 @@ public class UserBusinessService implements Serializable {
 	private UserServiceAccess userServiceAccess;
 	@Inject
 	private KeycloakService keycloakService;
+	@Inject
+	private UserIdentityCache userIdentityCache;
 
 	/**
-	 * Method to request a specific user id by a given subject
+	 * Method to request a specific user id by a given subject.
+	 * Since the relation between subject and id does not change, the result is kept on a near cache
 	 * @param sub to be search
 	 * @return the user id
 	 */
 	public Long getUserId(String sub) {
-		return userServiceAccess.getUserId(sub);
+		Long id = userIdentityCache.get(sub);
+		if (id == null) {
+			id = userServiceAccess.getUserId(sub);
+			userIdentityCache.put(sub, id);
+		}
+		return id;
 	}
 
 	/**
@@ -105,6 +123,7 @@ public class UserBusinessService implements Serializable {
 			keycloakService.deleteUser(u.getSub());
 		}
 		userServiceAccess.delete(id);
+		userIdentityCache.invalidate(id);
 	}
 
 	/**
@@ -114,24 +133,12 @@ public class UserBusinessService implements Serializable {
 	 * @throws RemoteResourceException on empty logon, email, first and last name
 	 */
 	public void save(User user,boolean skipKeycloak) throws UniquenessConstraintException, UserNotFoundException, RemoteResourceException {
-		if(user.getLogon().isEmpty()){
-			//according to current keycloak config
-			throw new RemoteResourceException("logon cannot be empty");
-		}
-		if(user.getUserEmail().isEmpty()){
-			//for the user to be able to login he needs to be able to set password
-			throw new RemoteResourceException("email cannot be empty");
-		}
-
-		if(user.getFirstname()!=null && user.getFirstname().isEmpty()){
-			throw new RemoteResourceException("firstname cannot be empty");
-		}
-
-		if(user.getLastname()!=null && user.getLastname().isEmpty()){
-			throw new RemoteResourceException("lastname cannot be empty");
-		}
+		validateMandatoryFields(user);
 
 		boolean creation = user.getId() == null;
+		if (!creation) {
+			userIdentityCache.invalidate(user.getId());
+		}
 		userServiceAccess.save(user);
 		if(creation && !skipKeycloak){
 			try {
@@ -151,12 +158,110 @@ public class UserBusinessService implements Serializable {
 	}
 
 	/**
-	 * Creates in a batch mode all the requested given users existent in the given list
+	 * Retrieves the user identified by the subject of the given user, creating it when there is none yet.
+	 * Meant for the first access of users already known by the identity provider, so keycloak is never involved.
+	 * Concurrent first accesses of the same subject are resolved by the uniqueness of the subject (and logon/email):
+	 * the one that loses the insertion gets the user created by the other
+	 * @param user information used when the user needs to be created
+	 * @return the existent (or just created) user
+	 * @throws UniquenessConstraintException in case of duplicated email/logon belonging to another subject
+	 * @throws UserNotFoundException in case the user cannot be found
+	 * @throws RemoteResourceException on empty subject, logon, email, first and last name
+	 */
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public SystemUser getOrCreateBySub(User user) throws UniquenessConstraintException, UserNotFoundException, RemoteResourceException {
+		if(user.getSub() == null || user.getSub().isEmpty()){
+			throw new RemoteResourceException("sub cannot be empty");
+		}
+		Long id = getUserId(user.getSub());
+		if (id != null) {
+			return userServiceAccess.get(id);
+		}
+		validateMandatoryFields(user);
+		user.setId(null);
+		try {
+			userServiceAccess.insert(user);
+		} catch (UniquenessConstraintException e) {
+			id = userServiceAccess.getUserId(user.getSub());
+			if (id == null) {
+				throw e;
+			}
+			userIdentityCache.put(user.getSub(), id);
+			return userServiceAccess.get(id);
+		}
+		userIdentityCache.put(user.getSub(), user.getId());
+		return user;
+	}
+
+	/**
+	 * Validates the user mandatory information
+	 * @param user to be validated
+	 * @throws RemoteResourceException on empty logon, email, first and last name
+	 */
+	private void validateMandatoryFields(User user) throws RemoteResourceException {
+		if(user.getLogon().isEmpty()){
+			//according to current keycloak config
+			throw new RemoteResourceException("logon cannot be empty");
+		}
+		if(user.getUserEmail().isEmpty()){
+			//for the user to be able to login he needs to be able to set password
+			throw new RemoteResourceException("email cannot be empty");
+		}
+
+		if(user.getFirstname()!=null && user.getFirstname().isEmpty()){
+			throw new RemoteResourceException("firstname cannot be empty");
+		}
+
+		if(user.getLastname()!=null && user.getLastname().isEmpty()){
+			throw new RemoteResourceException("lastname cannot be empty");
+		}
+	}
+
+	/**
+	 * Creates in a batch mode all the requested given users existent in the given list.
+	 * Inserted users without subject get their keycloak accounts created afterwards (outside of the
+	 * insertion transaction), the ones that could not be created on keycloak are removed and reported
 	 * @param users to be created
 	 * @return a batch summary with the resumed information with success or failure
 	 */
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
 	public BatchSummary create(List<? extends SystemUser> users) {
-		return userServiceAccess.create(users);
+		BatchSummary batchSummary = userServiceAccess.create(users);
+
+		Set<Long> rowsWithIssues = batchSummary.getNonProcessedItems().stream().
+				map(DataIssue::getRowId).collect(Collectors.toSet());
+		Map<Long, SystemUser> usersByRow = new LinkedHashMap<>();
+		for (int index = 0; index < users.size(); index++) {
+			long row = index + 1L;
+			SystemUser user = users.get(index);
+			if (!rowsWithIssues.contains(row) && user.getSub() == null) {
+				usersByRow.put(row, user);
+			}
+		}
+		if (usersByRow.isEmpty()) {
+			return batchSummary;
+		}
+
+		List<DataIssue> issues = keycloakService.createUsers(usersByRow);
+		Set<Long> failedRows = issues.stream().map(DataIssue::getRowId).collect(Collectors.toSet());
+		Map<Long, String> subsByUserId = new HashMap<>();
+		List<Long> failedUserIds = new ArrayList<>();
+		for (Map.Entry<Long, SystemUser> entry : usersByRow.entrySet()) {
+			SystemUser user = entry.getValue();
+			if (failedRows.contains(entry.getKey())) {
+				failedUserIds.add(user.getId());
+			} else {
+				subsByUserId.put(user.getId(), user.getSub());
+			}
+		}
+		if (!subsByUserId.isEmpty()) {
+			userServiceAccess.updateSubs(subsByUserId);
+		}
+		if (!failedUserIds.isEmpty()) {
+			userServiceAccess.delete(failedUserIds);
+		}
+		batchSummary.addNonProcessedItems(issues);
+		return batchSummary;
 	}
 
 	/**
@@ -171,6 +171,25 @@ public class UserResource extends AuthorizationChecker implements UserResourceCl
 		return Response.ok().build();
 	}
 
+	/**
+	 * Retrieves the user identified by the given user subject, creating it in case it does not exist yet.
+	 * @param user information to be used in case the user needs to be created
+	 * @return Ok message containing the user if it has success. Returns error 400 Code to the user in case of
+	 * invalid request.
+	 */
+	@Override
+	public Response getOrCreateBySub(io.radien.ms.usermanagement.client.entities.User user) {
+		try {
+			if (!isSelfOnboard(user) && !checkUserRoles()) {
+				return GenericErrorMessagesToResponseMapper.getForbiddenResponse();
+			}
+			SystemUser systemUser = userBusinessService.getOrCreateBySub(new UserEntity(user));
+			return Response.ok(systemUser).build();
+		} catch (Exception e) {
+			return getResponseFromException(e);
+		}
+	}
+
 	/**
 	 * Check if the the current logged user is trying to register
 	 * himself into the radien repository
@@ -34,13 +34,17 @@ import javax.persistence.PersistenceContextType;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.persistence.NoResultException;
+import javax.persistence.PersistenceException;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
 import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,7 +60,10 @@ import io.radien.api.util.ModelServiceUtil;
 import io.radien.ms.usermanagement.entities.UserEntity;
 import io.radien.ms.usermanagement.client.entities.UserSearchFilter;
 
+import javax.annotation.PostConstruct;
 import javax.ejb.Stateful;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 /**
  * User management requests and accesses into the db to gather information or validating
  *
@@ -73,6 +80,21 @@ public class UserService extends ModelServiceUtil implements UserServiceAccess {
 	@PersistenceContext(unitName = "persistenceUnit", type = PersistenceContextType.EXTENDED)
 	private transient EntityManager em;
 
+	public static final String BATCH_CHUNK_SIZE = "user.batch.chunkSize";
+
+	private static final int DEFAULT_BATCH_CHUNK_SIZE = 500;
+
+	private int batchChunkSize = DEFAULT_BATCH_CHUNK_SIZE;
+
+	/**
+	 * Loads the number of users persisted between each flush (batch mode) from the configuration
+	 */
+	@PostConstruct
+	public void init() {
+		this.batchChunkSize = ConfigProvider.getConfig().getOptionalValue(BATCH_CHUNK_SIZE, Integer.class).
+				orElse(DEFAULT_BATCH_CHUNK_SIZE);
+	}
+
 	/**
 	 * Requests the user id based on the received user subject
 	 * @param userSub to be found
@@ -209,6 +231,29 @@ public class UserService extends ModelServiceUtil implements UserServiceAccess {
 		}
 	}
 
+	/**
+	 * Inserts the requested user into the DB on a new transaction, flushing it immediately so the uniqueness
+	 * violations detected by the DB (concurrent insertions) are reported as {@link UniquenessConstraintException}
+	 * instead of failing the commit, which would discard this (stateful) bean.
+	 * @param user to be inserted
+	 * @throws UniquenessConstraintException in case of duplicated subject/email/logon
+	 */
+	@Override
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void insert(SystemUser user) throws UniquenessConstraintException {
+		List<UserEntity> alreadyExistentRecords = searchDuplicatedEmailOrLogon(user);
+		if(!alreadyExistentRecords.isEmpty()) {
+			validateUniquenessRecords(alreadyExistentRecords, user);
+		}
+		try {
+			em.persist(user);
+			em.flush();
+		} catch (PersistenceException e) {
+			log.warn("User with sub {} not inserted: {}", user.getSub(), e.getMessage());
+			throw new UniquenessConstraintException(GenericErrorCodeMessage.DUPLICATED_FIELD.toString("Subject, Email Address or Logon"));
+		}
+	}
+
 	/**
 	 * Query to validate if an existent email address or logon already exists in the database or not.
 	 * @param user user information to look up.
@@ -376,14 +421,64 @@ public class UserService extends ModelServiceUtil implements UserServiceAccess {
 				filter(index -> !issues.containsKey(index)).
 				mapToObj(users::get).collect(Collectors.toList());
 
+		int count = 0;
 		for (SystemUser u: insertion) {
 			em.persist(u);
+			if (++count % batchChunkSize == 0) {
+				flushAndClear();
+			}
+		}
+		if (count % batchChunkSize != 0) {
+			flushAndClear();
 		}
 		batchSummary.addNonProcessedItems(issues.values());
 
 		return batchSummary;
 	}
 
+	/**
+	 * Sends the pending insertions (grouped in JDBC batches) to the database and detaches
+	 * the persisted users, so the memory used by the persistence context does not grow with the batch size
+	 */
+	private void flushAndClear() {
+		em.flush();
+		em.clear();
+	}
+
+	/**
+	 * Batch update of the user subjects (i.e. after the creation of the users accounts on the identity provider),
+	 * issuing one update statement per chunk of users
+	 * @param subsByUserId subjects to be set, indexed by user id
+	 */
+	@Override
+	public void updateSubs(Map<Long, String> subsByUserId) {
+		List<Map.Entry<Long, String>> entries = new ArrayList<>(subsByUserId.entrySet());
+		for (int from = 0; from < entries.size(); from += batchChunkSize) {
+			updateSubs(entries.subList(from, Math.min(from + batchChunkSize, entries.size())));
+		}
+	}
+
+	/**
+	 * Updates the subjects of a chunk of users with a single statement, choosing the subject of each
+	 * row through a case expression on the user id
+	 * @param entries user id and subject pairs to be updated
+	 */
+	private void updateSubs(List<Map.Entry<Long, String>> entries) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaUpdate<UserEntity> criteriaUpdate = cb.createCriteriaUpdate(UserEntity.class);
+		Root<UserEntity> userRoot = criteriaUpdate.from(UserEntity.class);
+		Path<Long> id = userRoot.get(SystemVariables.ID.getFieldName());
+		Path<String> sub = userRoot.get(SystemVariables.SUB.getFieldName());
+
+		CriteriaBuilder.SimpleCase<Long, String> subById = cb.selectCase(id);
+		for (Map.Entry<Long, String> entry : entries) {
+			subById.when(entry.getKey(), entry.getValue());
+		}
+		criteriaUpdate.set(sub, subById.otherwise(sub));
+		criteriaUpdate.where(id.in(entries.stream().map(Map.Entry::getKey).collect(Collectors.toList())));
+		em.createQuery(criteriaUpdate).executeUpdate();
+	}
+
 	/**
 	 * Translates a given list of system users that have been tried to be inserted via batch mode
 	 * and will understand individually which one what was the issue for not being inserted in the batch
@@ -427,7 +522,8 @@ public class UserService extends ModelServiceUtil implements UserServiceAccess {
 	}
 
 	/**
-	 * Method to populate new found issues to be validated and/or filtered in the future
+	 * Method to populate new found issues to be validated and/or filtered in the future.
+	 * Empty (null) values are not unique constrained, so they are never reported as duplicated
 	 * @param field to be searched
 	 * @param value to be searched
 	 * @param index of the hashmap of issues
@@ -440,7 +536,7 @@ public class UserService extends ModelServiceUtil implements UserServiceAccess {
 												 Map<Integer, DataIssue> issuesByRow,
 												 Set<String> parameterSet) {
 
-		if (!parameterSet.add(value)){
+		if (value != null && !parameterSet.add(value)){
 			addNewFoundIssue(index, issuesByRow,
 					GenericErrorCodeMessage.DUPLICATED_FIELD.toString(field));
 		}
@@ -460,7 +556,7 @@ public class UserService extends ModelServiceUtil implements UserServiceAccess {
 							  Map<Integer, DataIssue> issuesByRow,
 							  Set<String> searchArea) {
 
-		if (searchArea.contains(value)){
+		if (value != null && searchArea.contains(value)){
 			addNewFoundIssue(index, issuesByRow,
 					GenericErrorCodeMessage.DUPLICATED_FIELD.toString(field));
 		}
@@ -473,6 +569,9 @@ public class UserService extends ModelServiceUtil implements UserServiceAccess {
 	 * @return list of all the found values
 	 */
 	private List<String> retrieveDataFromDB(String property, Collection<String> parameters) {
+		if (parameters.isEmpty()) {
+			return new ArrayList<>();
+		}
 		CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder();
 		CriteriaQuery<String> criteriaQuery = criteriaBuilder.createQuery(String.class);
 		Root<UserEntity> userRoot = criteriaQuery.from( UserEntity.class);
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.usermanagement.service;
+
+import io.radien.ms.usermanagement.client.exceptions.RemoteResourceException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class that aggregates UnitTest cases for {@link KeycloakAdminSession}
+ *
+ * @author Nuno Santana
+ */
+public class KeycloakAdminSessionTest {
+
+    private KeycloakClient client;
+
+    @Before
+    public void setUp() {
+        client = mock(KeycloakClient.class);
+        when(client.getExpiresIn()).thenReturn(300L);
+        when(client.getRefreshExpiresIn()).thenReturn(1800L);
+    }
+
+    /**
+     * Test for method {@link KeycloakAdminSession#getClient()}
+     * Expected outcome: a single login is performed and the token is reused afterwards
+     * @throws RemoteResourceException not expected
+     */
+    @Test
+    public void testTokenReuse() throws RemoteResourceException {
+        KeycloakAdminSession session = new KeycloakAdminSession(client, 30000);
+        for (int i = 0; i < 10; i++) {
+            assertSame(client, session.getClient());
+        }
+        verify(client, times(1)).login();
+        verify(client, times(0)).refreshToken();
+        assertEquals(1, session.getLoginCount());
+    }
+
+    /**
+     * Test for method {@link KeycloakAdminSession#getClient()}
+     * Scenario: Access token about to expire
+     * Expected outcome: token is renewed through the refresh token
+     * @throws RemoteResourceException not expected
+     */
+    @Test
+    public void testProactiveRefresh() throws RemoteResourceException {
+        when(client.getExpiresIn()).thenReturn(10L);
+        KeycloakAdminSession session = new KeycloakAdminSession(client, 30000);
+        session.getClient();
+        session.getClient();
+        verify(client, times(1)).login();
+        verify(client, times(1)).refreshToken();
+        assertEquals(1, session.getRefreshCount());
+    }
+
+    /**
+     * Test for method {@link KeycloakAdminSession#getClient()}
+     * Scenario: Access token about to expire and refresh token without expiration (refresh_expires_in=0)
+     * Expected outcome: token is renewed through the refresh token, no new login is performed
+     * @throws RemoteResourceException not expected
+     */
+    @Test
+    public void testProactiveRefreshWithoutRefreshExpiration() throws RemoteResourceException {
+        when(client.getExpiresIn()).thenReturn(10L);
+        when(client.getRefreshExpiresIn()).thenReturn(0L);
+        KeycloakAdminSession session = new KeycloakAdminSession(client, 30000);
+        session.getClient();
+        session.getClient();
+        session.getClient();
+        verify(client, times(1)).login();
+        verify(client, times(2)).refreshToken();
+        assertEquals(2, session.getRefreshCount());
+        assertEquals(1, session.getLoginCount());
+    }
+
+    /**
+     * Test for method {@link KeycloakAdminSession#getClient()}
+     * Scenario: Refresh token rejected
+     * Expected outcome: a new login is performed
+     * @throws RemoteResourceException not expected
+     */
+    @Test
+    public void testRefreshFailure() throws RemoteResourceException {
+        when(client.getExpiresIn()).thenReturn(10L);
+        doThrow(new RemoteResourceException("Unable to refresh token")).when(client).refreshToken();
+        KeycloakAdminSession session = new KeycloakAdminSession(client, 30000);
+        session.getClient();
+        session.getClient();
+        verify(client, times(2)).login();
+        assertEquals(0, session.getRefreshCount());
+    }
+
+    /**
+     * Test for method {@link KeycloakAdminSession#getClient()}
+     * Scenario: Login rejected
+     * Expected outcome: RemoteResourceException is propagated
+     * @throws RemoteResourceException expected
+     */
+    @Test(expected = RemoteResourceException.class)
+    public void testLoginFailure() throws RemoteResourceException {
+        when(client.login()).thenThrow(new RemoteResourceException("Error on login"));
+        new KeycloakAdminSession(client, 30000).getClient();
+    }
+
+    /**
+     * Test for method {@link KeycloakAdminSession#getClient()}
+     * Scenario: Many concurrent requests (bulk onboarding)
+     * Expected outcome: only one login is performed
+     * @throws Exception not expected
+     */
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        KeycloakAdminSession session = new KeycloakAdminSession(client, 30000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<KeycloakClient>> results = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                results.add(executor.submit(session::getClient));
+            }
+            for (Future<KeycloakClient> result : results) {
+                assertSame(client, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        verify(client, times(1)).login();
+    }
+}
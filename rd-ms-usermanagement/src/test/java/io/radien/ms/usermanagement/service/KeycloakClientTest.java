@@ -18,6 +18,7 @@ package io.radien.ms.usermanagement.service;
 import io.radien.ms.usermanagement.client.exceptions.RemoteResourceException;
 import io.radien.ms.usermanagement.entities.UserEntity;
 
+import java.util.HashMap;
 import javax.ws.rs.core.Response;
 import kong.unirest.Unirest;
 import org.junit.Before;
@@ -30,10 +31,12 @@ import org.mockito.MockitoAnnotations;
 
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import static org.mockito.ArgumentMatchers.anyString;
@@ -119,4 +122,25 @@ public class KeycloakClientTest {
         keycloakClient.deleteUser("test");
     }
 
-}
\ No newline at end of file
+
+    /**
+     * Test for methods {@link KeycloakClient#getExpiresIn()} and {@link KeycloakClient#getRefreshExpiresIn()}
+     * Expected outcome: informed lifetimes are used, missing ones fall back to the default lifetime
+     */
+    @Test
+    public void testTokenLifetime() {
+        assertEquals(KeycloakClient.DEFAULT_TOKEN_LIFETIME, keycloakClient.getExpiresIn());
+        assertEquals(KeycloakClient.DEFAULT_TOKEN_LIFETIME, keycloakClient.getRefreshExpiresIn());
+
+        HashMap<String, Object> tokenResponse = new HashMap<>();
+        tokenResponse.put("access_token", "token");
+        Whitebox.setInternalState(keycloakClient, "result", tokenResponse);
+        assertEquals(KeycloakClient.DEFAULT_TOKEN_LIFETIME, keycloakClient.getExpiresIn());
+        assertEquals(KeycloakClient.DEFAULT_TOKEN_LIFETIME, keycloakClient.getRefreshExpiresIn());
+
+        tokenResponse.put("expires_in", 300);
+        tokenResponse.put("refresh_expires_in", "0");
+        assertEquals(300L, keycloakClient.getExpiresIn());
+        assertEquals(0L, keycloakClient.getRefreshExpiresIn());
+    }
+}
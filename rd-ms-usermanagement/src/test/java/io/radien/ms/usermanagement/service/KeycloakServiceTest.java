@@ -18,6 +18,7 @@ package io.radien.ms.usermanagement.service;
 import static org.mockito.ArgumentMatchers.*;
 
 import io.radien.api.model.user.SystemUser;
+import io.radien.api.service.batch.DataIssue;
 import io.radien.ms.usermanagement.client.exceptions.RemoteResourceException;
 import io.radien.ms.usermanagement.entities.UserEntity;
 import io.radien.ms.usermanagement.legacy.UserFactory;
@@ -26,9 +27,19 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 import static org.powermock.api.mockito.PowerMockito.*;
 
@@ -43,6 +54,11 @@ public class KeycloakServiceTest extends TestCase {
     public void setUp() throws Exception {
         target = spy(new KeycloakService());
         client = spy(new KeycloakClient());
+
+        ManagedExecutorService executorService = mock(ManagedExecutorService.class);
+        when(executorService.submit(any(Callable.class))).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(((Callable<?>) invocation.getArgument(0)).call()));
+        Whitebox.setInternalState(target, "executorService", executorService);
     }
 
     @Test
@@ -153,4 +169,42 @@ public class KeycloakServiceTest extends TestCase {
         }
         assertTrue(success);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCreateUsers() throws Exception {
+        SystemUser u1 = UserFactory.create("a", "", "a1", null, "a1@b.pt", 0L);
+        SystemUser u2 = UserFactory.create("a", "", "a2", null, "a2@b.pt", 0L);
+        doReturn("sub-1").when(target).createUser(u1);
+        doThrow(new RemoteResourceException("Unable to create User in keycloak")).when(target).createUser(u2);
+
+        Map<Long, SystemUser> usersByRow = new LinkedHashMap<>();
+        usersByRow.put(1L, u1);
+        usersByRow.put(2L, u2);
+        List<DataIssue> issues = target.createUsers(usersByRow);
+
+        assertEquals("sub-1", u1.getSub());
+        assertNull(u2.getSub());
+        assertEquals(1, issues.size());
+        assertEquals(2L, issues.get(0).getRowId());
+        assertEquals("Unable to create User in keycloak", issues.get(0).getReasons().get(0));
+    }
+
+    @Test
+    public void testCreateUsersBoundedTasks() throws Exception {
+        Whitebox.setInternalState(target, "batchWorkers", 2);
+        Map<Long, SystemUser> usersByRow = new LinkedHashMap<>();
+        for (long row = 1; row <= 5; row++) {
+            SystemUser user = UserFactory.create("a", "", "a" + row, null, "a" + row + "@b.pt", 0L);
+            doReturn("sub-" + row).when(target).createUser(user);
+            usersByRow.put(row, user);
+        }
+        List<DataIssue> issues = target.createUsers(usersByRow);
+
+        assertTrue(issues.isEmpty());
+        for (Map.Entry<Long, SystemUser> entry : usersByRow.entrySet()) {
+            assertEquals("sub-" + entry.getKey(), entry.getValue().getSub());
+        }
+        ManagedExecutorService executorService = Whitebox.getInternalState(target, "executorService");
+        Mockito.verify(executorService, Mockito.times(2)).submit(any(Callable.class));
+    }
+}
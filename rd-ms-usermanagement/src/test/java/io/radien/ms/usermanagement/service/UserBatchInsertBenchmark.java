@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2021-present radien GmbH. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.radien.ms.usermanagement.service;
+
+import io.radien.api.service.batch.BatchSummary;
+import io.radien.api.service.user.UserServiceAccess;
+import io.radien.ms.usermanagement.entities.UserEntity;
+import io.radien.ms.usermanagement.legacy.UserFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.ejb.embeddable.EJBContainer;
+import javax.naming.NamingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the batch mode user creation ({@link UserService#create(List)}) against an in memory database.
+ * Each measured iteration imports one request of 10k users (as done through the batch endpoint), 10 iterations
+ * import 100k users. The score is the time per imported user, for each chunk size (users persisted between flushes).
+ * {@link #main(String[])} adds the GC profiler, which reports the bytes allocated per imported user.
+ * Not executed by surefire, run {@link #main(String[])} from the test classpath.
+ *
+ * @author Nuno Santana
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+public class UserBatchInsertBenchmark {
+
+    private static final int USERS_PER_REQUEST = 10000;
+
+    @Param({"500"})
+    private int chunkSize;
+
+    private EJBContainer container;
+    private UserServiceAccess userServiceAccess;
+    private List<UserEntity> users;
+    private int offset;
+
+    /**
+     * Starts the container with the chunk size under test (outside the measurement)
+     * @throws NamingException in case of the user service lookup fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws NamingException {
+        System.setProperty(UserService.BATCH_CHUNK_SIZE, String.valueOf(chunkSize));
+        Properties p = new Properties();
+        p.put("appframeDatabase", "new://Resource?type=DataSource");
+        p.put("appframeDatabase.JdbcDriver", "org.hsqldb.jdbcDriver");
+        p.put("appframeDatabase.JdbcUrl", "jdbc:hsqldb:mem:radienbenchmark");
+        p.put("appframeDatabase.userName", "sa");
+        p.put("appframeDatabase.password", "");
+        p.put("openejb.exclude-include.order", "include-exclude");
+        p.put("openejb.deployments.classpath.include", ".*(usermanagement|rd-api).*");
+        p.put("openejb.deployments.classpath.exclude", ".*client.*");
+
+        container = EJBContainer.createEJBContainer(p);
+        userServiceAccess = (UserServiceAccess) container.getContext().
+                lookup("java:global/rd-ms-usermanagement//UserService");
+    }
+
+    /**
+     * Creates the users of the next request, with unique fields (outside the measurement)
+     */
+    @Setup(Level.Iteration)
+    public void createUsers() {
+        users = new ArrayList<>(USERS_PER_REQUEST);
+        for (int i = offset; i < offset + USERS_PER_REQUEST; i++) {
+            users.add(UserFactory.create("bench", String.valueOf(i), String.format("bench.%d", i),
+                    String.format("bench-sub-%d", i), String.format("bench.%d@benchmark.pt", i), 1L));
+        }
+        offset += USERS_PER_REQUEST;
+    }
+
+    /**
+     * Closes the container
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        container.close();
+    }
+
+    /**
+     * Imports one request of users
+     * @return the import summary
+     */
+    @Benchmark
+    @OperationsPerInvocation(USERS_PER_REQUEST)
+    public BatchSummary importUsers() {
+        return userServiceAccess.create(users);
+    }
+
+    /**
+     * Runs the benchmark, reporting the allocations per imported user as well.
+     * Other chunk sizes are compared by adding values to the chunkSize parameter (each one runs on its own fork)
+     * @param args not used
+     * @throws RunnerException in case of benchmark failure
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserBatchInsertBenchmark.class.getSimpleName()).
+                addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -17,7 +17,9 @@ package io.radien.ms.usermanagement.service;
 
 import io.radien.api.entity.Page;
 import io.radien.api.model.user.SystemUser;
+import io.radien.api.security.UserIdentityCache;
 import io.radien.api.service.batch.BatchSummary;
+import io.radien.api.service.batch.DataIssue;
 import io.radien.api.service.user.UserServiceAccess;
 import io.radien.exception.UniquenessConstraintException;
 import io.radien.exception.UserNotFoundException;
@@ -32,16 +34,23 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 
 import static org.mockito.ArgumentMatchers.anyList;
 
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.doNothing;
 
@@ -56,6 +65,9 @@ public class UserBusinessServiceTest extends TestCase {
     @Mock
     KeycloakService keycloakService;
 
+    @Spy
+    UserIdentityCache userIdentityCache = new UserIdentityCache();
+
     @Before
     public void setUp(){
         MockitoAnnotations.initMocks(this);
@@ -73,6 +85,11 @@ public class UserBusinessServiceTest extends TestCase {
 
         id = userBusinessService.getUserId("sub2");
         assertNull(id);
+
+        id = userBusinessService.getUserId("sub1");
+        assertEquals(1L, (long) id);
+        verify(userServiceAccess, times(1)).getUserId("sub1");
+        verify(userServiceAccess, times(1)).getUserId("sub2");
     }
 
     @Test
@@ -132,6 +149,73 @@ public class UserBusinessServiceTest extends TestCase {
         assertTrue(success);
     }
 
+    @Test
+    public void testGetOrCreateBySubExistingUser() throws Exception {
+        User user = UserFactory.create("a","b","l","sub-existing","e",1L);
+        user.setId(5L);
+        when(userServiceAccess.getUserId("sub-existing")).thenReturn(5L);
+        when(userServiceAccess.get(5L)).thenReturn(user);
+
+        SystemUser result = userBusinessService.getOrCreateBySub(UserFactory.create("a","b","l","sub-existing","e",1L));
+        assertEquals(user, result);
+        verify(userServiceAccess, times(0)).insert(any());
+    }
+
+    @Test
+    public void testGetOrCreateBySubCreation() throws Exception {
+        User user = UserFactory.create("a","b","l","sub-new","e",1L);
+        when(userServiceAccess.getUserId("sub-new")).thenReturn(null);
+        doAnswer(invocation -> {
+            ((User) invocation.getArgument(0)).setId(6L);
+            return null;
+        }).when(userServiceAccess).insert(user);
+
+        SystemUser result = userBusinessService.getOrCreateBySub(user);
+        assertEquals(Long.valueOf(6L), result.getId());
+        assertEquals(Long.valueOf(6L), userIdentityCache.get("sub-new"));
+        verifyZeroInteractions(keycloakService);
+    }
+
+    @Test
+    public void testGetOrCreateBySubConcurrentCreation() throws Exception {
+        User user = UserFactory.create("a","b","l","sub-concurrent","e",1L);
+        User concurrentUser = UserFactory.create("a","b","l","sub-concurrent","e",1L);
+        concurrentUser.setId(7L);
+        when(userServiceAccess.getUserId("sub-concurrent")).thenReturn(null).thenReturn(7L);
+        doThrow(new UniquenessConstraintException("Subject")).when(userServiceAccess).insert(user);
+        when(userServiceAccess.get(7L)).thenReturn(concurrentUser);
+
+        SystemUser result = userBusinessService.getOrCreateBySub(user);
+        assertEquals(concurrentUser, result);
+    }
+
+    @Test
+    public void testGetOrCreateBySubDuplicatedLogon() throws Exception {
+        User user = UserFactory.create("a","b","l","sub-duplicated","e",1L);
+        when(userServiceAccess.getUserId("sub-duplicated")).thenReturn(null);
+        doThrow(new UniquenessConstraintException("Logon")).when(userServiceAccess).insert(user);
+
+        boolean success = false;
+        try {
+            userBusinessService.getOrCreateBySub(user);
+        } catch (UniquenessConstraintException e) {
+            success = true;
+        }
+        assertTrue(success);
+    }
+
+    @Test
+    public void testGetOrCreateBySubEmptySub() {
+        User user = UserFactory.create("a","b","l","","e",1L);
+        boolean success = false;
+        try {
+            userBusinessService.getOrCreateBySub(user);
+        } catch (Exception e) {
+            success = e instanceof RemoteResourceException;
+        }
+        assertTrue(success);
+    }
+
     @Test
     public void testSaveSkipKeycloak() throws UniquenessConstraintException, UserNotFoundException, RemoteResourceException {
         User user = UserFactory.create("a","b","l",null,"e",1L);
@@ -282,6 +366,55 @@ public class UserBusinessServiceTest extends TestCase {
         assertEquals(batchSummary.getNonProcessedItems().size(), 0);
     }
 
+    /**
+     * Test for method {@link UserBusinessService#create(List)}
+     * Scenario: one row rejected on the insertion, one row created on keycloak and one row that failed on keycloak
+     * Expected outcome: subject stored for the created row, failed row removed and every issue reported per row
+     */
+    @Test
+    public void testCreateBatchWithKeycloakProvisioning() {
+        User rejected = UserFactory.create("a","b","l1",null,"e1",1L);
+        User created = UserFactory.create("a","b","l2",null,"e2",1L);
+        created.setId(2L);
+        User failed = UserFactory.create("a","b","l3",null,"e3",1L);
+        failed.setId(3L);
+        List<User> users = Arrays.asList(rejected, created, failed);
+
+        BatchSummary summary = new BatchSummary(3);
+        summary.addNonProcessedItem(new DataIssue(1L, "duplicated logon"));
+        when(userServiceAccess.create(users)).thenReturn(summary);
+        when(keycloakService.createUsers(any())).thenAnswer(invocation -> {
+            Map<Long, SystemUser> usersByRow = invocation.getArgument(0);
+            assertEquals(2, usersByRow.size());
+            usersByRow.get(2L).setSub("sub-2");
+            return Collections.singletonList(new DataIssue(3L, "Unable to create User in keycloak"));
+        });
+
+        BatchSummary batchSummary = userBusinessService.create(users);
+
+        verify(userServiceAccess).updateSubs(Collections.singletonMap(2L, "sub-2"));
+        verify(userServiceAccess).delete(Collections.singletonList(3L));
+        assertEquals(1, batchSummary.getTotalProcessed());
+        assertEquals(2, batchSummary.getTotalNonProcessed());
+        assertEquals(BatchSummary.ProcessingStatus.PARTIAL_SUCCESS, batchSummary.getInternalStatus());
+    }
+
+    /**
+     * Test for method {@link UserBusinessService#create(List)}
+     * Scenario: every user already has a subject
+     * Expected outcome: keycloak is not requested
+     */
+    @Test
+    public void testCreateBatchWithoutProvisioning() {
+        List<User> users = Collections.singletonList(UserFactory.create("a","b","l","sub","e",1L));
+        when(userServiceAccess.create(users)).thenReturn(new BatchSummary(1));
+
+        BatchSummary batchSummary = userBusinessService.create(users);
+
+        verify(keycloakService, times(0)).createUsers(any());
+        assertEquals(BatchSummary.ProcessingStatus.SUCCESS, batchSummary.getInternalStatus());
+    }
+
     @Test
     public void testSendUpdatePasswordEmail() throws Exception {
         User user = UserFactory.create("first", "last", "logon", "test-sub", "u@email.com", 1L);
@@ -303,6 +436,7 @@ public class UserBusinessServiceTest extends TestCase {
 
         List<SystemUser> listOfUsers = new ArrayList<>();
         listOfUsers.add(user);
+        when(userServiceAccess.create(listOfUsers)).thenReturn(new BatchSummary(1));
 
         boolean success = true;
         try{
@@ -15,10 +15,12 @@
  */
 package io.radien.ms.usermanagement.service;
 
+import io.radien.api.entity.EffectiveAuthorization;
 import io.radien.api.security.TokensPlaceHolder;
 import io.radien.api.service.batch.BatchSummary;
 import io.radien.api.service.batch.DataIssue;
 import io.radien.api.service.role.SystemRolesEnum;
+import io.radien.api.util.EffectiveAuthorizationFactory;
 import io.radien.exception.GenericErrorCodeMessage;
 import io.radien.exception.UniquenessConstraintException;
 import io.radien.exception.UserNotFoundException;
@@ -118,14 +120,10 @@ public class UserResourceTest {
     public void testGetAll() {
         preProcessAuthentication();
 
-        Response expectedAuthGranted = Response.ok().entity(Boolean.TRUE).build();
+        Response expectedAuthGranted = effectiveAuthorizationResponse(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
         doReturn("token-yyz").when(tokensPlaceHolder).getAccessToken();
-        List<String> roleList = new ArrayList<>();
-        roleList.add(SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName());
-        roleList.add(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
 
-        doReturn(expectedAuthGranted).when(tenantRoleClient).checkPermissions(
-                1001L, roleList, null);
+        doReturn(expectedAuthGranted).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
         Response response = userResource.getAll(null,1,10,null,true);
         assertEquals(200,response.getStatus());
@@ -138,14 +136,10 @@ public class UserResourceTest {
     public void testGetAllWithNoAuthorization() {
         preProcessAuthentication();
 
-        Response expectedAuthGranted = Response.ok().entity(Boolean.FALSE).build();
+        Response expectedAuthGranted = effectiveAuthorizationResponse();
         doReturn("token-yyz").when(tokensPlaceHolder).getAccessToken();
-        List<String> roleList = new ArrayList<>();
-        roleList.add(SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName());
-        roleList.add(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
 
-        doReturn(expectedAuthGranted).when(tenantRoleClient).checkPermissions(
-                1001L, roleList, null);
+        doReturn(expectedAuthGranted).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
         Response response = userResource.getAll(null,1,10,null,true);
         assertEquals(403,response.getStatus());
@@ -172,13 +166,9 @@ public class UserResourceTest {
     public void testGetById404() throws UserNotFoundException {
         preProcessAuthentication();
 
-        Response expectedAuthGranted = Response.ok().entity(Boolean.TRUE).build();
-        List<String> roleList = new ArrayList<>();
-        roleList.add(SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName());
-        roleList.add(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
+        Response expectedAuthGranted = effectiveAuthorizationResponse(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
 
-        doReturn(expectedAuthGranted).when(tenantRoleClient).checkPermissions(
-                1001L, roleList, null);
+        doReturn(expectedAuthGranted).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
 
         when(userBusinessService.get(1L)).thenThrow(new UserNotFoundException("1"));
@@ -193,13 +183,9 @@ public class UserResourceTest {
     public void testGetByIdUserWithoutRole() throws UserNotFoundException {
         preProcessAuthentication();
 
-        Response expectedAuthGranted = Response.ok().entity(Boolean.FALSE).build();
-        List<String> roleList = new ArrayList<>();
-        roleList.add(SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName());
-        roleList.add(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
+        Response expectedAuthGranted = effectiveAuthorizationResponse();
 
-        doReturn(expectedAuthGranted).when(tenantRoleClient).checkPermissions(
-                1001L, roleList, null);
+        doReturn(expectedAuthGranted).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
 
         when(userBusinessService.get(1L)).thenThrow(new UserNotFoundException("1"));
@@ -215,13 +201,9 @@ public class UserResourceTest {
     public void testGetById() throws UserNotFoundException {
         preProcessAuthentication();
 
-        Response expectedAuthGranted = Response.ok().entity(Boolean.TRUE).build();
-        List<String> roleList = new ArrayList<>();
-        roleList.add(SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName());
-        roleList.add(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
+        Response expectedAuthGranted = effectiveAuthorizationResponse(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
 
-        doReturn(expectedAuthGranted).when(tenantRoleClient).checkPermissions(
-                1001L, roleList, null);
+        doReturn(expectedAuthGranted).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
 
         when(userBusinessService.get(1L)).thenReturn(new User());
@@ -266,13 +248,9 @@ public class UserResourceTest {
     public void testDelete() {
         preProcessAuthentication();
 
-        Response expectedAuthGranted = Response.ok().entity(Boolean.TRUE).build();
-        List<String> roleList = new ArrayList<>();
-        roleList.add(SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName());
-        roleList.add(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
+        Response expectedAuthGranted = effectiveAuthorizationResponse(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
 
-        doReturn(expectedAuthGranted).when(tenantRoleClient).checkPermissions(
-                1001L, roleList, null);
+        doReturn(expectedAuthGranted).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
         Response response = userResource.delete(1L);
         assertEquals(200,response.getStatus());
@@ -285,13 +263,9 @@ public class UserResourceTest {
     public void testDeleteUserWithoutRole() {
         preProcessAuthentication();
 
-        Response expectedAuthGranted = Response.ok().entity(Boolean.FALSE).build();
-        List<String> roleList = new ArrayList<>();
-        roleList.add(SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName());
-        roleList.add(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
+        Response expectedAuthGranted = effectiveAuthorizationResponse();
 
-        doReturn(expectedAuthGranted).when(tenantRoleClient).checkPermissions(
-                1001L, roleList, null);
+        doReturn(expectedAuthGranted).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
         Response response = userResource.delete(1L);
         assertEquals(403,response.getStatus());
@@ -321,14 +295,10 @@ public class UserResourceTest {
         when(session.getAttribute("USER")).thenReturn(principal);
         doReturn(1001L).when(this.userBusinessService). getUserId(principal.getSub());
 
-        Response expectedAuthGranted = Response.ok().entity(Boolean.TRUE).build();
+        Response expectedAuthGranted = effectiveAuthorizationResponse(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
         doReturn("token-yyz").when(tokensPlaceHolder).getAccessToken();
-        List<String> roleList = new ArrayList<>();
-        roleList.add(SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName());
-        roleList.add(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
 
-        doReturn(expectedAuthGranted).when(tenantRoleClient).checkPermissions(
-                1001L, roleList, null);
+        doReturn(expectedAuthGranted).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
         Response response = userResource.save(new User());
         assertEquals(200,response.getStatus());
@@ -351,14 +321,10 @@ public class UserResourceTest {
         when(session.getAttribute("USER")).thenReturn(loggedUser);
         when(this.userBusinessService.getUserId(loggedUser.getSub())).thenReturn(1001L);
 
-        Response notAuthorizedResponse = Response.ok().entity(Boolean.FALSE).build();
+        Response notAuthorizedResponse = effectiveAuthorizationResponse();
         doReturn("token-yyz").when(tokensPlaceHolder).getAccessToken();
-        List<String> roleList = new ArrayList<>();
-        roleList.add(SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName());
-        roleList.add(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
 
-        doReturn(notAuthorizedResponse).when(tenantRoleClient).checkPermissions(
-                1001L, roleList, null);
+        doReturn(notAuthorizedResponse).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
         Response response = userResource.save(new User());
         assertEquals(403,response.getStatus());
@@ -386,6 +352,76 @@ public class UserResourceTest {
         assertEquals(200,response.getStatus());
     }
 
+    /**
+     * Tests the getOrCreateBySub method when the logged user is retrieving (or registering) himself
+     * @throws Exception in case of any issue retrieving the user
+     */
+    @Test
+    public void testGetOrCreateBySub() throws Exception {
+        Principal principal = new Principal();
+        principal.setSub("aaa-bbb-ccc-ddd");
+        HttpSession session = Mockito.mock(HttpSession.class);
+
+        User user = new User();
+        user.setSub(principal.getSub());
+
+        when(servletRequest.getSession()).thenReturn(session);
+        when(servletRequest.getSession(false)).thenReturn(session);
+        when(session.getAttribute("USER")).thenReturn(principal);
+        when(userBusinessService.getOrCreateBySub(any())).thenReturn(user);
+
+        Response response = userResource.getOrCreateBySub(user);
+        assertEquals(200,response.getStatus());
+        assertEquals(user, response.getEntity());
+    }
+
+    /**
+     * Tests the getOrCreateBySub method by a requester that is neither the user nor has the correct roles
+     */
+    @Test
+    public void testGetOrCreateBySubWithAuthorizationDenied() {
+        Principal loggedUser = new Principal();
+        loggedUser.setSub("aaa-bbb-ccc-ddd");
+        HttpSession session = Mockito.mock(HttpSession.class);
+
+        User user = new User();
+        user.setSub("xxx-yyy-zzz-www");
+
+        when(servletRequest.getSession()).thenReturn(session);
+        when(servletRequest.getSession(false)).thenReturn(session);
+        when(session.getAttribute("USER")).thenReturn(loggedUser);
+        when(this.userBusinessService.getUserId(loggedUser.getSub())).thenReturn(1001L);
+
+        Response notAuthorizedResponse = effectiveAuthorizationResponse();
+        doReturn("token-yyz").when(tokensPlaceHolder).getAccessToken();
+        doReturn(notAuthorizedResponse).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
+
+        Response response = userResource.getOrCreateBySub(user);
+        assertEquals(403,response.getStatus());
+    }
+
+    /**
+     * Tests the getOrCreateBySub method when the user logon or email belongs to another user
+     * @throws Exception in case of any issue retrieving the user
+     */
+    @Test
+    public void testGetOrCreateBySubUniquenessConstraintException() throws Exception {
+        Principal principal = new Principal();
+        principal.setSub("aaa-bbb-ccc-ddd");
+        HttpSession session = Mockito.mock(HttpSession.class);
+
+        User user = new User();
+        user.setSub(principal.getSub());
+
+        when(servletRequest.getSession()).thenReturn(session);
+        when(servletRequest.getSession(false)).thenReturn(session);
+        when(session.getAttribute("USER")).thenReturn(principal);
+        when(userBusinessService.getOrCreateBySub(any())).thenThrow(new UniquenessConstraintException("Logon"));
+
+        Response response = userResource.getOrCreateBySub(user);
+        assertEquals(400,response.getStatus());
+    }
+
     /**
      * Tests Save method to return Remote Resource Exception
      * @throws UserNotFoundException in case of 404 error message
@@ -403,12 +439,9 @@ public class UserResourceTest {
         when(session.getAttribute("USER")).thenReturn(principal);
         doReturn(1001L).when(this.userBusinessService). getUserId(principal.getSub());
 
-        Response expectedAuthGranted = Response.ok().entity(Boolean.TRUE).build();
+        Response expectedAuthGranted = effectiveAuthorizationResponse(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
         doReturn("token-yyz").when(tokensPlaceHolder).getAccessToken();
-        doReturn(expectedAuthGranted).when(tenantRoleClient).isRoleExistentForUser(
-                1001L, SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName(), null);
-        doReturn(expectedAuthGranted).when(tenantRoleClient).isRoleExistentForUser(
-                1001L, SystemRolesEnum.USER_ADMINISTRATOR.getRoleName(), null);
+        doReturn(expectedAuthGranted).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
         doThrow(new RemoteResourceException()).when(userBusinessService).save(any(), anyBoolean());
 
@@ -434,13 +467,9 @@ public class UserResourceTest {
         when(session.getAttribute("USER")).thenReturn(principal);
         when(this.userBusinessService.getUserId(principal.getSub())).thenReturn(1001L);
 
-        Response notAuthorizedResponse = Response.ok().entity(Boolean.TRUE).build();
-        List<String> roleList = new ArrayList<>();
-        roleList.add(SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName());
-        roleList.add(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
+        Response notAuthorizedResponse = effectiveAuthorizationResponse(SystemRolesEnum.USER_ADMINISTRATOR.getRoleName());
 
-        doReturn(notAuthorizedResponse).when(tenantRoleClient).checkPermissions(
-                1001L, roleList, null);
+        doReturn(notAuthorizedResponse).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
         doThrow(new UniquenessConstraintException()).when(userBusinessService).save(any(), anyBoolean());
         Response response = userResource.save(new User());
@@ -643,4 +672,15 @@ public class UserResourceTest {
         when(session.getAttribute("USER")).thenReturn(principal);
         doReturn(1001L).when(this.userBusinessService).getUserId(principal.getSub());
     }
-}
\ No newline at end of file
+
+    /**
+     * Private method that produces the role management answer containing the roles granted to the current user
+     * @param roleNames granted role names
+     * @return response containing the effective authorization (as json)
+     */
+    private Response effectiveAuthorizationResponse(String... roleNames) {
+        EffectiveAuthorization effectiveAuthorization = new EffectiveAuthorization(1001L, null, new long[0],
+                roleNames, new long[0]);
+        return Response.ok(EffectiveAuthorizationFactory.convertToJsonObject(effectiveAuthorization).toString()).build();
+    }
+}
@@ -36,11 +36,18 @@ import org.junit.Test;
 import javax.ejb.embeddable.EJBContainer;
 import javax.naming.Context;
 import javax.naming.NamingException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertNull;
@@ -74,7 +81,7 @@ public class UserServiceTest {
         p.put("appframeDatabase.userName", "sa");
         p.put("appframeDatabase.password", "");
         p.put("openejb.exclude-include.order", "include-exclude");
-        p.put("openejb.deployments.classpath.include",".*usermanagement.*");
+        p.put("openejb.deployments.classpath.include",".*(usermanagement|rd-api).*");
         p.put("openejb.deployments.classpath.exclude",".*client.*");
 
         container = EJBContainer.createEJBContainer(p);
@@ -572,6 +579,31 @@ public class UserServiceTest {
         assertEquals(1,usersById.size());
     }
 
+    /**
+     * Updates the subjects of multiple users.
+     * Tested methods: void updateSubs(Map<Long, String> subsByUserId)
+     *
+     * @throws UniquenessConstraintException in case of requested action is not well constructed
+     * @throws UserNotFoundException in case no user was found after the save in the DB
+     */
+    @Test
+    public void testUpdateSubs() throws UserNotFoundException, UniquenessConstraintException {
+        UserEntity u1 = UserFactory.create("testUpdateSubsFirstName1", "testUpdateSubsLastName1",
+                "testUpdateSubsLogon1", null, "testUpdateSubsEmail1@testUpdateSubsEmail1.pt", 2L);
+        userServiceAccess.save(u1);
+        UserEntity u2 = UserFactory.create("testUpdateSubsFirstName2", "testUpdateSubsLastName2",
+                "testUpdateSubsLogon2", null, "testUpdateSubsEmail2@testUpdateSubsEmail2.pt", 2L);
+        userServiceAccess.save(u2);
+
+        Map<Long, String> subsByUserId = new HashMap<>();
+        subsByUserId.put(u1.getId(), "testUpdateSubsSub1");
+        subsByUserId.put(u2.getId(), "testUpdateSubsSub2");
+        userServiceAccess.updateSubs(subsByUserId);
+
+        assertEquals(u1.getId(), userServiceAccess.getUserId("testUpdateSubsSub1"));
+        assertEquals(u2.getId(), userServiceAccess.getUserId("testUpdateSubsSub2"));
+    }
+
     /**
      * Test to attempt batch creation and all elements are inserted
      */
@@ -675,4 +707,92 @@ public class UserServiceTest {
         assertEquals((firstSetSize + secondSetSize) - 6, page.getTotalResults());
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test to attempt batch creation of several users without subject (i.e. not yet created on the identity
+     * provider). Empty subjects are not duplicates of each other
+     */
+    @Test
+    public void testBatchUsersWithoutSub() {
+        List<UserEntity> users = new ArrayList<>();
+        int size = 5;
+        for (int i=1; i<=size; i++) {
+            users.add(UserFactory.create("usernosub",
+                    String.valueOf(i),
+                    String.format("usernosub.%d", i),
+                    null,
+                    String.format("usernosub.%d@emmail.pt", i),
+                    1L));
+        }
+        BatchSummary batchSummary = userServiceAccess.create(users);
+        assertEquals(size, batchSummary.getTotalProcessed());
+        assertEquals(0, batchSummary.getTotalNonProcessed());
+
+        users.clear();
+        users.add(UserFactory.create("usernosub", "6", "usernosub.6", null, "usernosub.6@emmail.pt", 1L));
+        users.add(UserFactory.create("usernosub", "7", "usernosub.1", null, "usernosub.7@emmail.pt", 1L));
+        batchSummary = userServiceAccess.create(users);
+        assertEquals(1, batchSummary.getTotalProcessed());
+        assertEquals(1, batchSummary.getTotalNonProcessed());
+        DataIssue issue = batchSummary.getNonProcessedItems().iterator().next();
+        assertEquals(2L, issue.getRowId());
+        assertEquals(1, issue.getReasons().size());
+    }
+
+    /**
+     * Insertion of a user with an already existent subject (the case of a concurrent first access).
+     * Expected result: the violation detected by the DB is reported as UniquenessConstraintException
+     * and the (stateful) service is still usable afterwards.
+     * Tested methods: void insert(SystemUser user)
+     */
+    @Test
+    public void testInsertDuplicatedSub() throws UniquenessConstraintException, UserNotFoundException {
+        UserEntity first = UserFactory.create("insert", "first", "insert.first", "insert-duplicated-sub",
+                "insert.first@email.pt", 2L);
+        userServiceAccess.insert(first);
+        assertNotNull(first.getId());
+
+        UserEntity second = UserFactory.create("insert", "second", "insert.second", "insert-duplicated-sub",
+                "insert.second@email.pt", 2L);
+        assertThrows(UniquenessConstraintException.class, () -> userServiceAccess.insert(second));
+
+        assertEquals(first.getId(), userServiceAccess.getUserId("insert-duplicated-sub"));
+        assertEquals("insert.first", userServiceAccess.get(first.getId()).getLogon());
+    }
+
+    /**
+     * Concurrent first accesses of the same subject.
+     * Expected result: every access gets the same user, created only once.
+     * Tested methods: SystemUser getOrCreateBySub(User user)
+     */
+    @Test
+    public void testGetOrCreateBySubConcurrently() throws Exception {
+        UserBusinessService userBusinessService = (UserBusinessService) container.getContext().
+                lookup("java:global/rd-ms-usermanagement//UserBusinessService");
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userBusinessService.getOrCreateBySub(UserFactory.create("concurrent", "access",
+                            "concurrent.access", "concurrent-access-sub", "concurrent.access@email.pt", 2L)).getId();
+                }));
+            }
+            start.countDown();
+            List<Long> ids = new ArrayList<>();
+            for (Future<Long> result : results) {
+                ids.add(result.get(30, TimeUnit.SECONDS));
+            }
+            Long id = userServiceAccess.getUserId("concurrent-access-sub");
+            assertNotNull(id);
+            for (Long resultId : ids) {
+                assertEquals(id, resultId);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -195,6 +195,7 @@ public enum DataModelEnum {
     USER_RD_TENANT_ROLE("rd_user_tenant_roles"),
     USER_RD_TENANT_ROLE_ASSIGNED_SUCCESS("rd_user_tenant_roles_association_assigned_success"),
     USER_RD_TENANT_ROLE_ASSIGNED_ERROR("rd_user_tenant_roles_association_assigned_error"),
+    USER_RD_TENANT_ROLE_NOT_FOUND("rd_user_tenant_roles_association_role_not_found"),
     USER_RD_TENANT_ROLE_UNASSIGNED_SUCCESS("rd_user_tenant_roles_association_unassigned_success"),
     USER_RD_TENANT_ROLE_UNASSIGNED_ERROR("rd_user_tenant_roles_association_unassigned_error"),
     USER_RD_ROOT_TENANT_ROLE_ADMINISTRATOR_ACCESS_ERROR("rd_user_root_tenant_role_administrator_access_error");
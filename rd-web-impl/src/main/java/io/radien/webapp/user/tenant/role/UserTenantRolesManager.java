@@ -17,18 +17,15 @@ package io.radien.webapp.user.tenant.role;
 
 import io.radien.api.model.role.SystemRole;
 import io.radien.api.model.tenant.SystemTenant;
-import io.radien.api.model.tenantrole.SystemTenantRole;
+import io.radien.api.model.tenantrole.TenantRoleUserAssignmentOutcome;
 import io.radien.api.service.tenantrole.TenantRoleRESTServiceAccess;
 import io.radien.api.service.tenantrole.TenantRoleUserRESTServiceAccess;
 import io.radien.exception.SystemException;
-import io.radien.ms.rolemanagement.client.entities.TenantRole;
-import io.radien.ms.rolemanagement.client.entities.TenantRoleUser;
 import io.radien.ms.tenantmanagement.client.entities.Tenant;
 import io.radien.webapp.AbstractManager;
 import io.radien.webapp.DataModelEnum;
 import io.radien.webapp.JSFUtil;
 import io.radien.webapp.user.UserDataModel;
-import io.radien.webapp.util.TenantRoleUtil;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -37,6 +34,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import javax.enterprise.inject.Model;
 import javax.faces.application.FacesMessage;
@@ -60,9 +58,6 @@ public class UserTenantRolesManager extends AbstractManager implements Serializa
     @Inject
     private TenantRoleUserRESTServiceAccess tenantRoleUserRESTServiceAccess;
 
-    @Inject
-    private TenantRoleUtil tenantRoleUtil;
-
     @Inject
     private UserDataModel userDataModel;
 
@@ -167,7 +162,6 @@ public class UserTenantRolesManager extends AbstractManager implements Serializa
     public void assignOrUnassignedRolesToUserTenant() {
         if(assignableUserTenantRoles != null && !assignableUserTenantRoles.isEmpty()) {
             doAssignedRolesForUserTenant();
-            handleMessage(FacesMessage.SEVERITY_INFO, JSFUtil.getMessage(DataModelEnum.USER_RD_TENANT_ROLE_ASSIGNED_SUCCESS.getValue()));
         }
 
         if(unassignedUserTenantRoles != null && !unassignedUserTenantRoles.isEmpty()) {
@@ -177,30 +171,24 @@ public class UserTenantRolesManager extends AbstractManager implements Serializa
     }
 
     /**
-     * This method validates association between
-     * the tenant role and performs action
-     * assign role for the tenant user
+     * This method performs action assign roles for the tenant user
+     * with a single request. Missing tenant role associations are
+     * created by the role management service on the same transaction.
+     * Roles that could not be found (and therefore were not assigned) are reported
      */
     private void doAssignedRolesForUserTenant() {
         try {
-            for(Long systemRoleId : assignableUserTenantRoles) {
-
-                boolean isTenantRoleAssociationExists = tenantRoleRESTServiceAccess.exists(tenant.getId(), systemRoleId);
-
-                boolean isTenantRoleSaved = false;
-                if(!isTenantRoleAssociationExists){
-                    SystemTenantRole tenantRole = new TenantRole();
-                    tenantRole.setTenantId(tenant.getId());
-                    tenantRole.setRoleId(systemRoleId);
-                    isTenantRoleSaved = tenantRoleRESTServiceAccess.save(tenantRole);
-                }
-
-                if(isTenantRoleAssociationExists || isTenantRoleSaved){
-                    TenantRoleUser tenantRoleUser = new TenantRoleUser();
-                    tenantRoleUser.setTenantRoleId(tenantRoleUtil.getTenantRoleId(tenant.getId(), systemRoleId));
-                    tenantRoleUser.setUserId(userDataModel.getSelectedUser().getId());
-                    tenantRoleUserRESTServiceAccess.assignUser(tenantRoleUser);
-                }
+            Map<Long, TenantRoleUserAssignmentOutcome> outcomes = tenantRoleUserRESTServiceAccess.assignUser(
+                    tenant.getId(), assignableUserTenantRoles, userDataModel.getSelectedUser().getId());
+            String rolesNotFound = outcomes.entrySet().stream().
+                    filter(outcome -> outcome.getValue() == TenantRoleUserAssignmentOutcome.ROLE_NOT_FOUND).
+                    map(outcome -> String.valueOf(outcome.getKey())).collect(Collectors.joining(", "));
+            if (rolesNotFound.isEmpty()) {
+                handleMessage(FacesMessage.SEVERITY_INFO,
+                        JSFUtil.getMessage(DataModelEnum.USER_RD_TENANT_ROLE_ASSIGNED_SUCCESS.getValue()));
+            } else {
+                handleMessage(FacesMessage.SEVERITY_WARN,
+                        JSFUtil.getMessage(DataModelEnum.USER_RD_TENANT_ROLE_NOT_FOUND.getValue()), rolesNotFound);
             }
         } catch (Exception e) {
             handleError(e, JSFUtil.getMessage(DataModelEnum.USER_RD_TENANT_ROLE_ASSIGNED_ERROR.getValue()));
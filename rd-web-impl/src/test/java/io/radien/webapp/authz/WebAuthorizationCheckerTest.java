@@ -15,10 +15,11 @@
  */
 package io.radien.webapp.authz;
 
+import io.radien.api.entity.EffectiveAuthorization;
 import io.radien.api.model.user.SystemUser;
 import io.radien.api.security.TokensPlaceHolder;
 import io.radien.api.security.UserSessionEnabled;
-import io.radien.api.service.role.SystemRolesEnum;
+import io.radien.api.util.EffectiveAuthorizationFactory;
 import io.radien.exception.SystemException;
 import io.radien.ms.authz.client.TenantRoleClient;
 import io.radien.ms.authz.client.UserClient;
@@ -139,13 +140,10 @@ public class WebAuthorizationCheckerTest {
         when(this.tokensPlaceHolder.getAccessToken()).thenReturn("142517271828");
         when(this.userSession.getUserId()).thenReturn(userId);
 
-        when(this.tenantRoleClient.isRoleExistentForUser(userId, role1, tenantId)).
-                thenReturn(Response.ok().entity(Boolean.TRUE).build()).
+        when(this.tenantRoleClient.getEffectiveAuthorization(userId, tenantId)).
+                thenReturn(effectiveAuthorizationResponse(role1)).
                 thenThrow(new RuntimeException("test"));
 
-        when(this.tenantRoleClient.isRoleExistentForUser(userId, role2, tenantId)).
-                thenReturn(Response.ok().entity(Boolean.FALSE).build());
-
         assertTrue(this.webAuthorizationChecker.hasGrant(tenantId, role1));
         assertFalse(this.webAuthorizationChecker.hasGrant(tenantId, role1));
         assertFalse(this.webAuthorizationChecker.hasGrant(tenantId, role2));
@@ -168,12 +166,9 @@ public class WebAuthorizationCheckerTest {
         when(servletRequest.getSession(false)).thenReturn(session);
         when(session.getAttribute("USER")).thenReturn(principal);
 
-        Response expectedAuthGranted = Response.ok().entity(Boolean.TRUE).build();
+        Response expectedAuthGranted = effectiveAuthorizationResponse();
         doReturn("token-yyz").when(tokensPlaceHolder).getAccessToken();
-        doReturn(expectedAuthGranted).when(tenantRoleClient).isRoleExistentForUser(
-                1001L, SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName(), null);
-        doReturn(expectedAuthGranted).when(tenantRoleClient).isRoleExistentForUser(
-                1001L, SystemRolesEnum.USER_ADMINISTRATOR.getRoleName(), null);
+        doReturn(expectedAuthGranted).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
         assertFalse(webAuthorizationChecker.hasUserAdministratorRoleAccess());
     }
@@ -195,18 +190,22 @@ public class WebAuthorizationCheckerTest {
         when(servletRequest.getSession(false)).thenReturn(session);
         when(session.getAttribute("USER")).thenReturn(principal);
 
-        Response expectedAuthGranted = Response.ok().entity(Boolean.TRUE).build();
+        Response expectedAuthGranted = effectiveAuthorizationResponse();
         doReturn("token-yyz").when(tokensPlaceHolder).getAccessToken();
 
-        doReturn(expectedAuthGranted).when(tenantRoleClient).isRoleExistentForUser(
-                1001L, SystemRolesEnum.SYSTEM_ADMINISTRATOR.getRoleName(), null);
-        doReturn(expectedAuthGranted).when(tenantRoleClient).isRoleExistentForUser(
-                1001L, SystemRolesEnum.TENANT_ADMINISTRATOR.getRoleName(), null);
-        doReturn(expectedAuthGranted).when(tenantRoleClient).isRoleExistentForUser(
-                1001L, SystemRolesEnum.CLIENT_TENANT_ADMINISTRATOR.getRoleName(), null);
-        doReturn(expectedAuthGranted).when(tenantRoleClient).isRoleExistentForUser(
-                1001L, SystemRolesEnum.SUB_TENANT_ADMINISTRATOR.getRoleName(), null);
+        doReturn(expectedAuthGranted).when(tenantRoleClient).getEffectiveAuthorization(1001L, null);
 
         assertFalse(webAuthorizationChecker.hasTenantAdministratorRoleAccess());
     }
+
+    /**
+     * Produces the role management answer containing the roles granted to the current user
+     * @param roleNames granted role names
+     * @return response containing the effective authorization (as json)
+     */
+    private Response effectiveAuthorizationResponse(String... roleNames) {
+        EffectiveAuthorization effectiveAuthorization = new EffectiveAuthorization(null, null, new long[0],
+                roleNames, new long[0]);
+        return Response.ok(EffectiveAuthorizationFactory.convertToJsonObject(effectiveAuthorization).toString()).build();
+    }
 }
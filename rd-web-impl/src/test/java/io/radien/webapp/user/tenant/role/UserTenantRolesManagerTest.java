@@ -17,13 +17,12 @@ package io.radien.webapp.user.tenant.role;
 
 import io.radien.api.model.role.SystemRole;
 import io.radien.api.model.tenant.SystemTenant;
-import io.radien.api.model.tenantrole.SystemTenantRole;
+import io.radien.api.model.tenantrole.TenantRoleUserAssignmentOutcome;
 import io.radien.api.model.user.SystemUser;
 import io.radien.api.service.tenantrole.TenantRoleRESTServiceAccess;
 import io.radien.api.service.tenantrole.TenantRoleUserRESTServiceAccess;
 import io.radien.exception.SystemException;
 import io.radien.ms.rolemanagement.client.entities.Role;
-import io.radien.ms.rolemanagement.client.entities.TenantRole;
 import io.radien.ms.tenantmanagement.client.entities.Tenant;
 import io.radien.ms.usermanagement.client.entities.User;
 import io.radien.webapp.DataModelEnum;
@@ -34,16 +33,19 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.faces.application.FacesMessage;
 import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
 import javax.faces.event.ValueChangeEvent;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -58,10 +60,13 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 /**
  * Class that aggregates UnitTest cases for UserTenantRolesManager
  *
@@ -259,15 +264,39 @@ public class UserTenantRolesManagerTest extends JSFUtilAndFaceContextMessagesTes
         assertEquals(assignableUserTenantRoles, userTenantRolesManager.getAssignableUserTenantRoles());
         assertEquals(unassignedUserTenantRoles, userTenantRolesManager.getUnassignedUserTenantRoles());
 
-        SystemTenantRole systemTenantRole = new TenantRole();
-        systemTenantRole.setTenantId(1L);
-        systemTenantRole.setRoleId(1L);
-
-        doReturn(true).when(tenantRoleRESTServiceAccess).save(any());
-        doReturn(true).when(tenantRoleUserRESTServiceAccess).assignUser(any());
+        doReturn(new HashMap<>()).when(tenantRoleUserRESTServiceAccess).assignUser(anyLong(), anyCollection(), anyLong());
         doReturn(Boolean.TRUE).when(tenantRoleUserRESTServiceAccess).unAssignUser(anyLong(), anyCollection(), anyLong());
 
         userTenantRolesManager.assignOrUnassignedRolesToUserTenant();
+        verify(tenantRoleUserRESTServiceAccess).assignUser(systemTenant.getId(), assignableUserTenantRoles, 1L);
+        verify(tenantRoleRESTServiceAccess, never()).save(any());
+    }
+
+    /**
+     * Test method assignOrUnassignedRolesToUserTenant()
+     * Scenario: some of the roles could not be found by the role management service
+     * Asserts a warning message reporting the roles that were not assigned (and no success message)
+     * @throws SystemException if any error
+     */
+    @Test
+    public void testAssignRolesToUserTenantRoleNotFound() throws SystemException {
+        FacesContext facesContext = getFacesContext();
+        Long assignedRoleId = systemRoles.get(0).getId();
+        Long missingRoleId = systemRoles.get(1).getId();
+        Map<Long, TenantRoleUserAssignmentOutcome> outcomes = new LinkedHashMap<>();
+        outcomes.put(assignedRoleId, TenantRoleUserAssignmentOutcome.ASSIGNED);
+        outcomes.put(missingRoleId, TenantRoleUserAssignmentOutcome.ROLE_NOT_FOUND);
+
+        userTenantRolesManager.setAssignableUserTenantRoles(assignableUserTenantRoles);
+        doReturn(outcomes).when(tenantRoleUserRESTServiceAccess).assignUser(anyLong(), anyCollection(), anyLong());
+
+        userTenantRolesManager.assignOrUnassignedRolesToUserTenant();
+
+        ArgumentCaptor<FacesMessage> facesMessageCaptor = ArgumentCaptor.forClass(FacesMessage.class);
+        verify(facesContext).addMessage(nullable(String.class), facesMessageCaptor.capture());
+        FacesMessage captured = facesMessageCaptor.getValue();
+        assertEquals(FacesMessage.SEVERITY_WARN, captured.getSeverity());
+        assertEquals(DataModelEnum.USER_RD_TENANT_ROLE_NOT_FOUND.getValue(), captured.getSummary());
     }
 
     /**
@@ -283,12 +312,7 @@ public class UserTenantRolesManagerTest extends JSFUtilAndFaceContextMessagesTes
         assertEquals(assignableUserTenantRoles, userTenantRolesManager.getAssignableUserTenantRoles());
         assertEquals(unassignedUserTenantRoles, userTenantRolesManager.getUnassignedUserTenantRoles());
 
-        SystemTenantRole systemTenantRole = new TenantRole();
-        systemTenantRole.setTenantId(1L);
-        systemTenantRole.setRoleId(1L);
-
-        doReturn(true).when(tenantRoleRESTServiceAccess).save(any());
-        doThrow(RuntimeException.class).when(tenantRoleUserRESTServiceAccess).assignUser(any());
+        doThrow(RuntimeException.class).when(tenantRoleUserRESTServiceAccess).assignUser(anyLong(), anyCollection(), anyLong());
         doThrow(RuntimeException.class).when(tenantRoleUserRESTServiceAccess).unAssignUser(anyLong(), anyCollection(), anyLong());
 
         userTenantRolesManager.assignOrUnassignedRolesToUserTenant();